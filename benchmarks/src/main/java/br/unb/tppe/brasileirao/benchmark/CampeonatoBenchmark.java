@@ -0,0 +1,111 @@
+package br.unb.tppe.brasileirao.benchmark;
+
+import br.unb.tppe.brasileirao.Campeonato;
+import br.unb.tppe.brasileirao.Rodada;
+import br.unb.tppe.brasileirao.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das operações do {@link Campeonato}: geração da tabela
+ * round-robin (construtor), sorteio de rodadas, classificação e
+ * verificação de duplicidade de confrontos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CampeonatoBenchmark {
+
+    /** Rodadas jogadas antes de medir classificação e duplicidade. */
+    static final int RODADAS_JOGADAS = 10;
+
+    @State(Scope.Benchmark)
+    public static class Liga {
+        @Param({"20", "200", "2000", "20000"})
+        public int numeroTimes;
+
+        public List<Time> times;
+
+        @Setup(Level.Trial)
+        public void criarTimes() {
+            times = Ligas.criarTimes(numeroTimes);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LigaEmAndamento {
+        @Param({"20", "200", "2000", "20000"})
+        public int numeroTimes;
+
+        public Campeonato campeonato;
+
+        @Setup(Level.Trial)
+        public void jogar() {
+            campeonato = new Campeonato(Ligas.criarTimes(numeroTimes));
+            Ligas.jogarRodadas(campeonato, Math.min(RODADAS_JOGADAS, numeroTimes - 1), 42L);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LigaNova {
+        @Param({"20", "200", "2000", "20000"})
+        public int numeroTimes;
+
+        public Campeonato campeonato;
+
+        @Setup(Level.Invocation)
+        public void criar() {
+            campeonato = new Campeonato(Ligas.criarTimes(numeroTimes));
+        }
+    }
+
+    /**
+     * Mede a construção do campeonato, dominada por gerarTabelaRoundRobin.
+     */
+    @Benchmark
+    public Campeonato gerarTabelaRoundRobin(Liga liga) {
+        return new Campeonato(liga.times);
+    }
+
+    /**
+     * Mede o sorteio de um turno completo (n - 1 rodadas) num campeonato novo.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void sortearRodada(LigaNova liga, Blackhole bh) {
+        Campeonato campeonato = liga.campeonato;
+        for (int i = 1; i < liga.numeroTimes; i++) {
+            Rodada rodada = campeonato.sortearRodada();
+            bh.consume(rodada);
+        }
+    }
+
+    @Benchmark
+    public List<Time> getClassificacao(LigaEmAndamento liga) {
+        return liga.campeonato.getClassificacao();
+    }
+
+    @Benchmark
+    public boolean semDuplicidadeConfrontos(LigaEmAndamento liga) {
+        return liga.campeonato.semDuplicidadeConfrontos();
+    }
+}
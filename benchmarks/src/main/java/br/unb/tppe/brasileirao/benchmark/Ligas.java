@@ -0,0 +1,46 @@
+package br.unb.tppe.brasileirao.benchmark;
+
+import br.unb.tppe.brasileirao.Campeonato;
+import br.unb.tppe.brasileirao.Partida;
+import br.unb.tppe.brasileirao.RegistroTimes;
+import br.unb.tppe.brasileirao.Rodada;
+import br.unb.tppe.brasileirao.Time;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Utilitários para montar ligas sintéticas usadas pelos benchmarks.
+ */
+final class Ligas {
+
+    private Ligas() {
+    }
+
+    /**
+     * Cria uma lista com a quantidade pedida de times ("Time 0", "Time 1", ...),
+     * registrados em um registro novo.
+     */
+    static List<Time> criarTimes(int quantidade) {
+        RegistroTimes registro = new RegistroTimes();
+        List<Time> times = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            times.add(new Time("Time " + i, registro));
+        }
+        return times;
+    }
+
+    /**
+     * Sorteia rodadas e registra resultados pseudoaleatórios (semente fixa).
+     */
+    static void jogarRodadas(Campeonato campeonato, int numeroRodadas, long semente) {
+        Random random = new Random(semente);
+        for (int i = 0; i < numeroRodadas; i++) {
+            Rodada rodada = campeonato.sortearRodada();
+            for (Partida partida : rodada.getPartidas()) {
+                partida.registrarResultado(random.nextInt(5), random.nextInt(4));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.unb.tppe.brasileirao.benchmark;
+
+import br.unb.tppe.brasileirao.Partida;
+import br.unb.tppe.brasileirao.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de {@link Partida#registrarResultado(int, int)}.
+ *
+ * Cada invocação registra o resultado de uma partida entre um par de times
+ * diferente da liga, percorrendo todos os times em sequência.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PartidaBenchmark {
+
+    @Param({"20", "200", "2000", "20000"})
+    public int numeroTimes;
+
+    private List<Time> times;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void criarTimes() {
+        times = Ligas.criarTimes(numeroTimes);
+        proximo = 0;
+    }
+
+    @Benchmark
+    public Partida registrarResultado() {
+        int mandante = proximo;
+        int visitante = mandante + 1 == numeroTimes ? 0 : mandante + 1;
+        proximo = visitante;
+
+        Partida partida = new Partida(times.get(mandante), times.get(visitante));
+        partida.registrarResultado(mandante % 4, visitante % 3);
+        return partida;
+    }
+}
@@ -0,0 +1,72 @@
+package br.unb.tppe.brasileirao.benchmark;
+
+import br.unb.tppe.brasileirao.Partida;
+import br.unb.tppe.brasileirao.Rodada;
+import br.unb.tppe.brasileirao.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos validadores de {@link Rodada}.
+ *
+ * A rodada é montada diretamente (time 2i contra time 2i + 1), sem passar
+ * pelo Campeonato, para isolar o custo das verificações.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RodadaBenchmark {
+
+    @Param({"20", "200", "2000", "20000"})
+    public int numeroTimes;
+
+    private List<Time> times;
+    private Rodada rodada;
+    private Time ultimoTime;
+
+    @Setup(Level.Trial)
+    public void montarRodada() {
+        times = Ligas.criarTimes(numeroTimes);
+        rodada = new Rodada(1);
+        for (int i = 0; i < numeroTimes; i += 2) {
+            rodada.adicionarPartida(new Partida(times.get(i), times.get(i + 1)));
+        }
+        ultimoTime = times.get(numeroTimes - 1);
+    }
+
+    @Benchmark
+    public boolean contemTime() {
+        return rodada.contemTime(ultimoTime);
+    }
+
+    @Benchmark
+    public int contarAparicoes() {
+        return rodada.contarAparicoes(ultimoTime);
+    }
+
+    @Benchmark
+    public boolean todosTimes() {
+        return rodada.todosTimes(times);
+    }
+
+    @Benchmark
+    public boolean temRepeticaoTimes() {
+        return rodada.temRepeticaoTimes();
+    }
+}
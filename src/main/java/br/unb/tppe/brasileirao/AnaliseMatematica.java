@@ -0,0 +1,297 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decide o que já está "matematicamente" definido no campeonato: título, vagas e
+ * rebaixamento, a partir dos pontos atuais e das partidas que faltam na tabela.
+ *
+ * Com vitória valendo 3 e empate 1, decidir exatamente se um time ainda alcança uma
+ * posição é NP-completo, então a análise usa limites que nunca erram para o lado
+ * errado: um time só é dado como eliminado (ou garantido) quando isso vale para
+ * qualquer combinação de resultados, mas em casos raros a confirmação pode vir uma
+ * rodada depois do mínimo possível. Os critérios de desempate são ignorados: empate
+ * em pontos conta a favor do time para "ainda pode" e contra ele para "garantido".
+ *
+ * Os dois testes são certificados de corte, como no problema de fluxo clássico da
+ * eliminação: um grupo de adversários cujos jogos entre si distribuem mais pontos do que
+ * eles podem receber (pelo menos 2 por jogo, que é o que um empate distribui), ou que
+ * precisam de mais pontos do que seus jogos podem render (no máximo 3 por jogo entre
+ * eles). Cada consulta custa O(n² log n); uma tabela de 20 times é analisada inteira em
+ * menos de um milissegundo.
+ */
+public class AnaliseMatematica {
+    private final List<Time> times;
+    private final int numTimes;
+    private final IndiceTimes indice;
+    private final int[] pontos;
+    private final int[] restantes;
+    /** jogos[a * n + b]: partidas que faltam entre a e b, nos dois mandos. */
+    private final int[] jogos;
+
+    public AnaliseMatematica(Campeonato campeonato) {
+        this.times = campeonato.getTimes();
+        this.numTimes = times.size();
+        this.pontos = new int[numTimes];
+        this.restantes = new int[numTimes];
+        this.jogos = new int[numTimes * numTimes];
+
+        this.indice = new IndiceTimes(times);
+        int[] leitura = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        for (int i = 0; i < numTimes; i++) {
+            times.get(i).getEstatisticas().lerConsistente(leitura);
+            pontos[i] = leitura[EstatisticasColunares.PONTOS];
+        }
+        for (int[] partida : SimuladorTemporada.partidasRestantes(campeonato)) {
+            jogos[partida[0] * numTimes + partida[1]]++;
+            jogos[partida[1] * numTimes + partida[0]]++;
+            restantes[partida[0]]++;
+            restantes[partida[1]]++;
+        }
+    }
+
+    /**
+     * Maior pontuação que o time ainda pode alcançar.
+     */
+    public int getPontuacaoMaxima(Time time) {
+        int i = indiceDe(time);
+        return pontos[i] + 3 * restantes[i];
+    }
+
+    /**
+     * Indica se o time ainda pode terminar entre os {@code posicao} primeiros.
+     * Falso quando isso já é matematicamente impossível.
+     */
+    public boolean podeTerminarAte(Time time, int posicao) {
+        int i = indiceDe(time);
+        validarPosicao(posicao);
+        // Cenário mais favorável: o time vence todos os seus jogos
+        int maximo = pontos[i] + 3 * restantes[i];
+
+        // Adversários que já passaram do máximo ficam à frente de qualquer jeito
+        int[] candidatos = new int[numTimes];
+        int numCandidatos = 0;
+        int aFrente = 0;
+        for (int j = 0; j < numTimes; j++) {
+            if (j == i) {
+                continue;
+            }
+            if (pontos[j] > maximo) {
+                aFrente++;
+            } else {
+                candidatos[numCandidatos++] = j;
+            }
+        }
+        if (aFrente >= posicao) {
+            return false;
+        }
+        int liberados = posicao - 1 - aFrente;
+
+        // Folga de cada candidato: quantos pontos ele pode somar sem passar o time
+        int[] folga = new int[numTimes];
+        for (int c = 0; c < numCandidatos; c++) {
+            folga[candidatos[c]] = maximo - pontos[candidatos[c]];
+        }
+        ordenarPor(candidatos, numCandidatos, folga);
+
+        // Grupos com as menores folgas: os jogos entre eles distribuem pelo menos 2 pontos
+        // cada; se isso passar da soma das folgas mesmo liberando os candidatos que mais
+        // aliviam o grupo, o time não alcança a posição
+        return !cortePorGrupos(candidatos, numCandidatos, folga, 2, liberados);
+    }
+
+    /**
+     * Indica se o time já tem garantida uma posição entre os {@code posicao} primeiros,
+     * qualquer que seja o resultado das partidas restantes.
+     */
+    public boolean garantidoAte(Time time, int posicao) {
+        int i = indiceDe(time);
+        validarPosicao(posicao);
+        if (posicao >= numTimes) {
+            return true;
+        }
+        // Cenário mais desfavorável: o time perde todos os seus jogos
+        int minimo = pontos[i];
+
+        int[] candidatos = new int[numTimes];
+        int numCandidatos = 0;
+        int alcancaram = 0;
+        int[] necessario = new int[numTimes];
+        for (int j = 0; j < numTimes; j++) {
+            if (j == i) {
+                continue;
+            }
+            if (pontos[j] >= minimo) {
+                alcancaram++;
+            } else if (pontos[j] + 3 * restantes[j] >= minimo) {
+                necessario[j] = minimo - pontos[j];
+                candidatos[numCandidatos++] = j;
+            }
+        }
+        int faltam = posicao - alcancaram;
+        if (faltam <= 0) {
+            return false;
+        }
+        if (numCandidatos < faltam) {
+            return true;
+        }
+
+        // Para "faltam" candidatos alcançarem o time juntos, os pontos que seus jogos
+        // rendem (no máximo 3 por jogo, inclusive nos jogos entre eles) precisam cobrir o que
+        // falta a cada um. Cada candidato joga contra pelo menos L outros do grupo, onde L
+        // desconta os jogos contra os candidatos que ficariam de fora.
+        int[] valor = new int[numCandidatos];
+        int deFora = numCandidatos - faltam;
+        for (int c = 0; c < numCandidatos; c++) {
+            int j = candidatos[c];
+            int[] contraCandidatos = new int[numCandidatos - 1];
+            int total = 0;
+            int k = 0;
+            for (int d = 0; d < numCandidatos; d++) {
+                if (d != c) {
+                    contraCandidatos[k] = jogos[j * numTimes + candidatos[d]];
+                    total += contraCandidatos[k++];
+                }
+            }
+            Arrays.sort(contraCandidatos);
+            for (int d = 0; d < deFora; d++) {
+                total -= contraCandidatos[contraCandidatos.length - 1 - d];
+            }
+            // Valor em meios pontos para manter tudo inteiro: 2 * folga - 3 * jogos internos
+            valor[c] = 2 * (3 * restantes[j] - necessario[j]) - 3 * total;
+        }
+        Arrays.sort(valor);
+        long soma = 0;
+        for (int c = 0; c < faltam; c++) {
+            soma += valor[numCandidatos - 1 - c];
+        }
+        return soma < 0;
+    }
+
+    public boolean isCampeao(Time time) {
+        return garantidoAte(time, 1);
+    }
+
+    public boolean podeSerCampeao(Time time) {
+        return podeTerminarAte(time, 1);
+    }
+
+    /**
+     * Indica se o time já garantiu uma das {@code vagas} primeiras posições
+     * (por exemplo, 4 para a fase de grupos da Libertadores).
+     */
+    public boolean isClassificado(Time time, int vagas) {
+        return garantidoAte(time, vagas);
+    }
+
+    /**
+     * Indica se o time já está matematicamente entre os {@code vagas} últimos.
+     */
+    public boolean isRebaixado(Time time, int vagas) {
+        return !podeTerminarAte(time, numTimes - vagas);
+    }
+
+    /**
+     * Indica se o time já não pode mais terminar entre os {@code vagas} últimos.
+     */
+    public boolean isLivreDoRebaixamento(Time time, int vagas) {
+        return garantidoAte(time, numTimes - vagas);
+    }
+
+    /**
+     * Número mágico: quantos pontos o time ainda precisa somar para garantir uma posição
+     * entre os {@code posicao} primeiros mesmo que os adversários vençam todos os jogos que
+     * lhes restam. Zero se a posição já está garantida e -1 se os pontos que o time ainda
+     * disputa não bastam (ele depende de tropeços dos adversários).
+     */
+    public int getNumeroMagico(Time time, int posicao) {
+        int i = indiceDe(time);
+        validarPosicao(posicao);
+        if (garantidoAte(time, posicao)) {
+            return 0;
+        }
+        int[] maximos = new int[numTimes - 1];
+        int k = 0;
+        for (int j = 0; j < numTimes; j++) {
+            if (j != i) {
+                maximos[k++] = pontos[j] + 3 * restantes[j];
+            }
+        }
+        Arrays.sort(maximos);
+        // Precisa passar o maior máximo de ordem "posicao" entre os adversários
+        int alvo = maximos[maximos.length - posicao] + 1;
+        int magico = Math.max(0, alvo - pontos[i]);
+        return magico <= 3 * restantes[i] ? magico : -1;
+    }
+
+    /**
+     * Procura, entre os grupos formados pelos primeiros candidatos da ordem dada, um em
+     * que os jogos internos distribuem mais pontos (pelo menos {@code pontosPorJogo} cada)
+     * do que a soma das folgas, mesmo liberando os {@code liberados} membros que mais
+     * aliviariam o grupo.
+     */
+    private boolean cortePorGrupos(int[] candidatos, int numCandidatos, int[] folga,
+                                   int pontosPorJogo, int liberados) {
+        int[] jogosNoGrupo = new int[numTimes];
+        long pontosInternos = 0;
+        long somaFolgas = 0;
+        int[] alivio = new int[numCandidatos];
+        for (int tamanho = 1; tamanho <= numCandidatos; tamanho++) {
+            int novo = candidatos[tamanho - 1];
+            for (int c = 0; c < tamanho - 1; c++) {
+                int outro = candidatos[c];
+                int entre = jogos[novo * numTimes + outro];
+                jogosNoGrupo[outro] += entre;
+                jogosNoGrupo[novo] += entre;
+                pontosInternos += (long) pontosPorJogo * entre;
+            }
+            somaFolgas += folga[novo];
+            if (pontosInternos <= somaFolgas) {
+                continue;
+            }
+            // Liberar um membro tira do grupo os jogos dele e a folga dele
+            for (int c = 0; c < tamanho; c++) {
+                int j = candidatos[c];
+                alivio[c] = pontosPorJogo * jogosNoGrupo[j] - folga[j];
+            }
+            Arrays.sort(alivio, 0, tamanho);
+            long excesso = pontosInternos - somaFolgas;
+            for (int c = 0; c < liberados && c < tamanho && alivio[tamanho - 1 - c] > 0; c++) {
+                excesso -= alivio[tamanho - 1 - c];
+            }
+            if (excesso > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ordena os primeiros {@code quantidade} índices pelo valor associado, do menor ao maior.
+     */
+    private static void ordenarPor(int[] indices, int quantidade, int[] valores) {
+        Integer[] ordem = new Integer[quantidade];
+        for (int c = 0; c < quantidade; c++) {
+            ordem[c] = indices[c];
+        }
+        Arrays.sort(ordem, (a, b) -> Integer.compare(valores[a], valores[b]));
+        for (int c = 0; c < quantidade; c++) {
+            indices[c] = ordem[c];
+        }
+    }
+
+    private void validarPosicao(int posicao) {
+        if (posicao < 1 || posicao > numTimes) {
+            throw new IllegalArgumentException("Posição inválida: " + posicao);
+        }
+    }
+
+    private int indiceDe(Time time) {
+        int i = indice.indiceDe(time);
+        if (i < 0) {
+            throw new IllegalArgumentException("Time fora do campeonato: " + time.getNome());
+        }
+        return i;
+    }
+}
@@ -0,0 +1,343 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instantâneo binário, de layout fixo, do estado completo de um campeonato:
+ * times, tabela de jogos, rodadas sorteadas com seus resultados e estatísticas.
+ *
+ * O arquivo é lido por mapeamento em memória. As estatísticas ficam em colunas
+ * (uma por estatística, na ordem dos times), copiadas em bloco para um
+ * {@link EstatisticasColunares}; as partidas são registros de 5 ints.
+ *
+ * Os nomes gravados são os do {@link RegistroTimes} do campeonato, na ordem dos ids,
+ * e cada time guarda o seu id; ao carregar, o registro é refeito com os mesmos ids.
+ * Se o campeonato grava um {@link LogEventos}, o cabeçalho guarda quantos eventos o
+ * log tinha, e {@link #carregar(Path, Path)} reproduz só os que vieram depois.
+ *
+ * Layout (ints big-endian):
+ * <pre>
+ * cabeçalho   : mágico, versão, times, rodadas, partidas, início dos nomes,
+ *               início das estatísticas, início das partidas, tipo da tabela,
+ *               rodadas da tabela, nomes do registro, início dos ids,
+ *               eventos do log (long; -1 sem log)
+ * nomes       : nomes do registro x (início, comprimento) seguido dos bytes UTF-8
+ * ids         : times x id no registro
+ * estatísticas: 6 colunas x times
+ * partidas    : partidas x (rodada, mandante, visitante, gols mandante, gols visitante)
+ * tabela      : rodadas da tabela x jogos por rodada x (mandante, visitante),
+ *               só para {@link #TABELA_EXPLICITA}
+ * </pre>
+ * Mandante e visitante são índices na lista de times; gols -1 indicam partida não realizada.
+ * A tabela do método do círculo não é gravada: ela é recalculada a partir dos times.
+ */
+public class ArquivoInstantaneo {
+    static final int NUMERO_MAGICO = 0x4252534E; // "BRSN"
+    static final int VERSAO = 3;
+    static final int TABELA_CIRCULO = 0;
+    static final int TABELA_EXPLICITA = 1;
+    static final long SEM_LOG = -1;
+    private static final int TAMANHO_CABECALHO = 14 * 4;
+    private static final int POSICAO_EVENTOS_LOG = 12 * 4;
+    private static final int INTS_POR_PARTIDA = 5;
+    private static final int NAO_REALIZADA = -1;
+
+    private ArquivoInstantaneo() {
+    }
+
+    /**
+     * Grava a versão atual do campeonato no arquivo, substituindo o conteúdo anterior.
+     *
+     * Se o campeonato grava um {@link LogEventos}, o log é sincronizado e o número de
+     * eventos dele vai para o cabeçalho. Para que esse número corresponda à versão
+     * gravada, nenhum resultado deve ser registrado enquanto o instantâneo é salvo
+     * (por exemplo, salve entre as rodadas).
+     */
+    public static void salvar(Campeonato campeonato, Path arquivo) throws IOException {
+        VersaoCampeonato versao = campeonato.getVersao();
+        long eventosLog = SEM_LOG;
+        if (campeonato.getLog() != null) {
+            campeonato.getLog().sincronizar();
+            eventosLog = campeonato.getLog().getNumeroEventos();
+        }
+        List<Time> times = versao.getTimes();
+        List<Rodada> rodadas = versao.getRodadas();
+        int numTimes = times.size();
+
+        RegistroTimes registro = campeonato.getRegistro();
+        int numNomes = registro.getQuantidade();
+        byte[][] nomes = new byte[numNomes][];
+        int bytesNomes = 0;
+        for (int id = 0; id < numNomes; id++) {
+            nomes[id] = registro.buscarNome(id).getBytes(StandardCharsets.UTF_8);
+            bytesNomes += nomes[id].length;
+        }
+        int numPartidas = 0;
+        for (Rodada rodada : rodadas) {
+            numPartidas += rodada.getPartidas().size();
+        }
+        TabelaJogos tabela = campeonato.getTabela();
+        int tipoTabela = tabela instanceof TabelaRoundRobin ? TABELA_CIRCULO : TABELA_EXPLICITA;
+        int jogosTabela = tipoTabela == TABELA_EXPLICITA
+                          ? tabela.getNumeroRodadas() * tabela.getPartidasPorRodada() : 0;
+
+        int inicioNomes = TAMANHO_CABECALHO;
+        int inicioIds = alinhar(inicioNomes + numNomes * 8 + bytesNomes);
+        int inicioEstatisticas = inicioIds + numTimes * 4;
+        int inicioPartidas = inicioEstatisticas + EstatisticasColunares.NUMERO_ESTATISTICAS * numTimes * 4;
+        int inicioTabela = inicioPartidas + numPartidas * INTS_POR_PARTIDA * 4;
+        int tamanho = inicioTabela + jogosTabela * 2 * 4;
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        buffer.putInt(NUMERO_MAGICO).putInt(VERSAO).putInt(numTimes).putInt(rodadas.size())
+              .putInt(numPartidas).putInt(inicioNomes).putInt(inicioEstatisticas).putInt(inicioPartidas)
+              .putInt(tipoTabela).putInt(tabela.getNumeroRodadas()).putInt(numNomes).putInt(inicioIds)
+              .putLong(eventosLog);
+
+        int posicaoBytes = inicioNomes + numNomes * 8;
+        for (byte[] nome : nomes) {
+            buffer.putInt(posicaoBytes).putInt(nome.length);
+            posicaoBytes += nome.length;
+        }
+        for (byte[] nome : nomes) {
+            buffer.put(nome);
+        }
+
+        buffer.position(inicioIds);
+        for (Time time : times) {
+            buffer.putInt(time.getId());
+        }
+
+        buffer.position(inicioEstatisticas);
+        escreverEstatisticas(versao, buffer.asIntBuffer());
+
+        buffer.position(inicioPartidas);
+        for (Rodada rodada : rodadas) {
+            for (Partida partida : rodada.getPartidas()) {
+                boolean realizada = versao.isRealizada(partida);
+                buffer.putInt(rodada.getNumero())
+                      .putInt(partida.getMandante().getIndice())
+                      .putInt(partida.getVisitante().getIndice())
+                      .putInt(realizada ? versao.getGolsMandante(partida) : NAO_REALIZADA)
+                      .putInt(realizada ? versao.getGolsVisitante(partida) : NAO_REALIZADA);
+            }
+        }
+        if (tipoTabela == TABELA_EXPLICITA) {
+            for (int rodada = 0; rodada < tabela.getNumeroRodadas(); rodada++) {
+                for (int jogo = 0; jogo < tabela.getPartidasPorRodada(); jogo++) {
+                    buffer.putInt(tabela.getMandante(rodada, jogo)).putInt(tabela.getVisitante(rodada, jogo));
+                }
+            }
+        }
+
+        buffer.rewind();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+    }
+
+    private static int alinhar(int posicao) {
+        return (posicao + 3) & ~3;
+    }
+
+    /**
+     * Escreve as estatísticas da versão em colunas, na ordem de {@link EstatisticasColunares}.
+     */
+    private static void escreverEstatisticas(VersaoCampeonato versao, IntBuffer destino) {
+        List<Time> times = versao.getTimes();
+        for (Time time : times) {
+            destino.put(versao.getPontos(time));
+        }
+        for (Time time : times) {
+            destino.put(versao.getVitorias(time));
+        }
+        for (Time time : times) {
+            destino.put(versao.getEmpates(time));
+        }
+        for (Time time : times) {
+            destino.put(versao.getDerrotas(time));
+        }
+        for (Time time : times) {
+            destino.put(versao.getGolsMarcados(time));
+        }
+        for (Time time : times) {
+            destino.put(versao.getGolsSofridos(time));
+        }
+    }
+
+    /**
+     * Recria o campeonato a partir do arquivo, com a mesma tabela de jogos e os times
+     * com os mesmos ids, num registro novo. As estatísticas ficam em um
+     * {@link EstatisticasColunares} preenchido diretamente das colunas mapeadas.
+     */
+    public static Campeonato carregar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            IntBuffer cabecalho = mapa.asIntBuffer();
+            if (canal.size() < TAMANHO_CABECALHO || cabecalho.get(0) != NUMERO_MAGICO
+                    || cabecalho.get(1) != VERSAO) {
+                throw new IOException("Arquivo não é um instantâneo válido");
+            }
+            int numTimes = cabecalho.get(2);
+            int numRodadas = cabecalho.get(3);
+            int numPartidas = cabecalho.get(4);
+            int inicioNomes = cabecalho.get(5);
+            int inicioEstatisticas = cabecalho.get(6);
+            int inicioPartidas = cabecalho.get(7);
+            int tipoTabela = cabecalho.get(8);
+
+            RegistroTimes registro = lerRegistro(mapa, inicioNomes, cabecalho.get(10));
+            List<Time> times = lerTimes(mapa, cabecalho.get(11), numTimes, registro);
+            TabelaJogos tabela = null;
+            if (tipoTabela == TABELA_EXPLICITA) {
+                mapa.position(inicioPartidas + numPartidas * INTS_POR_PARTIDA * 4);
+                tabela = lerTabela(mapa.asIntBuffer(), times, cabecalho.get(9));
+            } else if (tipoTabela != TABELA_CIRCULO) {
+                throw new IOException("Tipo de tabela desconhecido: " + tipoTabela);
+            }
+            EstatisticasColunares colunas = new EstatisticasColunares(numTimes);
+            Campeonato campeonato = new Campeonato(times, colunas, tabela);
+
+            mapa.position(inicioEstatisticas);
+            colunas.importarColunas(mapa.asIntBuffer(), numTimes);
+
+            mapa.position(inicioPartidas);
+            lerRodadas(mapa.asIntBuffer(), campeonato, times, numRodadas, numPartidas);
+            // Só agora o confronto direto está completo para desempatar
+            campeonato.reordenarClassificacao();
+            return campeonato;
+        }
+    }
+
+    /**
+     * Recria o campeonato do instantâneo e reproduz os eventos que o log recebeu depois
+     * dele. O instantâneo precisa ter sido salvo de um campeonato que gravava esse log.
+     */
+    public static Campeonato carregar(Path arquivo, Path log) throws IOException {
+        Campeonato campeonato = carregar(arquivo);
+        long eventosLog;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            eventosLog = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANHO_CABECALHO).getLong(POSICAO_EVENTOS_LOG);
+        }
+        if (eventosLog == SEM_LOG) {
+            throw new IOException("O instantâneo não registra a posição de um log de eventos");
+        }
+        LogEventos.reproduzir(log, campeonato, eventosLog);
+        return campeonato;
+    }
+
+    /**
+     * Registra os nomes na ordem dos ids, de modo que cada um recebe o id que tinha.
+     */
+    private static RegistroTimes lerRegistro(MappedByteBuffer mapa, int inicioNomes, int numNomes)
+            throws IOException {
+        RegistroTimes registro = new RegistroTimes();
+        byte[] bytes = new byte[64];
+        for (int id = 0; id < numNomes; id++) {
+            int inicio = mapa.getInt(inicioNomes + id * 8);
+            int comprimento = mapa.getInt(inicioNomes + id * 8 + 4);
+            if (bytes.length < comprimento) {
+                bytes = new byte[comprimento];
+            }
+            mapa.position(inicio);
+            mapa.get(bytes, 0, comprimento);
+            if (registro.registrar(new String(bytes, 0, comprimento, StandardCharsets.UTF_8)) != id) {
+                throw new IOException("Instantâneo corrompido: nome repetido no registro");
+            }
+        }
+        return registro;
+    }
+
+    private static List<Time> lerTimes(MappedByteBuffer mapa, int inicioIds, int numTimes, RegistroTimes registro)
+            throws IOException {
+        List<Time> times = new ArrayList<>(numTimes);
+        for (int i = 0; i < numTimes; i++) {
+            int id = mapa.getInt(inicioIds + i * 4);
+            if (id < 0 || id >= registro.getQuantidade()) {
+                throw new IOException("Instantâneo corrompido: id de time inexistente");
+            }
+            times.add(new Time(registro.buscarNome(id), registro));
+        }
+        return times;
+    }
+
+    private static TabelaJogos lerTabela(IntBuffer jogos, List<Time> times, int numeroRodadas) throws IOException {
+        int quantidade = numeroRodadas * (times.size() / 2);
+        int[] mandantes = new int[quantidade];
+        int[] visitantes = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            mandantes[i] = jogos.get();
+            visitantes[i] = jogos.get();
+            if (mandantes[i] < 0 || mandantes[i] >= times.size() || visitantes[i] < 0 || visitantes[i] >= times.size()) {
+                throw new IOException("Instantâneo corrompido: time inexistente na tabela");
+            }
+        }
+        return new TabelaOtimizada(times, numeroRodadas, mandantes, visitantes);
+    }
+
+    /**
+     * Lê as partidas, conferindo que cada rodada traz os jogos que a tabela prevê.
+     */
+    private static void lerRodadas(IntBuffer partidas, Campeonato campeonato, List<Time> times,
+                                   int numRodadas, int numPartidas) throws IOException {
+        TabelaJogos tabela = campeonato.getTabela();
+        Rodada rodada = null;
+        int jogo = 0;
+        for (int p = 0; p < numPartidas; p++) {
+            int numero = partidas.get();
+            int indiceMandante = partidas.get();
+            int indiceVisitante = partidas.get();
+            int golsMandante = partidas.get();
+            int golsVisitante = partidas.get();
+
+            if (rodada == null || rodada.getNumero() != numero) {
+                if (rodada != null) {
+                    restaurarRodada(campeonato, rodada, jogo);
+                }
+                rodada = new Rodada(numero);
+                jogo = 0;
+            }
+            if (numero < 1 || numero > tabela.getNumeroRodadas() || jogo >= tabela.getPartidasPorRodada()
+                    || tabela.getMandante(numero - 1, jogo) != indiceMandante
+                    || tabela.getVisitante(numero - 1, jogo) != indiceVisitante) {
+                throw new IOException("Instantâneo corrompido: a rodada " + numero + " não segue a tabela");
+            }
+            jogo++;
+            Partida partida = new Partida(times.get(indiceMandante), times.get(indiceVisitante));
+            if (golsMandante != NAO_REALIZADA) {
+                partida.restaurarResultado(golsMandante, golsVisitante);
+            }
+            rodada.adicionarPartida(partida);
+        }
+        if (rodada != null) {
+            restaurarRodada(campeonato, rodada, jogo);
+        }
+        if (campeonato.getRodadaAtual() != numRodadas) {
+            throw new IOException("Instantâneo corrompido: rodadas incompletas");
+        }
+    }
+
+    private static void restaurarRodada(Campeonato campeonato, Rodada rodada, int jogos) throws IOException {
+        if (jogos != campeonato.getTabela().getPartidasPorRodada()) {
+            throw new IOException("Instantâneo corrompido: a rodada " + rodada.getNumero() + " está incompleta");
+        }
+        try {
+            campeonato.restaurarRodada(rodada);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Instantâneo corrompido: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arquivo colunar e comprimido com os resultados de muitas temporadas (de uma ou mais
+ * divisões), com um índice por time para consultas como "todos os Flamengo x Vasco" ou
+ * "a campanha fora de casa de um time de 2003 a 2023".
+ *
+ * As partidas ficam ordenadas por mandante, temporada e rodada e divididas em blocos de
+ * {@link #PARTIDAS_POR_BLOCO}. Em cada bloco as colunas (temporada, rodada, mandante,
+ * visitante e placar) são gravadas separadas, com deltas em inteiros de tamanho variável:
+ * a coluna do mandante quase não ocupa espaço e o placar costuma caber em um byte. O
+ * diretório guarda a menor e a maior temporada de cada bloco.
+ *
+ * Cada time tem uma lista com as posições das suas partidas (também com deltas) e um bit
+ * que indica se ele era o visitante. Uma consulta percorre só a lista do time, ou a
+ * interseção das listas dos dois times, descarta pelo diretório os blocos fora do intervalo
+ * de temporadas e decodifica apenas os blocos com partidas pedidas. Como o arquivo é lido
+ * por mapeamento em memória, só as páginas desses blocos chegam a ser carregadas.
+ *
+ * Layout (ints big-endian):
+ * <pre>
+ * cabeçalho: mágico, versão, partidas, times, início dos nomes, início dos blocos,
+ *            início das listas
+ * nomes    : times x (início, comprimento) seguido dos bytes UTF-8
+ * blocos   : blocos x (temporada mínima, temporada máxima, início de cada uma das
+ *            5 colunas, fim) seguido dos bytes das colunas
+ * listas   : times x (início, quantidade) seguido dos bytes das listas
+ * </pre>
+ * Os times são identificados pelo id do {@link RegistroTimes} usado na gravação.
+ */
+public class ArquivoResultados {
+    static final int NUMERO_MAGICO = 0x42524152; // "BRAR"
+    static final int VERSAO = 1;
+    static final int PARTIDAS_POR_BLOCO = 128;
+    private static final int TAMANHO_CABECALHO = 7 * 4;
+    private static final int INTS_POR_BLOCO = 8;
+    private static final int COLUNAS = 5;
+    private static final int PLACAR_LONGO = 0xFF;
+
+    private static final Comparator<PartidaArquivada> ORDEM_CRONOLOGICA =
+            Comparator.comparingInt(PartidaArquivada::getTemporada).thenComparingInt(PartidaArquivada::getRodada);
+
+    /**
+     * Quais partidas do time entram em uma consulta.
+     */
+    public enum Mando {
+        TODOS, EM_CASA, FORA
+    }
+
+    private final ByteBuffer mapa;
+    private final int numPartidas;
+    private final int inicioBlocos;
+    private final int inicioListas;
+    private final String[] nomes;
+    private final Map<String, Integer> idsPorNome;
+    private final AtomicLong blocosDecodificados;
+
+    private ArquivoResultados(ByteBuffer mapa) {
+        this.mapa = mapa;
+        this.numPartidas = mapa.getInt(8);
+        int numTimes = mapa.getInt(12);
+        int inicioNomes = mapa.getInt(16);
+        this.inicioBlocos = mapa.getInt(20);
+        this.inicioListas = mapa.getInt(24);
+        this.nomes = new String[numTimes];
+        this.idsPorNome = new HashMap<>();
+        for (int id = 0; id < numTimes; id++) {
+            byte[] bytes = new byte[mapa.getInt(inicioNomes + id * 8 + 4)];
+            ByteBuffer leitura = mapa.duplicate();
+            leitura.position(mapa.getInt(inicioNomes + id * 8));
+            leitura.get(bytes);
+            nomes[id] = new String(bytes, StandardCharsets.UTF_8);
+            idsPorNome.put(nomes[id], id);
+        }
+        this.blocosDecodificados = new AtomicLong();
+    }
+
+    /**
+     * Mapeia o arquivo em memória. Nada além do cabeçalho e dos nomes é lido até a
+     * primeira consulta.
+     */
+    public static ArquivoResultados abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de resultados grande demais para um único mapeamento");
+            }
+            ByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            if (tamanho < TAMANHO_CABECALHO || mapa.getInt(0) != NUMERO_MAGICO || mapa.getInt(4) != VERSAO) {
+                throw new IOException("Arquivo não é um arquivo de resultados válido");
+            }
+            return new ArquivoResultados(mapa);
+        }
+    }
+
+    public int getNumeroPartidas() {
+        return numPartidas;
+    }
+
+    public int getNumeroBlocos() {
+        return (numPartidas + PARTIDAS_POR_BLOCO - 1) / PARTIDAS_POR_BLOCO;
+    }
+
+    /**
+     * Total de blocos decodificados pelas consultas desde a abertura.
+     */
+    long getBlocosDecodificados() {
+        return blocosDecodificados.get();
+    }
+
+    /**
+     * Todas as partidas do time, em ordem cronológica.
+     */
+    public List<PartidaArquivada> getPartidas(String time) {
+        return getPartidas(time, Mando.TODOS, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Partidas do time com o mando informado, das temporadas {@code de} até {@code ate}
+     * (inclusive), em ordem cronológica.
+     */
+    public List<PartidaArquivada> getPartidas(String time, Mando mando, int de, int ate) {
+        return consultar(lerLista(buscarId(time)), mando, de, ate);
+    }
+
+    /**
+     * Todos os jogos entre os dois times, com qualquer mando, em ordem cronológica.
+     */
+    public List<PartidaArquivada> getConfrontos(String time1, String time2) {
+        return getConfrontos(time1, time2, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public List<PartidaArquivada> getConfrontos(String time1, String time2, int de, int ate) {
+        int[] lista = intersectar(lerLista(buscarId(time1)), lerLista(buscarId(time2)));
+        return consultar(lista, Mando.TODOS, de, ate);
+    }
+
+    /**
+     * Campanha do time nas partidas da consulta, indexada como em
+     * {@link EstatisticasColunares} (pontos, vitórias, empates, derrotas, gols marcados e
+     * gols sofridos).
+     */
+    public int[] getCampanha(String time, Mando mando, int de, int ate) {
+        int[] campanha = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        for (PartidaArquivada partida : getPartidas(time, mando, de, ate)) {
+            boolean mandante = partida.getMandante().equals(time);
+            int marcados = mandante ? partida.getGolsMandante() : partida.getGolsVisitante();
+            int sofridos = mandante ? partida.getGolsVisitante() : partida.getGolsMandante();
+            if (marcados > sofridos) {
+                campanha[EstatisticasColunares.VITORIAS]++;
+                campanha[EstatisticasColunares.PONTOS] += 3;
+            } else if (marcados == sofridos) {
+                campanha[EstatisticasColunares.EMPATES]++;
+                campanha[EstatisticasColunares.PONTOS]++;
+            } else {
+                campanha[EstatisticasColunares.DERROTAS]++;
+            }
+            campanha[EstatisticasColunares.GOLS_MARCADOS] += marcados;
+            campanha[EstatisticasColunares.GOLS_SOFRIDOS] += sofridos;
+        }
+        return campanha;
+    }
+
+    private int buscarId(String time) {
+        Integer id = idsPorNome.get(time);
+        if (id == null) {
+            throw new IllegalArgumentException("Time desconhecido no arquivo: " + time);
+        }
+        return id;
+    }
+
+    /**
+     * Decodifica a lista do time: posição de cada partida deslocada de um bit, que vale 1
+     * quando o time era o visitante.
+     */
+    private int[] lerLista(int id) {
+        Cursor cursor = new Cursor(mapa, mapa.getInt(inicioListas + id * 8));
+        int[] lista = new int[mapa.getInt(inicioListas + id * 8 + 4)];
+        int anterior = 0;
+        for (int i = 0; i < lista.length; i++) {
+            anterior += cursor.lerVarint();
+            lista[i] = anterior;
+        }
+        return lista;
+    }
+
+    /**
+     * Entradas da primeira lista cujas partidas também estão na segunda.
+     */
+    private static int[] intersectar(int[] lista1, int[] lista2) {
+        int[] comuns = new int[Math.min(lista1.length, lista2.length)];
+        int quantidade = 0;
+        int j = 0;
+        for (int entrada : lista1) {
+            while (j < lista2.length && lista2[j] >>> 1 < entrada >>> 1) {
+                j++;
+            }
+            if (j < lista2.length && lista2[j] >>> 1 == entrada >>> 1) {
+                comuns[quantidade++] = entrada;
+            }
+        }
+        return Arrays.copyOf(comuns, quantidade);
+    }
+
+    private List<PartidaArquivada> consultar(int[] lista, Mando mando, int de, int ate) {
+        List<PartidaArquivada> partidas = new ArrayList<>();
+        int[][] bloco = new int[COLUNAS + 1][PARTIDAS_POR_BLOCO];
+        int blocoAtual = -1;
+        for (int entrada : lista) {
+            boolean fora = (entrada & 1) != 0;
+            if ((mando == Mando.EM_CASA && fora) || (mando == Mando.FORA && !fora)) {
+                continue;
+            }
+            int posicao = entrada >>> 1;
+            int numero = posicao / PARTIDAS_POR_BLOCO;
+            if (numero != blocoAtual) {
+                int diretorio = inicioBlocos + numero * INTS_POR_BLOCO * 4;
+                if (mapa.getInt(diretorio + 4) < de || mapa.getInt(diretorio) > ate) {
+                    continue;
+                }
+                decodificarBloco(numero, bloco);
+                blocoAtual = numero;
+            }
+            int i = posicao % PARTIDAS_POR_BLOCO;
+            int temporada = bloco[0][i];
+            if (temporada >= de && temporada <= ate) {
+                partidas.add(new PartidaArquivada(temporada, bloco[1][i], nomes[bloco[2][i]], nomes[bloco[3][i]],
+                                                  bloco[4][i], bloco[5][i]));
+            }
+        }
+        partidas.sort(ORDEM_CRONOLOGICA);
+        return partidas;
+    }
+
+    /**
+     * Decodifica as colunas de um bloco em temporada, rodada, mandante, visitante e os
+     * gols de cada lado.
+     */
+    private void decodificarBloco(int numero, int[][] destino) {
+        int diretorio = inicioBlocos + numero * INTS_POR_BLOCO * 4;
+        int linhas = Math.min(PARTIDAS_POR_BLOCO, numPartidas - numero * PARTIDAS_POR_BLOCO);
+
+        Cursor temporadas = new Cursor(mapa, mapa.getInt(diretorio + 8));
+        Cursor rodadas = new Cursor(mapa, mapa.getInt(diretorio + 12));
+        Cursor mandantes = new Cursor(mapa, mapa.getInt(diretorio + 16));
+        Cursor visitantes = new Cursor(mapa, mapa.getInt(diretorio + 20));
+        Cursor placares = new Cursor(mapa, mapa.getInt(diretorio + 24));
+        int temporada = 0;
+        int rodada = 0;
+        int mandante = 0;
+        for (int i = 0; i < linhas; i++) {
+            temporada += zigzag(temporadas.lerVarint());
+            rodada += zigzag(rodadas.lerVarint());
+            mandante += mandantes.lerVarint();
+            destino[0][i] = temporada;
+            destino[1][i] = rodada;
+            destino[2][i] = mandante;
+            destino[3][i] = visitantes.lerVarint();
+            int placar = placares.lerByte();
+            if (placar == PLACAR_LONGO) {
+                destino[4][i] = placares.lerVarint();
+                destino[5][i] = placares.lerVarint();
+            } else {
+                destino[4][i] = placar >>> 4;
+                destino[5][i] = placar & 0xF;
+            }
+        }
+        blocosDecodificados.incrementAndGet();
+    }
+
+    private static int zigzag(int valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    /**
+     * Leitura sequencial de bytes e inteiros de tamanho variável a partir de uma posição
+     * absoluta do mapeamento (o buffer é compartilhado entre as consultas).
+     */
+    private static final class Cursor {
+        private final ByteBuffer mapa;
+        private int posicao;
+
+        Cursor(ByteBuffer mapa, int posicao) {
+            this.mapa = mapa;
+            this.posicao = posicao;
+        }
+
+        int lerByte() {
+            return mapa.get(posicao++) & 0xFF;
+        }
+
+        int lerVarint() {
+            int valor = 0;
+            int deslocamento = 0;
+            int b;
+            do {
+                b = lerByte();
+                valor |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while ((b & 0x80) != 0);
+            return valor;
+        }
+    }
+
+    /**
+     * Monta o arquivo a partir de temporadas inteiras. Todas as partidas precisam usar
+     * ids do registro informado, cujos nomes são gravados no arquivo.
+     */
+    public static class Gravador {
+        private static final int CAMPOS = 6;
+        private static final int[] CAMPOS_ORDENACAO = {2, 0, 1, 3};
+
+        private final RegistroTimes registro;
+        private int[] partidas;
+        private int quantidade;
+
+        public Gravador(RegistroTimes registro) {
+            this.registro = registro;
+            this.partidas = new int[CAMPOS * 1024];
+        }
+
+        /**
+         * Acrescenta as partidas já realizadas do campeonato como a temporada informada.
+         */
+        public Gravador adicionar(int temporada, Campeonato campeonato) {
+            if (campeonato.getRegistro() != registro) {
+                throw new IllegalArgumentException("O campeonato usa outro registro de times");
+            }
+            for (Rodada rodada : campeonato.getRodadas()) {
+                for (Partida partida : rodada.getPartidas()) {
+                    if (partida.isRealizada()) {
+                        acrescentar(temporada, rodada.getNumero(), partida.getMandante().getId(),
+                                    partida.getVisitante().getId(), partida.getGolsMandante(),
+                                    partida.getGolsVisitante());
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Acrescenta os resultados válidos de um {@link LogEventos} como a temporada
+         * informada. Os times são casados pelo nome gravado no log, então ele pode ter
+         * sido gravado com outro registro.
+         */
+        public Gravador adicionar(int temporada, Path log) throws IOException {
+            int[] resultados = LogEventos.lerResultados(log, registro);
+            for (int i = 0; i < resultados.length; i += LogEventos.CAMPOS_RESULTADO) {
+                acrescentar(temporada, resultados[i], resultados[i + 1], resultados[i + 2],
+                            resultados[i + 3], resultados[i + 4]);
+            }
+            return this;
+        }
+
+        private void acrescentar(int temporada, int rodada, int mandante, int visitante,
+                                 int golsMandante, int golsVisitante) {
+            if (Math.max(mandante, visitante) >= registro.getQuantidade() || Math.min(mandante, visitante) < 0) {
+                throw new IllegalArgumentException("Time sem id no registro: " + Math.max(mandante, visitante));
+            }
+            if (golsMandante < 0 || golsVisitante < 0) {
+                throw new IllegalArgumentException("Placar inválido: " + golsMandante + " x " + golsVisitante);
+            }
+            if (quantidade * CAMPOS == partidas.length) {
+                partidas = Arrays.copyOf(partidas, partidas.length * 2);
+            }
+            int base = quantidade * CAMPOS;
+            partidas[base] = temporada;
+            partidas[base + 1] = rodada;
+            partidas[base + 2] = mandante;
+            partidas[base + 3] = visitante;
+            partidas[base + 4] = golsMandante;
+            partidas[base + 5] = golsVisitante;
+            quantidade++;
+        }
+
+        /**
+         * Grava o arquivo, substituindo o conteúdo anterior.
+         */
+        public void gravar(Path arquivo) throws IOException {
+            int numTimes = registro.getQuantidade();
+            int[] ordem = ordenarPorMandante();
+
+            // Colunas de cada bloco e listas de cada time, já comprimidas
+            int numBlocos = (quantidade + PARTIDAS_POR_BLOCO - 1) / PARTIDAS_POR_BLOCO;
+            Bytes colunas = new Bytes();
+            int[] diretorio = new int[numBlocos * INTS_POR_BLOCO];
+            Bytes[] listas = new Bytes[numTimes];
+            int[] tamanhosListas = new int[numTimes];
+            int[] ultimasEntradas = new int[numTimes];
+            for (int id = 0; id < numTimes; id++) {
+                listas[id] = new Bytes();
+            }
+            for (int numero = 0; numero < numBlocos; numero++) {
+                int inicio = numero * PARTIDAS_POR_BLOCO;
+                int fim = Math.min(quantidade, inicio + PARTIDAS_POR_BLOCO);
+                gravarBloco(ordem, inicio, fim, colunas, diretorio, numero * INTS_POR_BLOCO);
+                for (int posicao = inicio; posicao < fim; posicao++) {
+                    int base = ordem[posicao] * CAMPOS;
+                    for (int lado = 0; lado < 2; lado++) {
+                        int id = partidas[base + 2 + lado];
+                        int entrada = posicao << 1 | lado;
+                        listas[id].escreverVarint(entrada - ultimasEntradas[id]);
+                        ultimasEntradas[id] = entrada;
+                        tamanhosListas[id]++;
+                    }
+                }
+            }
+
+            byte[][] nomes = new byte[numTimes][];
+            int bytesNomes = 0;
+            for (int id = 0; id < numTimes; id++) {
+                nomes[id] = registro.buscarNome(id).getBytes(StandardCharsets.UTF_8);
+                bytesNomes += nomes[id].length;
+            }
+            int bytesListas = 0;
+            for (Bytes lista : listas) {
+                bytesListas += lista.tamanho;
+            }
+
+            int inicioNomes = TAMANHO_CABECALHO;
+            int inicioBlocos = alinhar(inicioNomes + numTimes * 8 + bytesNomes);
+            int inicioColunas = inicioBlocos + diretorio.length * 4;
+            int inicioListas = alinhar(inicioColunas + colunas.tamanho);
+            int inicioBytesListas = inicioListas + numTimes * 8;
+            int tamanho = inicioBytesListas + bytesListas;
+
+            ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+            buffer.putInt(NUMERO_MAGICO).putInt(VERSAO).putInt(quantidade).putInt(numTimes)
+                  .putInt(inicioNomes).putInt(inicioBlocos).putInt(inicioListas);
+
+            int posicaoBytes = inicioNomes + numTimes * 8;
+            for (byte[] nome : nomes) {
+                buffer.putInt(posicaoBytes).putInt(nome.length);
+                posicaoBytes += nome.length;
+            }
+            for (byte[] nome : nomes) {
+                buffer.put(nome);
+            }
+
+            buffer.position(inicioBlocos);
+            for (int i = 0; i < diretorio.length; i++) {
+                // Os inícios das colunas foram anotados relativos ao começo dos bytes das colunas
+                buffer.putInt(i % INTS_POR_BLOCO < 2 ? diretorio[i] : inicioColunas + diretorio[i]);
+            }
+            buffer.put(colunas.dados, 0, colunas.tamanho);
+
+            buffer.position(inicioListas);
+            posicaoBytes = inicioBytesListas;
+            for (int id = 0; id < numTimes; id++) {
+                buffer.putInt(posicaoBytes).putInt(tamanhosListas[id]);
+                posicaoBytes += listas[id].tamanho;
+            }
+            for (Bytes lista : listas) {
+                buffer.put(lista.dados, 0, lista.tamanho);
+            }
+
+            buffer.rewind();
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(true);
+            }
+        }
+
+        /**
+         * Índices das partidas ordenados por mandante, temporada, rodada e visitante.
+         */
+        private int[] ordenarPorMandante() {
+            Integer[] indices = new Integer[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, (a, b) -> {
+                for (int campo : CAMPOS_ORDENACAO) {
+                    int comparacao = Integer.compare(partidas[a * CAMPOS + campo], partidas[b * CAMPOS + campo]);
+                    if (comparacao != 0) {
+                        return comparacao;
+                    }
+                }
+                return 0;
+            });
+            int[] ordem = new int[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                ordem[i] = indices[i];
+            }
+            return ordem;
+        }
+
+        private void gravarBloco(int[] ordem, int inicio, int fim, Bytes colunas, int[] diretorio, int entrada) {
+            int minima = Integer.MAX_VALUE;
+            int maxima = Integer.MIN_VALUE;
+            for (int posicao = inicio; posicao < fim; posicao++) {
+                int temporada = partidas[ordem[posicao] * CAMPOS];
+                minima = Math.min(minima, temporada);
+                maxima = Math.max(maxima, temporada);
+            }
+            diretorio[entrada] = minima;
+            diretorio[entrada + 1] = maxima;
+
+            for (int coluna = 0; coluna < COLUNAS; coluna++) {
+                diretorio[entrada + 2 + coluna] = colunas.tamanho;
+                int anterior = 0;
+                for (int posicao = inicio; posicao < fim; posicao++) {
+                    int base = ordem[posicao] * CAMPOS;
+                    if (coluna == 4) {
+                        int golsMandante = partidas[base + 4];
+                        int golsVisitante = partidas[base + 5];
+                        if (golsMandante < 15 && golsVisitante < 16) {
+                            colunas.escreverByte(golsMandante << 4 | golsVisitante);
+                        } else {
+                            colunas.escreverByte(PLACAR_LONGO);
+                            colunas.escreverVarint(golsMandante);
+                            colunas.escreverVarint(golsVisitante);
+                        }
+                    } else if (coluna == 3) {
+                        colunas.escreverVarint(partidas[base + 3]);
+                    } else {
+                        // Temporada, rodada e mandante: diferença para a partida anterior
+                        int valor = partidas[base + coluna];
+                        int delta = valor - anterior;
+                        colunas.escreverVarint(coluna == 2 ? delta : (delta << 1) ^ (delta >> 31));
+                        anterior = valor;
+                    }
+                }
+            }
+            diretorio[entrada + 2 + COLUNAS] = colunas.tamanho;
+        }
+
+        private static int alinhar(int posicao) {
+            return (posicao + 3) & ~3;
+        }
+    }
+
+    /**
+     * Array de bytes que cresce conforme a escrita.
+     */
+    private static final class Bytes {
+        private byte[] dados = new byte[256];
+        private int tamanho;
+
+        void escreverByte(int valor) {
+            if (tamanho == dados.length) {
+                dados = Arrays.copyOf(dados, dados.length * 2);
+            }
+            dados[tamanho++] = (byte) valor;
+        }
+
+        void escreverVarint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                escreverByte((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            escreverByte(valor);
+        }
+    }
+}
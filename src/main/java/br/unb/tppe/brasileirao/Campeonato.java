@@ -1,35 +1,246 @@
 package br.unb.tppe.brasileirao;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Classe principal que gerencia o campeonato brasileiro.
  */
 public class Campeonato {
     private List<Time> times;
-    private List<Rodada> rodadas;
+    private Rodada[] rodadas;
     private int rodadaAtual;
-    private List<List<Partida>> tabelaRoundRobin;
+    private TabelaJogos tabela;
+    private TabelaClassificacao classificacao;
+    private ConfrontoDireto confrontoDireto;
+    private HistoricoRodadas historico;
+    private ConjuntoConfrontos confrontos;
+    private RegistroTimes registro;
+    private IndiceTimes indice;
+    private EstatisticasColunares estatisticasColunares;
+    private LogEventos log;
+    private final AtomicReference<VersaoCampeonato> versao;
 
     public Campeonato(List<Time> times) {
-        this.times = new ArrayList<>(times);
-        this.rodadas = new ArrayList<>();
+        this(times, null);
+    }
+
+    /**
+     * Cria o campeonato guardando as estatísticas de todos os times no armazenamento
+     * colunar informado (indexado pela posição de cada time na lista). Se for null,
+     * cada time mantém as próprias estatísticas.
+     */
+    public Campeonato(List<Time> times, EstatisticasColunares estatisticasColunares) {
+        this(times, estatisticasColunares, null);
+    }
+
+    /**
+     * Cria o campeonato sorteando as rodadas pela tabela informada (por exemplo, uma
+     * gerada pelo {@link OtimizadorTabela} com a mesma lista de times). Se for null,
+     * usa a tabela do método do círculo.
+     */
+    public Campeonato(List<Time> times, EstatisticasColunares estatisticasColunares, TabelaJogos tabela) {
+        this.times = Collections.unmodifiableList(new ArrayList<>(times));
+        // Tudo que pode recusar os times vem antes de registrá-los e indexá-los
+        RegistroTimes registroTimes = validarTimes(this.times);
+        if (tabela != null) {
+            validarTabela(tabela);
+        }
+        this.tabela = tabela != null ? tabela : new TabelaRoundRobin(this.times);
+        this.registro = registroTimes;
+        for (int i = 0; i < this.times.size(); i++) {
+            this.times.get(i).registrar(registro);
+            this.times.get(i).indexar(this, i);
+        }
+        this.indice = new IndiceTimes(this.times);
+        this.estatisticasColunares = estatisticasColunares;
+        if (estatisticasColunares != null) {
+            migrarEstatisticas(estatisticasColunares);
+        }
         this.rodadaAtual = 0;
-        this.tabelaRoundRobin = gerarTabelaRoundRobin();
+        this.rodadas = new Rodada[this.tabela.getNumeroRodadas()];
+        this.confrontos = new ConjuntoConfrontos();
+        this.confrontoDireto = new ConfrontoDireto(this.times);
+        this.classificacao = new TabelaClassificacao(this.times, confrontoDireto, estatisticasColunares);
+        this.historico = new HistoricoRodadas(this.times, this.tabela.getNumeroRodadas());
+        this.versao = new AtomicReference<>(VersaoCampeonato.inicial(this.times, indice, estatisticasColunares, rodadas, 0));
+        OuvinteResultados publicador = new OuvinteResultados() {
+            @Override
+            public void resultadoRegistrado(Partida partida) {
+                versao.updateAndGet(atual -> atual.comResultado(partida));
+            }
+
+            @Override
+            public void resultadosRegistrados(List<Partida> partidas) {
+                versao.updateAndGet(atual -> atual.comResultados(partidas));
+            }
+
+            @Override
+            public void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+                // A matriz de confrontos já foi reparada (é notificada antes deste ouvinte)
+                int restante = confrontoDireto.getPlacarCodificado(partida.getMandante(), partida.getVisitante());
+                versao.updateAndGet(atual -> atual.semResultado(partida, golsMandante, golsVisitante, restante));
+            }
+
+            @Override
+            public void resultadosDesfeitos(List<Partida> partidas, int[] golsMandante, int[] golsVisitante) {
+                int[] restantes = new int[partidas.size()];
+                for (int i = 0; i < restantes.length; i++) {
+                    restantes[i] = confrontoDireto.getPlacarCodificado(partidas.get(i).getMandante(),
+                                                                       partidas.get(i).getVisitante());
+                }
+                versao.updateAndGet(atual -> atual.semResultados(partidas, golsMandante, golsVisitante, restantes));
+            }
+        };
+        for (Time time : this.times) {
+            time.adicionarOuvinte(confrontoDireto);
+            time.adicionarOuvinte(classificacao);
+            time.adicionarOuvinte(historico);
+            time.adicionarOuvinte(publicador);
+        }
     }
 
+    /**
+     * Confere os times sem alterá-los e retorna o registro em que já estão (ou um novo).
+     * Nomes repetidos receberiam o mesmo id, então contam como time duplicado.
+     */
+    private static RegistroTimes validarTimes(List<Time> times) {
+        RegistroTimes registro = null;
+        Set<String> nomes = new HashSet<>();
+        for (Time time : times) {
+            if (time.getRegistro() != null) {
+                if (registro != null && time.getRegistro() != registro) {
+                    throw new IllegalArgumentException("Time " + time.getNome() + " já pertence a outro registro");
+                }
+                registro = time.getRegistro();
+            }
+            if (!nomes.add(time.getNome())) {
+                throw new IllegalArgumentException("Time duplicado no campeonato: " + time.getNome());
+            }
+            if (time.getCampeonato() != null) {
+                throw new IllegalArgumentException("Time " + time.getNome() + " já pertence a outro campeonato");
+            }
+        }
+        return registro != null ? registro : new RegistroTimes();
+    }
+
+    /**
+     * A tabela cria as partidas com os próprios objetos Time, então precisa ter sido
+     * montada com os mesmos times, na mesma ordem.
+     */
+    private void validarTabela(TabelaJogos tabela) {
+        if (tabela.getPartidasPorRodada() * 2 != times.size()) {
+            throw new IllegalArgumentException("A tabela foi gerada para outro número de times");
+        }
+        List<Time> timesTabela = tabela.getTimes();
+        for (int i = 0; i < times.size(); i++) {
+            if (timesTabela.get(i) != times.get(i)) {
+                throw new IllegalArgumentException("A tabela foi gerada para outra lista de times: "
+                        + timesTabela.get(i).getNome() + " na posição de " + times.get(i).getNome());
+            }
+        }
+    }
+
+    private void migrarEstatisticas(EstatisticasColunares colunas) {
+        colunas.garantirCapacidade(times.size());
+        for (int i = 0; i < times.size(); i++) {
+            times.get(i).getEstatisticas().migrarPara(colunas, i);
+        }
+    }
+
+    public RegistroTimes getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Retorna o armazenamento colunar das estatísticas, ou null se não for usado.
+     */
+    public EstatisticasColunares getEstatisticasColunares() {
+        return estatisticasColunares;
+    }
+
+    /**
+     * Retorna os times do campeonato, sem cópia (a lista não pode ser alterada).
+     */
     public List<Time> getTimes() {
-        return new ArrayList<>(times);
+        return times;
     }
 
+    /**
+     * Retorna as rodadas sorteadas até agora, sem cópia (ver {@link #getVersao()}).
+     */
     public List<Rodada> getRodadas() {
-        return new ArrayList<>(rodadas);
+        return versao.get().getRodadas();
+    }
+
+    /**
+     * Retorna a versão mais recente do estado do campeonato. Ela nunca muda depois de
+     * publicada, então pode ser lida à vontade enquanto outros resultados são registrados.
+     */
+    public VersaoCampeonato getVersao() {
+        return versao.get();
     }
 
     public int getRodadaAtual() {
         return rodadaAtual;
     }
 
+    /**
+     * Retorna a rodada com o número informado (contado a partir de 1).
+     */
+    Rodada getRodada(int numero) {
+        return rodadas[numero - 1];
+    }
+
+    /**
+     * Grava no log o nome de cada time e passa a gravar cada rodada sorteada e cada
+     * resultado registrado em partidas dos times do campeonato.
+     */
+    public void registrarEventosEm(LogEventos log) {
+        try {
+            for (Time time : times) {
+                log.registrarTime(time);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar os times no log", e);
+        }
+        this.log = log;
+        for (Time time : times) {
+            time.adicionarOuvinte(log);
+        }
+    }
+
+    /**
+     * Passa a atualizar os ratings a cada resultado registrado (ou desfeito) em
+     * partidas dos times do campeonato.
+     */
+    public void atualizarRatingsEm(RatingElo ratings) {
+        for (Time time : times) {
+            time.adicionarOuvinte(ratings);
+        }
+    }
+
+    /**
+     * Log em que o campeonato grava os eventos, ou null se não grava.
+     */
+    LogEventos getLog() {
+        return log;
+    }
+
+    TabelaJogos getTabela() {
+        return tabela;
+    }
+
+    /**
+     * Retorna o número total de rodadas do campeonato (turno e returno).
+     */
+    public int getNumeroRodadas() {
+        return tabela.getNumeroRodadas();
+    }
+
     /**
      * Sorteia as partidas de uma rodada garantindo que:
      * - Cada time joga apenas uma vez na rodada
@@ -37,178 +248,160 @@ public class Campeonato {
      * - Não há confrontos duplicados entre rodadas
      */
     public Rodada sortearRodada() {
-        if (rodadaAtual >= tabelaRoundRobin.size()) {
-            // Se já passou de todas as rodadas do round-robin, gera aleatoriamente
-            return sortearRodadaAleatoria();
-        }
-        
-        rodadaAtual++;
-        Rodada rodada = new Rodada(rodadaAtual);
-        
-        // Pega as partidas pré-definidas da tabela round-robin
-        List<Partida> partidasRodada = tabelaRoundRobin.get(rodadaAtual - 1);
-        for (Partida partida : partidasRodada) {
-            rodada.adicionarPartida(partida);
+        if (rodadaAtual >= tabela.getNumeroRodadas()) {
+            throw new IllegalStateException("Todas as rodadas do campeonato já foram sorteadas");
         }
 
-        rodadas.add(rodada);
-        return rodada;
-    }
-    
-    /**
-     * Sorteia uma rodada aleatória (usado quando ultrapassa o round-robin).
-     */
-    private Rodada sortearRodadaAleatoria() {
+        long inicio = Metricas.ATIVO ? System.nanoTime() : 0L;
         rodadaAtual++;
         Rodada rodada = new Rodada(rodadaAtual);
-        
-        List<Time> timesDisponiveis = new ArrayList<>(times);
-        Collections.shuffle(timesDisponiveis);
-
-        // Cria partidas emparelhando os times
-        for (int i = 0; i < timesDisponiveis.size(); i += 2) {
-            Time mandante = timesDisponiveis.get(i);
-            Time visitante = timesDisponiveis.get(i + 1);
-            
-            Partida partida = new Partida(mandante, visitante);
+
+        // Calcula as partidas da rodada a partir da tabela de jogos
+        for (Partida partida : tabela.gerarPartidas(rodadaAtual)) {
             rodada.adicionarPartida(partida);
         }
 
-        rodadas.add(rodada);
+        adicionarRodada(rodada);
+        if (Metricas.ATIVO) {
+            Metricas.registrar(Metricas.Operacao.SORTEAR_RODADA, inicio);
+        }
         return rodada;
     }
-    
+
     /**
-     * Gera a tabela de confrontos usando o algoritmo Round-Robin.
-     * Garante que cada time enfrente todos os outros exatamente uma vez.
+     * Acrescenta uma rodada já montada (usado ao restaurar o estado salvo).
+     * Ela precisa ser a próxima rodada da tabela. Os resultados não passam pelas
+     * estatísticas dos times; depois da última rodada restaurada, chame
+     * {@link #reordenarClassificacao()}.
      */
-    private List<List<Partida>> gerarTabelaRoundRobin() {
-        int numTimes = times.size();
-        validarNumeroDeTimes(numTimes);
-        List<Time> timesArray = copiarListaDeTimes();
-        int numRodadas = calcularNumeroDeRodadas(numTimes);
-        List<List<Partida>> tabela = new ArrayList<>();
-        for (int rodada = 0; rodada < numRodadas; rodada++) {
-            List<Partida> partidasRodada = emparelharTimesRodada(timesArray, numTimes, rodada);
-            tabela.add(partidasRodada);
-            rotacionarTimes(timesArray, numTimes);
+    void restaurarRodada(Rodada rodada) {
+        if (rodada.getNumero() != rodadaAtual + 1 || rodadaAtual >= rodadas.length) {
+            throw new IllegalArgumentException("Rodada fora de ordem: " + rodada.getNumero());
         }
-        return tabela;
-    }
-
-    private void validarNumeroDeTimes(int numTimes) {
-        if (numTimes % 2 != 0) {
-            throw new IllegalArgumentException("Número de times deve ser par");
+        rodadas[rodadaAtual] = rodada;
+        rodadaAtual++;
+        confrontos.adicionarRodada(rodada);
+        for (Partida partida : rodada.getPartidas()) {
+            if (partida.isRealizada()) {
+                // As estatísticas já vêm prontas; faltam o confronto direto e o histórico
+                confrontoDireto.resultadoRegistrado(partida);
+                historico.resultadoRegistrado(partida);
+            }
         }
+        versao.updateAndGet(VersaoCampeonato::comRodada);
     }
 
-    private List<Time> copiarListaDeTimes() {
-        return new ArrayList<>(times);
-    }
-
-    private int calcularNumeroDeRodadas(int numTimes) {
-        return numTimes - 1;
+    /**
+     * Reordena a classificação após estatísticas alteradas sem passar pelas partidas.
+     */
+    void reordenarClassificacao() {
+        classificacao.reordenar();
+        versao.updateAndGet(atual -> atual.reconstruida(estatisticasColunares));
     }
 
-    private List<Partida> emparelharTimesRodada(List<Time> timesArray, int numTimes, int rodada) {
-        List<Partida> partidasRodada = new ArrayList<>();
-        for (int i = 0; i < numTimes / 2; i++) {
-            int home = i;
-            int away = numTimes - 1 - i;
-            Time mandante = timesArray.get(home);
-            Time visitante = timesArray.get(away);
-            if (rodada % 2 == 0) {
-                partidasRodada.add(new Partida(mandante, visitante));
-            } else {
-                partidasRodada.add(new Partida(visitante, mandante));
+    private void adicionarRodada(Rodada rodada) {
+        rodadas[rodada.getNumero() - 1] = rodada;
+        confrontos.adicionarRodada(rodada);
+        versao.updateAndGet(VersaoCampeonato::comRodada);
+        if (log != null) {
+            try {
+                log.registrarRodada(rodada.getNumero());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao gravar a rodada no log", e);
             }
         }
-        return partidasRodada;
-    }
-
-    private void rotacionarTimes(List<Time> timesArray, int numTimes) {
-        Time ultimo = timesArray.remove(numTimes - 1);
-        timesArray.add(1, ultimo);
     }
 
     /**
      * Verifica se existe duplicidade de confrontos entre todas as rodadas.
      * Retorna true se NÃO houver duplicidade.
+     * Os confrontos são registrados à medida que as rodadas são sorteadas.
      */
     public boolean semDuplicidadeConfrontos() {
-        List<Partida> todasPartidas = new ArrayList<>();
-        
-        for (Rodada rodada : rodadas) {
-            for (Partida partida : rodada.getPartidas()) {
-                // Verifica se já existe uma partida igual
-                for (Partida partidaExistente : todasPartidas) {
-                    if (partida.mesmaPartida(partidaExistente)) {
-                        return false;
-                    }
-                }
-                todasPartidas.add(partida);
-            }
+        long inicio = Metricas.ATIVO ? System.nanoTime() : 0L;
+        boolean semDuplicidade = !confrontos.temDuplicidade();
+        if (Metricas.ATIVO) {
+            Metricas.registrar(Metricas.Operacao.VERIFICAR_CONFRONTOS, inicio);
         }
-        return true;
+        return semDuplicidade;
+    }
+
+    /**
+     * Verifica se o mandante já recebeu o visitante em alguma rodada sorteada.
+     */
+    public boolean jaRecebeu(Time mandante, Time visitante) {
+        return confrontos.contem(mandante, visitante);
     }
 
     /**
      * Obtém a classificação atual dos times.
-     * Critérios de desempate:
+     * Critérios de desempate (ver {@link ComparadorClassificacao}):
      * 1. Número de pontos
      * 2. Número de vitórias
      * 3. Saldo de gols
      * 4. Gols marcados
+     * 5. Confronto direto (apenas em empates entre dois times)
+     *
+     * A ordem é mantida incrementalmente a cada resultado registrado,
+     * então a consulta apenas copia a tabela já ordenada.
      */
     public List<Time> getClassificacao() {
-        List<Time> classificacao = new ArrayList<>(times);
-        
-        Collections.sort(classificacao, new Comparator<Time>() {
-            @Override
-            public int compare(Time t1, Time t2) {
-                // 1. Pontos (decrescente)
-                if (t1.getPontos() != t2.getPontos()) {
-                    return Integer.compare(t2.getPontos(), t1.getPontos());
-                }
-                
-                // 2. Vitórias (decrescente)
-                if (t1.getVitorias() != t2.getVitorias()) {
-                    return Integer.compare(t2.getVitorias(), t1.getVitorias());
-                }
-                
-                // 3. Saldo de gols (decrescente)
-                if (t1.getSaldoGols() != t2.getSaldoGols()) {
-                    return Integer.compare(t2.getSaldoGols(), t1.getSaldoGols());
-                }
-                
-                // 4. Gols marcados (decrescente)
-                if (t1.getGolsMarcados() != t2.getGolsMarcados()) {
-                    return Integer.compare(t2.getGolsMarcados(), t1.getGolsMarcados());
-                }
-                
-                // Se ainda empatar, mantém ordem alfabética
-                return t1.getNome().compareTo(t2.getNome());
-            }
-        });
-        
-        return classificacao;
+        long inicio = Metricas.ATIVO ? System.nanoTime() : 0L;
+        List<Time> resultado = classificacao.getClassificacao();
+        if (Metricas.ATIVO) {
+            Metricas.registrar(Metricas.Operacao.OBTER_CLASSIFICACAO, inicio);
+        }
+        return resultado;
     }
 
     /**
-     * Exibe a tabela de classificação.
+     * Posição do time na classificação atual, contada a partir de 1, em O(1).
+     */
+    public int getPosicao(Time time) {
+        return classificacao.getPosicao(time);
+    }
+
+    /**
+     * Times entre duas posições da classificação, inclusive (por exemplo, 1 a 4 para a
+     * Libertadores ou 17 a 20 para o rebaixamento), sem montar a tabela inteira.
+     */
+    public List<Time> getFaixa(int de, int ate) {
+        return classificacao.getFaixa(de, ate);
+    }
+
+    /**
+     * Os {@code k} primeiros colocados.
+     */
+    public List<Time> getTopo(int k) {
+        return classificacao.getTopo(k);
+    }
+
+    /**
+     * Classificação e estatísticas como estavam ao fim da rodada informada (0 para antes
+     * da primeira), considerando os resultados das partidas das rodadas 1 até ela.
+     * Usa os pontos de controle do {@link HistoricoRodadas}, sem repetir o campeonato.
+     */
+    public RetratoRodada getRetratoRodada(int numero) {
+        return historico.getRetrato(numero);
+    }
+
+    /**
+     * Retorna a matriz de resultados entre os times, usada no critério de confronto direto.
+     */
+    public ConfrontoDireto getConfrontoDireto() {
+        return confrontoDireto;
+    }
+
+    /**
+     * Exibe a tabela de classificação. As linhas passam por um buffer antes de
+     * chegar ao {@code System.out}, em vez de uma escrita por campo.
      */
     public void exibirClassificacao() {
-        List<Time> classificacao = getClassificacao();
         System.out.println("\n===== CLASSIFICAÇÃO =====");
-        System.out.println("Pos | Time                | P  | V  | E  | D  | GM | GS | SG");
-        System.out.println("--------------------------------------------------------------------");
-        
-        for (int i = 0; i < classificacao.size(); i++) {
-            Time time = classificacao.get(i);
-            System.out.printf("%2d  | %-19s | %2d | %2d | %2d | %2d | %2d | %2d | %+3d\n",
-                    i + 1, time.getNome(), time.getPontos(), time.getVitorias(),
-                    time.getEmpates(), time.getDerrotas(), time.getGolsMarcados(),
-                    time.getGolsSofridos(), time.getSaldoGols());
+        try {
+            new Renderizador(Renderizador.Formato.TEXTO).escreverClassificacao(getClassificacao(), (OutputStream) System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         System.out.println();
     }
@@ -217,11 +410,14 @@ public class Campeonato {
      * Busca um time pelo nome.
      */
     public Time buscarTime(String nome) {
-        for (Time time : times) {
-            if (time.getNome().equals(nome)) {
-                return time;
-            }
-        }
-        return null;
+        return buscarTime(registro.buscarId(nome));
+    }
+
+    /**
+     * Busca um time pelo id emitido pelo registro, em O(1). Retorna null se o time
+     * não está no campeonato.
+     */
+    public Time buscarTime(int id) {
+        return indice.buscarPorId(id);
     }
 }
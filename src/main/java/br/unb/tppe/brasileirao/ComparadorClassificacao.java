@@ -0,0 +1,71 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.Comparator;
+
+/**
+ * Comparador que define a ordem da classificação.
+ * Critérios de desempate:
+ * 1. Número de pontos
+ * 2. Número de vitórias
+ * 3. Saldo de gols
+ * 4. Gols marcados
+ * Se ainda empatar, mantém ordem alfabética.
+ *
+ * O confronto direto não entra aqui: ele só vale para empates entre dois times e é
+ * aplicado sobre a lista já ordenada (ver {@link ConfrontoDireto}).
+ *
+ * Os critérios numéricos ficam só em {@link #comparar(int[], int, int[], int)}, que
+ * também é usado pela {@link TabelaClassificacao}, pelo {@link HistoricoRodadas} e pelo
+ * {@link SimuladorTemporada} sobre as estatísticas que eles guardam em arrays.
+ */
+public class ComparadorClassificacao implements Comparator<Time> {
+
+    @Override
+    public int compare(Time t1, Time t2) {
+        int[] estatisticas1 = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        int[] estatisticas2 = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        t1.lerEstatisticas(estatisticas1);
+        t2.lerEstatisticas(estatisticas2);
+        int criterios = comparar(estatisticas1, 0, estatisticas2, 0);
+        if (criterios != 0) {
+            return criterios;
+        }
+
+        // Se ainda empatar, mantém ordem alfabética
+        return t1.getNome().compareTo(t2.getNome());
+    }
+
+    /**
+     * Compara só os critérios numéricos de dois times, cada um dado por uma linha de
+     * estatísticas no layout de {@link EstatisticasColunares} (pontos, vitórias, empates,
+     * derrotas, gols marcados e sofridos) que começa em {@code baseA} e {@code baseB}.
+     * Negativo se o time A fica à frente; zero se estão empatados em todos.
+     */
+    static int comparar(int[] a, int baseA, int[] b, int baseB) {
+        // 1. Pontos (decrescente)
+        int pontosA = a[baseA + EstatisticasColunares.PONTOS];
+        int pontosB = b[baseB + EstatisticasColunares.PONTOS];
+        if (pontosA != pontosB) {
+            return Integer.compare(pontosB, pontosA);
+        }
+
+        // 2. Vitórias (decrescente)
+        int vitoriasA = a[baseA + EstatisticasColunares.VITORIAS];
+        int vitoriasB = b[baseB + EstatisticasColunares.VITORIAS];
+        if (vitoriasA != vitoriasB) {
+            return Integer.compare(vitoriasB, vitoriasA);
+        }
+
+        // 3. Saldo de gols (decrescente)
+        int golsA = a[baseA + EstatisticasColunares.GOLS_MARCADOS];
+        int golsB = b[baseB + EstatisticasColunares.GOLS_MARCADOS];
+        int saldoA = golsA - a[baseA + EstatisticasColunares.GOLS_SOFRIDOS];
+        int saldoB = golsB - b[baseB + EstatisticasColunares.GOLS_SOFRIDOS];
+        if (saldoA != saldoB) {
+            return Integer.compare(saldoB, saldoA);
+        }
+
+        // 4. Gols marcados (decrescente)
+        return Integer.compare(golsB, golsA);
+    }
+}
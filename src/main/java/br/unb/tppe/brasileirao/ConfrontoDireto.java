@@ -0,0 +1,307 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matriz de resultados entre os times do campeonato (mandante x visitante).
+ *
+ * Cada célula guarda o placar do último jogo do mandante da linha contra o visitante
+ * da coluna, codificado em um int ((gols do mandante + 1) << 16 | gols do visitante + 1,
+ * zero para jogo ainda não realizado). A matriz é preenchida à medida que os resultados
+ * são registrados, então qualquer consulta de confronto direto custa O(1).
+ *
+ * Até {@link #LIMITE_MATRIZ} times a matriz é um array primitivo n×n, alocado só no
+ * primeiro resultado; acima disso os placares ficam em um mapa esparso pelo par de times.
+ *
+ * Quando um jogo do mesmo par substitui outro, o placar anterior é guardado à parte,
+ * para que desfazer o último resultado devolva a célula ao jogo que ainda vale.
+ */
+public class ConfrontoDireto implements OuvinteResultados {
+    public static final int LIMITE_MATRIZ = 1024;
+
+    private final List<Time> times;
+    private final IndiceTimes indice;
+    private final int numTimes;
+    private int[] placares;
+    private final Map<Long, Integer> placaresEsparsos;
+    private final Map<Long, int[]> substituidos;
+
+    public ConfrontoDireto(List<Time> times) {
+        this.times = times;
+        this.numTimes = times.size();
+        this.indice = new IndiceTimes(times);
+        this.placaresEsparsos = numTimes > LIMITE_MATRIZ ? new HashMap<>() : null;
+        this.substituidos = new HashMap<>();
+    }
+
+    @Override
+    public synchronized void resultadoRegistrado(Partida partida) {
+        int mandante = indiceDe(partida.getMandante());
+        int visitante = indiceDe(partida.getVisitante());
+        if (mandante < 0 || visitante < 0) {
+            return;
+        }
+        int anterior = placarPorIndice(mandante, visitante);
+        if (anterior != 0) {
+            long par = (long) mandante * numTimes + visitante;
+            int[] pilha = substituidos.get(par);
+            pilha = pilha == null ? new int[1] : Arrays.copyOf(pilha, pilha.length + 1);
+            pilha[pilha.length - 1] = anterior;
+            substituidos.put(par, pilha);
+        }
+        definirPlacar(mandante, visitante, codificar(partida.getGolsMandante(), partida.getGolsVisitante()));
+    }
+
+    @Override
+    public synchronized void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+        int mandante = indiceDe(partida.getMandante());
+        int visitante = indiceDe(partida.getVisitante());
+        if (mandante < 0 || visitante < 0) {
+            return;
+        }
+        int placar = codificar(golsMandante, golsVisitante);
+        long par = (long) mandante * numTimes + visitante;
+        int[] pilha = substituidos.get(par);
+        if (placarPorIndice(mandante, visitante) == placar) {
+            // O jogo desfeito era o que valia: volta o anterior, se houver
+            definirPlacar(mandante, visitante, pilha == null ? 0 : pilha[pilha.length - 1]);
+            removerSubstituido(par, pilha, pilha == null ? -1 : pilha.length - 1);
+        } else if (pilha != null) {
+            for (int i = pilha.length - 1; i >= 0; i--) {
+                if (pilha[i] == placar) {
+                    removerSubstituido(par, pilha, i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void removerSubstituido(long par, int[] pilha, int posicao) {
+        if (posicao < 0) {
+            return;
+        }
+        if (pilha.length == 1) {
+            substituidos.remove(par);
+            return;
+        }
+        int[] restante = new int[pilha.length - 1];
+        System.arraycopy(pilha, 0, restante, 0, posicao);
+        System.arraycopy(pilha, posicao + 1, restante, posicao, restante.length - posicao);
+        substituidos.put(par, restante);
+    }
+
+    private void definirPlacar(int mandante, int visitante, int placar) {
+        if (placaresEsparsos != null) {
+            long par = (long) mandante * numTimes + visitante;
+            if (placar == 0) {
+                placaresEsparsos.remove(par);
+            } else {
+                placaresEsparsos.put(par, placar);
+            }
+            return;
+        }
+        if (placares == null) {
+            if (placar == 0) {
+                return;
+            }
+            placares = new int[numTimes * numTimes];
+        }
+        placares[mandante * numTimes + visitante] = placar;
+    }
+
+    static int codificar(int golsMandante, int golsVisitante) {
+        return (golsMandante + 1) << 16 | (golsVisitante + 1);
+    }
+
+    /**
+     * Placar codificado do jogo entre os dois times, ou zero se não houve (ou se algum
+     * deles não está no campeonato).
+     */
+    synchronized int getPlacarCodificado(Time mandante, Time visitante) {
+        int i = indiceDe(mandante);
+        int j = indiceDe(visitante);
+        return i < 0 || j < 0 ? 0 : placarPorIndice(i, j);
+    }
+
+    /**
+     * Verifica se o mandante já recebeu o visitante com resultado registrado.
+     */
+    public synchronized boolean foiRealizado(Time mandante, Time visitante) {
+        return placar(mandante, visitante) != 0;
+    }
+
+    /**
+     * Gols do mandante no jogo contra o visitante, ou null se ainda não foi realizado.
+     */
+    public synchronized Integer getGolsMandante(Time mandante, Time visitante) {
+        int placar = placar(mandante, visitante);
+        return placar == 0 ? null : (placar >>> 16) - 1;
+    }
+
+    /**
+     * Gols do visitante no jogo contra o mandante, ou null se ainda não foi realizado.
+     */
+    public synchronized Integer getGolsVisitante(Time mandante, Time visitante) {
+        int placar = placar(mandante, visitante);
+        return placar == 0 ? null : (placar & 0xFFFF) - 1;
+    }
+
+    /**
+     * Pontos que o time fez contra o adversário, somando o jogo em casa e o fora.
+     */
+    public synchronized int getPontos(Time time, Time adversario) {
+        return pontosDoMandante(placar(time, adversario)) + pontosDoVisitante(placar(adversario, time));
+    }
+
+    /**
+     * Saldo de gols do time contra o adversário, somando o jogo em casa e o fora.
+     */
+    public synchronized int getSaldoGols(Time time, Time adversario) {
+        return saldoDoMandante(placar(time, adversario)) - saldoDoMandante(placar(adversario, time));
+    }
+
+    /**
+     * Critério de confronto direto: pontos e depois saldo de gols nos jogos entre os
+     * dois times. Negativo se t1 leva vantagem, como em {@link ComparadorClassificacao}.
+     */
+    public synchronized int comparar(Time t1, Time t2) {
+        return compararPlacares(placar(t1, t2), placar(t2, t1));
+    }
+
+    /**
+     * O critério de confronto direto sobre os placares codificados dos dois jogos: o do
+     * time A em casa e o do time A fora. Negativo se A leva vantagem.
+     */
+    static int compararPlacares(int emCasa, int fora) {
+        int pontosA = pontosDoMandante(emCasa) + pontosDoVisitante(fora);
+        int pontosB = pontosDoVisitante(emCasa) + pontosDoMandante(fora);
+        if (pontosA != pontosB) {
+            return Integer.compare(pontosB, pontosA);
+        }
+        int saldoA = saldoDoMandante(emCasa) - saldoDoMandante(fora);
+        return Integer.compare(-saldoA, saldoA);
+    }
+
+    /**
+     * Aplica o confronto direto numa lista já ordenada pelos demais critérios.
+     *
+     * Como no regulamento, o critério só vale para empates entre exatamente dois times
+     * (com três ou mais, a comparação par a par pode não ser transitiva e fica valendo a
+     * ordem alfabética). {@code criterios} deve retornar zero para times empatados em
+     * todos os critérios numéricos.
+     */
+    static void desempatarDuplas(List<Time> ordenada, Comparator<Time> criterios, Comparator<Time> confronto) {
+        int inicio = 0;
+        while (inicio < ordenada.size()) {
+            int fim = inicio + 1;
+            while (fim < ordenada.size() && criterios.compare(ordenada.get(inicio), ordenada.get(fim)) == 0) {
+                fim++;
+            }
+            if (fim - inicio == 2 && confronto.compare(ordenada.get(inicio), ordenada.get(inicio + 1)) > 0) {
+                Time primeiro = ordenada.get(inicio);
+                ordenada.set(inicio, ordenada.get(inicio + 1));
+                ordenada.set(inicio + 1, primeiro);
+            }
+            inicio = fim;
+        }
+    }
+
+    /**
+     * Escreve a tabela cruzada: uma linha por mandante, uma coluna por visitante,
+     * com o placar de cada jogo já realizado.
+     */
+    public synchronized void escreverTabelaCruzada(Appendable saida) throws IOException {
+        saida.append("    ");
+        for (Time time : times) {
+            saida.append(" | ").append(sigla(time));
+        }
+        saida.append('\n');
+        for (int i = 0; i < numTimes; i++) {
+            Time mandante = times.get(i);
+            saida.append(sigla(mandante));
+            for (int j = 0; j < numTimes; j++) {
+                saida.append(" | ");
+                if (i == j) {
+                    saida.append(" XX");
+                    continue;
+                }
+                int placar = placarPorIndice(i, j);
+                if (placar == 0) {
+                    saida.append("   ");
+                } else {
+                    escreverGols((placar >>> 16) - 1, saida);
+                    saida.append('-');
+                    escreverGols((placar & 0xFFFF) - 1, saida);
+                }
+            }
+            saida.append('\n');
+        }
+    }
+
+    /**
+     * Gols com um caractere; placares de dois dígitos aparecem como '+'.
+     */
+    private static void escreverGols(int gols, Appendable saida) throws IOException {
+        saida.append(gols < 10 ? (char) ('0' + gols) : '+');
+    }
+
+    private static String sigla(Time time) {
+        String nome = time.getNome().toUpperCase();
+        StringBuilder sigla = new StringBuilder(4);
+        for (int i = 0; i < nome.length() && sigla.length() < 3; i++) {
+            if (Character.isLetterOrDigit(nome.charAt(i))) {
+                sigla.append(nome.charAt(i));
+            }
+        }
+        while (sigla.length() < 4) {
+            sigla.append(' ');
+        }
+        return sigla.toString();
+    }
+
+    static int pontosDoMandante(int placar) {
+        if (placar == 0) {
+            return 0;
+        }
+        int saldo = saldoDoMandante(placar);
+        return saldo > 0 ? 3 : saldo == 0 ? 1 : 0;
+    }
+
+    static int pontosDoVisitante(int placar) {
+        if (placar == 0) {
+            return 0;
+        }
+        int saldo = saldoDoMandante(placar);
+        return saldo < 0 ? 3 : saldo == 0 ? 1 : 0;
+    }
+
+    static int saldoDoMandante(int placar) {
+        return placar == 0 ? 0 : (placar >>> 16) - (placar & 0xFFFF);
+    }
+
+    private int placar(Time mandante, Time visitante) {
+        int i = indiceDe(mandante);
+        int j = indiceDe(visitante);
+        if (i < 0 || j < 0) {
+            throw new IllegalArgumentException("Time fora do campeonato");
+        }
+        return placarPorIndice(i, j);
+    }
+
+    private int placarPorIndice(int mandante, int visitante) {
+        if (placaresEsparsos != null) {
+            Integer placar = placaresEsparsos.get((long) mandante * numTimes + visitante);
+            return placar == null ? 0 : placar;
+        }
+        return placares == null ? 0 : placares[mandante * numTimes + visitante];
+    }
+
+    private int indiceDe(Time time) {
+        return indice.indiceDe(time);
+    }
+}
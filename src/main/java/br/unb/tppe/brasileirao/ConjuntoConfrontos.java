@@ -0,0 +1,71 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Conjunto dos confrontos (mandante x visitante) já sorteados no campeonato.
+ *
+ * É atualizado a cada rodada sorteada, então tanto a verificação de duplicidade
+ * quanto a consulta "o time A já recebeu o time B?" custam O(1).
+ * Cada confronto é guardado como um long formado pelos ids dos dois times,
+ * por isso os times precisam estar registrados (ver {@link RegistroTimes}).
+ */
+public class ConjuntoConfrontos {
+    private final Set<Long> confrontos;
+    private boolean duplicidade;
+
+    public ConjuntoConfrontos() {
+        this.confrontos = new HashSet<>();
+        this.duplicidade = false;
+    }
+
+    /**
+     * Adiciona todas as partidas de uma rodada ao conjunto.
+     */
+    public void adicionarRodada(Rodada rodada) {
+        for (Partida partida : rodada.getPartidas()) {
+            adicionar(partida);
+        }
+    }
+
+    /**
+     * Adiciona o confronto de uma partida.
+     * Retorna false se o confronto já havia sido sorteado antes.
+     */
+    public boolean adicionar(Partida partida) {
+        boolean novo = confrontos.add(chave(partida.getMandante(), partida.getVisitante()));
+        if (!novo) {
+            duplicidade = true;
+        }
+        return novo;
+    }
+
+    /**
+     * Verifica se o mandante já recebeu o visitante.
+     */
+    public boolean contem(Time mandante, Time visitante) {
+        return confrontos.contains(chave(mandante, visitante));
+    }
+
+    /**
+     * Retorna true se algum confronto foi adicionado mais de uma vez.
+     */
+    public boolean temDuplicidade() {
+        return duplicidade;
+    }
+
+    public int getQuantidade() {
+        return confrontos.size();
+    }
+
+    /**
+     * Chave do conjunto: o par ordenado (mandante, visitante) com os ids em um long.
+     */
+    private static long chave(Time mandante, Time visitante) {
+        if (mandante.getId() == Time.SEM_ID || visitante.getId() == Time.SEM_ID) {
+            throw new IllegalArgumentException("Os times do confronto precisam estar registrados");
+        }
+        return ((long) mandante.getId() << 32) | visitante.getId();
+    }
+}
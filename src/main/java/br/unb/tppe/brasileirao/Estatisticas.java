@@ -2,8 +2,20 @@ package br.unb.tppe.brasileirao;
 
 /**
  * Classe que representa as estatísticas de um time.
+ *
+ * Por padrão os contadores são campos da própria instância, protegidos pelo monitor
+ * dela. O campeonato pode migrá-los para um {@link EstatisticasColunares}
+ * compartilhado por todos os times; a partir daí a instância é apenas uma visão
+ * sobre uma posição dos arrays, com as travas do armazenamento.
+ * Os registros são seguros com várias threads nos dois casos, mas num campeonato
+ * eles não escalam com o número de threads: os ouvintes de resultados são
+ * sincronizados e atendem um registro por vez.
  */
 public class Estatisticas {
+    /** Armazenamento compartilhado, ou null enquanto os contadores são os campos abaixo. */
+    private volatile EstatisticasColunares colunas;
+    private int indice;
+
     private int pontos;
     private int vitorias;
     private int empates;
@@ -11,39 +23,107 @@ public class Estatisticas {
     private int golsMarcados;
     private int golsSofridos;
 
-    public Estatisticas() {
-        this.pontos = 0;
-        this.vitorias = 0;
-        this.empates = 0;
-        this.derrotas = 0;
-        this.golsMarcados = 0;
-        this.golsSofridos = 0;
+    public int getPontos() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getPontos(indice) : pontos;
+    }
+
+    public int getVitorias() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getVitorias(indice) : vitorias;
+    }
+
+    public int getEmpates() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getEmpates(indice) : empates;
+    }
+
+    public int getDerrotas() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getDerrotas(indice) : derrotas;
+    }
+
+    public int getGolsMarcados() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getGolsMarcados(indice) : golsMarcados;
+    }
+
+    public int getGolsSofridos() {
+        EstatisticasColunares c = colunas;
+        return c != null ? c.getGolsSofridos(indice) : golsSofridos;
+    }
+
+    public int getSaldoGols() { return getGolsMarcados() - getGolsSofridos(); }
+    public int getJogos() { return getVitorias() + getEmpates() + getDerrotas(); }
+
+    /**
+     * Lê todos os contadores de forma consistente, mesmo com registros concorrentes.
+     * O destino é indexado por {@link EstatisticasColunares#PONTOS}, {@link EstatisticasColunares#VITORIAS} etc.
+     */
+    public void lerConsistente(int[] destino) {
+        lerConsistente(destino, 0);
+    }
+
+    /**
+     * Como {@link #lerConsistente(int[])}, escrevendo a partir da posição {@code base}
+     * do destino (por exemplo, a linha de um time num array com vários).
+     */
+    void lerConsistente(int[] destino, int base) {
+        EstatisticasColunares c = colunas;
+        if (c != null) {
+            c.lerTime(indice, destino, base);
+            return;
+        }
+        synchronized (this) {
+            destino[base + EstatisticasColunares.PONTOS] = pontos;
+            destino[base + EstatisticasColunares.VITORIAS] = vitorias;
+            destino[base + EstatisticasColunares.EMPATES] = empates;
+            destino[base + EstatisticasColunares.DERROTAS] = derrotas;
+            destino[base + EstatisticasColunares.GOLS_MARCADOS] = golsMarcados;
+            destino[base + EstatisticasColunares.GOLS_SOFRIDOS] = golsSofridos;
+        }
     }
 
-    public int getPontos() { return pontos; }
-    public int getVitorias() { return vitorias; }
-    public int getEmpates() { return empates; }
-    public int getDerrotas() { return derrotas; }
-    public int getGolsMarcados() { return golsMarcados; }
-    public int getGolsSofridos() { return golsSofridos; }
-    public int getSaldoGols() { return golsMarcados - golsSofridos; }
-    public int getJogos() { return vitorias + empates + derrotas; }
+    EstatisticasColunares getColunas() { return colunas; }
+    int getIndice() { return indice; }
 
     public void registrarVitoria(int gm, int gs) {
-        vitorias++;
-        pontos += 3;
-        golsMarcados += gm;
-        golsSofridos += gs;
+        acumular(1, 0, 0, gm, gs);
     }
     public void registrarEmpate(int gm, int gs) {
-        empates++;
-        pontos += 1;
-        golsMarcados += gm;
-        golsSofridos += gs;
+        acumular(0, 1, 0, gm, gs);
     }
     public void registrarDerrota(int gm, int gs) {
-        derrotas++;
-        golsMarcados += gm;
-        golsSofridos += gs;
+        acumular(0, 0, 1, gm, gs);
+    }
+
+    /**
+     * Soma de uma vez vários resultados (usado nas importações em lote).
+     */
+    void acumular(int novasVitorias, int novosEmpates, int novasDerrotas, int gm, int gs) {
+        EstatisticasColunares c = colunas;
+        if (c != null) {
+            c.acumular(indice, novasVitorias, novosEmpates, novasDerrotas, gm, gs);
+            return;
+        }
+        synchronized (this) {
+            vitorias += novasVitorias;
+            empates += novosEmpates;
+            derrotas += novasDerrotas;
+            pontos += 3 * novasVitorias + novosEmpates;
+            golsMarcados += gm;
+            golsSofridos += gs;
+        }
+    }
+
+    /**
+     * Passa a usar a posição informada do armazenamento, levando os contadores atuais.
+     */
+    void migrarPara(EstatisticasColunares destino, int novoIndice) {
+        int[] atuais = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        lerConsistente(atuais);
+        destino.definir(novoIndice, atuais);
+        this.indice = novoIndice;
+        this.colunas = destino;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,251 @@
+package br.unb.tppe.brasileirao;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Armazenamento colunar das estatísticas: um array de int por estatística. Num
+ * {@link Campeonato} a posição de cada time é o seu índice na liga; usado sozinho
+ * (por exemplo, com {@link LogEventos}), é o id do time.
+ *
+ * Em ligas muito grandes os contadores ficam contíguos na memória, e cada
+ * {@link Estatisticas} passa a ser apenas uma visão sobre uma posição dos arrays.
+ *
+ * O registro de resultados é seguro com várias threads escrevendo ao mesmo tempo:
+ * cada time é protegido por uma das travas de um conjunto (lock striping), e
+ * {@link #lerTime(int, int[])} devolve os contadores de um time de forma
+ * consistente (pontos e vitórias sempre correspondem ao mesmo conjunto de jogos).
+ * As travas garantem correção, não vazão: dentro de um {@link Campeonato} cada
+ * resultado também passa pelos ouvintes sincronizados ({@link ConfrontoDireto},
+ * {@link TabelaClassificacao}, {@link HistoricoRodadas}), que serializam os
+ * registros. O aumento de capacidade não é seguro e deve acontecer antes do uso
+ * concorrente.
+ */
+public class EstatisticasColunares {
+    /** Posições do array preenchido por {@link #lerTime(int, int[])}. */
+    public static final int PONTOS = 0;
+    public static final int VITORIAS = 1;
+    public static final int EMPATES = 2;
+    public static final int DERROTAS = 3;
+    public static final int GOLS_MARCADOS = 4;
+    public static final int GOLS_SOFRIDOS = 5;
+    public static final int NUMERO_ESTATISTICAS = 6;
+
+    private static final int MAXIMO_TRAVAS = 64;
+
+    private int[] pontos;
+    private int[] vitorias;
+    private int[] empates;
+    private int[] derrotas;
+    private int[] golsMarcados;
+    private int[] golsSofridos;
+    private final StampedLock[] travas;
+
+    public EstatisticasColunares(int capacidade) {
+        this.pontos = new int[capacidade];
+        this.vitorias = new int[capacidade];
+        this.empates = new int[capacidade];
+        this.derrotas = new int[capacidade];
+        this.golsMarcados = new int[capacidade];
+        this.golsSofridos = new int[capacidade];
+        this.travas = criarTravas(capacidade);
+    }
+
+    /**
+     * Cria uma quantidade de travas que é potência de 2, limitada a {@link #MAXIMO_TRAVAS}.
+     */
+    private static StampedLock[] criarTravas(int capacidade) {
+        int quantidade = 1;
+        while (quantidade < capacidade && quantidade < MAXIMO_TRAVAS) {
+            quantidade <<= 1;
+        }
+        StampedLock[] travas = new StampedLock[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            travas[i] = new StampedLock();
+        }
+        return travas;
+    }
+
+    private StampedLock trava(int id) {
+        return travas[id & (travas.length - 1)];
+    }
+
+    public int getCapacidade() {
+        return pontos.length;
+    }
+
+    /**
+     * Aumenta os arrays para comportar ao menos a capacidade informada.
+     */
+    public void garantirCapacidade(int capacidade) {
+        if (capacidade <= pontos.length) {
+            return;
+        }
+        int novaCapacidade = Math.max(capacidade, pontos.length * 2);
+        pontos = Arrays.copyOf(pontos, novaCapacidade);
+        vitorias = Arrays.copyOf(vitorias, novaCapacidade);
+        empates = Arrays.copyOf(empates, novaCapacidade);
+        derrotas = Arrays.copyOf(derrotas, novaCapacidade);
+        golsMarcados = Arrays.copyOf(golsMarcados, novaCapacidade);
+        golsSofridos = Arrays.copyOf(golsSofridos, novaCapacidade);
+    }
+
+    public int getPontos(int id) { return pontos[id]; }
+    public int getVitorias(int id) { return vitorias[id]; }
+    public int getEmpates(int id) { return empates[id]; }
+    public int getDerrotas(int id) { return derrotas[id]; }
+    public int getGolsMarcados(int id) { return golsMarcados[id]; }
+    public int getGolsSofridos(int id) { return golsSofridos[id]; }
+
+    /**
+     * Lê todos os contadores de um time de uma só vez, sem nunca misturar valores
+     * de antes e depois de um registro. O destino é indexado por {@link #PONTOS},
+     * {@link #VITORIAS} etc. Normalmente não bloqueia: faz uma leitura otimista e só
+     * espera pela trava se houve escrita no meio.
+     */
+    public void lerTime(int id, int[] destino) {
+        lerTime(id, destino, 0);
+    }
+
+    /**
+     * Como {@link #lerTime(int, int[])}, escrevendo a partir da posição {@code base} do destino.
+     */
+    void lerTime(int id, int[] destino, int base) {
+        StampedLock trava = trava(id);
+        long carimbo = trava.tryOptimisticRead();
+        copiarPara(id, destino, base);
+        if (!trava.validate(carimbo)) {
+            carimbo = trava.readLock();
+            try {
+                copiarPara(id, destino, base);
+            } finally {
+                trava.unlockRead(carimbo);
+            }
+        }
+    }
+
+    private void copiarPara(int id, int[] destino, int base) {
+        destino[base + PONTOS] = pontos[id];
+        destino[base + VITORIAS] = vitorias[id];
+        destino[base + EMPATES] = empates[id];
+        destino[base + DERROTAS] = derrotas[id];
+        destino[base + GOLS_MARCADOS] = golsMarcados[id];
+        destino[base + GOLS_SOFRIDOS] = golsSofridos[id];
+    }
+
+    void registrarVitoria(int id, int gm, int gs) {
+        StampedLock trava = trava(id);
+        long carimbo = trava.writeLock();
+        try {
+            vitorias[id]++;
+            pontos[id] += 3;
+            golsMarcados[id] += gm;
+            golsSofridos[id] += gs;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    void registrarEmpate(int id, int gm, int gs) {
+        StampedLock trava = trava(id);
+        long carimbo = trava.writeLock();
+        try {
+            empates[id]++;
+            pontos[id] += 1;
+            golsMarcados[id] += gm;
+            golsSofridos[id] += gs;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    void registrarDerrota(int id, int gm, int gs) {
+        StampedLock trava = trava(id);
+        long carimbo = trava.writeLock();
+        try {
+            derrotas[id]++;
+            golsMarcados[id] += gm;
+            golsSofridos[id] += gs;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    /**
+     * Soma de uma vez vários resultados ao time (usado nas importações em lote).
+     */
+    void acumular(int id, int novasVitorias, int novosEmpates, int novasDerrotas, int gm, int gs) {
+        StampedLock trava = trava(id);
+        long carimbo = trava.writeLock();
+        try {
+            vitorias[id] += novasVitorias;
+            empates[id] += novosEmpates;
+            derrotas[id] += novasDerrotas;
+            pontos[id] += 3 * novasVitorias + novosEmpates;
+            golsMarcados[id] += gm;
+            golsSofridos[id] += gs;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    /**
+     * Lê os contadores dos times de 0 até {@code quantidade - 1} como linhas de
+     * {@link #NUMERO_ESTATISTICAS} ints, no layout de {@link #lerTime(int, int[])}. Cada
+     * coluna é percorrida em sequência, sem passar pelos objetos {@link Estatisticas}.
+     * Segura todas as travas para leitura durante a cópia, então nenhum time aparece com
+     * um registro pela metade.
+     */
+    void lerTodos(int[] destino, int quantidade) {
+        long[] carimbos = new long[travas.length];
+        for (int i = 0; i < travas.length; i++) {
+            carimbos[i] = travas[i].readLock();
+        }
+        try {
+            copiarColuna(pontos, destino, PONTOS, quantidade);
+            copiarColuna(vitorias, destino, VITORIAS, quantidade);
+            copiarColuna(empates, destino, EMPATES, quantidade);
+            copiarColuna(derrotas, destino, DERROTAS, quantidade);
+            copiarColuna(golsMarcados, destino, GOLS_MARCADOS, quantidade);
+            copiarColuna(golsSofridos, destino, GOLS_SOFRIDOS, quantidade);
+        } finally {
+            for (int i = 0; i < travas.length; i++) {
+                travas[i].unlockRead(carimbos[i]);
+            }
+        }
+    }
+
+    private static void copiarColuna(int[] coluna, int[] destino, int campo, int quantidade) {
+        for (int id = 0, posicao = campo; id < quantidade; id++, posicao += NUMERO_ESTATISTICAS) {
+            destino[posicao] = coluna[id];
+        }
+    }
+
+    /**
+     * Lê as seis colunas em sequência (na ordem {@link #PONTOS} ... {@link #GOLS_SOFRIDOS}),
+     * cada uma com a quantidade informada de ints, em cópias contíguas.
+     */
+    void importarColunas(IntBuffer origem, int quantidade) {
+        garantirCapacidade(quantidade);
+        origem.get(pontos, 0, quantidade);
+        origem.get(vitorias, 0, quantidade);
+        origem.get(empates, 0, quantidade);
+        origem.get(derrotas, 0, quantidade);
+        origem.get(golsMarcados, 0, quantidade);
+        origem.get(golsSofridos, 0, quantidade);
+    }
+
+    /**
+     * Sobrescreve os contadores de um time com os valores informados, indexados
+     * por {@link #PONTOS}, {@link #VITORIAS} etc.
+     */
+    void definir(int id, int[] valores) {
+        pontos[id] = valores[PONTOS];
+        vitorias[id] = valores[VITORIAS];
+        empates[id] = valores[EMPATES];
+        derrotas[id] = valores[DERROTAS];
+        golsMarcados[id] = valores[GOLS_MARCADOS];
+        golsSofridos[id] = valores[GOLS_SOFRIDOS];
+    }
+}
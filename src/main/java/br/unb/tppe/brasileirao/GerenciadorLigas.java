@@ -0,0 +1,290 @@
+package br.unb.tppe.brasileirao;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executa muitos campeonatos independentes (séries A a D, estaduais, ligas simuladas)
+ * na mesma JVM.
+ *
+ * Cada liga continua sendo usada por uma thread de cada vez: as tarefas de uma liga
+ * entram numa fila própria e rodam em ordem, enquanto ligas diferentes rodam em
+ * paralelo no executor. Por padrão o executor usa threads virtuais quando a JVM as
+ * oferece (Java 21+) e, senão, um pool limitado ao número de processadores.
+ *
+ * Todas as ligas compartilham um único {@link RegistroTimes}: um clube que disputa
+ * mais de uma competição recebe o mesmo id em todas, com um {@link Time} (e
+ * estatísticas) separado por liga.
+ */
+public class GerenciadorLigas implements AutoCloseable {
+    /** Tarefas de uma liga executadas antes de ceder a thread para outra liga. */
+    private static final int TAREFAS_POR_VEZ = 16;
+
+    /**
+     * Trabalho feito sobre o campeonato de uma liga.
+     */
+    @FunctionalInterface
+    public interface TarefaLiga<T> {
+        T executar(Campeonato campeonato) throws Exception;
+    }
+
+    private final RegistroTimes registro;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+    private final Map<String, Liga> ligas;
+    private final LongAdder tarefasConcluidas;
+    private final LongAdder tarefasComFalha;
+    private final LongAdder resultadosRegistrados;
+    private final OuvinteResultados contadorResultados;
+    private final long inicio;
+    private volatile boolean fechado;
+
+    /**
+     * Usa threads virtuais se a JVM as oferecer, ou um pool com uma thread por processador.
+     */
+    public GerenciadorLigas() {
+        this(criarExecutorVirtual());
+    }
+
+    /**
+     * Usa um pool com o número de threads informado.
+     */
+    public GerenciadorLigas(int threads) {
+        this(criarPool(threads), false);
+    }
+
+    private GerenciadorLigas(ExecutorService virtual) {
+        this(virtual != null ? virtual : criarPool(Runtime.getRuntime().availableProcessors()), virtual != null);
+    }
+
+    private GerenciadorLigas(ExecutorService executor, boolean threadsVirtuais) {
+        this.registro = new RegistroTimes();
+        this.executor = executor;
+        this.threadsVirtuais = threadsVirtuais;
+        this.ligas = new ConcurrentHashMap<>();
+        this.tarefasConcluidas = new LongAdder();
+        this.tarefasComFalha = new LongAdder();
+        this.resultadosRegistrados = new LongAdder();
+        // Um resultado desfeito deixa de contar, então uma correção não vira um resultado novo
+        this.contadorResultados = new OuvinteResultados() {
+            @Override
+            public void resultadoRegistrado(Partida partida) {
+                resultadosRegistrados.increment();
+            }
+
+            @Override
+            public void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+                resultadosRegistrados.decrement();
+            }
+        };
+        this.inicio = System.nanoTime();
+    }
+
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // JVM sem threads virtuais (ou com elas só em preview)
+            return null;
+        }
+    }
+
+    private static ExecutorService criarPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O pool precisa de pelo menos uma thread");
+        }
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "liga-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, fabrica);
+    }
+
+    public RegistroTimes getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Indica se as ligas rodam em threads virtuais.
+     */
+    public boolean isThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+
+    /**
+     * Cria uma liga com times novos, registrados no registro compartilhado.
+     */
+    public Campeonato criarLiga(String nome, List<String> nomesTimes) {
+        List<Time> times = new ArrayList<>(nomesTimes.size());
+        for (String nomeTime : nomesTimes) {
+            times.add(new Time(nomeTime, registro));
+        }
+        return adicionarLiga(nome, new Campeonato(times));
+    }
+
+    /**
+     * Passa a gerenciar um campeonato já criado, cujos times devem estar no registro
+     * compartilhado. Depois disso ele só deve ser usado por {@link #executar}.
+     */
+    public Campeonato adicionarLiga(String nome, Campeonato campeonato) {
+        if (campeonato.getRegistro() != registro) {
+            throw new IllegalArgumentException("Os times da liga " + nome + " estão em outro registro");
+        }
+        if (ligas.putIfAbsent(nome, new Liga(campeonato)) != null) {
+            throw new IllegalArgumentException("Liga já existente: " + nome);
+        }
+        for (Time time : campeonato.getTimes()) {
+            time.adicionarOuvinte(contadorResultados);
+        }
+        return campeonato;
+    }
+
+    /**
+     * Retorna o campeonato da liga, ou null se não existir.
+     */
+    public Campeonato getLiga(String nome) {
+        Liga liga = ligas.get(nome);
+        return liga == null ? null : liga.campeonato;
+    }
+
+    public Set<String> getNomesLigas() {
+        return Collections.unmodifiableSet(ligas.keySet());
+    }
+
+    /**
+     * Agenda uma tarefa na liga. Ela roda depois de todas as tarefas já agendadas
+     * na mesma liga, e nunca ao mesmo tempo que elas.
+     */
+    public <T> CompletableFuture<T> executar(String nome, TarefaLiga<T> tarefa) {
+        Liga liga = ligas.get(nome);
+        if (liga == null) {
+            throw new IllegalArgumentException("Liga inexistente: " + nome);
+        }
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        synchronized (liga) {
+            if (fechado) {
+                throw new IllegalStateException("O gerenciador de ligas já foi fechado");
+            }
+            liga.ultima = futuro;
+            liga.fila.add(() -> {
+                T resultado;
+                try {
+                    resultado = tarefa.executar(liga.campeonato);
+                } catch (Throwable e) {
+                    tarefasComFalha.increment();
+                    futuro.completeExceptionally(e);
+                    return;
+                }
+                // Contada antes de completar, para que quem espera o futuro já a veja no resumo
+                tarefasConcluidas.increment();
+                futuro.complete(resultado);
+            });
+        }
+        liga.agendar();
+        return futuro;
+    }
+
+    /**
+     * Agenda a mesma tarefa em todas as ligas.
+     */
+    public <T> Map<String, CompletableFuture<T>> executarEmTodas(TarefaLiga<T> tarefa) {
+        Map<String, CompletableFuture<T>> futuros = new ConcurrentHashMap<>();
+        for (String nome : ligas.keySet()) {
+            futuros.put(nome, executar(nome, tarefa));
+        }
+        return futuros;
+    }
+
+    /**
+     * Vazão somada de todas as ligas desde a criação do gerenciador.
+     */
+    public ResumoLigas getResumo() {
+        long rodadas = 0;
+        for (Liga liga : ligas.values()) {
+            rodadas += liga.campeonato.getVersao().getNumeroRodadas();
+        }
+        return new ResumoLigas(ligas.size(), tarefasConcluidas.sum(), tarefasComFalha.sum(),
+                resultadosRegistrados.sum(), rodadas, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Espera as tarefas já agendadas terminarem e encerra o executor.
+     * Novas tarefas passam a ser recusadas. Se a thread for interrompida durante a
+     * espera, o executor é encerrado sem esperar e a interrupção fica marcada na thread.
+     */
+    @Override
+    public void close() {
+        fechado = true;
+        for (Liga liga : ligas.values()) {
+            CompletableFuture<?> ultima;
+            synchronized (liga) {
+                ultima = liga.ultima;
+            }
+            if (ultima != null) {
+                try {
+                    ultima.join();
+                } catch (RuntimeException e) {
+                    // A falha já foi entregue a quem agendou a tarefa
+                }
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fila de tarefas de uma liga. No máximo uma execução de {@link #drenar()} fica
+     * agendada por vez, o que garante que o campeonato é usado por uma thread só.
+     */
+    private final class Liga {
+        private final Campeonato campeonato;
+        private final Queue<Runnable> fila = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean agendada = new AtomicBoolean();
+        private CompletableFuture<?> ultima;
+
+        Liga(Campeonato campeonato) {
+            this.campeonato = campeonato;
+        }
+
+        void agendar() {
+            if (!fila.isEmpty() && agendada.compareAndSet(false, true)) {
+                executor.execute(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            Runnable tarefa;
+            int executadas = 0;
+            while (executadas < TAREFAS_POR_VEZ && (tarefa = fila.poll()) != null) {
+                tarefa.run();
+                executadas++;
+            }
+            agendada.set(false);
+            // Tarefas que chegaram depois da última verificação (ou que sobraram do lote)
+            agendar();
+        }
+    }
+}
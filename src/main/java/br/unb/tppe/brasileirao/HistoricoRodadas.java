@@ -0,0 +1,237 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histórico da classificação rodada a rodada, para consultar a tabela "após a rodada k"
+ * sem repetir o campeonato desde o início.
+ *
+ * Cada resultado registrado em uma partida de rodada é guardado na posição da partida
+ * dentro da sua rodada, então registrar ou desfazer um resultado custa O(1).
+ * A cada {@code intervalo} rodadas fica um ponto de controle com as estatísticas
+ * acumuladas de todos os times, calculado só quando alguém consulta e invalidado quando
+ * chega (ou é desfeito) um resultado de uma rodada anterior a ele. Uma consulta copia o ponto de controle
+ * mais próximo e aplica no máximo {@code intervalo - 1} rodadas. O intervalo é 1 para
+ * campeonatos de tamanho normal e cresce só quando os pontos de controle de todas as
+ * rodadas passariam de {@link #LIMITE_PONTOS_CONTROLE} valores.
+ *
+ * Os placares de cada confronto também ficam guardados com a rodada, para aplicar o
+ * confronto direto como ele estava na rodada consultada. Partidas avulsas e estatísticas
+ * alteradas sem passar por uma partida não entram no histórico.
+ */
+public class HistoricoRodadas implements OuvinteResultados {
+    static final int LIMITE_PONTOS_CONTROLE = 1 << 22;
+    private static final int CAMPOS = EstatisticasColunares.NUMERO_ESTATISTICAS;
+
+    private final List<Time> times;
+    private final int numTimes;
+    private final IndiceTimes indice;
+    private final int numeroRodadas;
+    private final int intervalo;
+    /**
+     * Por rodada, quatro ints por partida (na posição do jogo): mandante, visitante e os
+     * gols de cada um + 1. Gols zerados indicam partida sem resultado.
+     */
+    private final int[][] resultados;
+    private final int[][] pontosControle;
+    private int calculados;
+    /** Por par mandante x visitante: rodada e placar codificado de cada jogo, em ordem de registro. */
+    private final Map<Long, int[]> confrontos;
+
+    public HistoricoRodadas(List<Time> times, int numeroRodadas) {
+        this.times = times;
+        this.numTimes = times.size();
+        this.numeroRodadas = numeroRodadas;
+        this.indice = new IndiceTimes(times);
+
+        long valoresPorRodada = Math.max(1L, (long) numTimes * CAMPOS);
+        this.intervalo = (int) Math.max(1L, (numeroRodadas * valoresPorRodada + LIMITE_PONTOS_CONTROLE - 1)
+                                             / LIMITE_PONTOS_CONTROLE);
+        this.resultados = new int[numeroRodadas][];
+        this.pontosControle = new int[numeroRodadas / intervalo + 1][];
+        this.pontosControle[0] = new int[numTimes * CAMPOS];
+        this.confrontos = new HashMap<>();
+    }
+
+    int getIntervalo() {
+        return intervalo;
+    }
+
+    @Override
+    public synchronized void resultadoRegistrado(Partida partida) {
+        int rodada = partida.getNumeroRodada();
+        int jogo = partida.getNumeroJogo();
+        int mandante = indiceDe(partida.getMandante());
+        int visitante = indiceDe(partida.getVisitante());
+        if (rodada < 1 || rodada > numeroRodadas || jogo < 0 || mandante < 0 || visitante < 0) {
+            return;
+        }
+        int golsMandante = partida.getGolsMandante();
+        int golsVisitante = partida.getGolsVisitante();
+
+        int[] lista = resultados[rodada - 1];
+        if (lista == null || jogo * 4 >= lista.length) {
+            int tamanho = Math.max(Math.max(4, numTimes / 2 * 4), (jogo + 1) * 4);
+            lista = lista == null ? new int[tamanho] : Arrays.copyOf(lista, Math.max(tamanho, lista.length * 2));
+            resultados[rodada - 1] = lista;
+        }
+        int posicao = jogo * 4;
+        lista[posicao] = mandante;
+        lista[posicao + 1] = visitante;
+        lista[posicao + 2] = golsMandante + 1;
+        lista[posicao + 3] = golsVisitante + 1;
+
+        long par = (long) mandante * numTimes + visitante;
+        int[] jogos = confrontos.get(par);
+        jogos = jogos == null ? new int[2] : Arrays.copyOf(jogos, jogos.length + 2);
+        jogos[jogos.length - 2] = rodada;
+        jogos[jogos.length - 1] = ConfrontoDireto.codificar(golsMandante, golsVisitante);
+        confrontos.put(par, jogos);
+
+        invalidarAPartirDe(rodada);
+    }
+
+    @Override
+    public synchronized void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+        int rodada = partida.getNumeroRodada();
+        int jogo = partida.getNumeroJogo();
+        int mandante = indiceDe(partida.getMandante());
+        int visitante = indiceDe(partida.getVisitante());
+        if (rodada < 1 || rodada > numeroRodadas || jogo < 0 || mandante < 0 || visitante < 0) {
+            return;
+        }
+        int[] lista = resultados[rodada - 1];
+        if (lista != null && jogo * 4 < lista.length) {
+            lista[jogo * 4 + 2] = 0;
+            lista[jogo * 4 + 3] = 0;
+        }
+
+        long par = (long) mandante * numTimes + visitante;
+        int[] jogos = confrontos.get(par);
+        int placar = ConfrontoDireto.codificar(golsMandante, golsVisitante);
+        for (int i = jogos == null ? -2 : jogos.length - 2; i >= 0; i -= 2) {
+            if (jogos[i] == rodada && jogos[i + 1] == placar) {
+                int[] restantes = new int[jogos.length - 2];
+                System.arraycopy(jogos, 0, restantes, 0, i);
+                System.arraycopy(jogos, i + 2, restantes, i, restantes.length - i);
+                if (restantes.length == 0) {
+                    confrontos.remove(par);
+                } else {
+                    confrontos.put(par, restantes);
+                }
+                break;
+            }
+        }
+
+        invalidarAPartirDe(rodada);
+    }
+
+    /**
+     * Os pontos de controle a partir da rodada deixam de valer.
+     */
+    private void invalidarAPartirDe(int rodada) {
+        calculados = Math.min(calculados, (rodada - 1) / intervalo);
+    }
+
+    /**
+     * Classificação e estatísticas de todos os times considerando só as rodadas 1 a
+     * {@code numero} (0 para a tabela antes da primeira rodada).
+     */
+    public synchronized RetratoRodada getRetrato(int numero) {
+        if (numero < 0 || numero > numeroRodadas) {
+            throw new IllegalArgumentException("Rodada inexistente: " + numero);
+        }
+        int ponto = numero / intervalo;
+        while (calculados < ponto) {
+            int[] proximo = pontosControle[calculados].clone();
+            for (int rodada = calculados * intervalo + 1; rodada <= (calculados + 1) * intervalo; rodada++) {
+                aplicarRodada(proximo, rodada);
+            }
+            calculados++;
+            pontosControle[calculados] = proximo;
+        }
+
+        int[] estatisticas = pontosControle[ponto].clone();
+        for (int rodada = ponto * intervalo + 1; rodada <= numero; rodada++) {
+            aplicarRodada(estatisticas, rodada);
+        }
+        return new RetratoRodada(numero, times, indice, estatisticas, classificar(estatisticas, numero));
+    }
+
+    private void aplicarRodada(int[] estatisticas, int rodada) {
+        int[] lista = resultados[rodada - 1];
+        if (lista == null) {
+            return;
+        }
+        for (int i = 0; i < lista.length; i += 4) {
+            if (lista[i + 2] == 0) {
+                continue;
+            }
+            int golsMandante = lista[i + 2] - 1;
+            int golsVisitante = lista[i + 3] - 1;
+            aplicarResultado(estatisticas, lista[i], golsMandante, golsVisitante);
+            aplicarResultado(estatisticas, lista[i + 1], golsVisitante, golsMandante);
+        }
+    }
+
+    private static void aplicarResultado(int[] estatisticas, int indice, int golsPro, int golsContra) {
+        int base = indice * CAMPOS;
+        if (golsPro > golsContra) {
+            estatisticas[base + EstatisticasColunares.PONTOS] += 3;
+            estatisticas[base + EstatisticasColunares.VITORIAS]++;
+        } else if (golsPro == golsContra) {
+            estatisticas[base + EstatisticasColunares.PONTOS]++;
+            estatisticas[base + EstatisticasColunares.EMPATES]++;
+        } else {
+            estatisticas[base + EstatisticasColunares.DERROTAS]++;
+        }
+        estatisticas[base + EstatisticasColunares.GOLS_MARCADOS] += golsPro;
+        estatisticas[base + EstatisticasColunares.GOLS_SOFRIDOS] += golsContra;
+    }
+
+    /**
+     * Ordena com os mesmos critérios de {@link TabelaClassificacao}, usando as
+     * estatísticas e os confrontos da rodada consultada.
+     */
+    private List<Time> classificar(int[] estatisticas, int rodada) {
+        List<Time> ordenada = new ArrayList<>(times);
+        ordenada.sort((t1, t2) -> {
+            int criterios = compararCriterios(estatisticas, t1, t2);
+            return criterios != 0 ? criterios : t1.getNome().compareTo(t2.getNome());
+        });
+        ConfrontoDireto.desempatarDuplas(ordenada, (t1, t2) -> compararCriterios(estatisticas, t1, t2),
+                (t1, t2) -> ConfrontoDireto.compararPlacares(placar(indiceDe(t1), indiceDe(t2), rodada),
+                                                             placar(indiceDe(t2), indiceDe(t1), rodada)));
+        return ordenada;
+    }
+
+    private int compararCriterios(int[] estatisticas, Time t1, Time t2) {
+        return ComparadorClassificacao.comparar(estatisticas, indiceDe(t1) * CAMPOS,
+                                                estatisticas, indiceDe(t2) * CAMPOS);
+    }
+
+    /**
+     * Placar do último jogo registrado do mandante contra o visitante até a rodada,
+     * como em {@link ConfrontoDireto}; zero se não houve.
+     */
+    private int placar(int mandante, int visitante, int rodada) {
+        int[] jogos = confrontos.get((long) mandante * numTimes + visitante);
+        int placar = 0;
+        if (jogos != null) {
+            for (int i = 0; i < jogos.length; i += 2) {
+                if (jogos[i] <= rodada) {
+                    placar = jogos[i + 1];
+                }
+            }
+        }
+        return placar;
+    }
+
+    private int indiceDe(Time time) {
+        return indice.indiceDe(time);
+    }
+}
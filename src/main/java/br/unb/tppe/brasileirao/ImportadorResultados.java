@@ -0,0 +1,481 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Importador de resultados históricos em arquivos delimitados (CSV e similares).
+ *
+ * Cada linha tem o formato {@code mandante;visitante;golsMandante;golsVisitante}
+ * (o delimitador é configurável, sem suporte a aspas). O arquivo é lido em blocos de
+ * tamanho fixo, cortados na última quebra de linha, e cada bloco é processado por uma
+ * thread do pool direto sobre os bytes, sem criar Strings nem {@code String[]} por linha.
+ * Os nomes são resolvidos por um índice de bytes UTF-8 para ids do {@link RegistroTimes}
+ * (ou, num campeonato, para a posição do time na liga).
+ *
+ * Cada bloco acumula vitórias, empates, derrotas e gols por time em arrays locais, que
+ * a thread de leitura soma num total à parte à medida que os blocos terminam. Só
+ * depois que o arquivo inteiro foi processado sem erro o total é aplicado às
+ * estatísticas, por uma única thread: uma linha inválida no meio do arquivo não deixa
+ * nada aplicado pela metade. A memória usada é limitada ao número de blocos em
+ * circulação, independente do tamanho do arquivo.
+ */
+public class ImportadorResultados {
+    private static final int TAMANHO_BLOCO_PADRAO = 1 << 22;
+
+    private final RegistroTimes registro;
+    private final EstatisticasColunares colunas;
+    private final Campeonato campeonato;
+    private final byte delimitador;
+    private final int threads;
+    private final int tamanhoBloco;
+    private final IndiceNomes indice;
+
+    /**
+     * Importa para um armazenamento colunar indexado pelos ids do registro.
+     * Times desconhecidos são registrados durante a importação.
+     */
+    public ImportadorResultados(RegistroTimes registro, EstatisticasColunares colunas, char delimitador) {
+        this(registro, colunas, null, delimitador, Runtime.getRuntime().availableProcessors(), TAMANHO_BLOCO_PADRAO);
+    }
+
+    /**
+     * Importa para os times de um campeonato; nomes fora do campeonato são rejeitados.
+     * Ao final a classificação é reordenada uma única vez.
+     */
+    public ImportadorResultados(Campeonato campeonato, char delimitador) {
+        this(campeonato.getRegistro(), null, campeonato, delimitador,
+             Runtime.getRuntime().availableProcessors(), TAMANHO_BLOCO_PADRAO);
+    }
+
+    ImportadorResultados(RegistroTimes registro, EstatisticasColunares colunas, Campeonato campeonato,
+                         char delimitador, int threads, int tamanhoBloco) {
+        if (delimitador > 0x7F) {
+            throw new IllegalArgumentException("O delimitador deve ser um caractere ASCII");
+        }
+        this.registro = registro;
+        this.colunas = colunas;
+        this.campeonato = campeonato;
+        this.delimitador = (byte) delimitador;
+        this.threads = Math.max(1, threads);
+        this.tamanhoBloco = tamanhoBloco;
+        this.indice = new IndiceNomes();
+    }
+
+    /**
+     * Importa o arquivo e retorna a quantidade de partidas aplicadas. Se alguma linha for
+     * inválida (ou a leitura falhar), nenhuma estatística é alterada.
+     */
+    public long importar(Path arquivo, boolean temCabecalho) throws IOException {
+        int emCirculacao = 2 * threads;
+        BlockingQueue<byte[]> buffersLivres = new ArrayBlockingQueue<>(emCirculacao);
+        for (int i = 0; i < emCirculacao; i++) {
+            buffersLivres.add(new byte[tamanhoBloco]);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Deque<Future<Totais>> tarefas = new ArrayDeque<>();
+        Totais totais = new Totais();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            byte[] sobra = new byte[0];
+            boolean primeiro = temCabecalho;
+            boolean fim = false;
+            while (!fim) {
+                byte[] bloco = buffersLivres.take();
+                System.arraycopy(sobra, 0, bloco, 0, sobra.length);
+                int tamanho = sobra.length + lerBloco(canal, bloco, sobra.length);
+                fim = tamanho < bloco.length;
+
+                int corte = fim ? tamanho : ultimaQuebra(bloco, tamanho) + 1;
+                if (corte == 0) {
+                    throw new IOException("Linha maior que o tamanho do bloco de leitura");
+                }
+                sobra = Arrays.copyOfRange(bloco, corte, tamanho);
+
+                int inicio = 0;
+                if (primeiro) {
+                    inicio = Math.min(corte, ultimaQuebraAte(bloco, corte));
+                    primeiro = false;
+                }
+                tarefas.add(pool.submit(new TarefaBloco(bloco, inicio, corte, buffersLivres)));
+                // Soma os blocos já terminados para não guardar os totais de todos eles
+                while (!tarefas.isEmpty() && tarefas.peek().isDone()) {
+                    totais.somar(tarefas.poll().get());
+                }
+            }
+            for (Future<Totais> tarefa : tarefas) {
+                totais.somar(tarefa.get());
+            }
+            aplicar(totais);
+            return totais.partidas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new IOException("Falha na importação", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int lerBloco(FileChannel canal, byte[] bloco, int deslocamento) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bloco, deslocamento, bloco.length - deslocamento);
+        int lidos = 0;
+        while (buffer.hasRemaining()) {
+            int n = canal.read(buffer);
+            if (n < 0) {
+                break;
+            }
+            lidos += n;
+        }
+        return lidos;
+    }
+
+    private static int ultimaQuebra(byte[] bloco, int tamanho) {
+        for (int i = tamanho - 1; i >= 0; i--) {
+            if (bloco[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Posição logo após a primeira quebra de linha (fim do cabeçalho).
+     */
+    private static int ultimaQuebraAte(byte[] bloco, int limite) {
+        for (int i = 0; i < limite; i++) {
+            if (bloco[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return limite;
+    }
+
+    /**
+     * Aplica os totais de todo o arquivo, já sem concorrência: o armazenamento colunar
+     * cresce uma vez, antes de qualquer soma.
+     */
+    private void aplicar(Totais totais) {
+        if (colunas != null) {
+            colunas.garantirCapacidade(totais.maior + 1);
+        }
+        for (int i = 0; i <= totais.maior; i++) {
+            if (totais.vitorias[i] + totais.empates[i] + totais.derrotas[i] == 0) {
+                continue;
+            }
+            if (colunas != null) {
+                colunas.acumular(i, totais.vitorias[i], totais.empates[i], totais.derrotas[i],
+                                 totais.golsMarcados[i], totais.golsSofridos[i]);
+            } else {
+                campeonato.getTimes().get(i).getEstatisticas().acumular(totais.vitorias[i], totais.empates[i],
+                        totais.derrotas[i], totais.golsMarcados[i], totais.golsSofridos[i]);
+            }
+        }
+        if (campeonato != null) {
+            campeonato.reordenarClassificacao();
+        }
+    }
+
+    /**
+     * Vitórias, empates, derrotas e gols por time (id do registro ou posição no campeonato).
+     */
+    private static final class Totais {
+        private int[] vitorias = new int[16];
+        private int[] empates = new int[16];
+        private int[] derrotas = new int[16];
+        private int[] golsMarcados = new int[16];
+        private int[] golsSofridos = new int[16];
+        private int maior = -1;
+        private long partidas;
+
+        void somarPartida(int mandante, int visitante, int golsMandante, int golsVisitante) {
+            garantirCapacidade(Math.max(mandante, visitante));
+            golsMarcados[mandante] += golsMandante;
+            golsSofridos[mandante] += golsVisitante;
+            golsMarcados[visitante] += golsVisitante;
+            golsSofridos[visitante] += golsMandante;
+            if (golsMandante > golsVisitante) {
+                vitorias[mandante]++;
+                derrotas[visitante]++;
+            } else if (golsMandante < golsVisitante) {
+                derrotas[mandante]++;
+                vitorias[visitante]++;
+            } else {
+                empates[mandante]++;
+                empates[visitante]++;
+            }
+            partidas++;
+        }
+
+        void somar(Totais outro) {
+            garantirCapacidade(outro.maior);
+            for (int i = 0; i <= outro.maior; i++) {
+                vitorias[i] += outro.vitorias[i];
+                empates[i] += outro.empates[i];
+                derrotas[i] += outro.derrotas[i];
+                golsMarcados[i] += outro.golsMarcados[i];
+                golsSofridos[i] += outro.golsSofridos[i];
+            }
+            partidas += outro.partidas;
+        }
+
+        private void garantirCapacidade(int indice) {
+            maior = Math.max(maior, indice);
+            if (indice < vitorias.length) {
+                return;
+            }
+            int capacidade = Math.max(indice + 1, vitorias.length * 2);
+            vitorias = Arrays.copyOf(vitorias, capacidade);
+            empates = Arrays.copyOf(empates, capacidade);
+            derrotas = Arrays.copyOf(derrotas, capacidade);
+            golsMarcados = Arrays.copyOf(golsMarcados, capacidade);
+            golsSofridos = Arrays.copyOf(golsSofridos, capacidade);
+        }
+    }
+
+    /**
+     * Processa um bloco de linhas completas e devolve os totais do bloco, sem tocar nas
+     * estatísticas.
+     */
+    private class TarefaBloco implements java.util.concurrent.Callable<Totais> {
+        private final byte[] bloco;
+        private final int inicio;
+        private final int fim;
+        private final BlockingQueue<byte[]> buffersLivres;
+        private final Totais totais = new Totais();
+
+        TarefaBloco(byte[] bloco, int inicio, int fim, BlockingQueue<byte[]> buffersLivres) {
+            this.bloco = bloco;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.buffersLivres = buffersLivres;
+        }
+
+        @Override
+        public Totais call() {
+            try {
+                int linha = inicio;
+                while (linha < fim) {
+                    int quebra = linha;
+                    while (quebra < fim && bloco[quebra] != '\n') {
+                        quebra++;
+                    }
+                    processarLinha(linha, quebra);
+                    linha = quebra + 1;
+                }
+            } finally {
+                buffersLivres.add(bloco);
+            }
+            return totais;
+        }
+
+        /**
+         * Lê os quatro campos da linha [inicio, fim). Linhas em branco são ignoradas.
+         */
+        private void processarLinha(int inicioLinha, int fimLinha) {
+            if (fimLinha > inicioLinha && bloco[fimLinha - 1] == '\r') {
+                fimLinha--;
+            }
+            if (fimLinha == inicioLinha) {
+                return;
+            }
+            int d1 = proximoDelimitador(inicioLinha, fimLinha);
+            int d2 = proximoDelimitador(d1 + 1, fimLinha);
+            int d3 = proximoDelimitador(d2 + 1, fimLinha);
+            if (d3 == fimLinha) {
+                throw linhaInvalida(inicioLinha, fimLinha);
+            }
+            int mandante = resolver(inicioLinha, d1, inicioLinha, fimLinha);
+            int visitante = resolver(d1 + 1, d2, inicioLinha, fimLinha);
+            int golsMandante = lerInteiro(d2 + 1, d3, inicioLinha, fimLinha);
+            int golsVisitante = lerInteiro(d3 + 1, fimLinha, inicioLinha, fimLinha);
+
+            totais.somarPartida(mandante, visitante, golsMandante, golsVisitante);
+        }
+
+        private int proximoDelimitador(int posicao, int fimLinha) {
+            while (posicao < fimLinha && bloco[posicao] != delimitador) {
+                posicao++;
+            }
+            return posicao;
+        }
+
+        private int resolver(int inicioCampo, int fimCampo, int inicioLinha, int fimLinha) {
+            while (inicioCampo < fimCampo && bloco[inicioCampo] == ' ') {
+                inicioCampo++;
+            }
+            while (fimCampo > inicioCampo && bloco[fimCampo - 1] == ' ') {
+                fimCampo--;
+            }
+            if (inicioCampo == fimCampo) {
+                throw linhaInvalida(inicioLinha, fimLinha);
+            }
+            return indice.resolver(bloco, inicioCampo, fimCampo - inicioCampo);
+        }
+
+        private int lerInteiro(int inicioCampo, int fimCampo, int inicioLinha, int fimLinha) {
+            int valor = 0;
+            boolean temDigito = false;
+            for (int i = inicioCampo; i < fimCampo; i++) {
+                byte b = bloco[i];
+                if (b >= '0' && b <= '9') {
+                    valor = valor * 10 + (b - '0');
+                    temDigito = true;
+                } else if (b != ' ') {
+                    throw linhaInvalida(inicioLinha, fimLinha);
+                }
+            }
+            if (!temDigito) {
+                throw linhaInvalida(inicioLinha, fimLinha);
+            }
+            return valor;
+        }
+
+        private IllegalArgumentException linhaInvalida(int inicioLinha, int fimLinha) {
+            return new IllegalArgumentException("Linha inválida: "
+                    + new String(bloco, inicioLinha, fimLinha - inicioLinha, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Índice dos nomes em UTF-8 para ids (ou posições no campeonato), consultado direto
+     * sobre os bytes lidos.
+     *
+     * Tabela de endereçamento aberto em que cada posição guarda uma entrada imutável,
+     * publicada de uma vez: as consultas nunca travam. Um nome novo é inserido na própria
+     * tabela, sob a trava; só quando ela passa da metade da capacidade é trocada por outra
+     * com o dobro do tamanho. Assim cada nome novo custa O(1) amortizado, mesmo num
+     * arquivo com milhares de times.
+     */
+    private class IndiceNomes {
+        private volatile Tabela tabela = new Tabela(64);
+        private int quantidade;
+
+        int resolver(byte[] bytes, int inicio, int comprimento) {
+            int hash = hash(bytes, inicio, comprimento);
+            int id = tabela.buscar(bytes, inicio, comprimento, hash);
+            return id >= 0 ? id : adicionar(bytes, inicio, comprimento, hash);
+        }
+
+        private synchronized int adicionar(byte[] bytes, int inicio, int comprimento, int hash) {
+            Tabela atual = tabela;
+            int id = atual.buscar(bytes, inicio, comprimento, hash);
+            if (id >= 0) {
+                return id;
+            }
+            String nome = new String(bytes, inicio, comprimento, StandardCharsets.UTF_8);
+            if (campeonato != null) {
+                Time time = campeonato.buscarTime(nome);
+                if (time == null) {
+                    throw new IllegalArgumentException("Time fora do campeonato: " + nome);
+                }
+                id = time.getIndice();
+            } else {
+                id = registro.registrar(nome);
+            }
+            if ((quantidade + 1) * 2 > atual.capacidade()) {
+                atual = atual.dobrada();
+            }
+            atual.inserir(new Entrada(Arrays.copyOfRange(bytes, inicio, inicio + comprimento), hash, id));
+            quantidade++;
+            tabela = atual;
+            return id;
+        }
+
+        private int hash(byte[] bytes, int inicio, int comprimento) {
+            int h = 1;
+            for (int i = inicio; i < inicio + comprimento; i++) {
+                h = 31 * h + bytes[i];
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static final class Entrada {
+        final byte[] chave;
+        final int hash;
+        final int id;
+
+        Entrada(byte[] chave, int hash, int id) {
+            this.chave = chave;
+            this.hash = hash;
+            this.id = id;
+        }
+    }
+
+    private static class Tabela {
+        private final AtomicReferenceArray<Entrada> entradas;
+
+        Tabela(int capacidade) {
+            this.entradas = new AtomicReferenceArray<>(capacidade);
+        }
+
+        int capacidade() {
+            return entradas.length();
+        }
+
+        int buscar(byte[] bytes, int inicio, int comprimento, int hash) {
+            int mascara = entradas.length() - 1;
+            Entrada entrada;
+            for (int i = hash & mascara; (entrada = entradas.get(i)) != null; i = (i + 1) & mascara) {
+                if (entrada.hash == hash && iguais(entrada.chave, bytes, inicio, comprimento)) {
+                    return entrada.id;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Cópia com o dobro da capacidade, feita sob a trava do índice.
+         */
+        Tabela dobrada() {
+            Tabela nova = new Tabela(entradas.length() * 2);
+            for (int i = 0; i < entradas.length(); i++) {
+                Entrada entrada = entradas.get(i);
+                if (entrada != null) {
+                    nova.inserir(entrada);
+                }
+            }
+            return nova;
+        }
+
+        void inserir(Entrada entrada) {
+            int mascara = entradas.length() - 1;
+            int i = entrada.hash & mascara;
+            while (entradas.get(i) != null) {
+                i = (i + 1) & mascara;
+            }
+            entradas.set(i, entrada);
+        }
+
+        private static boolean iguais(byte[] chave, byte[] bytes, int inicio, int comprimento) {
+            if (chave.length != comprimento) {
+                return false;
+            }
+            for (int i = 0; i < comprimento; i++) {
+                if (chave[i] != bytes[inicio + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posição de cada time numa lista fixa de times, usada para indexar arrays de
+ * tamanho {@code times.size()}.
+ *
+ * Quando a lista é a de um {@link Campeonato}, cada time já guarda a própria posição
+ * (atribuída uma vez, na criação do campeonato) e a consulta é O(1) sem memória
+ * extra. Assim os índices de uma liga não dependem do tamanho do
+ * {@link RegistroTimes}, que pode ser compartilhado por milhares de ligas. Para
+ * outras listas as posições ficam num mapa por identidade.
+ *
+ * A busca pelo id do registro usa uma tabela de hash aberta, também do tamanho da lista.
+ */
+final class IndiceTimes {
+    private final Time[] times;
+    private final Map<Time, Integer> posicoes;
+    /** Posição + 1 de cada time com id, por sondagem linear; 0 marca posição livre. */
+    private final int[] posicoesPorId;
+
+    IndiceTimes(List<Time> times) {
+        this.times = times.toArray(new Time[0]);
+        boolean diretos = true;
+        for (int i = 0; i < this.times.length && diretos; i++) {
+            diretos = this.times[i].getIndice() == i;
+        }
+        if (diretos) {
+            this.posicoes = null;
+        } else {
+            this.posicoes = new IdentityHashMap<>();
+            for (int i = 0; i < this.times.length; i++) {
+                if (posicoes.put(this.times[i], i) != null) {
+                    throw new IllegalArgumentException("Time repetido na lista: " + this.times[i].getNome());
+                }
+            }
+        }
+        this.posicoesPorId = new int[Integer.highestOneBit(Math.max(1, this.times.length)) * 4];
+        for (int i = 0; i < this.times.length; i++) {
+            int id = this.times[i].getId();
+            if (id == Time.SEM_ID) {
+                continue;
+            }
+            int slot = espalhar(id);
+            while (posicoesPorId[slot] != 0) {
+                slot = (slot + 1) & (posicoesPorId.length - 1);
+            }
+            posicoesPorId[slot] = i + 1;
+        }
+    }
+
+    private int espalhar(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ h >>> 16) & (posicoesPorId.length - 1);
+    }
+
+    int tamanho() {
+        return times.length;
+    }
+
+    Time getTime(int indice) {
+        return times[indice];
+    }
+
+    /**
+     * Posição do time na lista, ou -1 se ele não está nela.
+     */
+    int indiceDe(Time time) {
+        if (posicoes != null) {
+            Integer indice = posicoes.get(time);
+            return indice == null ? -1 : indice;
+        }
+        int indice = time.getIndice();
+        return indice >= 0 && indice < times.length && times[indice] == time ? indice : -1;
+    }
+
+    /**
+     * Time da lista com o id informado, ou null se nenhum tem esse id.
+     */
+    Time buscarPorId(int id) {
+        if (id == Time.SEM_ID) {
+            return null;
+        }
+        for (int slot = espalhar(id); posicoesPorId[slot] != 0; slot = (slot + 1) & (posicoesPorId.length - 1)) {
+            Time time = times[posicoesPorId[slot] - 1];
+            if (time.getId() == id) {
+                return time;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,476 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log binário, somente de acréscimo, com as rodadas sorteadas e os resultados registrados
+ * (e anulados).
+ *
+ * Cada evento ocupa um registro de tamanho fixo (6 ints = 24 bytes), gravado após um
+ * cabeçalho com número mágico e versão. Os eventos são acumulados em um buffer e o
+ * fsync é feito em lotes, a cada {@code tamanhoLote} eventos (ou em {@link #sincronizar()}
+ * e {@link #close()}). Após uma reinicialização o campeonato é reconstruído
+ * reproduzindo o log com {@link #restaurar(List, Path)} (ou com
+ * {@link #restaurar(List, TabelaJogos, Path)}, se ele usava outra tabela de jogos), ou
+ * carregando um {@link ArquivoInstantaneo} e reproduzindo só os eventos posteriores a ele.
+ *
+ * Os times são identificados pelo id do {@link RegistroTimes}, então a restauração
+ * precisa receber os times na mesma ordem em que o campeonato foi criado. O log também
+ * guarda o nome de cada time do campeonato, para que os resultados possam ser lidos
+ * com outro registro (ver {@link #lerResultados(Path, RegistroTimes)}).
+ */
+public class LogEventos implements OuvinteResultados, Closeable {
+    static final int NUMERO_MAGICO = 0x42524C47; // "BRLG"
+    static final int VERSAO = 1;
+    static final int TAMANHO_CABECALHO = 8;
+    static final int TAMANHO_EVENTO = 24;
+
+    static final int EVENTO_RODADA = 1;
+    static final int EVENTO_RESULTADO = 2;
+    static final int EVENTO_ANULACAO = 3;
+    static final int EVENTO_NOME = 4;
+
+    static final int CAMPOS_RESULTADO = 5;
+
+    /** Bytes do nome em cada evento de nome; nomes maiores ocupam vários eventos. */
+    private static final int BYTES_POR_NOME = 12;
+    private static final int COMPRIMENTO_MAXIMO_NOME = 0xFFFF;
+
+    private static final int LOTE_PADRAO = 256;
+    private static final int EVENTOS_POR_BUFFER = 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final int tamanhoLote;
+    private int eventosPendentes;
+    private long numeroEventos;
+
+    public LogEventos(Path arquivo) throws IOException {
+        this(arquivo, LOTE_PADRAO);
+    }
+
+    public LogEventos(Path arquivo, int tamanhoLote) throws IOException {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+        }
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocate(TAMANHO_EVENTO * EVENTOS_POR_BUFFER);
+        this.tamanhoLote = tamanhoLote;
+        this.eventosPendentes = 0;
+        prepararArquivo();
+    }
+
+    /**
+     * Escreve o cabeçalho em um arquivo novo ou valida o de um arquivo existente,
+     * descartando um eventual registro incompleto no final.
+     */
+    private void prepararArquivo() throws IOException {
+        long tamanho = canal.size();
+        if (tamanho == 0) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            cabecalho.putInt(NUMERO_MAGICO).putInt(VERSAO).flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho, canal.size());
+            }
+            canal.force(false);
+            canal.position(TAMANHO_CABECALHO);
+            numeroEventos = 0;
+            return;
+        }
+        validarCabecalho(canal);
+        long completos = (tamanho - TAMANHO_CABECALHO) / TAMANHO_EVENTO;
+        long fim = TAMANHO_CABECALHO + completos * TAMANHO_EVENTO;
+        canal.truncate(fim);
+        canal.position(fim);
+        numeroEventos = completos;
+    }
+
+    private static void validarCabecalho(FileChannel canal) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        while (cabecalho.hasRemaining()) {
+            if (canal.read(cabecalho, cabecalho.position()) < 0) {
+                throw new IOException("Log de eventos sem cabeçalho");
+            }
+        }
+        cabecalho.flip();
+        if (cabecalho.getInt() != NUMERO_MAGICO || cabecalho.getInt() != VERSAO) {
+            throw new IOException("Arquivo não é um log de eventos válido");
+        }
+    }
+
+    /**
+     * Grava o sorteio de uma rodada.
+     */
+    public synchronized void registrarRodada(int numeroRodada) throws IOException {
+        gravar(EVENTO_RODADA, numeroRodada, 0, 0, 0, 0);
+    }
+
+    /**
+     * Grava o nome do time junto com o id dele, em UTF-8. Cada evento leva o id, o
+     * deslocamento e o comprimento do nome e {@link #BYTES_POR_NOME} bytes do nome.
+     */
+    public synchronized void registrarTime(Time time) throws IOException {
+        byte[] nome = time.getNome().getBytes(StandardCharsets.UTF_8);
+        if (nome.length > COMPRIMENTO_MAXIMO_NOME) {
+            throw new IllegalArgumentException("Nome grande demais para o log: " + time.getNome());
+        }
+        int deslocamento = 0;
+        do {
+            ByteBuffer pedaco = ByteBuffer.wrap(
+                    Arrays.copyOfRange(nome, deslocamento, deslocamento + BYTES_POR_NOME));
+            gravar(EVENTO_NOME, time.getId(), deslocamento << 16 | nome.length,
+                   pedaco.getInt(), pedaco.getInt(), pedaco.getInt());
+            deslocamento += BYTES_POR_NOME;
+        } while (deslocamento < nome.length);
+    }
+
+    /**
+     * Grava o resultado de uma partida.
+     */
+    public synchronized void registrarResultado(Partida partida) throws IOException {
+        gravar(EVENTO_RESULTADO, partida.getNumeroRodada(), partida.getMandante().getId(),
+                partida.getVisitante().getId(), partida.getGolsMandante(), partida.getGolsVisitante());
+    }
+
+    @Override
+    public void resultadoRegistrado(Partida partida) {
+        try {
+            registrarResultado(partida);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o resultado no log", e);
+        }
+    }
+
+    /**
+     * Grava a anulação do resultado de uma partida, com o placar retirado. Uma correção
+     * fica no log como a anulação do placar antigo seguida do novo resultado.
+     */
+    public synchronized void registrarAnulacao(Partida partida, int golsMandante, int golsVisitante)
+            throws IOException {
+        gravar(EVENTO_ANULACAO, partida.getNumeroRodada(), partida.getMandante().getId(),
+                partida.getVisitante().getId(), golsMandante, golsVisitante);
+    }
+
+    @Override
+    public void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+        try {
+            registrarAnulacao(partida, golsMandante, golsVisitante);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a anulação no log", e);
+        }
+    }
+
+    private void gravar(int tipo, int a, int b, int c, int d, int e) throws IOException {
+        if (buffer.remaining() < TAMANHO_EVENTO) {
+            descarregar();
+        }
+        buffer.putInt(tipo).putInt(a).putInt(b).putInt(c).putInt(d).putInt(e);
+        eventosPendentes++;
+        numeroEventos++;
+        if (eventosPendentes >= tamanhoLote) {
+            sincronizar();
+        }
+    }
+
+    private void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Grava os eventos pendentes e força a escrita em disco (fsync).
+     */
+    public synchronized void sincronizar() throws IOException {
+        descarregar();
+        canal.force(false);
+        eventosPendentes = 0;
+    }
+
+    /**
+     * Número de eventos do log, contando os que ainda não foram gravados em disco.
+     */
+    public synchronized long getNumeroEventos() {
+        return numeroEventos;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal.isOpen()) {
+            sincronizar();
+            canal.close();
+        }
+    }
+
+    /**
+     * Recria o campeonato a partir do log: sorteia as mesmas rodadas e registra
+     * os mesmos resultados, na ordem em que aconteceram. Usa a tabela do método do
+     * círculo; para um campeonato criado com outra tabela, use
+     * {@link #restaurar(List, TabelaJogos, Path)}.
+     */
+    public static Campeonato restaurar(List<Time> times, Path arquivo) throws IOException {
+        return restaurar(times, null, arquivo);
+    }
+
+    /**
+     * Como {@link #restaurar(List, Path)}, sorteando as rodadas pela tabela informada,
+     * montada com os mesmos {@code times}. O log não guarda a tabela: cada resultado
+     * precisa estar numa partida que ela gera na mesma rodada, senão a restauração falha.
+     */
+    public static Campeonato restaurar(List<Time> times, TabelaJogos tabela, Path arquivo) throws IOException {
+        Campeonato campeonato = new Campeonato(times, null, tabela);
+        reproduzir(arquivo, campeonato);
+        return campeonato;
+    }
+
+    /**
+     * Reproduz os eventos do log sobre um campeonato recém-criado.
+     */
+    public static void reproduzir(Path arquivo, Campeonato campeonato) throws IOException {
+        reproduzir(arquivo, campeonato, 0);
+    }
+
+    /**
+     * Reproduz os eventos do log a partir do evento {@code aPartirDe} (contado a partir
+     * de 0), pulando os anteriores. O campeonato pode já ter rodadas, por exemplo se foi
+     * carregado de um {@link ArquivoInstantaneo} salvo quando o log tinha
+     * {@code aPartirDe} eventos: cada rodada do trecho reproduzido precisa ser a próxima
+     * a ser sorteada.
+     */
+    public static void reproduzir(Path arquivo, Campeonato campeonato, long aPartirDe) throws IOException {
+        ByteBuffer eventos = lerEventos(arquivo);
+        if (aPartirDe < 0 || aPartirDe > eventos.remaining() / TAMANHO_EVENTO) {
+            throw new IOException("O log não tem " + aPartirDe + " eventos");
+        }
+        eventos.position((int) aPartirDe * TAMANHO_EVENTO);
+        while (eventos.remaining() >= TAMANHO_EVENTO) {
+            int tipo = eventos.getInt();
+            int numeroRodada = eventos.getInt();
+            int idMandante = eventos.getInt();
+            int idVisitante = eventos.getInt();
+            int golsMandante = eventos.getInt();
+            int golsVisitante = eventos.getInt();
+
+            if (tipo == EVENTO_RODADA) {
+                Rodada rodada = campeonato.sortearRodada();
+                if (rodada.getNumero() != numeroRodada) {
+                    throw new IOException("Log fora de ordem: esperada rodada " + rodada.getNumero());
+                }
+            } else if (tipo == EVENTO_RESULTADO) {
+                buscarPartida(campeonato, numeroRodada, idMandante, idVisitante)
+                        .registrarResultado(golsMandante, golsVisitante);
+            } else if (tipo == EVENTO_ANULACAO) {
+                Partida partida = buscarPartida(campeonato, numeroRodada, idMandante, idVisitante);
+                if (numeroRodada == 0) {
+                    // Partida avulsa: recriada com o placar que foi contabilizado
+                    partida.restaurarResultado(golsMandante, golsVisitante);
+                }
+                partida.desfazerResultado();
+            } else if (tipo != EVENTO_NOME) {
+                throw new IOException("Tipo de evento desconhecido: " + tipo);
+            }
+        }
+    }
+
+    private static Partida buscarPartida(Campeonato campeonato, int numeroRodada,
+                                         int idMandante, int idVisitante) throws IOException {
+        Time mandante = campeonato.buscarTime(idMandante);
+        Time visitante = campeonato.buscarTime(idVisitante);
+        if (mandante == null || visitante == null) {
+            throw new IOException("Time desconhecido no log");
+        }
+        if (numeroRodada == 0) {
+            return new Partida(mandante, visitante);
+        }
+        Partida partida = campeonato.getRodada(numeroRodada).buscarPartidaDoMandante(mandante);
+        if (partida == null || !partida.getVisitante().equals(visitante)) {
+            throw new IOException("Partida do log não encontrada na rodada " + numeroRodada);
+        }
+        return partida;
+    }
+
+    /**
+     * Soma os resultados do log direto no armazenamento colunar, indexado pelo id dos
+     * times, sem criar partidas nem rodadas. É o caminho rápido para restaurar apenas
+     * as estatísticas de muitas temporadas.
+     */
+    public static void acumularEstatisticas(Path arquivo, EstatisticasColunares colunas) throws IOException {
+        ByteBuffer eventos = lerEventos(arquivo);
+        while (eventos.remaining() >= TAMANHO_EVENTO) {
+            int tipo = eventos.getInt();
+            eventos.getInt();
+            int mandante = eventos.getInt();
+            int visitante = eventos.getInt();
+            int golsMandante = eventos.getInt();
+            int golsVisitante = eventos.getInt();
+            if (tipo != EVENTO_RESULTADO && tipo != EVENTO_ANULACAO) {
+                continue;
+            }
+            colunas.garantirCapacidade(Math.max(mandante, visitante) + 1);
+            if (tipo == EVENTO_ANULACAO) {
+                int vitoria = golsMandante > golsVisitante ? 1 : 0;
+                int empate = golsMandante == golsVisitante ? 1 : 0;
+                int derrota = golsMandante < golsVisitante ? 1 : 0;
+                colunas.acumular(mandante, -vitoria, -empate, -derrota, -golsMandante, -golsVisitante);
+                colunas.acumular(visitante, -derrota, -empate, -vitoria, -golsVisitante, -golsMandante);
+            } else if (golsMandante > golsVisitante) {
+                colunas.registrarVitoria(mandante, golsMandante, golsVisitante);
+                colunas.registrarDerrota(visitante, golsVisitante, golsMandante);
+            } else if (golsMandante < golsVisitante) {
+                colunas.registrarDerrota(mandante, golsMandante, golsVisitante);
+                colunas.registrarVitoria(visitante, golsVisitante, golsMandante);
+            } else {
+                colunas.registrarEmpate(mandante, golsMandante, golsVisitante);
+                colunas.registrarEmpate(visitante, golsVisitante, golsMandante);
+            }
+        }
+    }
+
+    /**
+     * Como {@link #lerResultados(Path)}, com os ids trocados pelos do registro informado:
+     * os times são casados pelo nome gravado no log, e nomes ainda não registrados
+     * recebem um id novo. Assim logs gravados com registros diferentes podem ser
+     * combinados.
+     */
+    static int[] lerResultados(Path arquivo, RegistroTimes registro) throws IOException {
+        return lerResultados(arquivo).traduzir(registro);
+    }
+
+    /**
+     * Lê os resultados que continuam valendo no log, na ordem em que foram registrados,
+     * como ints consecutivos (rodada, mandante, visitante, gols do mandante, gols do
+     * visitante), {@link #CAMPOS_RESULTADO} por partida, com os ids do registro que
+     * gravou o log. Um resultado anulado é retirado junto com a anulação; a correção fica
+     * só com o placar novo, na posição em que entrou.
+     */
+    static Leitura lerResultados(Path arquivo) throws IOException {
+        ByteBuffer eventos = lerEventos(arquivo);
+        int[] resultados = new int[CAMPOS_RESULTADO * (eventos.remaining() / TAMANHO_EVENTO)];
+        int tamanho = 0;
+        Map<Integer, String> nomes = new HashMap<>();
+        byte[] nome = null;
+        while (eventos.remaining() >= TAMANHO_EVENTO) {
+            int tipo = eventos.getInt();
+            int numeroRodada = eventos.getInt();
+            int mandante = eventos.getInt();
+            int visitante = eventos.getInt();
+            int golsMandante = eventos.getInt();
+            int golsVisitante = eventos.getInt();
+            if (tipo == EVENTO_RESULTADO) {
+                resultados[tamanho] = numeroRodada;
+                resultados[tamanho + 1] = mandante;
+                resultados[tamanho + 2] = visitante;
+                resultados[tamanho + 3] = golsMandante;
+                resultados[tamanho + 4] = golsVisitante;
+                tamanho += CAMPOS_RESULTADO;
+            } else if (tipo == EVENTO_ANULACAO) {
+                // Anulações são raras: basta procurar o resultado de trás para frente
+                int i = tamanho - CAMPOS_RESULTADO;
+                while (i >= 0 && (resultados[i] != numeroRodada || resultados[i + 1] != mandante
+                                  || resultados[i + 2] != visitante || resultados[i + 3] != golsMandante
+                                  || resultados[i + 4] != golsVisitante)) {
+                    i -= CAMPOS_RESULTADO;
+                }
+                if (i < 0) {
+                    throw new IOException("Anulação sem resultado correspondente no log");
+                }
+                System.arraycopy(resultados, i + CAMPOS_RESULTADO, resultados, i, tamanho - i - CAMPOS_RESULTADO);
+                tamanho -= CAMPOS_RESULTADO;
+            } else if (tipo == EVENTO_NOME) {
+                int deslocamento = mandante >>> 16;
+                int comprimento = mandante & COMPRIMENTO_MAXIMO_NOME;
+                if (deslocamento == 0) {
+                    nome = new byte[comprimento];
+                } else if (nome == null || nome.length != comprimento) {
+                    throw new IOException("Nome incompleto no log para o id " + numeroRodada);
+                }
+                ByteBuffer pedaco = ByteBuffer.allocate(BYTES_POR_NOME);
+                pedaco.putInt(visitante).putInt(golsMandante).putInt(golsVisitante);
+                int bytes = Math.min(BYTES_POR_NOME, comprimento - deslocamento);
+                System.arraycopy(pedaco.array(), 0, nome, deslocamento, bytes);
+                if (deslocamento + bytes == comprimento) {
+                    String texto = new String(nome, StandardCharsets.UTF_8);
+                    String anterior = nomes.put(numeroRodada, texto);
+                    if (anterior != null && !anterior.equals(texto)) {
+                        throw new IOException("O id " + numeroRodada + " tem dois nomes no log: "
+                                              + anterior + " e " + texto);
+                    }
+                    nome = null;
+                }
+            }
+        }
+        return new Leitura(Arrays.copyOf(resultados, tamanho), nomes);
+    }
+
+    /**
+     * Resultados lidos de um log e os nomes que ele gravou para os ids.
+     */
+    static final class Leitura {
+        final int[] resultados;
+        final Map<Integer, String> nomes;
+
+        Leitura(int[] resultados, Map<Integer, String> nomes) {
+            this.resultados = resultados;
+            this.nomes = nomes;
+        }
+
+        /**
+         * Cópia dos resultados com os ids trocados pelos do registro, casando os times
+         * pelo nome. Falha se algum time dos resultados não tem nome no log.
+         */
+        int[] traduzir(RegistroTimes registro) throws IOException {
+            int[] traduzidos = resultados.clone();
+            Map<Integer, Integer> ids = new HashMap<>();
+            for (int i = 0; i < traduzidos.length; i += CAMPOS_RESULTADO) {
+                for (int campo = i + 1; campo <= i + 2; campo++) {
+                    Integer id = ids.get(traduzidos[campo]);
+                    if (id == null) {
+                        String nome = nomes.get(traduzidos[campo]);
+                        if (nome == null) {
+                            throw new IOException("Time sem nome no log: id " + traduzidos[campo]);
+                        }
+                        id = registro.registrar(nome);
+                        ids.put(traduzidos[campo], id);
+                    }
+                    traduzidos[campo] = id;
+                }
+            }
+            return traduzidos;
+        }
+    }
+
+    /**
+     * Lê o arquivo inteiro de uma vez e devolve o buffer posicionado após o cabeçalho.
+     */
+    private static ByteBuffer lerEventos(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            validarCabecalho(canal);
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Log grande demais para leitura única");
+            }
+            ByteBuffer eventos = ByteBuffer.allocate((int) tamanho - TAMANHO_CABECALHO);
+            while (eventos.hasRemaining()) {
+                if (canal.read(eventos, TAMANHO_CABECALHO + eventos.position()) < 0) {
+                    break;
+                }
+            }
+            eventos.flip();
+            return eventos;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.unb.tppe.brasileirao;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de contagem e latência das operações principais do campeonato.
+ *
+ * Ficam desligadas por padrão e são ligadas com {@code -Dbrasileirao.metricas=true}.
+ * Como {@link #ATIVO} é uma constante {@code static final}, o JIT elimina os trechos de
+ * medição quando ela é falsa: desligadas, as métricas não custam nada.
+ *
+ * Os valores podem ser lidos por {@link #getResumo(Operacao)} ou por JMX, depois de
+ * {@link #registrarJmx()}, em {@code br.unb.tppe.brasileirao:type=Metricas,operacao=...}.
+ */
+public final class Metricas {
+    public static final boolean ATIVO = Boolean.getBoolean("brasileirao.metricas");
+
+    public enum Operacao {
+        SORTEAR_RODADA("sortearRodada"),
+        REGISTRAR_RESULTADO("registrarResultado"),
+        REGISTRAR_RESULTADOS_RODADA("registrarResultados"),
+        OBTER_CLASSIFICACAO("getClassificacao"),
+        VERIFICAR_CONFRONTOS("semDuplicidadeConfrontos");
+
+        private final String nome;
+
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+
+    private static final Map<Operacao, MetricasOperacao> OPERACOES = new EnumMap<>(Operacao.class);
+
+    static {
+        for (Operacao operacao : Operacao.values()) {
+            OPERACOES.put(operacao, new MetricasOperacao(operacao));
+        }
+    }
+
+    private Metricas() {
+    }
+
+    /**
+     * Registra uma execução da operação iniciada em {@code inicio} ({@link System#nanoTime()}).
+     * Quem chama deve testar {@link #ATIVO} antes, para que a medição suma quando desligada.
+     */
+    static void registrar(Operacao operacao, long inicio) {
+        OPERACOES.get(operacao).registrar(System.nanoTime() - inicio);
+    }
+
+    public static ResumoMetricas getResumo(Operacao operacao) {
+        return OPERACOES.get(operacao).getResumo();
+    }
+
+    /**
+     * Retrato de todas as operações.
+     */
+    public static Map<Operacao, ResumoMetricas> getResumos() {
+        Map<Operacao, ResumoMetricas> resumos = new EnumMap<>(Operacao.class);
+        for (Map.Entry<Operacao, MetricasOperacao> entrada : OPERACOES.entrySet()) {
+            resumos.put(entrada.getKey(), entrada.getValue().getResumo());
+        }
+        return resumos;
+    }
+
+    public static void zerar() {
+        for (MetricasOperacao metricas : OPERACOES.values()) {
+            metricas.zerar();
+        }
+    }
+
+    /**
+     * Publica um MBean por operação no servidor JMX da plataforma. Pode ser chamado
+     * mais de uma vez.
+     */
+    public static void registrarJmx() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<Operacao, MetricasOperacao> entrada : OPERACOES.entrySet()) {
+            try {
+                servidor.registerMBean(entrada.getValue(), nomeJmx(entrada.getKey()));
+            } catch (InstanceAlreadyExistsException e) {
+                // Já registrado por uma chamada anterior
+            } catch (JMException e) {
+                throw new IllegalStateException("Falha ao registrar as métricas no JMX", e);
+            }
+        }
+    }
+
+    static ObjectName nomeJmx(Operacao operacao) throws JMException {
+        return new ObjectName("br.unb.tppe.brasileirao:type=Metricas,operacao=" + operacao.getNome());
+    }
+}
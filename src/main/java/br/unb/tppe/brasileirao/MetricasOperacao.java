@@ -0,0 +1,132 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador e histograma de latência de uma operação.
+ *
+ * O histograma tem intervalos logarítmicos: cada potência de 2 é dividida em 4
+ * intervalos, o que cobre de 1 ns a 2^62 ns com erro relativo de até 25% e tamanho
+ * fixo. Os contadores são {@link LongAdder}s, então várias threads registram sem disputar
+ * a mesma variável.
+ */
+public class MetricasOperacao implements MetricasOperacaoMBean {
+    private static final int SUBINTERVALOS_BITS = 2;
+    private static final int SUBINTERVALOS = 1 << SUBINTERVALOS_BITS;
+    private static final int NUMERO_INTERVALOS = SUBINTERVALOS * 62;
+
+    private final Metricas.Operacao operacao;
+    private final LongAdder contagem = new LongAdder();
+    private final LongAdder tempoTotal = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] intervalos = new LongAdder[NUMERO_INTERVALOS];
+
+    MetricasOperacao(Metricas.Operacao operacao) {
+        this.operacao = operacao;
+        for (int i = 0; i < NUMERO_INTERVALOS; i++) {
+            intervalos[i] = new LongAdder();
+        }
+    }
+
+    void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        contagem.increment();
+        tempoTotal.add(nanos);
+        maximo.accumulate(nanos);
+        intervalos[intervalo(nanos)].increment();
+    }
+
+    static int intervalo(long nanos) {
+        if (nanos < SUBINTERVALOS) {
+            return (int) nanos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (expoente - SUBINTERVALOS_BITS)) & (SUBINTERVALOS - 1);
+        return SUBINTERVALOS * (expoente - 1) + sub;
+    }
+
+    static long limiteSuperior(int intervalo) {
+        if (intervalo < SUBINTERVALOS) {
+            return intervalo;
+        }
+        int expoente = intervalo / SUBINTERVALOS + 1;
+        int sub = intervalo % SUBINTERVALOS;
+        long inicio = (long) (SUBINTERVALOS + sub) << (expoente - SUBINTERVALOS_BITS);
+        return inicio + (1L << (expoente - SUBINTERVALOS_BITS)) - 1;
+    }
+
+    /**
+     * Lê as métricas atuais. Com registros em andamento, os valores podem diferir
+     * por alguns eventos entre si, mas cada um é exato no momento da leitura.
+     */
+    public ResumoMetricas getResumo() {
+        long[] contagens = new long[NUMERO_INTERVALOS];
+        long total = 0;
+        for (int i = 0; i < NUMERO_INTERVALOS; i++) {
+            contagens[i] = intervalos[i].sum();
+            total += contagens[i];
+        }
+        long maior = maximo.get();
+        return new ResumoMetricas(operacao, total, tempoTotal.sum(),
+                percentil(contagens, total, 0.50, maior), percentil(contagens, total, 0.90, maior),
+                percentil(contagens, total, 0.99, maior), maior);
+    }
+
+    private static long percentil(long[] contagens, long total, double fracao, long maior) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(fracao * total);
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maior);
+            }
+        }
+        return maior;
+    }
+
+    @Override
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return getResumo().getMediaNanos() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getResumo().getP50Nanos() / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getResumo().getP90Nanos() / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getResumo().getP99Nanos() / 1000.0;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return maximo.get() / 1000.0;
+    }
+
+    @Override
+    public void zerar() {
+        contagem.reset();
+        tempoTotal.reset();
+        maximo.reset();
+        for (LongAdder intervalo : intervalos) {
+            intervalo.reset();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Atributos JMX das métricas de uma operação. Os tempos são em microssegundos.
+ */
+public interface MetricasOperacaoMBean {
+
+    long getContagem();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getMaximoMicros();
+
+    void zerar();
+}
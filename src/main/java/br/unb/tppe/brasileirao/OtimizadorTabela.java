@@ -0,0 +1,488 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Gera tabelas de turno e returno respeitando restrições e com poucas quebras de mando.
+ *
+ * Uma quebra é um time jogar duas rodadas seguidas em casa (ou duas fora). As restrições
+ * aceitas são estádios compartilhados (os dois times não podem ser mandantes na mesma
+ * rodada), datas fixas para um confronto e rodadas em que um time não pode mandar jogos.
+ * Cada restrição não atendida custa {@link #PESO_RESTRICAO} quebras na penalidade.
+ *
+ * A busca parte das rodadas do método do círculo, que sempre formam um turno válido, e
+ * altera a ordem das rodadas, o mando de cada confronto e a própria divisão dos
+ * confrontos em rodadas, de modo que dois confrontos sorteados na mesma rodada do círculo
+ * podem ir para rodadas diferentes. Para isso há dois movimentos: a troca em cadeia de
+ * Kempe passa um ciclo de confrontos de uma rodada para outra, e a troca de times faz um
+ * time assumir os jogos do outro. A segunda é necessária porque, quando o número de
+ * rodadas do turno é primo, quaisquer duas rodadas do círculo formam um único ciclo e a
+ * cadeia de Kempe só consegue trocá-las inteiras. O returno repete o turno na mesma ordem com os mandos
+ * invertidos. Várias buscas locais (recozimento simulado) rodam em paralelo, cada uma com
+ * seu gerador, e a melhor tabela encontrada dentro do tempo disponível é devolvida.
+ * Restrições contraditórias (por exemplo, o mesmo confronto fixado em duas datas) não têm
+ * solução; a tabela devolvida informa quantas ficaram sem atender em
+ * {@link TabelaOtimizada#getViolacoes()}.
+ */
+public class OtimizadorTabela {
+    public static final int PESO_RESTRICAO = 1000;
+    private static final double TEMPERATURA_INICIAL = 2.0;
+    private static final double TEMPERATURA_FINAL = 0.01;
+    private static final int ITERACOES_ENTRE_CONSULTAS_RELOGIO = 256;
+
+    private final List<Time> times;
+    private final int numTimes;
+    private final int rodadasTurno;
+    private final int partidasPorRodada;
+    private final int[][] mandantesBase;
+    private final int[][] visitantesBase;
+    private final Map<Time, Integer> indices;
+    private final List<int[]> estadiosCompartilhados;
+    private final List<int[]> datasFixas;
+    private final List<int[]> mandosProibidos;
+    private final ForkJoinPool pool;
+
+    public OtimizadorTabela(List<Time> times) {
+        this(times, ForkJoinPool.commonPool());
+    }
+
+    public OtimizadorTabela(List<Time> times, ForkJoinPool pool) {
+        TabelaRoundRobin circulo = new TabelaRoundRobin(times);
+        this.times = new ArrayList<>(times);
+        this.numTimes = times.size();
+        this.rodadasTurno = circulo.getNumeroRodadasTurno();
+        this.partidasPorRodada = circulo.getPartidasPorRodada();
+        this.pool = pool;
+
+        this.mandantesBase = new int[rodadasTurno][partidasPorRodada];
+        this.visitantesBase = new int[rodadasTurno][partidasPorRodada];
+        for (int k = 0; k < rodadasTurno; k++) {
+            for (int j = 0; j < partidasPorRodada; j++) {
+                mandantesBase[k][j] = circulo.getMandante(k, j);
+                visitantesBase[k][j] = circulo.getVisitante(k, j);
+            }
+        }
+
+        this.indices = new HashMap<>();
+        for (int i = 0; i < numTimes; i++) {
+            indices.put(times.get(i), i);
+        }
+        this.estadiosCompartilhados = new ArrayList<>();
+        this.datasFixas = new ArrayList<>();
+        this.mandosProibidos = new ArrayList<>();
+    }
+
+    /**
+     * Os dois times usam o mesmo estádio e não podem mandar jogos na mesma rodada.
+     */
+    public void compartilharEstadio(Time time1, Time time2) {
+        estadiosCompartilhados.add(new int[] {indice(time1), indice(time2)});
+    }
+
+    /**
+     * O mandante deve receber o visitante na rodada informada (contada a partir de 1).
+     */
+    public void fixarData(Time mandante, Time visitante, int numeroRodada) {
+        datasFixas.add(new int[] {indice(mandante), indice(visitante), rodada(numeroRodada)});
+    }
+
+    /**
+     * O estádio do time não está disponível na rodada informada (contada a partir de 1).
+     */
+    public void proibirMando(Time time, int numeroRodada) {
+        mandosProibidos.add(new int[] {indice(time), rodada(numeroRodada)});
+    }
+
+    private int indice(Time time) {
+        Integer indice = indices.get(time);
+        if (indice == null) {
+            throw new IllegalArgumentException("Time fora da tabela: " + time.getNome());
+        }
+        return indice;
+    }
+
+    private int rodada(int numeroRodada) {
+        if (numeroRodada < 1 || numeroRodada > 2 * rodadasTurno) {
+            throw new IllegalArgumentException("Rodada inexistente: " + numeroRodada);
+        }
+        return numeroRodada - 1;
+    }
+
+    /**
+     * Procura a melhor tabela durante o tempo informado.
+     */
+    public TabelaOtimizada otimizar(long orcamentoMillis, long semente) {
+        return otimizar(orcamentoMillis, Integer.MAX_VALUE, semente);
+    }
+
+    /**
+     * Como {@link #otimizar(long, long)}, limitando também as iterações de cada busca.
+     */
+    TabelaOtimizada otimizar(long orcamentoMillis, int iteracoesMaximas, long semente) {
+        long prazo = System.nanoTime() + orcamentoMillis * 1_000_000L;
+        SplittableRandom raiz = new SplittableRandom(semente);
+        List<Callable<Solucao>> buscas = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, pool.getParallelism()); i++) {
+            SplittableRandom random = raiz.split();
+            boolean partirDoCirculo = i == 0;
+            buscas.add(() -> buscar(random, partirDoCirculo, prazo, orcamentoMillis, iteracoesMaximas));
+        }
+
+        Solucao melhor = null;
+        try {
+            for (Future<Solucao> busca : pool.invokeAll(buscas)) {
+                Solucao solucao = busca.get();
+                if (melhor == null || solucao.penalidade < melhor.penalidade) {
+                    melhor = solucao;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Otimização interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na otimização", e.getCause());
+        }
+        return montarTabela(melhor);
+    }
+
+    /**
+     * Penalidade de uma tabela qualquer com as restrições deste otimizador, para comparação.
+     */
+    public int calcularPenalidade(TabelaJogos tabela) {
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.carregar(tabela);
+        return avaliacao.penalidade();
+    }
+
+    /**
+     * Recozimento simulado: troca duas rodadas do turno de lugar, troca uma cadeia de
+     * Kempe entre duas rodadas, troca os jogos de dois times ou inverte o mando de um
+     * confronto (nos dois turnos).
+     * Piora é aceita com probabilidade que diminui conforme o tempo ou as iterações se
+     * esgotam.
+     */
+    private Solucao buscar(SplittableRandom random, boolean partirDoCirculo, long prazo,
+                           long orcamentoMillis, int iteracoesMaximas) {
+        Solucao atual = new Solucao();
+        if (!partirDoCirculo) {
+            atual.embaralhar(random);
+        }
+        Avaliacao avaliacao = new Avaliacao();
+        atual.penalidade = avaliacao.avaliar(atual);
+        Solucao melhor = atual.copiar();
+
+        long inicio = System.nanoTime();
+        double duracao = Math.max(1, orcamentoMillis * 1_000_000L);
+        double progresso = 0;
+        for (int iteracao = 0; iteracao < iteracoesMaximas && melhor.penalidade > 0; iteracao++) {
+            if (iteracao % ITERACOES_ENTRE_CONSULTAS_RELOGIO == 0) {
+                long agora = System.nanoTime();
+                if (agora >= prazo) {
+                    break;
+                }
+                progresso = Math.max((agora - inicio) / duracao, (double) iteracao / iteracoesMaximas);
+            }
+            double temperatura = TEMPERATURA_INICIAL * Math.pow(TEMPERATURA_FINAL / TEMPERATURA_INICIAL, progresso);
+
+            atual.mover(random);
+            int penalidade = avaliacao.avaliar(atual);
+            int delta = penalidade - atual.penalidade;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperatura)) {
+                atual.penalidade = penalidade;
+                if (penalidade < melhor.penalidade) {
+                    melhor = atual.copiar();
+                }
+            } else {
+                atual.desfazer();
+            }
+        }
+        return melhor;
+    }
+
+    private TabelaOtimizada montarTabela(Solucao solucao) {
+        int rodadas = 2 * rodadasTurno;
+        int[] mandantes = new int[rodadas * partidasPorRodada];
+        int[] visitantes = new int[rodadas * partidasPorRodada];
+        for (int p = 0; p < rodadasTurno; p++) {
+            for (int j = 0; j < partidasPorRodada; j++) {
+                int mandante = solucao.mandante(p, j);
+                int visitante = solucao.visitante(p, j);
+                mandantes[p * partidasPorRodada + j] = mandante;
+                visitantes[p * partidasPorRodada + j] = visitante;
+                mandantes[(p + rodadasTurno) * partidasPorRodada + j] = visitante;
+                visitantes[(p + rodadasTurno) * partidasPorRodada + j] = mandante;
+            }
+        }
+        TabelaOtimizada tabela = new TabelaOtimizada(times, rodadas, mandantes, visitantes);
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.carregar(tabela);
+        tabela.definirAvaliacao(avaliacao.quebras(), avaliacao.violacoes());
+        return tabela;
+    }
+
+    /**
+     * Confrontos de cada rodada do turno, já com o mando, e o último movimento aplicado.
+     */
+    private class Solucao {
+        private static final int TROCA_RODADAS = 0;
+        private static final int CADEIA_KEMPE = 1;
+        private static final int TROCA_TIMES = 2;
+        private static final int INVERSAO = 3;
+
+        private final int[][] mandantes;
+        private final int[][] visitantes;
+        private int penalidade;
+
+        private int movimento;
+        private int primeiro;
+        private int segundo;
+        private final int[] mandantesAnteriores1 = new int[partidasPorRodada];
+        private final int[] visitantesAnteriores1 = new int[partidasPorRodada];
+        private final int[] mandantesAnteriores2 = new int[partidasPorRodada];
+        private final int[] visitantesAnteriores2 = new int[partidasPorRodada];
+        private final int[] jogoNaRodada1 = new int[numTimes];
+        private final int[] jogoNaRodada2 = new int[numTimes];
+
+        Solucao() {
+            this.mandantes = new int[rodadasTurno][];
+            this.visitantes = new int[rodadasTurno][];
+            for (int p = 0; p < rodadasTurno; p++) {
+                mandantes[p] = mandantesBase[p].clone();
+                visitantes[p] = visitantesBase[p].clone();
+            }
+        }
+
+        private Solucao(Solucao outra) {
+            this.mandantes = new int[rodadasTurno][];
+            this.visitantes = new int[rodadasTurno][];
+            for (int p = 0; p < rodadasTurno; p++) {
+                mandantes[p] = outra.mandantes[p].clone();
+                visitantes[p] = outra.visitantes[p].clone();
+            }
+            this.penalidade = outra.penalidade;
+        }
+
+        Solucao copiar() {
+            return new Solucao(this);
+        }
+
+        void embaralhar(SplittableRandom random) {
+            for (int p = rodadasTurno - 1; p > 0; p--) {
+                trocarRodadas(p, random.nextInt(p + 1));
+            }
+            for (int p = 0; p < rodadasTurno; p++) {
+                for (int j = 0; j < partidasPorRodada; j++) {
+                    if (random.nextBoolean()) {
+                        inverter(p, j);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sorteia e aplica um movimento, guardando o necessário para {@link #desfazer()}.
+         */
+        void mover(SplittableRandom random) {
+            movimento = rodadasTurno > 1 ? random.nextInt(4) : INVERSAO;
+            if (movimento == INVERSAO) {
+                primeiro = random.nextInt(rodadasTurno);
+                segundo = random.nextInt(partidasPorRodada);
+                inverter(primeiro, segundo);
+                return;
+            }
+            if (movimento == TROCA_TIMES) {
+                primeiro = random.nextInt(numTimes);
+                segundo = random.nextInt(numTimes - 1);
+                if (segundo >= primeiro) {
+                    segundo++;
+                }
+                trocarTimes(primeiro, segundo);
+                return;
+            }
+            primeiro = random.nextInt(rodadasTurno);
+            segundo = random.nextInt(rodadasTurno - 1);
+            if (segundo >= primeiro) {
+                segundo++;
+            }
+            if (movimento == TROCA_RODADAS) {
+                trocarRodadas(primeiro, segundo);
+            } else {
+                trocarCadeia(primeiro, segundo, random.nextInt(numTimes));
+            }
+        }
+
+        /**
+         * Desfaz o último movimento aplicado por {@link #mover(SplittableRandom)}.
+         */
+        void desfazer() {
+            if (movimento == INVERSAO) {
+                inverter(primeiro, segundo);
+            } else if (movimento == TROCA_RODADAS) {
+                trocarRodadas(primeiro, segundo);
+            } else if (movimento == TROCA_TIMES) {
+                trocarTimes(primeiro, segundo);
+            } else {
+                System.arraycopy(mandantesAnteriores1, 0, mandantes[primeiro], 0, partidasPorRodada);
+                System.arraycopy(visitantesAnteriores1, 0, visitantes[primeiro], 0, partidasPorRodada);
+                System.arraycopy(mandantesAnteriores2, 0, mandantes[segundo], 0, partidasPorRodada);
+                System.arraycopy(visitantesAnteriores2, 0, visitantes[segundo], 0, partidasPorRodada);
+            }
+        }
+
+        private void inverter(int posicao, int jogo) {
+            int mandante = mandantes[posicao][jogo];
+            mandantes[posicao][jogo] = visitantes[posicao][jogo];
+            visitantes[posicao][jogo] = mandante;
+        }
+
+        private void trocarRodadas(int p1, int p2) {
+            int[] rodada = mandantes[p1];
+            mandantes[p1] = mandantes[p2];
+            mandantes[p2] = rodada;
+            rodada = visitantes[p1];
+            visitantes[p1] = visitantes[p2];
+            visitantes[p2] = rodada;
+        }
+
+        /**
+         * Cada time passa a jogar os jogos do outro, com o mesmo mando; o confronto entre
+         * os dois fica na mesma rodada, com o mando invertido.
+         */
+        private void trocarTimes(int time1, int time2) {
+            for (int p = 0; p < rodadasTurno; p++) {
+                for (int j = 0; j < partidasPorRodada; j++) {
+                    mandantes[p][j] = trocarTime(mandantes[p][j], time1, time2);
+                    visitantes[p][j] = trocarTime(visitantes[p][j], time1, time2);
+                }
+            }
+        }
+
+        private int trocarTime(int time, int time1, int time2) {
+            return time == time1 ? time2 : time == time2 ? time1 : time;
+        }
+
+        /**
+         * Os confrontos das duas rodadas formam ciclos que alternam entre uma e outra;
+         * troca de rodada os confrontos do ciclo que contém o time, mantendo os mandos.
+         * As duas rodadas continuam com cada time jogando uma vez.
+         */
+        private void trocarCadeia(int p1, int p2, int time) {
+            System.arraycopy(mandantes[p1], 0, mandantesAnteriores1, 0, partidasPorRodada);
+            System.arraycopy(visitantes[p1], 0, visitantesAnteriores1, 0, partidasPorRodada);
+            System.arraycopy(mandantes[p2], 0, mandantesAnteriores2, 0, partidasPorRodada);
+            System.arraycopy(visitantes[p2], 0, visitantesAnteriores2, 0, partidasPorRodada);
+            for (int j = 0; j < partidasPorRodada; j++) {
+                jogoNaRodada1[mandantesAnteriores1[j]] = j;
+                jogoNaRodada1[visitantesAnteriores1[j]] = j;
+                jogoNaRodada2[mandantesAnteriores2[j]] = j;
+                jogoNaRodada2[visitantesAnteriores2[j]] = j;
+            }
+
+            int atual = time;
+            do {
+                int j1 = jogoNaRodada1[atual];
+                int adversario = mandantesAnteriores1[j1] == atual ? visitantesAnteriores1[j1] : mandantesAnteriores1[j1];
+                int j2 = jogoNaRodada2[adversario];
+                mandantes[p1][j1] = mandantesAnteriores2[j2];
+                visitantes[p1][j1] = visitantesAnteriores2[j2];
+                mandantes[p2][j2] = mandantesAnteriores1[j1];
+                visitantes[p2][j2] = visitantesAnteriores1[j1];
+                atual = mandantesAnteriores2[j2] == adversario ? visitantesAnteriores2[j2] : mandantesAnteriores2[j2];
+            } while (atual != time);
+        }
+
+        int mandante(int posicao, int jogo) {
+            return mandantes[posicao][jogo];
+        }
+
+        int visitante(int posicao, int jogo) {
+            return visitantes[posicao][jogo];
+        }
+    }
+
+    /**
+     * Mando e adversário de cada time em cada rodada, com as contagens de quebras e
+     * restrições violadas. Cada busca tem a sua, reaproveitada a cada avaliação.
+     */
+    private class Avaliacao {
+        private final int rodadas = 2 * rodadasTurno;
+        private final boolean[] emCasa = new boolean[numTimes * rodadas];
+        private final int[] adversario = new int[numTimes * rodadas];
+
+        int avaliar(Solucao solucao) {
+            for (int p = 0; p < rodadasTurno; p++) {
+                for (int j = 0; j < partidasPorRodada; j++) {
+                    marcar(p, solucao.mandante(p, j), solucao.visitante(p, j));
+                    marcar(p + rodadasTurno, solucao.visitante(p, j), solucao.mandante(p, j));
+                }
+            }
+            return penalidade();
+        }
+
+        void carregar(TabelaJogos tabela) {
+            if (tabela.getNumeroRodadas() != rodadas || tabela.getPartidasPorRodada() != partidasPorRodada) {
+                throw new IllegalArgumentException("A tabela foi gerada para outro número de times");
+            }
+            for (int r = 0; r < rodadas; r++) {
+                for (int j = 0; j < partidasPorRodada; j++) {
+                    marcar(r, tabela.getMandante(r, j), tabela.getVisitante(r, j));
+                }
+            }
+        }
+
+        private void marcar(int rodada, int mandante, int visitante) {
+            emCasa[mandante * rodadas + rodada] = true;
+            emCasa[visitante * rodadas + rodada] = false;
+            adversario[mandante * rodadas + rodada] = visitante;
+            adversario[visitante * rodadas + rodada] = mandante;
+        }
+
+        int penalidade() {
+            return quebras() + PESO_RESTRICAO * violacoes();
+        }
+
+        int quebras() {
+            int quebras = 0;
+            for (int t = 0; t < numTimes; t++) {
+                int base = t * rodadas;
+                for (int r = 1; r < rodadas; r++) {
+                    if (emCasa[base + r] == emCasa[base + r - 1]) {
+                        quebras++;
+                    }
+                }
+            }
+            return quebras;
+        }
+
+        int violacoes() {
+            int violacoes = 0;
+            for (int[] par : estadiosCompartilhados) {
+                for (int r = 0; r < rodadas; r++) {
+                    if (emCasa[par[0] * rodadas + r] && emCasa[par[1] * rodadas + r]) {
+                        violacoes++;
+                    }
+                }
+            }
+            for (int[] data : datasFixas) {
+                int posicao = data[0] * rodadas + data[2];
+                if (!emCasa[posicao] || adversario[posicao] != data[1]) {
+                    violacoes++;
+                }
+            }
+            for (int[] proibido : mandosProibidos) {
+                if (emCasa[proibido[0] * rodadas + proibido[1]]) {
+                    violacoes++;
+                }
+            }
+            return violacoes;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.List;
+
+/**
+ * Interface para quem precisa acompanhar os resultados registrados nas partidas.
+ * O ouvinte é associado aos times e notificado por {@link Partida#registrarResultado(int, int)}
+ * depois que as estatísticas dos dois times já foram atualizadas.
+ */
+public interface OuvinteResultados {
+
+    /**
+     * Chamado após o registro do resultado de uma partida.
+     */
+    void resultadoRegistrado(Partida partida);
+
+    /**
+     * Chamado após o resultado de uma partida ser desfeito, com as estatísticas dos dois
+     * times já sem ele. Recebe o placar retirado. Uma correção de resultado chega como
+     * esta notificação seguida de {@link #resultadoRegistrado(Partida)} com o novo placar.
+     */
+    default void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+    }
+
+    /**
+     * Chamado uma única vez após o registro em lote dos resultados de uma rodada (ver
+     * {@link Rodada#registrarResultados(int[], int[])}), com as partidas acompanhadas pelo
+     * ouvinte. Por padrão equivale a uma notificação por partida; quem mantém um índice
+     * pode sobrescrever para atualizá-lo uma vez por rodada.
+     */
+    default void resultadosRegistrados(List<Partida> partidas) {
+        for (Partida partida : partidas) {
+            resultadoRegistrado(partida);
+        }
+    }
+
+    /**
+     * Chamado uma única vez quando o registro em lote substitui resultados já registrados,
+     * antes de {@link #resultadosRegistrados(List)} com os novos placares. Recebe as partidas
+     * que tinham resultado e, na mesma ordem, os placares retirados. Por padrão equivale a
+     * uma notificação de {@link #resultadoDesfeito(Partida, int, int)} por partida.
+     */
+    default void resultadosDesfeitos(List<Partida> partidas, int[] golsMandante, int[] golsVisitante) {
+        for (int i = 0; i < partidas.size(); i++) {
+            resultadoDesfeito(partidas.get(i), golsMandante[i], golsVisitante[i]);
+        }
+    }
+}
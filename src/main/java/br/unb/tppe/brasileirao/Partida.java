@@ -1,19 +1,30 @@
 package br.unb.tppe.brasileirao;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 /**
  * Classe que representa uma partida entre dois times.
  */
 public class Partida {
     private Time mandante;
     private Time visitante;
-    private Integer golsMandante;
-    private Integer golsVisitante;
+    private int golsMandante;
+    private int golsVisitante;
     private boolean realizada;
+    private int numeroRodada;
+    private int numeroJogo;
 
     public Partida(Time mandante, Time visitante) {
         this.mandante = mandante;
         this.visitante = visitante;
         this.realizada = false;
+        this.numeroRodada = 0;
+        this.numeroJogo = -1;
     }
 
     public Time getMandante() {
@@ -24,24 +35,117 @@ public class Partida {
         return visitante;
     }
 
+    /**
+     * Gols do mandante, ou null se a partida ainda não foi realizada.
+     */
     public Integer getGolsMandante() {
-        return golsMandante;
+        return realizada ? golsMandante : null;
     }
 
+    /**
+     * Gols do visitante, ou null se a partida ainda não foi realizada.
+     */
     public Integer getGolsVisitante() {
-        return golsVisitante;
+        return realizada ? golsVisitante : null;
     }
 
     public boolean isRealizada() {
         return realizada;
     }
 
+    /**
+     * Número da rodada a que a partida pertence, ou 0 se for uma partida avulsa.
+     */
+    public int getNumeroRodada() {
+        return numeroRodada;
+    }
+
+    /**
+     * Marca a partida como realizada sem alterar as estatísticas dos times
+     * (usado ao restaurar um estado já contabilizado).
+     */
+    synchronized void restaurarResultado(int golsMandante, int golsVisitante) {
+        this.golsMandante = golsMandante;
+        this.golsVisitante = golsVisitante;
+        this.realizada = true;
+    }
+
+    void setNumeroRodada(int numeroRodada) {
+        this.numeroRodada = numeroRodada;
+    }
+
+    /**
+     * Posição da partida dentro da rodada (a partir de 0), ou -1 se for avulsa.
+     */
+    int getNumeroJogo() {
+        return numeroJogo;
+    }
+
+    void setNumeroJogo(int numeroJogo) {
+        this.numeroJogo = numeroJogo;
+    }
+
     /**
      * Registra o resultado da partida e atualiza as estatísticas dos times usando objeto-método.
+     * Pode ser chamado por várias threads para partidas diferentes ao mesmo tempo:
+     * cada time é atualizado atomicamente, mas os ouvintes do campeonato são
+     * sincronizados, então os registros são aplicados um de cada vez.
+     *
+     * Se a partida já tinha resultado, ele é substituído (ver {@link #corrigirResultado}).
      */
-    public void registrarResultado(int golsMandante, int golsVisitante) {
+    public synchronized void registrarResultado(int golsMandante, int golsVisitante) {
+        long inicio = Metricas.ATIVO ? System.nanoTime() : 0L;
+        if (realizada) {
+            desfazer();
+        }
         ResultadoPartida resultado = new ResultadoPartida(golsMandante, golsVisitante);
         resultado.aplicar(this);
+        if (Metricas.ATIVO) {
+            Metricas.registrar(Metricas.Operacao.REGISTRAR_RESULTADO, inicio);
+        }
+    }
+
+    /**
+     * Troca o resultado já registrado (por exemplo, após uma decisão do tribunal).
+     * As estatísticas dos dois times perdem o placar antigo e recebem o novo, e os
+     * ouvintes são avisados do resultado desfeito e depois do novo.
+     */
+    public synchronized void corrigirResultado(int golsMandante, int golsVisitante) {
+        if (!realizada) {
+            throw new IllegalStateException("A partida ainda não tem resultado para corrigir");
+        }
+        registrarResultado(golsMandante, golsVisitante);
+    }
+
+    /**
+     * Retira o resultado registrado, voltando a partida a não realizada.
+     */
+    public synchronized void desfazerResultado() {
+        if (!realizada) {
+            throw new IllegalStateException("A partida ainda não tem resultado para desfazer");
+        }
+        desfazer();
+    }
+
+    private void desfazer() {
+        int golsMandanteAnterior = golsMandante;
+        int golsVisitanteAnterior = golsVisitante;
+        retirar();
+        notificarDesfeito(golsMandanteAnterior, golsVisitanteAnterior);
+    }
+
+    /**
+     * Volta a partida a não realizada e retira o placar das estatísticas dos dois times,
+     * sem notificar os ouvintes.
+     */
+    private void retirar() {
+        int golsMandanteAnterior = golsMandante;
+        int golsVisitanteAnterior = golsVisitante;
+        golsMandante = 0;
+        golsVisitante = 0;
+        realizada = false;
+        mandante.desfazerResultado(golsMandanteAnterior, golsVisitanteAnterior);
+        visitante.desfazerResultado(golsVisitanteAnterior, golsMandanteAnterior);
     }
 
     /**
@@ -57,33 +161,200 @@ public class Partida {
         }
 
         public void aplicar(Partida partida) {
-            partida.golsMandante = golsMandante;
-            partida.golsVisitante = golsVisitante;
-            partida.realizada = true;
-
-            if (golsMandante > golsVisitante) {
-                partida.mandante.registrarVitoria(golsMandante, golsVisitante);
-                partida.visitante.registrarDerrota(golsVisitante, golsMandante);
-            } else if (golsMandante < golsVisitante) {
-                partida.mandante.registrarDerrota(golsMandante, golsVisitante);
-                partida.visitante.registrarVitoria(golsVisitante, golsMandante);
-            } else {
-                partida.mandante.registrarEmpate(golsMandante, golsVisitante);
-                partida.visitante.registrarEmpate(golsVisitante, golsMandante);
+            partida.contabilizar(golsMandante, golsVisitante);
+            partida.notificarOuvintes();
+        }
+    }
+
+    /**
+     * Grava o placar e atualiza as estatísticas dos dois times, sem notificar os ouvintes.
+     */
+    private void contabilizar(int golsMandante, int golsVisitante) {
+        this.golsMandante = golsMandante;
+        this.golsVisitante = golsVisitante;
+        this.realizada = true;
+
+        if (golsMandante > golsVisitante) {
+            mandante.registrarVitoria(golsMandante, golsVisitante);
+            visitante.registrarDerrota(golsVisitante, golsMandante);
+        } else if (golsMandante < golsVisitante) {
+            mandante.registrarDerrota(golsMandante, golsVisitante);
+            visitante.registrarVitoria(golsVisitante, golsMandante);
+        } else {
+            mandante.registrarEmpate(golsMandante, golsVisitante);
+            visitante.registrarEmpate(golsVisitante, golsMandante);
+        }
+    }
+
+    /**
+     * Primeira parte do registro em lote de {@link Rodada#registrarResultados(int[], int[])}:
+     * retira os resultados anteriores das partidas que já tinham um e avisa cada ouvinte
+     * uma única vez (ver {@link OuvinteResultados#resultadosDesfeitos(List, int[], int[])}).
+     */
+    static void desfazerEmLote(List<Partida> partidas) {
+        List<Partida> desfeitas = null;
+        int[] golsMandante = null;
+        int[] golsVisitante = null;
+        for (Partida partida : partidas) {
+            synchronized (partida) {
+                if (!partida.realizada) {
+                    continue;
+                }
+                if (desfeitas == null) {
+                    desfeitas = new ArrayList<>();
+                    golsMandante = new int[partidas.size()];
+                    golsVisitante = new int[partidas.size()];
+                }
+                golsMandante[desfeitas.size()] = partida.golsMandante;
+                golsVisitante[desfeitas.size()] = partida.golsVisitante;
+                desfeitas.add(partida);
+                partida.retirar();
             }
         }
+        if (desfeitas != null) {
+            int[] gm = Arrays.copyOf(golsMandante, desfeitas.size());
+            int[] gv = Arrays.copyOf(golsVisitante, desfeitas.size());
+            List<Partida> todas = desfeitas;
+            paraCadaOuvinte(desfeitas, (ouvinte, posicoes) -> {
+                if (posicoes == null) {
+                    ouvinte.resultadosDesfeitos(todas, gm, gv);
+                } else {
+                    ouvinte.resultadosDesfeitos(selecionar(todas, posicoes), selecionar(gm, posicoes),
+                                                selecionar(gv, posicoes));
+                }
+            });
+        }
     }
 
-    @Override
-    public String toString() {
+    /**
+     * Segunda parte do registro em lote: contabiliza o novo resultado sem notificar os
+     * ouvintes, que são avisados depois por {@link #notificarOuvintes(List)}. Se outra
+     * thread tiver registrado um resultado no meio tempo, ele é substituído.
+     */
+    synchronized void registrarSemNotificar(int golsMandante, int golsVisitante) {
         if (realizada) {
-            return String.format("%s %d x %d %s", 
-                    mandante.getNome(), golsMandante, golsVisitante, visitante.getNome());
-        } else {
-            return String.format("%s x %s", mandante.getNome(), visitante.getNome());
+            desfazer();
+        }
+        contabilizar(golsMandante, golsVisitante);
+    }
+
+    /**
+     * Notifica os ouvintes dos dois times, sem repetir quem acompanha ambos.
+     */
+    private void notificarOuvintes() {
+        List<OuvinteResultados> ouvintesMandante = mandante.getOuvintes();
+        for (OuvinteResultados ouvinte : ouvintesMandante) {
+            ouvinte.resultadoRegistrado(this);
+        }
+        for (OuvinteResultados ouvinte : visitante.getOuvintes()) {
+            if (!contemIdentico(ouvintesMandante, ouvinte)) {
+                ouvinte.resultadoRegistrado(this);
+            }
+        }
+    }
+
+    /**
+     * Notifica de uma vez os resultados de várias partidas já contabilizadas. Cada ouvinte
+     * é chamado uma única vez, com as partidas em que ele acompanha o mandante ou o visitante.
+     */
+    static void notificarOuvintes(List<Partida> partidas) {
+        paraCadaOuvinte(partidas, (ouvinte, posicoes) ->
+                ouvinte.resultadosRegistrados(posicoes == null ? partidas : selecionar(partidas, posicoes)));
+    }
+
+    /**
+     * Chama {@code entrega} uma vez para cada ouvinte dos times das partidas, na ordem em
+     * que aparecem, com as posições das partidas que ele acompanha. As posições são null
+     * quando o ouvinte acompanha todas (o caso comum, com os ouvintes do campeonato em
+     * todos os times), e aí nenhuma lista é criada para ele. Os ouvintes são identificados
+     * por identidade.
+     */
+    private static void paraCadaOuvinte(List<Partida> partidas, BiConsumer<OuvinteResultados, int[]> entrega) {
+        // Por ouvinte: quantas partidas acompanha e a última contada (para não contar duas vezes)
+        Map<OuvinteResultados, int[]> contagens = new IdentityHashMap<>();
+        List<OuvinteResultados> ordem = new ArrayList<>();
+        for (int i = 0; i < partidas.size(); i++) {
+            Partida partida = partidas.get(i);
+            contar(contagens, ordem, partida.mandante.getOuvintes(), i);
+            contar(contagens, ordem, partida.visitante.getOuvintes(), i);
+        }
+        for (OuvinteResultados ouvinte : ordem) {
+            int quantidade = contagens.get(ouvinte)[0];
+            if (quantidade == partidas.size()) {
+                entrega.accept(ouvinte, null);
+                continue;
+            }
+            int[] posicoes = new int[quantidade];
+            int k = 0;
+            for (int i = 0; i < partidas.size() && k < quantidade; i++) {
+                if (partidas.get(i).acompanhadaPor(ouvinte)) {
+                    posicoes[k++] = i;
+                }
+            }
+            entrega.accept(ouvinte, posicoes);
         }
     }
 
+    private static void contar(Map<OuvinteResultados, int[]> contagens, List<OuvinteResultados> ordem,
+                               List<OuvinteResultados> ouvintes, int partida) {
+        for (OuvinteResultados ouvinte : ouvintes) {
+            int[] contagem = contagens.get(ouvinte);
+            if (contagem == null) {
+                contagens.put(ouvinte, new int[] {1, partida});
+                ordem.add(ouvinte);
+            } else if (contagem[1] != partida) {
+                contagem[0]++;
+                contagem[1] = partida;
+            }
+        }
+    }
+
+    private static List<Partida> selecionar(List<Partida> partidas, int[] posicoes) {
+        List<Partida> selecionadas = new ArrayList<>(posicoes.length);
+        for (int posicao : posicoes) {
+            selecionadas.add(partidas.get(posicao));
+        }
+        return selecionadas;
+    }
+
+    private static int[] selecionar(int[] valores, int[] posicoes) {
+        int[] selecionados = new int[posicoes.length];
+        for (int i = 0; i < posicoes.length; i++) {
+            selecionados[i] = valores[posicoes[i]];
+        }
+        return selecionados;
+    }
+
+    private boolean acompanhadaPor(OuvinteResultados ouvinte) {
+        return contemIdentico(mandante.getOuvintes(), ouvinte) || contemIdentico(visitante.getOuvintes(), ouvinte);
+    }
+
+    private static boolean contemIdentico(List<OuvinteResultados> ouvintes, OuvinteResultados ouvinte) {
+        for (OuvinteResultados outro : ouvintes) {
+            if (outro == ouvinte) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void notificarDesfeito(int golsMandante, int golsVisitante) {
+        List<OuvinteResultados> ouvintesMandante = mandante.getOuvintes();
+        for (OuvinteResultados ouvinte : ouvintesMandante) {
+            ouvinte.resultadoDesfeito(this, golsMandante, golsVisitante);
+        }
+        for (OuvinteResultados ouvinte : visitante.getOuvintes()) {
+            if (!contemIdentico(ouvintesMandante, ouvinte)) {
+                ouvinte.resultadoDesfeito(this, golsMandante, golsVisitante);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Renderizador.textoPartida(this);
+    }
+
     /**
      * Verifica se esta partida é igual a outra (mesmo mandante e visitante).
      */
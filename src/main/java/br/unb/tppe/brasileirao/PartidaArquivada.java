@@ -0,0 +1,36 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Resultado de uma partida lido do {@link ArquivoResultados}.
+ */
+public final class PartidaArquivada {
+    private final int temporada;
+    private final int rodada;
+    private final String mandante;
+    private final String visitante;
+    private final int golsMandante;
+    private final int golsVisitante;
+
+    PartidaArquivada(int temporada, int rodada, String mandante, String visitante,
+                     int golsMandante, int golsVisitante) {
+        this.temporada = temporada;
+        this.rodada = rodada;
+        this.mandante = mandante;
+        this.visitante = visitante;
+        this.golsMandante = golsMandante;
+        this.golsVisitante = golsVisitante;
+    }
+
+    public int getTemporada() { return temporada; }
+    public int getRodada() { return rodada; }
+    public String getMandante() { return mandante; }
+    public String getVisitante() { return visitante; }
+    public int getGolsMandante() { return golsMandante; }
+    public int getGolsVisitante() { return golsVisitante; }
+
+    @Override
+    public String toString() {
+        return temporada + " - Rodada " + rodada + ": " + mandante + " " + golsMandante
+               + " x " + golsVisitante + " " + visitante;
+    }
+}
@@ -0,0 +1,34 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Probabilidades de vitória do mandante, empate e vitória do visitante em uma partida,
+ * calculadas pelo {@link RatingElo}. As três somam 1.
+ */
+public final class PrevisaoPartida {
+    private final double vitoriaMandante;
+    private final double empate;
+    private final double vitoriaVisitante;
+
+    PrevisaoPartida(double vitoriaMandante, double empate, double vitoriaVisitante) {
+        this.vitoriaMandante = vitoriaMandante;
+        this.empate = empate;
+        this.vitoriaVisitante = vitoriaVisitante;
+    }
+
+    public double getVitoriaMandante() { return vitoriaMandante; }
+    public double getEmpate() { return empate; }
+    public double getVitoriaVisitante() { return vitoriaVisitante; }
+
+    /**
+     * Pontos que o mandante faz, em média, com essas probabilidades.
+     */
+    public double getPontosEsperadosMandante() {
+        return 3 * vitoriaMandante + empate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f%% / %.1f%% / %.1f%%",
+                             100 * vitoriaMandante, 100 * empate, 100 * vitoriaVisitante);
+    }
+}
@@ -0,0 +1,234 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ratings de força dos times no estilo Elo, indexados pelo id do {@link RegistroTimes}.
+ *
+ * Como ouvinte dos times (ver {@link Campeonato#atualizarRatingsEm(RatingElo)}), cada
+ * resultado registrado ajusta o rating do mandante e do visitante em O(1): o mandante
+ * ganha {@code K * G * (resultado - esperado)} e o visitante perde o mesmo valor, onde o
+ * esperado considera a vantagem do mando e G cresce com a diferença de gols. O ajuste de
+ * cada partida é guardado, então desfazer ou corrigir um resultado retira exatamente o
+ * que ele somou. Os ajustes ficam num mapa fraco: uma partida descartada não é mais
+ * segura pelos ratings.
+ *
+ * Como as temporadas se encadeiam, o mesmo objeto pode acompanhar vários campeonatos
+ * que usam o mesmo registro, inclusive em threads diferentes.
+ */
+public class RatingElo implements OuvinteResultados {
+    public static final double RATING_INICIAL = 1500.0;
+    public static final double FATOR_K_PADRAO = 20.0;
+    public static final double VANTAGEM_MANDO_PADRAO = 60.0;
+
+    /**
+     * Peso do empate no modelo de Davidson usado nas previsões: entre times iguais e sem
+     * mando, a chance de empate é {@code v / (2 + v)}, cerca de 27% como no Brasileirão.
+     */
+    static final double FATOR_EMPATE = 0.75;
+
+    private final double fatorK;
+    private final double vantagemMando;
+    private final Map<Partida, Double> ajustes;
+    private double[] ratings;
+
+    public RatingElo() {
+        this(FATOR_K_PADRAO, VANTAGEM_MANDO_PADRAO);
+    }
+
+    /**
+     * @param fatorK ajuste máximo de uma partida decidida por um gol
+     * @param vantagemMando pontos de rating somados ao mandante no cálculo do esperado
+     */
+    public RatingElo(double fatorK, double vantagemMando) {
+        if (fatorK <= 0) {
+            throw new IllegalArgumentException("Fator K deve ser positivo");
+        }
+        this.fatorK = fatorK;
+        this.vantagemMando = vantagemMando;
+        // Partida não sobrescreve equals, então o mapa compara por identidade
+        this.ajustes = new WeakHashMap<>();
+        this.ratings = new double[0];
+    }
+
+    /**
+     * Rating atual do time; quem ainda não jogou tem {@link #RATING_INICIAL}.
+     */
+    public synchronized double getRating(Time time) {
+        return getRating(time.getId());
+    }
+
+    synchronized double getRating(int id) {
+        return id >= 0 && id < ratings.length ? ratings[id] : RATING_INICIAL;
+    }
+
+    /**
+     * Cópia dos ratings indexada pelo id dos times.
+     */
+    public synchronized double[] getRatings() {
+        return ratings.clone();
+    }
+
+    /**
+     * Probabilidades de vitória do mandante, empate e vitória do visitante com os
+     * ratings atuais.
+     */
+    public PrevisaoPartida prever(Time mandante, Time visitante) {
+        double diferenca;
+        synchronized (this) {
+            diferenca = getRating(mandante.getId()) + vantagemMando - getRating(visitante.getId());
+        }
+        // Forças 10^(r/400) divididas pela do visitante, para não estourar o double
+        double forca = Math.pow(10.0, diferenca / 400.0);
+        double empate = FATOR_EMPATE * Math.sqrt(forca);
+        double total = forca + 1.0 + empate;
+        return new PrevisaoPartida(forca / total, empate / total, 1.0 / total);
+    }
+
+    public PrevisaoPartida prever(Partida partida) {
+        return prever(partida.getMandante(), partida.getVisitante());
+    }
+
+    @Override
+    public synchronized void resultadoRegistrado(Partida partida) {
+        double ajuste = aplicar(partida.getMandante().getId(), partida.getVisitante().getId(),
+                                partida.getGolsMandante(), partida.getGolsVisitante());
+        ajustes.put(partida, ajuste);
+    }
+
+    @Override
+    public synchronized void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+        Double ajuste = ajustes.remove(partida);
+        if (ajuste != null) {
+            ratings[partida.getMandante().getId()] -= ajuste;
+            ratings[partida.getVisitante().getId()] += ajuste;
+        }
+    }
+
+    /**
+     * Aplica o placar aos ratings e retorna os pontos que o mandante ganhou (e o
+     * visitante perdeu).
+     */
+    private double aplicar(int mandante, int visitante, int golsMandante, int golsVisitante) {
+        garantirCapacidade(Math.max(mandante, visitante) + 1);
+        double diferenca = ratings[mandante] + vantagemMando - ratings[visitante];
+        double esperado = 1.0 / (1.0 + Math.pow(10.0, -diferenca / 400.0));
+        double resultado = golsMandante > golsVisitante ? 1.0 : golsMandante == golsVisitante ? 0.5 : 0.0;
+        int margem = Math.abs(golsMandante - golsVisitante);
+        double peso = margem <= 1 ? 1.0 : margem == 2 ? 1.5 : (11.0 + margem) / 8.0;
+        double ajuste = fatorK * peso * (resultado - esperado);
+        ratings[mandante] += ajuste;
+        ratings[visitante] -= ajuste;
+        return ajuste;
+    }
+
+    private void garantirCapacidade(int capacidade) {
+        if (capacidade > ratings.length) {
+            int antigo = ratings.length;
+            ratings = Arrays.copyOf(ratings, Math.max(capacidade, antigo * 2));
+            Arrays.fill(ratings, antigo, ratings.length, RATING_INICIAL);
+        }
+    }
+
+    /**
+     * Recalcula os ratings do zero sobre um arquivo histórico de temporadas, uma por
+     * {@link LogEventos}, em ordem cronológica, com os parâmetros padrão. Os logs
+     * precisam ter sido gravados com o mesmo registro de times.
+     */
+    public static RatingElo recalcular(List<Path> temporadas) throws IOException {
+        return recalcular(temporadas, FATOR_K_PADRAO, VANTAGEM_MANDO_PADRAO,
+                          Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Como {@link #recalcular(List)}, para logs gravados com registros quaisquer: os times
+     * são casados pelo nome gravado em cada log e os ratings ficam indexados pelos ids
+     * do registro informado.
+     */
+    public static RatingElo recalcular(List<Path> temporadas, RegistroTimes registro) throws IOException {
+        return recalcular(temporadas, registro, FATOR_K_PADRAO, VANTAGEM_MANDO_PADRAO,
+                          Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Recalcula os ratings do zero sobre os logs das temporadas, em ordem cronológica.
+     *
+     * O Elo é sequencial (cada partida depende dos ratings deixados pelas anteriores),
+     * então a divisão por temporada paraleliza o que é independente: cada log é lido e
+     * decodificado em arrays primitivos por uma thread do pool, e os ajustes são aplicados
+     * em ordem, sobre um único {@code double[]}, à medida que cada temporada fica pronta.
+     * Resultados anulados nos logs não entram; o resultado equivale ao de acompanhar as
+     * temporadas ao vivo sem correções.
+     *
+     * Os ids dos logs são usados como estão, então todos precisam vir do mesmo registro;
+     * um id gravado com nomes diferentes em duas temporadas é rejeitado. Para combinar
+     * logs de registros diferentes, use
+     * {@link #recalcular(List, RegistroTimes, double, double, int)}.
+     */
+    public static RatingElo recalcular(List<Path> temporadas, double fatorK, double vantagemMando, int threads)
+            throws IOException {
+        return recalcular(temporadas, null, fatorK, vantagemMando, threads);
+    }
+
+    /**
+     * Como {@link #recalcular(List, double, double, int)}, casando os times de cada log
+     * pelo nome com os do registro informado. Nomes ainda não registrados recebem ids
+     * novos, na ordem em que aparecem nas temporadas.
+     */
+    public static RatingElo recalcular(List<Path> temporadas, RegistroTimes registro, double fatorK,
+                                       double vantagemMando, int threads) throws IOException {
+        RatingElo elo = new RatingElo(fatorK, vantagemMando);
+        Map<Integer, String> nomes = new HashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<LogEventos.Leitura>> leituras = new ArrayList<>(temporadas.size());
+            for (Path temporada : temporadas) {
+                leituras.add(pool.submit(() -> LogEventos.lerResultados(temporada)));
+            }
+            for (Future<LogEventos.Leitura> leitura : leituras) {
+                // A tradução fica nesta thread para que os ids novos saiam em ordem cronológica
+                int[] resultados = registro != null ? leitura.get().traduzir(registro)
+                                                    : conferirNomes(leitura.get(), nomes);
+                for (int i = 0; i < resultados.length; i += LogEventos.CAMPOS_RESULTADO) {
+                    elo.aplicar(resultados[i + 1], resultados[i + 2], resultados[i + 3], resultados[i + 4]);
+                }
+            }
+            return elo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Recálculo interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Falha ao ler uma temporada", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Confere que os ids do log têm os mesmos nomes das temporadas anteriores.
+     */
+    private static int[] conferirNomes(LogEventos.Leitura leitura, Map<Integer, String> nomes) throws IOException {
+        for (Map.Entry<Integer, String> nome : leitura.nomes.entrySet()) {
+            String anterior = nomes.putIfAbsent(nome.getKey(), nome.getValue());
+            if (anterior != null && !anterior.equals(nome.getValue())) {
+                throw new IOException("O id " + nome.getKey() + " é de " + anterior + " e de "
+                                      + nome.getValue() + ": os logs usam registros diferentes");
+            }
+        }
+        return leitura.resultados;
+    }
+}
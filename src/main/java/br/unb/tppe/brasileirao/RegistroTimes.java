@@ -0,0 +1,75 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro que emite identificadores inteiros e densos (0, 1, 2, ...) para os times.
+ *
+ * Cada nome recebe um único id, e a busca por nome ou por id custa O(1).
+ * Os ids identificam o mesmo clube em ligas diferentes e nos arquivos gravados; dentro
+ * de um campeonato as estruturas usam a posição do time na liga (ver {@link IndiceTimes}).
+ *
+ * O registro pode ser compartilhado por vários campeonatos montados em threads
+ * diferentes (ver {@link GerenciadorLigas}): as buscas não travam, e só a emissão
+ * de um id novo é sincronizada.
+ */
+public class RegistroTimes {
+    private final ConcurrentHashMap<String, Integer> idsPorNome;
+    private volatile String[] nomes;
+    private volatile int quantidade;
+
+    public RegistroTimes() {
+        this.idsPorNome = new ConcurrentHashMap<>();
+        this.nomes = new String[16];
+    }
+
+    /**
+     * Retorna o id do nome informado, emitindo um novo id se o nome ainda não foi registrado.
+     */
+    public int registrar(String nome) {
+        Integer id = idsPorNome.get(nome);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = idsPorNome.get(nome);
+            if (id == null) {
+                id = quantidade;
+                if (id == nomes.length) {
+                    nomes = Arrays.copyOf(nomes, id * 2);
+                }
+                nomes[id] = nome;
+                // O nome fica visível antes do id, e o id antes da nova quantidade
+                idsPorNome.put(nome, id);
+                quantidade = id + 1;
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Busca o id de um nome. Retorna {@link Time#SEM_ID} se o nome não foi registrado.
+     */
+    public int buscarId(String nome) {
+        Integer id = idsPorNome.get(nome);
+        return id == null ? Time.SEM_ID : id;
+    }
+
+    /**
+     * Busca o nome associado a um id.
+     */
+    public String buscarNome(int id) {
+        if (id < 0 || id >= quantidade) {
+            throw new IndexOutOfBoundsException("Id não emitido: " + id);
+        }
+        return nomes[id];
+    }
+
+    /**
+     * Número de ids emitidos; todo id válido é menor que esse valor.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+}
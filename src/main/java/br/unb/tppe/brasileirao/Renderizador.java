@@ -0,0 +1,395 @@
+package br.unb.tppe.brasileirao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escreve a classificação e as rodadas em texto, CSV ou JSON.
+ *
+ * A saída é feita direto no {@link Appendable} informado, linha a linha, sem
+ * {@code String.format} e sem montar o texto completo em memória; os números são
+ * convertidos em um buffer de caracteres reaproveitado. Por causa desse buffer, uma
+ * instância não deve ser usada por várias threads ao mesmo tempo.
+ */
+public class Renderizador {
+
+    public enum Formato { TEXTO, CSV, JSON }
+
+    private static final int LARGURA_NOME = 19;
+
+    private final Formato formato;
+    private final char[] digitos = new char[11];
+    private final int[] contadores = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+
+    public Renderizador(Formato formato) {
+        this.formato = formato;
+    }
+
+    public Formato getFormato() {
+        return formato;
+    }
+
+    /**
+     * Escreve a classificação já ordenada. Os contadores de cada time são lidos de
+     * forma consistente, mesmo com resultados sendo registrados ao mesmo tempo.
+     */
+    public void escreverClassificacao(List<Time> classificacao, Appendable saida) throws IOException {
+        switch (formato) {
+            case TEXTO:
+                saida.append("Pos | Time                | P  | V  | E  | D  | GM | GS | SG\n");
+                saida.append("--------------------------------------------------------------------\n");
+                break;
+            case CSV:
+                saida.append("posicao,time,pontos,vitorias,empates,derrotas,gols_marcados,gols_sofridos,saldo_gols\n");
+                break;
+            default:
+                saida.append('[');
+        }
+        for (int i = 0; i < classificacao.size(); i++) {
+            Time time = classificacao.get(i);
+            time.getEstatisticas().lerConsistente(contadores);
+            switch (formato) {
+                case TEXTO:
+                    escreverLinhaTexto(i + 1, time.getNome(), saida);
+                    break;
+                case CSV:
+                    escreverLinhaCsv(i + 1, time.getNome(), saida);
+                    break;
+                default:
+                    if (i > 0) {
+                        saida.append(',');
+                    }
+                    escreverObjetoJson(i + 1, time.getNome(), saida);
+            }
+        }
+        if (formato == Formato.JSON) {
+            saida.append("]\n");
+        }
+    }
+
+    /**
+     * Escreve as rodadas em sequência, uma de cada vez.
+     */
+    public void escreverRodadas(List<Rodada> rodadas, Appendable saida) throws IOException {
+        if (formato == Formato.CSV) {
+            saida.append("rodada,mandante,visitante,gols_mandante,gols_visitante\n");
+        } else if (formato == Formato.JSON) {
+            saida.append('[');
+        }
+        for (int i = 0; i < rodadas.size(); i++) {
+            if (formato == Formato.JSON && i > 0) {
+                saida.append(',');
+            }
+            escreverCorpoRodada(rodadas.get(i), saida);
+        }
+        if (formato == Formato.JSON) {
+            saida.append("]\n");
+        }
+    }
+
+    /**
+     * Escreve uma única rodada (com cabeçalho, no caso do CSV).
+     */
+    public void escreverRodada(Rodada rodada, Appendable saida) throws IOException {
+        if (formato == Formato.CSV) {
+            saida.append("rodada,mandante,visitante,gols_mandante,gols_visitante\n");
+        }
+        escreverCorpoRodada(rodada, saida);
+        if (formato == Formato.JSON) {
+            saida.append('\n');
+        }
+    }
+
+    /**
+     * Escreve uma partida. No texto, no formato "Mandante 2 x 1 Visitante".
+     */
+    public void escreverPartida(Partida partida, Appendable saida) throws IOException {
+        switch (formato) {
+            case TEXTO:
+                escreverPartidaTexto(partida, saida);
+                break;
+            case CSV:
+                escreverPartidaCsv(partida, saida);
+                break;
+            default:
+                escreverPartidaJson(partida, saida);
+        }
+    }
+
+    /**
+     * Versões que escrevem em UTF-8 num {@link OutputStream}, que é esvaziado mas não fechado.
+     */
+    public void escreverClassificacao(List<Time> classificacao, OutputStream saida) throws IOException {
+        Writer escritor = abrir(saida);
+        escreverClassificacao(classificacao, escritor);
+        escritor.flush();
+    }
+
+    public void escreverRodadas(List<Rodada> rodadas, OutputStream saida) throws IOException {
+        Writer escritor = abrir(saida);
+        escreverRodadas(rodadas, escritor);
+        escritor.flush();
+    }
+
+    /**
+     * Texto de uma partida, usado por {@link Partida#toString()}.
+     */
+    static String textoPartida(Partida partida) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new Renderizador(Formato.TEXTO).escreverPartidaTexto(partida, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Texto de uma rodada, usado por {@link Rodada#toString()}.
+     */
+    static String textoRodada(Rodada rodada) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            new Renderizador(Formato.TEXTO).escreverCorpoRodada(rodada, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    private static Writer abrir(OutputStream saida) {
+        return new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+    }
+
+    private void escreverCorpoRodada(Rodada rodada, Appendable saida) throws IOException {
+        List<Partida> partidas = rodada.getPartidas();
+        switch (formato) {
+            case TEXTO:
+                saida.append("Rodada ");
+                escreverInteiro(rodada.getNumero(), saida);
+                saida.append(":\n");
+                for (Partida partida : partidas) {
+                    saida.append("  ");
+                    escreverPartidaTexto(partida, saida);
+                    saida.append('\n');
+                }
+                break;
+            case CSV:
+                for (Partida partida : partidas) {
+                    escreverPartidaCsv(partida, saida);
+                }
+                break;
+            default:
+                saida.append("{\"rodada\":");
+                escreverInteiro(rodada.getNumero(), saida);
+                saida.append(",\"partidas\":[");
+                for (int i = 0; i < partidas.size(); i++) {
+                    if (i > 0) {
+                        saida.append(',');
+                    }
+                    escreverPartidaJson(partidas.get(i), saida);
+                }
+                saida.append("]}");
+        }
+    }
+
+    private void escreverLinhaTexto(int posicao, String nome, Appendable saida) throws IOException {
+        escreverAlinhado(posicao, 2, false, saida);
+        saida.append("  | ").append(nome);
+        for (int i = nome.length(); i < LARGURA_NOME; i++) {
+            saida.append(' ');
+        }
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.PONTOS], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.VITORIAS], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.EMPATES], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.DERROTAS], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.GOLS_MARCADOS], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(contadores[EstatisticasColunares.GOLS_SOFRIDOS], 2, false, saida);
+        saida.append(" | ");
+        escreverAlinhado(saldo(), 3, true, saida);
+        saida.append('\n');
+    }
+
+    private void escreverLinhaCsv(int posicao, String nome, Appendable saida) throws IOException {
+        escreverInteiro(posicao, saida);
+        saida.append(',');
+        escreverCampoCsv(nome, saida);
+        for (int i = EstatisticasColunares.PONTOS; i <= EstatisticasColunares.GOLS_SOFRIDOS; i++) {
+            saida.append(',');
+            escreverInteiro(contadores[i], saida);
+        }
+        saida.append(',');
+        escreverInteiro(saldo(), saida);
+        saida.append('\n');
+    }
+
+    private void escreverObjetoJson(int posicao, String nome, Appendable saida) throws IOException {
+        saida.append("{\"posicao\":");
+        escreverInteiro(posicao, saida);
+        saida.append(",\"time\":");
+        escreverTextoJson(nome, saida);
+        saida.append(",\"pontos\":");
+        escreverInteiro(contadores[EstatisticasColunares.PONTOS], saida);
+        saida.append(",\"vitorias\":");
+        escreverInteiro(contadores[EstatisticasColunares.VITORIAS], saida);
+        saida.append(",\"empates\":");
+        escreverInteiro(contadores[EstatisticasColunares.EMPATES], saida);
+        saida.append(",\"derrotas\":");
+        escreverInteiro(contadores[EstatisticasColunares.DERROTAS], saida);
+        saida.append(",\"golsMarcados\":");
+        escreverInteiro(contadores[EstatisticasColunares.GOLS_MARCADOS], saida);
+        saida.append(",\"golsSofridos\":");
+        escreverInteiro(contadores[EstatisticasColunares.GOLS_SOFRIDOS], saida);
+        saida.append(",\"saldoGols\":");
+        escreverInteiro(saldo(), saida);
+        saida.append('}');
+    }
+
+    private int saldo() {
+        return contadores[EstatisticasColunares.GOLS_MARCADOS] - contadores[EstatisticasColunares.GOLS_SOFRIDOS];
+    }
+
+    private void escreverPartidaTexto(Partida partida, Appendable saida) throws IOException {
+        saida.append(partida.getMandante().getNome());
+        if (partida.isRealizada()) {
+            saida.append(' ');
+            escreverInteiro(partida.getGolsMandante(), saida);
+            saida.append(" x ");
+            escreverInteiro(partida.getGolsVisitante(), saida);
+            saida.append(' ');
+        } else {
+            saida.append(" x ");
+        }
+        saida.append(partida.getVisitante().getNome());
+    }
+
+    private void escreverPartidaCsv(Partida partida, Appendable saida) throws IOException {
+        escreverInteiro(partida.getNumeroRodada(), saida);
+        saida.append(',');
+        escreverCampoCsv(partida.getMandante().getNome(), saida);
+        saida.append(',');
+        escreverCampoCsv(partida.getVisitante().getNome(), saida);
+        saida.append(',');
+        if (partida.isRealizada()) {
+            escreverInteiro(partida.getGolsMandante(), saida);
+            saida.append(',');
+            escreverInteiro(partida.getGolsVisitante(), saida);
+        } else {
+            saida.append(',');
+        }
+        saida.append('\n');
+    }
+
+    private void escreverPartidaJson(Partida partida, Appendable saida) throws IOException {
+        saida.append("{\"mandante\":");
+        escreverTextoJson(partida.getMandante().getNome(), saida);
+        saida.append(",\"visitante\":");
+        escreverTextoJson(partida.getVisitante().getNome(), saida);
+        if (partida.isRealizada()) {
+            saida.append(",\"golsMandante\":");
+            escreverInteiro(partida.getGolsMandante(), saida);
+            saida.append(",\"golsVisitante\":");
+            escreverInteiro(partida.getGolsVisitante(), saida);
+            saida.append('}');
+        } else {
+            saida.append(",\"golsMandante\":null,\"golsVisitante\":null}");
+        }
+    }
+
+    /**
+     * Campo CSV entre aspas apenas quando contém vírgula, aspas ou quebra de linha.
+     */
+    private static void escreverCampoCsv(String valor, Appendable saida) throws IOException {
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            saida.append(valor);
+            return;
+        }
+        saida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                saida.append('"');
+            }
+            saida.append(c);
+        }
+        saida.append('"');
+    }
+
+    private static void escreverTextoJson(String valor, Appendable saida) throws IOException {
+        saida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': saida.append("\\\""); break;
+                case '\\': saida.append("\\\\"); break;
+                case '\n': saida.append("\\n"); break;
+                case '\r': saida.append("\\r"); break;
+                case '\t': saida.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        saida.append("\\u00");
+                        saida.append(Character.forDigit(c >> 4, 16));
+                        saida.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        saida.append(c);
+                    }
+            }
+        }
+        saida.append('"');
+    }
+
+    private void escreverInteiro(int valor, Appendable saida) throws IOException {
+        int inicio = converter(valor, false);
+        for (int i = inicio; i < digitos.length; i++) {
+            saida.append(digitos[i]);
+        }
+    }
+
+    /**
+     * Equivalente a {@code %2d} (ou {@code %+3d} com sinal): alinha o número à direita.
+     */
+    private void escreverAlinhado(int valor, int largura, boolean sinal, Appendable saida) throws IOException {
+        int inicio = converter(valor, sinal);
+        for (int i = digitos.length - inicio; i < largura; i++) {
+            saida.append(' ');
+        }
+        for (int i = inicio; i < digitos.length; i++) {
+            saida.append(digitos[i]);
+        }
+    }
+
+    /**
+     * Converte o número para o fim do buffer e retorna a posição do primeiro caractere.
+     */
+    private int converter(int valor, boolean sinal) {
+        long resto = Math.abs((long) valor);
+        int posicao = digitos.length;
+        do {
+            digitos[--posicao] = (char) ('0' + resto % 10);
+            resto /= 10;
+        } while (resto > 0);
+        if (valor < 0) {
+            digitos[--posicao] = '-';
+        } else if (sinal) {
+            digitos[--posicao] = '+';
+        }
+        return posicao;
+    }
+}
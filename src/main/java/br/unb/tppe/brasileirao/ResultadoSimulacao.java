@@ -0,0 +1,66 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.List;
+
+/**
+ * Resultado de uma simulação Monte Carlo: quantas vezes cada time terminou em cada posição.
+ */
+public class ResultadoSimulacao {
+    /** Vagas do G4 (Libertadores) e do Z4 (rebaixamento). */
+    public static final int VAGAS_G4 = 4;
+    public static final int VAGAS_REBAIXAMENTO = 4;
+
+    private final List<Time> times;
+    private final long[] contagem;
+    private final int numeroSimulacoes;
+
+    ResultadoSimulacao(List<Time> times, long[] contagem, int numeroSimulacoes) {
+        this.times = times;
+        this.contagem = contagem;
+        this.numeroSimulacoes = numeroSimulacoes;
+    }
+
+    public int getNumeroSimulacoes() {
+        return numeroSimulacoes;
+    }
+
+    /**
+     * Probabilidade de o time terminar na posição informada (contada a partir de 1).
+     */
+    public double getProbabilidadePosicao(Time time, int posicao) {
+        return (double) contagem[indice(time) * times.size() + posicao - 1] / numeroSimulacoes;
+    }
+
+    public double getProbabilidadeTitulo(Time time) {
+        return getProbabilidadeFaixa(time, 1, 1);
+    }
+
+    public double getProbabilidadeG4(Time time) {
+        return getProbabilidadeFaixa(time, 1, Math.min(VAGAS_G4, times.size()));
+    }
+
+    public double getProbabilidadeRebaixamento(Time time) {
+        int n = times.size();
+        return getProbabilidadeFaixa(time, Math.max(1, n - VAGAS_REBAIXAMENTO + 1), n);
+    }
+
+    /**
+     * Probabilidade de o time terminar entre as posições inicial e final (inclusive).
+     */
+    public double getProbabilidadeFaixa(Time time, int posicaoInicial, int posicaoFinal) {
+        int base = indice(time) * times.size();
+        long total = 0;
+        for (int posicao = posicaoInicial; posicao <= posicaoFinal; posicao++) {
+            total += contagem[base + posicao - 1];
+        }
+        return (double) total / numeroSimulacoes;
+    }
+
+    private int indice(Time time) {
+        int indice = times.indexOf(time);
+        if (indice < 0) {
+            throw new IllegalArgumentException("Time fora do campeonato: " + time.getNome());
+        }
+        return indice;
+    }
+}
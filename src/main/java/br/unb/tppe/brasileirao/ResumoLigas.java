@@ -0,0 +1,49 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Retrato imutável da vazão somada das ligas de um {@link GerenciadorLigas}.
+ */
+public final class ResumoLigas {
+    private final int numeroLigas;
+    private final long tarefasConcluidas;
+    private final long tarefasComFalha;
+    private final long resultadosRegistrados;
+    private final long rodadasSorteadas;
+    private final long tempoDecorrido;
+
+    ResumoLigas(int numeroLigas, long tarefasConcluidas, long tarefasComFalha,
+                long resultadosRegistrados, long rodadasSorteadas, long tempoDecorrido) {
+        this.numeroLigas = numeroLigas;
+        this.tarefasConcluidas = tarefasConcluidas;
+        this.tarefasComFalha = tarefasComFalha;
+        this.resultadosRegistrados = resultadosRegistrados;
+        this.rodadasSorteadas = rodadasSorteadas;
+        this.tempoDecorrido = tempoDecorrido;
+    }
+
+    public int getNumeroLigas() { return numeroLigas; }
+    public long getTarefasConcluidas() { return tarefasConcluidas; }
+    public long getTarefasComFalha() { return tarefasComFalha; }
+    public long getResultadosRegistrados() { return resultadosRegistrados; }
+    public long getRodadasSorteadas() { return rodadasSorteadas; }
+    public long getTempoDecorridoNanos() { return tempoDecorrido; }
+
+    public double getTarefasPorSegundo() {
+        return porSegundo(tarefasConcluidas);
+    }
+
+    public double getResultadosPorSegundo() {
+        return porSegundo(resultadosRegistrados);
+    }
+
+    private double porSegundo(long quantidade) {
+        return tempoDecorrido == 0 ? 0 : quantidade * 1e9 / tempoDecorrido;
+    }
+
+    @Override
+    public String toString() {
+        return numeroLigas + " ligas - tarefas:" + tarefasConcluidas + " (falhas:" + tarefasComFalha
+               + ") resultados:" + resultadosRegistrados + " rodadas:" + rodadasSorteadas
+               + String.format(" - %.1f resultados/s", getResultadosPorSegundo());
+    }
+}
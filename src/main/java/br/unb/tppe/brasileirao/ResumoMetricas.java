@@ -0,0 +1,44 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Retrato imutável das métricas de uma operação em um instante. Os tempos são em nanossegundos;
+ * os percentis são o limite superior do intervalo do histograma (erro relativo de até 25%).
+ */
+public final class ResumoMetricas {
+    private final Metricas.Operacao operacao;
+    private final long contagem;
+    private final long tempoTotal;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long maximo;
+
+    ResumoMetricas(Metricas.Operacao operacao, long contagem, long tempoTotal,
+                   long p50, long p90, long p99, long maximo) {
+        this.operacao = operacao;
+        this.contagem = contagem;
+        this.tempoTotal = tempoTotal;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.maximo = maximo;
+    }
+
+    public Metricas.Operacao getOperacao() { return operacao; }
+    public long getContagem() { return contagem; }
+    public long getTempoTotalNanos() { return tempoTotal; }
+    public long getP50Nanos() { return p50; }
+    public long getP90Nanos() { return p90; }
+    public long getP99Nanos() { return p99; }
+    public long getMaximoNanos() { return maximo; }
+
+    public double getMediaNanos() {
+        return contagem == 0 ? 0 : (double) tempoTotal / contagem;
+    }
+
+    @Override
+    public String toString() {
+        return operacao + " - n:" + contagem + " média:" + (long) getMediaNanos() + "ns p50:" + p50
+               + "ns p90:" + p90 + "ns p99:" + p99 + "ns máx:" + maximo + "ns";
+    }
+}
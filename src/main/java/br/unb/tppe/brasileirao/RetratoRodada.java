@@ -0,0 +1,89 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classificação e estatísticas dos times como estavam ao fim de uma rodada
+ * (ver {@link HistoricoRodadas}). Não muda depois de criado.
+ */
+public final class RetratoRodada {
+    private static final int CAMPOS = EstatisticasColunares.NUMERO_ESTATISTICAS;
+
+    private final int rodada;
+    private final List<Time> times;
+    private final IndiceTimes indice;
+    private final int[] estatisticas;
+    private final List<Time> classificacao;
+    private final int[] posicoes;
+
+    RetratoRodada(int rodada, List<Time> times, IndiceTimes indice, int[] estatisticas, List<Time> classificacao) {
+        this.rodada = rodada;
+        this.times = times;
+        this.indice = indice;
+        this.estatisticas = estatisticas;
+        this.classificacao = Collections.unmodifiableList(classificacao);
+        this.posicoes = new int[times.size()];
+        for (int i = 0; i < classificacao.size(); i++) {
+            posicoes[indiceDe(classificacao.get(i))] = i + 1;
+        }
+    }
+
+    public int getRodada() {
+        return rodada;
+    }
+
+    /**
+     * Times na ordem da classificação ao fim da rodada.
+     */
+    public List<Time> getClassificacao() {
+        return classificacao;
+    }
+
+    /**
+     * Posição do time ao fim da rodada, contada a partir de 1.
+     */
+    public int getPosicao(Time time) {
+        return posicoes[indiceDe(time)];
+    }
+
+    public int getPontos(Time time) {
+        return valor(time, EstatisticasColunares.PONTOS);
+    }
+
+    public int getVitorias(Time time) {
+        return valor(time, EstatisticasColunares.VITORIAS);
+    }
+
+    public int getEmpates(Time time) {
+        return valor(time, EstatisticasColunares.EMPATES);
+    }
+
+    public int getDerrotas(Time time) {
+        return valor(time, EstatisticasColunares.DERROTAS);
+    }
+
+    public int getGolsMarcados(Time time) {
+        return valor(time, EstatisticasColunares.GOLS_MARCADOS);
+    }
+
+    public int getGolsSofridos(Time time) {
+        return valor(time, EstatisticasColunares.GOLS_SOFRIDOS);
+    }
+
+    public int getSaldoGols(Time time) {
+        return getGolsMarcados(time) - getGolsSofridos(time);
+    }
+
+    private int valor(Time time, int campo) {
+        return estatisticas[indiceDe(time) * CAMPOS + campo];
+    }
+
+    private int indiceDe(Time time) {
+        int i = indice.indiceDe(time);
+        if (i < 0) {
+            throw new IllegalArgumentException("Time fora do campeonato: " + time.getNome());
+        }
+        return i;
+    }
+}
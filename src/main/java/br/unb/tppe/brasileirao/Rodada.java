@@ -1,39 +1,178 @@
 package br.unb.tppe.brasileirao;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Classe que representa uma rodada do campeonato.
+ *
+ * Os validadores usam um bitset de ocupação atualizado em
+ * {@link #adicionarPartida(Partida)}: saber se um time está na rodada custa O(1) e a
+ * repetição de times é detectada no momento em que a partida é adicionada. O bitset é
+ * indexado pela posição do time no seu campeonato, então tem o tamanho da liga mesmo
+ * com um registro compartilhado por muitas ligas; times fora de campeonato usam o id do
+ * registro. Se a rodada misturar campeonatos ou registros, ou receber times sem id, as
+ * verificações voltam a percorrer as partidas.
  */
 public class Rodada {
     private int numero;
     private List<Partida> partidas;
+    private List<Partida> partidasSomenteLeitura;
+    /** Campeonato ou registro que dá os índices do bitset. */
+    private Object espaco;
+    private long[] ocupacao;
+    private long[] repetidos;
+    private boolean temRepeticao;
+    private boolean usaBitset;
 
     public Rodada(int numero) {
         this.numero = numero;
         this.partidas = new ArrayList<>();
+        this.partidasSomenteLeitura = Collections.unmodifiableList(partidas);
+        this.ocupacao = new long[1];
+        this.repetidos = new long[1];
+        this.usaBitset = true;
     }
 
     public int getNumero() {
         return numero;
     }
 
+    /**
+     * Retorna as partidas da rodada, sem cópia (a lista não pode ser alterada).
+     */
     public List<Partida> getPartidas() {
-        return new ArrayList<>(partidas);
+        return partidasSomenteLeitura;
     }
 
     /**
      * Adiciona uma partida à rodada.
      */
     public void adicionarPartida(Partida partida) {
+        partida.setNumeroRodada(numero);
+        partida.setNumeroJogo(partidas.size());
         partidas.add(partida);
+        if (usaBitset) {
+            usaBitset = marcar(partida.getMandante()) && marcar(partida.getVisitante());
+        }
+        if (!usaBitset) {
+            temRepeticao = temRepeticao || procurarRepeticao(partida);
+        }
+    }
+
+    /**
+     * Marca o time no bitset; retorna false se ele não puder ser indexado.
+     */
+    private boolean marcar(Time time) {
+        Object espacoTime = espacoDe(time);
+        if (espacoTime == null || (espaco != null && espacoTime != espaco)) {
+            return false;
+        }
+        espaco = espacoTime;
+        int id = chaveDe(time);
+        int palavra = id >>> 6;
+        if (palavra >= ocupacao.length) {
+            int tamanho = Math.max(palavra + 1, ocupacao.length * 2);
+            ocupacao = Arrays.copyOf(ocupacao, tamanho);
+            repetidos = Arrays.copyOf(repetidos, tamanho);
+        }
+        long bit = 1L << id;
+        if ((ocupacao[palavra] & bit) != 0) {
+            repetidos[palavra] |= bit;
+            temRepeticao = true;
+        }
+        ocupacao[palavra] |= bit;
+        return true;
+    }
+
+    /**
+     * Verifica se o time pode ser consultado direto no bitset.
+     */
+    private boolean consultavel(Time time) {
+        Object espacoTime = espacoDe(time);
+        return usaBitset && espacoTime != null && (espaco == null || espacoTime == espaco);
+    }
+
+    private static Object espacoDe(Time time) {
+        return time.getCampeonato() != null ? time.getCampeonato() : time.getRegistro();
+    }
+
+    private static int chaveDe(Time time) {
+        return time.getCampeonato() != null ? time.getIndice() : time.getId();
+    }
+
+    private static boolean marcado(long[] bitset, int id) {
+        int palavra = id >>> 6;
+        return palavra < bitset.length && (bitset[palavra] & (1L << id)) != 0;
+    }
+
+    /**
+     * Procura os times da partida recém-adicionada nas partidas anteriores.
+     */
+    private boolean procurarRepeticao(Partida nova) {
+        if (nova.getMandante().equals(nova.getVisitante())) {
+            return true;
+        }
+        for (int i = 0; i < partidas.size() - 1; i++) {
+            Partida partida = partidas.get(i);
+            if (partida.getMandante().equals(nova.getMandante()) || partida.getMandante().equals(nova.getVisitante())
+                    || partida.getVisitante().equals(nova.getMandante()) || partida.getVisitante().equals(nova.getVisitante())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registra de uma vez os resultados de todas as partidas da rodada, na ordem de
+     * {@link #getPartidas()}: {@code golsMandante[i]} e {@code golsVisitante[i]} são o placar
+     * da partida i. As estatísticas são atualizadas em uma passada, sem objeto por partida, e
+     * cada ouvinte recebe uma única notificação com todas as partidas (ver
+     * {@link OuvinteResultados#resultadosRegistrados(List)}), então a classificação e os
+     * demais índices são atualizados uma vez por rodada. Partidas que já tinham resultado
+     * têm o placar substituído, como em {@link Partida#registrarResultado(int, int)}; os
+     * placares retirados também chegam numa única notificação por ouvinte.
+     */
+    public void registrarResultados(int[] golsMandante, int[] golsVisitante) {
+        if (golsMandante.length != partidas.size() || golsVisitante.length != partidas.size()) {
+            throw new IllegalArgumentException("A rodada tem " + partidas.size() + " partidas, mas foram informados "
+                                               + golsMandante.length + " e " + golsVisitante.length + " placares");
+        }
+        long inicio = Metricas.ATIVO ? System.nanoTime() : 0L;
+        Partida.desfazerEmLote(partidasSomenteLeitura);
+        for (int i = 0; i < partidas.size(); i++) {
+            partidas.get(i).registrarSemNotificar(golsMandante[i], golsVisitante[i]);
+        }
+        Partida.notificarOuvintes(partidasSomenteLeitura);
+        if (Metricas.ATIVO) {
+            Metricas.registrar(Metricas.Operacao.REGISTRAR_RESULTADOS_RODADA, inicio);
+        }
+    }
+
+    /**
+     * Busca a partida da rodada em que o time informado é o mandante.
+     */
+    public Partida buscarPartidaDoMandante(Time mandante) {
+        if (consultavel(mandante) && !marcado(ocupacao, chaveDe(mandante))) {
+            return null;
+        }
+        for (Partida partida : partidas) {
+            if (partida.getMandante().equals(mandante)) {
+                return partida;
+            }
+        }
+        return null;
     }
 
     /**
      * Verifica se a rodada contém um time específico.
      */
     public boolean contemTime(Time time) {
+        if (consultavel(time)) {
+            return marcado(ocupacao, chaveDe(time));
+        }
         for (Partida partida : partidas) {
             if (partida.getMandante().equals(time) || partida.getVisitante().equals(time)) {
                 return true;
@@ -44,8 +183,17 @@ public class Rodada {
 
     /**
      * Conta quantas vezes um time aparece na rodada.
+     * Só percorre as partidas se o time aparecer mais de uma vez.
      */
     public int contarAparicoes(Time time) {
+        if (consultavel(time)) {
+            if (!marcado(ocupacao, chaveDe(time))) {
+                return 0;
+            }
+            if (!marcado(repetidos, chaveDe(time))) {
+                return 1;
+            }
+        }
         int contador = 0;
         for (Partida partida : partidas) {
             if (partida.getMandante().equals(time)) {
@@ -72,27 +220,14 @@ public class Rodada {
 
     /**
      * Verifica se há repetição de times na rodada.
+     * A repetição é detectada ao adicionar cada partida, então a consulta é O(1).
      */
     public boolean temRepeticaoTimes() {
-        List<Time> timesVistos = new ArrayList<>();
-        for (Partida partida : partidas) {
-            if (timesVistos.contains(partida.getMandante()) || 
-                timesVistos.contains(partida.getVisitante())) {
-                return true;
-            }
-            timesVistos.add(partida.getMandante());
-            timesVistos.add(partida.getVisitante());
-        }
-        return false;
+        return temRepeticao;
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Rodada ").append(numero).append(":\n");
-        for (Partida partida : partidas) {
-            sb.append("  ").append(partida).append("\n");
-        }
-        return sb.toString();
+        return Renderizador.textoRodada(this);
     }
 }
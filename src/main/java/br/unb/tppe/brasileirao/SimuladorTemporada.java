@@ -0,0 +1,336 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulador Monte Carlo do restante de um campeonato em andamento.
+ *
+ * As partidas que faltam (não realizadas nas rodadas já sorteadas e todas as das
+ * rodadas ainda não sorteadas) são simuladas muitas vezes, em paralelo com fork-join.
+ * Cada simulação trabalha só com arrays primitivos, sem criar Partida ou Time, e
+ * ordena os times com os mesmos critérios de {@link Campeonato#getClassificacao()},
+ * inclusive o confronto direto entre dois times empatados: o placar de cada par vem
+ * do jogo simulado, se ele ainda faltava, ou do {@link ConfrontoDireto} do campeonato.
+ *
+ * Os gols seguem uma distribuição de Poisson cuja média combina o ataque do mandante
+ * com a defesa do visitante, estimados a partir das estatísticas atuais. O resultado
+ * é reproduzível: a mesma semente gera sempre as mesmas probabilidades, independente
+ * do número de threads, porque a divisão das tarefas e dos geradores é determinística.
+ */
+public class SimuladorTemporada {
+    private static final double MEDIA_GOLS_MANDANTE = 1.5;
+    private static final double MEDIA_GOLS_VISITANTE = 1.1;
+    /** Jogos "fictícios" na média da liga usados para suavizar ataque e defesa. */
+    private static final double JOGOS_PRIORI = 5.0;
+    private static final int SIMULACOES_POR_TAREFA = 1000;
+    private static final int CAMPOS = EstatisticasColunares.NUMERO_ESTATISTICAS;
+
+    private final List<Time> times;
+    private final int numTimes;
+    /** Estatísticas atuais, {@link #CAMPOS} por time no layout de {@link EstatisticasColunares}. */
+    private final int[] estatisticas;
+    private final int[] ordemAlfabetica;
+    private final int[] mandantes;
+    private final int[] visitantes;
+    private final double[] mediasMandante;
+    private final double[] mediasVisitante;
+    /** Placares codificados dos jogos já realizados, por mandante * n + visitante. */
+    private final int[] placaresRealizados;
+    /** Índices, em {@link #mandantes}, das partidas restantes de cada time. */
+    private final int[][] restantesPorTime;
+    private final ForkJoinPool pool;
+
+    public SimuladorTemporada(Campeonato campeonato) {
+        this(campeonato, ForkJoinPool.commonPool());
+    }
+
+    public SimuladorTemporada(Campeonato campeonato, ForkJoinPool pool) {
+        this.times = campeonato.getTimes();
+        this.numTimes = times.size();
+        this.pool = pool;
+        this.estatisticas = new int[numTimes * CAMPOS];
+        this.ordemAlfabetica = new int[numTimes];
+
+        lerEstatisticas();
+        calcularOrdemAlfabetica();
+
+        List<int[]> restantes = partidasRestantes(campeonato);
+        this.mandantes = new int[restantes.size()];
+        this.visitantes = new int[restantes.size()];
+        this.mediasMandante = new double[restantes.size()];
+        this.mediasVisitante = new double[restantes.size()];
+        estimarMedias(restantes);
+        this.placaresRealizados = lerPlacares(campeonato.getConfrontoDireto());
+        this.restantesPorTime = agruparPorTime();
+    }
+
+    private int[] lerPlacares(ConfrontoDireto confrontoDireto) {
+        int[] placares = new int[numTimes * numTimes];
+        for (int i = 0; i < numTimes; i++) {
+            for (int j = 0; j < numTimes; j++) {
+                if (i != j) {
+                    placares[i * numTimes + j] = confrontoDireto.getPlacarCodificado(times.get(i), times.get(j));
+                }
+            }
+        }
+        return placares;
+    }
+
+    private int[][] agruparPorTime() {
+        int[] quantidade = new int[numTimes];
+        for (int p = 0; p < mandantes.length; p++) {
+            quantidade[mandantes[p]]++;
+            quantidade[visitantes[p]]++;
+        }
+        int[][] porTime = new int[numTimes][];
+        for (int i = 0; i < numTimes; i++) {
+            porTime[i] = new int[quantidade[i]];
+            quantidade[i] = 0;
+        }
+        for (int p = 0; p < mandantes.length; p++) {
+            porTime[mandantes[p]][quantidade[mandantes[p]]++] = p;
+            porTime[visitantes[p]][quantidade[visitantes[p]]++] = p;
+        }
+        return porTime;
+    }
+
+    private void lerEstatisticas() {
+        for (int i = 0; i < numTimes; i++) {
+            times.get(i).getEstatisticas().lerConsistente(estatisticas, i * CAMPOS);
+        }
+    }
+
+    private void calcularOrdemAlfabetica() {
+        Integer[] indices = new Integer[numTimes];
+        for (int i = 0; i < numTimes; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> times.get(a).getNome().compareTo(times.get(b).getNome()));
+        for (int i = 0; i < numTimes; i++) {
+            ordemAlfabetica[indices[i]] = i;
+        }
+    }
+
+    /**
+     * Lista as partidas que faltam como pares (índice do mandante, índice do visitante),
+     * com os índices na lista de times do campeonato: as não realizadas das rodadas já
+     * sorteadas e todas as das rodadas que a tabela ainda vai gerar.
+     */
+    static List<int[]> partidasRestantes(Campeonato campeonato) {
+        List<int[]> restantes = new ArrayList<>();
+        for (Rodada rodada : campeonato.getRodadas()) {
+            for (Partida partida : rodada.getPartidas()) {
+                if (!partida.isRealizada()) {
+                    restantes.add(new int[] {partida.getMandante().getIndice(),
+                                             partida.getVisitante().getIndice()});
+                }
+            }
+        }
+
+        TabelaJogos tabela = campeonato.getTabela();
+        for (int rodada = campeonato.getRodadaAtual(); rodada < tabela.getNumeroRodadas(); rodada++) {
+            for (int jogo = 0; jogo < tabela.getPartidasPorRodada(); jogo++) {
+                restantes.add(new int[] {tabela.getMandante(rodada, jogo), tabela.getVisitante(rodada, jogo)});
+            }
+        }
+        return restantes;
+    }
+
+    /**
+     * Média de gols de cada lado: média da liga ajustada pelo ataque de quem marca
+     * e pela defesa de quem sofre, com os dois suavizados em direção a 1.
+     */
+    private void estimarMedias(List<int[]> restantes) {
+        double mediaLiga = (MEDIA_GOLS_MANDANTE + MEDIA_GOLS_VISITANTE) / 2;
+        double[] ataque = new double[numTimes];
+        double[] defesa = new double[numTimes];
+        for (int i = 0; i < numTimes; i++) {
+            int base = i * CAMPOS;
+            int jogos = estatisticas[base + EstatisticasColunares.VITORIAS]
+                      + estatisticas[base + EstatisticasColunares.EMPATES]
+                      + estatisticas[base + EstatisticasColunares.DERROTAS];
+            double peso = jogos + JOGOS_PRIORI;
+            ataque[i] = (estatisticas[base + EstatisticasColunares.GOLS_MARCADOS] + JOGOS_PRIORI * mediaLiga)
+                        / peso / mediaLiga;
+            defesa[i] = (estatisticas[base + EstatisticasColunares.GOLS_SOFRIDOS] + JOGOS_PRIORI * mediaLiga)
+                        / peso / mediaLiga;
+        }
+        for (int p = 0; p < restantes.size(); p++) {
+            int mandante = restantes.get(p)[0];
+            int visitante = restantes.get(p)[1];
+            mandantes[p] = mandante;
+            visitantes[p] = visitante;
+            mediasMandante[p] = MEDIA_GOLS_MANDANTE * ataque[mandante] * defesa[visitante];
+            mediasVisitante[p] = MEDIA_GOLS_VISITANTE * ataque[visitante] * defesa[mandante];
+        }
+    }
+
+    public int getPartidasRestantes() {
+        return mandantes.length;
+    }
+
+    /**
+     * Simula o restante do campeonato o número de vezes informado.
+     */
+    public ResultadoSimulacao simular(int numeroSimulacoes, long semente) {
+        if (numeroSimulacoes <= 0) {
+            throw new IllegalArgumentException("Número de simulações deve ser positivo");
+        }
+        long[] contagem = pool.invoke(new TarefaSimulacao(numeroSimulacoes, new SplittableRandom(semente)));
+        return new ResultadoSimulacao(times, contagem, numeroSimulacoes);
+    }
+
+    /**
+     * Tarefa fork-join que divide as simulações ao meio até um tamanho mínimo.
+     * Devolve contagem[time * n + posição].
+     */
+    private class TarefaSimulacao extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int simulacoes;
+        private final SplittableRandom random;
+
+        TarefaSimulacao(int simulacoes, SplittableRandom random) {
+            this.simulacoes = simulacoes;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (simulacoes <= SIMULACOES_POR_TAREFA) {
+                return simularSequencial(simulacoes, random);
+            }
+            int metade = simulacoes / 2;
+            TarefaSimulacao direita = new TarefaSimulacao(simulacoes - metade, random.split());
+            TarefaSimulacao esquerda = new TarefaSimulacao(metade, random);
+            direita.fork();
+            long[] contagem = esquerda.compute();
+            long[] contagemDireita = direita.join();
+            for (int i = 0; i < contagem.length; i++) {
+                contagem[i] += contagemDireita[i];
+            }
+            return contagem;
+        }
+    }
+
+    private long[] simularSequencial(int simulacoes, SplittableRandom random) {
+        long[] contagem = new long[numTimes * numTimes];
+        int[] simEstatisticas = new int[estatisticas.length];
+        int[] simGolsMandante = new int[mandantes.length];
+        int[] simGolsVisitante = new int[mandantes.length];
+        int[] ordem = new int[numTimes];
+
+        for (int s = 0; s < simulacoes; s++) {
+            System.arraycopy(estatisticas, 0, simEstatisticas, 0, estatisticas.length);
+
+            for (int p = 0; p < mandantes.length; p++) {
+                int golsM = poisson(mediasMandante[p], random);
+                int golsV = poisson(mediasVisitante[p], random);
+                simGolsMandante[p] = golsM;
+                simGolsVisitante[p] = golsV;
+                somarResultado(simEstatisticas, mandantes[p] * CAMPOS, golsM, golsV);
+                somarResultado(simEstatisticas, visitantes[p] * CAMPOS, golsV, golsM);
+            }
+
+            ordenar(ordem, simEstatisticas);
+            desempatarDuplas(ordem, simEstatisticas, simGolsMandante, simGolsVisitante);
+            for (int pos = 0; pos < numTimes; pos++) {
+                contagem[ordem[pos] * numTimes + pos]++;
+            }
+        }
+        return contagem;
+    }
+
+    /**
+     * Soma um jogo à linha do time; só os campos usados na ordenação.
+     */
+    private static void somarResultado(int[] estatisticas, int base, int golsPro, int golsContra) {
+        if (golsPro > golsContra) {
+            estatisticas[base + EstatisticasColunares.PONTOS] += 3;
+            estatisticas[base + EstatisticasColunares.VITORIAS]++;
+        } else if (golsPro == golsContra) {
+            estatisticas[base + EstatisticasColunares.PONTOS]++;
+        }
+        estatisticas[base + EstatisticasColunares.GOLS_MARCADOS] += golsPro;
+        estatisticas[base + EstatisticasColunares.GOLS_SOFRIDOS] += golsContra;
+    }
+
+    /**
+     * Ordenação por inserção dos índices dos times pelos critérios da classificação.
+     */
+    private void ordenar(int[] ordem, int[] estatisticas) {
+        for (int i = 0; i < numTimes; i++) {
+            int time = i;
+            int j = i;
+            while (j > 0 && comparar(ordem[j - 1], time, estatisticas) > 0) {
+                ordem[j] = ordem[j - 1];
+                j--;
+            }
+            ordem[j] = time;
+        }
+    }
+
+    private int comparar(int a, int b, int[] estatisticas) {
+        int resultado = compararCriterios(a, b, estatisticas);
+        return resultado != 0 ? resultado : Integer.compare(ordemAlfabetica[a], ordemAlfabetica[b]);
+    }
+
+    private static int compararCriterios(int a, int b, int[] estatisticas) {
+        return ComparadorClassificacao.comparar(estatisticas, a * CAMPOS, estatisticas, b * CAMPOS);
+    }
+
+    /**
+     * Aplica o confronto direto sobre a ordem já calculada, como
+     * {@link ConfrontoDireto#desempatarDuplas}: só em empates de exatamente dois times.
+     */
+    private void desempatarDuplas(int[] ordem, int[] estatisticas, int[] golsMandante, int[] golsVisitante) {
+        int inicio = 0;
+        while (inicio < numTimes) {
+            int fim = inicio + 1;
+            while (fim < numTimes && compararCriterios(ordem[inicio], ordem[fim], estatisticas) == 0) {
+                fim++;
+            }
+            if (fim - inicio == 2) {
+                int a = ordem[inicio];
+                int b = ordem[inicio + 1];
+                if (ConfrontoDireto.compararPlacares(placar(a, b, golsMandante, golsVisitante),
+                                                     placar(b, a, golsMandante, golsVisitante)) > 0) {
+                    ordem[inicio] = b;
+                    ordem[inicio + 1] = a;
+                }
+            }
+            inicio = fim;
+        }
+    }
+
+    /**
+     * Placar codificado do jogo do mandante contra o visitante nesta simulação.
+     */
+    private int placar(int mandante, int visitante, int[] golsMandante, int[] golsVisitante) {
+        for (int p : restantesPorTime[mandante]) {
+            if (mandantes[p] == mandante && visitantes[p] == visitante) {
+                return ConfrontoDireto.codificar(golsMandante[p], golsVisitante[p]);
+            }
+        }
+        return placaresRealizados[mandante * numTimes + visitante];
+    }
+
+    /**
+     * Amostra de Poisson pelo método de Knuth (adequado para médias pequenas, como gols).
+     */
+    private static int poisson(double media, SplittableRandom random) {
+        double limite = Math.exp(-media);
+        double produto = random.nextDouble();
+        int k = 0;
+        while (produto > limite) {
+            k++;
+            produto *= random.nextDouble();
+        }
+        return k;
+    }
+}
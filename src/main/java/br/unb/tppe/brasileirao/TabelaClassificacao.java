@@ -0,0 +1,285 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice da classificação mantido incrementalmente.
+ *
+ * Os times ficam sempre ordenados em um array. Quando uma partida tem o resultado
+ * registrado (ou desfeito), apenas o mandante e o visitante são deslocados até a nova posição,
+ * então a leitura da tabela custa O(n) em vez de uma ordenação completa.
+ * As chaves e as posições ficam em arrays do tamanho da lista de times, indexados pela
+ * posição de cada time nela (ver {@link IndiceTimes}).
+ *
+ * A ordem segue os critérios de {@link ComparadorClassificacao}, mas usando uma cópia
+ * dos critérios numéricos de cada time feita quando ele foi posicionado. Assim a tabela
+ * continua ordenada mesmo se outra thread alterar as estatísticas de um time antes de
+ * notificar o resultado.
+ *
+ * Num campeonato com {@link EstatisticasColunares}, as chaves são lidas direto das
+ * colunas pela posição do time, e a reordenação completa percorre cada coluna em
+ * sequência (ver {@link EstatisticasColunares#lerTodos(int[], int)}).
+ *
+ * Com um {@link ConfrontoDireto}, empates entre exatamente dois times em todos os
+ * critérios numéricos são decididos pelo confronto direto na leitura da tabela.
+ *
+ * Como o array já está ordenado e as posições são indexadas pelo time, a posição de um
+ * time custa O(1) e uma faixa de posições custa O(tamanho da faixa), sem copiar a
+ * tabela inteira. O confronto direto é aplicado olhando só os vizinhos de cada posição.
+ */
+public class TabelaClassificacao implements OuvinteResultados {
+    /** Lotes que alteram até 1/8 dos times são reposicionados sem reordenar a tabela. */
+    static final int FRACAO_LOTE_INCREMENTAL = 8;
+    private static final int CAMPOS = EstatisticasColunares.NUMERO_ESTATISTICAS;
+
+    private final Time[] ordem;
+    private final IndiceTimes indice;
+    private final int[] posicoes;
+    /** Cópia das estatísticas de cada time, {@link #CAMPOS} por time, usada como chave. */
+    private final int[] chaves;
+    private final ConfrontoDireto confrontoDireto;
+    private final EstatisticasColunares colunas;
+
+    public TabelaClassificacao(List<Time> times) {
+        this(times, null);
+    }
+
+    public TabelaClassificacao(List<Time> times, ConfrontoDireto confrontoDireto) {
+        this(times, confrontoDireto, null);
+    }
+
+    /**
+     * Com {@code colunas}, as estatísticas de cada time são lidas das colunas na posição
+     * que ele tem na lista, como num {@link Campeonato} criado com elas.
+     */
+    TabelaClassificacao(List<Time> times, ConfrontoDireto confrontoDireto, EstatisticasColunares colunas) {
+        this.confrontoDireto = confrontoDireto;
+        this.colunas = colunas;
+        this.ordem = times.toArray(new Time[0]);
+        this.indice = new IndiceTimes(times);
+
+        int n = ordem.length;
+        this.posicoes = new int[n];
+        this.chaves = new int[n * CAMPOS];
+        reordenar();
+    }
+
+    /**
+     * Relê as estatísticas de todos os times e reordena a tabela inteira.
+     * Usado quando muitos times mudam de uma vez, sem notificação por partida.
+     */
+    public synchronized void reordenar() {
+        if (colunas != null) {
+            colunas.lerTodos(chaves, ordem.length);
+        } else {
+            for (Time time : ordem) {
+                atualizarChave(time);
+            }
+        }
+        Arrays.sort(ordem, this::comparar);
+        for (int i = 0; i < ordem.length; i++) {
+            posicoes[indice.indiceDe(ordem[i])] = i;
+        }
+    }
+
+    /**
+     * Retorna os times na ordem da classificação.
+     */
+    public synchronized List<Time> getClassificacao() {
+        List<Time> classificacao = new ArrayList<>(Arrays.asList(ordem));
+        if (confrontoDireto != null) {
+            ConfrontoDireto.desempatarDuplas(classificacao, this::compararCriterios, confrontoDireto::comparar);
+        }
+        return classificacao;
+    }
+
+    /**
+     * Posição do time na classificação, contada a partir de 1.
+     */
+    public synchronized int getPosicao(Time time) {
+        int posicao = posicaoDe(time);
+        if (posicao < 0) {
+            throw new IllegalArgumentException("Time fora da classificação: " + time.getNome());
+        }
+        int dupla = parceiroDupla(posicao);
+        return (dupla >= 0 && duplaInvertida(posicao, dupla) ? dupla : posicao) + 1;
+    }
+
+    /**
+     * Times da posição {@code de} até a posição {@code ate}, inclusive (contadas a partir
+     * de 1), por exemplo 17 a 20 para a zona de rebaixamento.
+     */
+    public synchronized List<Time> getFaixa(int de, int ate) {
+        if (de < 1 || ate > ordem.length || de > ate + 1) {
+            throw new IllegalArgumentException("Faixa inválida: " + de + " a " + ate);
+        }
+        List<Time> faixa = new ArrayList<>(ate - de + 1);
+        for (int posicao = de - 1; posicao < ate; posicao++) {
+            int dupla = parceiroDupla(posicao);
+            faixa.add(ordem[dupla >= 0 && duplaInvertida(posicao, dupla) ? dupla : posicao]);
+        }
+        return faixa;
+    }
+
+    /**
+     * Os {@code k} primeiros colocados (todos, se houver menos de {@code k} times).
+     */
+    public List<Time> getTopo(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Quantidade inválida: " + k);
+        }
+        return getFaixa(1, Math.min(k, ordem.length));
+    }
+
+    /**
+     * Se o time da posição está empatado em todos os critérios numéricos com exatamente
+     * um outro time, retorna a posição desse outro; senão, -1. Os empatados são sempre
+     * vizinhos no array, então bastam os dois vizinhos de cada lado.
+     */
+    private int parceiroDupla(int posicao) {
+        if (confrontoDireto == null) {
+            return -1;
+        }
+        if (posicao > 0 && empatados(posicao - 1, posicao)) {
+            boolean maisADireita = posicao + 1 < ordem.length && empatados(posicao, posicao + 1);
+            boolean maisAEsquerda = posicao > 1 && empatados(posicao - 2, posicao - 1);
+            return maisADireita || maisAEsquerda ? -1 : posicao - 1;
+        }
+        if (posicao + 1 < ordem.length && empatados(posicao, posicao + 1)) {
+            boolean maisADireita = posicao + 2 < ordem.length && empatados(posicao + 1, posicao + 2);
+            return maisADireita ? -1 : posicao + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Indica se o confronto direto troca a ordem alfabética dos dois times da dupla,
+     * como em {@link ConfrontoDireto#desempatarDuplas}.
+     */
+    private boolean duplaInvertida(int posicao, int dupla) {
+        int primeiro = Math.min(posicao, dupla);
+        return confrontoDireto.comparar(ordem[primeiro], ordem[primeiro + 1]) > 0;
+    }
+
+    private boolean empatados(int posicao1, int posicao2) {
+        return compararCriterios(ordem[posicao1], ordem[posicao2]) == 0;
+    }
+
+    @Override
+    public synchronized void resultadoRegistrado(Partida partida) {
+        reposicionar(partida.getMandante(), partida.getVisitante());
+    }
+
+    @Override
+    public synchronized void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+        reposicionar(partida.getMandante(), partida.getVisitante());
+    }
+
+    /**
+     * Uma rodada inteira mexe em quase todos os times: uma única reordenação sai mais barata
+     * que deslocar cada time até a nova posição. Um lote pequeno em relação à tabela (até
+     * {@link #FRACAO_LOTE_INCREMENTAL} dos times) é deslocado time a time, como os
+     * resultados avulsos.
+     */
+    @Override
+    public synchronized void resultadosRegistrados(List<Partida> partidas) {
+        reposicionarLote(partidas);
+    }
+
+    @Override
+    public synchronized void resultadosDesfeitos(List<Partida> partidas, int[] golsMandante, int[] golsVisitante) {
+        reposicionarLote(partidas);
+    }
+
+    private void reposicionarLote(List<Partida> partidas) {
+        if (2 * partidas.size() * FRACAO_LOTE_INCREMENTAL > ordem.length) {
+            reordenar();
+            return;
+        }
+        Time[] alterados = new Time[2 * partidas.size()];
+        for (int i = 0; i < partidas.size(); i++) {
+            alterados[2 * i] = partidas.get(i).getMandante();
+            alterados[2 * i + 1] = partidas.get(i).getVisitante();
+        }
+        reposicionar(alterados);
+    }
+
+    /**
+     * Copia os critérios numéricos atuais do time, lidos de forma consistente.
+     */
+    private void atualizarChave(Time time) {
+        int i = indice.indiceDe(time);
+        if (colunas != null) {
+            colunas.lerTime(i, chaves, i * CAMPOS);
+        } else {
+            time.getEstatisticas().lerConsistente(chaves, i * CAMPOS);
+        }
+    }
+
+    private int comparar(Time t1, Time t2) {
+        int resultado = compararCriterios(t1, t2);
+        return resultado != 0 ? resultado : t1.getNome().compareTo(t2.getNome());
+    }
+
+    /**
+     * Compara só os critérios numéricos; zero se os times estão empatados em todos.
+     */
+    private int compararCriterios(Time t1, Time t2) {
+        return ComparadorClassificacao.comparar(chaves, indice.indiceDe(t1) * CAMPOS,
+                                                chaves, indice.indiceDe(t2) * CAMPOS);
+    }
+
+    /**
+     * Recoloca os times alterados em suas posições.
+     * Cada time é deslocado até ficar em ordem em relação aos vizinhos; quando todos
+     * os alterados estão em ordem com os vizinhos, a tabela inteira está ordenada.
+     */
+    private void reposicionar(Time... alterados) {
+        for (Time time : alterados) {
+            if (posicaoDe(time) >= 0) {
+                atualizarChave(time);
+            }
+        }
+
+        boolean moveu = true;
+        while (moveu) {
+            moveu = false;
+            for (Time time : alterados) {
+                int posicao = posicaoDe(time);
+                if (posicao >= 0 && deslocar(posicao)) {
+                    moveu = true;
+                }
+            }
+        }
+    }
+
+    private int posicaoDe(Time time) {
+        int i = indice.indiceDe(time);
+        return i < 0 ? -1 : posicoes[i];
+    }
+
+    private boolean deslocar(int posicao) {
+        Time time = ordem[posicao];
+        int atual = posicao;
+
+        while (atual > 0 && comparar(ordem[atual - 1], time) > 0) {
+            mover(atual - 1, atual);
+            atual--;
+        }
+        while (atual < ordem.length - 1 && comparar(time, ordem[atual + 1]) > 0) {
+            mover(atual + 1, atual);
+            atual++;
+        }
+
+        ordem[atual] = time;
+        posicoes[indice.indiceDe(time)] = atual;
+        return atual != posicao;
+    }
+
+    private void mover(int origem, int destino) {
+        ordem[destino] = ordem[origem];
+        posicoes[indice.indiceDe(ordem[destino])] = destino;
+    }
+}
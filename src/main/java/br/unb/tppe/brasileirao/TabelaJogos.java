@@ -0,0 +1,37 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.List;
+
+/**
+ * Tabela de jogos do campeonato: quem enfrenta quem, e com qual mando, em cada rodada.
+ * Os times são identificados pelo índice na lista usada para montar a tabela, que
+ * precisa ser a mesma lista (na mesma ordem) do {@link Campeonato}.
+ */
+public interface TabelaJogos {
+
+    /**
+     * Times na ordem a que os índices se referem, sem cópia.
+     */
+    List<Time> getTimes();
+
+    int getNumeroRodadas();
+
+    int getPartidasPorRodada();
+
+    /**
+     * Índice (na lista de times) do mandante do jogo da rodada informada.
+     * Rodadas e jogos são contados a partir de 0.
+     */
+    int getMandante(int rodada, int jogo);
+
+    /**
+     * Índice (na lista de times) do visitante do jogo da rodada informada.
+     * Rodadas e jogos são contados a partir de 0.
+     */
+    int getVisitante(int rodada, int jogo);
+
+    /**
+     * Cria as partidas da rodada informada (contada a partir de 1).
+     */
+    List<Partida> gerarPartidas(int numeroRodada);
+}
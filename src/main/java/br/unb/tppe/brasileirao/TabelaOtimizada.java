@@ -0,0 +1,90 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabela de jogos gerada pelo {@link OtimizadorTabela} (ou lida de um
+ * {@link ArquivoInstantaneo}), guardada explicitamente (mandante e visitante de
+ * cada jogo em arrays primitivos).
+ */
+public class TabelaOtimizada implements TabelaJogos {
+    private final Time[] times;
+    private final int numeroRodadas;
+    private final int partidasPorRodada;
+    private final int[] mandantes;
+    private final int[] visitantes;
+    private int quebras;
+    private int violacoes;
+
+    TabelaOtimizada(List<Time> times, int numeroRodadas, int[] mandantes, int[] visitantes) {
+        this.times = times.toArray(new Time[0]);
+        this.numeroRodadas = numeroRodadas;
+        this.partidasPorRodada = times.size() / 2;
+        this.mandantes = mandantes;
+        this.visitantes = visitantes;
+    }
+
+    void definirAvaliacao(int quebras, int violacoes) {
+        this.quebras = quebras;
+        this.violacoes = violacoes;
+    }
+
+    /**
+     * Total de vezes em que algum time joga duas rodadas seguidas com o mesmo mando.
+     */
+    public int getQuebras() {
+        return quebras;
+    }
+
+    /**
+     * Quantidade de restrições que a tabela não conseguiu atender.
+     */
+    public int getViolacoes() {
+        return violacoes;
+    }
+
+    public int getPenalidade() {
+        return quebras + OtimizadorTabela.PESO_RESTRICAO * violacoes;
+    }
+
+    @Override
+    public List<Time> getTimes() {
+        return Collections.unmodifiableList(Arrays.asList(times));
+    }
+
+    @Override
+    public int getNumeroRodadas() {
+        return numeroRodadas;
+    }
+
+    @Override
+    public int getPartidasPorRodada() {
+        return partidasPorRodada;
+    }
+
+    @Override
+    public int getMandante(int rodada, int jogo) {
+        return mandantes[rodada * partidasPorRodada + jogo];
+    }
+
+    @Override
+    public int getVisitante(int rodada, int jogo) {
+        return visitantes[rodada * partidasPorRodada + jogo];
+    }
+
+    @Override
+    public List<Partida> gerarPartidas(int numeroRodada) {
+        if (numeroRodada < 1 || numeroRodada > numeroRodadas) {
+            throw new IllegalArgumentException("Rodada inexistente: " + numeroRodada);
+        }
+        int rodada = numeroRodada - 1;
+        List<Partida> partidas = new ArrayList<>(partidasPorRodada);
+        for (int jogo = 0; jogo < partidasPorRodada; jogo++) {
+            partidas.add(new Partida(times[getMandante(rodada, jogo)], times[getVisitante(rodada, jogo)]));
+        }
+        return partidas;
+    }
+}
@@ -0,0 +1,116 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabela de confrontos gerada pelo método do círculo (Round-Robin).
+ *
+ * Nenhuma rodada fica guardada em memória: os confrontos da rodada k são
+ * calculados aritmeticamente a partir da posição de cada time no círculo.
+ * O time da posição 0 fica fixo e os demais giram uma posição por rodada.
+ *
+ * O campeonato tem 2(n - 1) rodadas: no turno cada time enfrenta todos os
+ * outros uma vez e o returno repete o turno com os mandos invertidos.
+ */
+public class TabelaRoundRobin implements TabelaJogos {
+    private final Time[] times;
+
+    public TabelaRoundRobin(List<Time> times) {
+        validarNumeroDeTimes(times.size());
+        this.times = times.toArray(new Time[0]);
+    }
+
+    private void validarNumeroDeTimes(int numTimes) {
+        if (numTimes == 0) {
+            throw new IllegalArgumentException("A tabela precisa de pelo menos dois times");
+        }
+        if (numTimes % 2 != 0) {
+            throw new IllegalArgumentException("Número de times deve ser par");
+        }
+    }
+
+    public int getNumeroRodadasTurno() {
+        return times.length - 1;
+    }
+
+    @Override
+    public List<Time> getTimes() {
+        return Collections.unmodifiableList(Arrays.asList(times));
+    }
+
+    @Override
+    public int getNumeroRodadas() {
+        return 2 * getNumeroRodadasTurno();
+    }
+
+    @Override
+    public int getPartidasPorRodada() {
+        return times.length / 2;
+    }
+
+    /**
+     * Índice (na lista de times) do mandante do jogo da rodada informada.
+     * Rodadas e jogos são contados a partir de 0.
+     */
+    @Override
+    public int getMandante(int rodada, int jogo) {
+        return inverterMando(rodada) ? timeNaPosicao(rodada, posicaoVisitante(jogo))
+                                     : timeNaPosicao(rodada, jogo);
+    }
+
+    /**
+     * Índice (na lista de times) do visitante do jogo da rodada informada.
+     * Rodadas e jogos são contados a partir de 0.
+     */
+    @Override
+    public int getVisitante(int rodada, int jogo) {
+        return inverterMando(rodada) ? timeNaPosicao(rodada, jogo)
+                                     : timeNaPosicao(rodada, posicaoVisitante(jogo));
+    }
+
+    /**
+     * Cria as partidas da rodada informada (contada a partir de 1).
+     */
+    @Override
+    public List<Partida> gerarPartidas(int numeroRodada) {
+        if (numeroRodada < 1 || numeroRodada > getNumeroRodadas()) {
+            throw new IllegalArgumentException("Rodada inexistente: " + numeroRodada);
+        }
+        int rodada = numeroRodada - 1;
+        List<Partida> partidas = new ArrayList<>(getPartidasPorRodada());
+        for (int jogo = 0; jogo < getPartidasPorRodada(); jogo++) {
+            partidas.add(new Partida(times[getMandante(rodada, jogo)], times[getVisitante(rodada, jogo)]));
+        }
+        return partidas;
+    }
+
+    private int posicaoVisitante(int jogo) {
+        return times.length - 1 - jogo;
+    }
+
+    /**
+     * No turno o mando alterna a cada rodada; no returno fica invertido
+     * em relação à rodada correspondente do turno.
+     */
+    private boolean inverterMando(int rodada) {
+        int rodadasTurno = getNumeroRodadasTurno();
+        boolean returno = rodada >= rodadasTurno;
+        int rodadaTurno = returno ? rodada - rodadasTurno : rodada;
+        return (rodadaTurno % 2 == 1) != returno;
+    }
+
+    /**
+     * Time que ocupa a posição do círculo após o número de rotações da rodada.
+     */
+    private int timeNaPosicao(int rodada, int posicao) {
+        if (posicao == 0) {
+            return 0;
+        }
+        int giro = times.length - 1;
+        int rodadaTurno = rodada % giro;
+        return Math.floorMod(posicao - 1 - rodadaTurno, giro) + 1;
+    }
+}
@@ -1,21 +1,101 @@
 package br.unb.tppe.brasileirao;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Classe que representa um time de futebol no campeonato.
  */
 public class Time {
+    /** Id de um time que ainda não foi registrado em um {@link RegistroTimes}. */
+    public static final int SEM_ID = -1;
+
     private String nome;
     private Estatisticas estatisticas;
+    private List<OuvinteResultados> ouvintes;
+    private RegistroTimes registro;
+    private int id;
+    private Campeonato campeonato;
+    private int indice;
 
     public Time(String nome) {
         this.nome = nome;
         this.estatisticas = new Estatisticas();
+        this.ouvintes = new CopyOnWriteArrayList<>();
+        this.id = SEM_ID;
+        this.indice = SEM_ID;
+    }
+
+    /**
+     * Cria um time já registrado, recebendo o id emitido pelo registro.
+     */
+    public Time(String nome, RegistroTimes registro) {
+        this(nome);
+        registrar(registro);
     }
 
     public String getNome() {
         return nome;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public RegistroTimes getRegistro() {
+        return registro;
+    }
+
+    /**
+     * Registra o time, recebendo o id correspondente ao seu nome.
+     */
+    void registrar(RegistroTimes registro) {
+        if (this.registro == registro) {
+            return;
+        }
+        if (this.registro != null) {
+            throw new IllegalArgumentException("Time " + nome + " já pertence a outro registro");
+        }
+        this.registro = registro;
+        this.id = registro.registrar(nome);
+    }
+
+    /**
+     * Posição do time na lista do campeonato a que pertence, ou {@link #SEM_ID} se
+     * ainda não está em nenhum. É o índice usado pelas estruturas da liga, que assim
+     * têm o tamanho do campeonato e não o do registro.
+     */
+    int getIndice() {
+        return indice;
+    }
+
+    Campeonato getCampeonato() {
+        return campeonato;
+    }
+
+    /**
+     * Associa o time ao campeonato, na posição informada. Um time só participa de um
+     * campeonato, já que as estatísticas são dele.
+     */
+    void indexar(Campeonato campeonato, int indice) {
+        if (this.campeonato != null && this.campeonato != campeonato) {
+            throw new IllegalArgumentException("Time " + nome + " já pertence a outro campeonato");
+        }
+        this.campeonato = campeonato;
+        this.indice = indice;
+    }
+
+    Estatisticas getEstatisticas() {
+        return estatisticas;
+    }
+
+    /**
+     * Os getters de estatísticas leem cada contador isoladamente, sem trava. Com
+     * resultados sendo registrados em outras threads, duas chamadas seguidas podem ver
+     * jogos diferentes (os pontos já com uma vitória que {@link #getVitorias()} ainda
+     * não mostra); para ler todos os contadores de um mesmo instante, use
+     * {@link #lerEstatisticas(int[])}.
+     */
     public int getPontos() {
         return estatisticas.getPontos();
     }
@@ -49,26 +129,56 @@ public class Time {
     }
 
     /**
-     * Registra uma vitória para o time.
+     * Lê todos os contadores de uma só vez, sem misturar valores de antes e depois de
+     * um registro concorrente. O destino é indexado por {@link EstatisticasColunares#PONTOS},
+     * {@link EstatisticasColunares#VITORIAS} etc.
+     */
+    public void lerEstatisticas(int[] destino) {
+        estatisticas.lerConsistente(destino);
+    }
+
+    /**
+     * Registra uma vitória para o time. Só é chamado por {@link Partida}, que avisa os
+     * ouvintes; alterar as estatísticas por fora deixaria a classificação desatualizada.
      */
-    public void registrarVitoria(int golsMarcados, int golsSofridos) {
+    void registrarVitoria(int golsMarcados, int golsSofridos) {
         estatisticas.registrarVitoria(golsMarcados, golsSofridos);
     }
 
     /**
      * Registra um empate para o time.
      */
-    public void registrarEmpate(int golsMarcados, int golsSofridos) {
+    void registrarEmpate(int golsMarcados, int golsSofridos) {
         estatisticas.registrarEmpate(golsMarcados, golsSofridos);
     }
 
     /**
      * Registra uma derrota para o time.
      */
-    public void registrarDerrota(int golsMarcados, int golsSofridos) {
+    void registrarDerrota(int golsMarcados, int golsSofridos) {
         estatisticas.registrarDerrota(golsMarcados, golsSofridos);
     }
 
+    /**
+     * Retira das estatísticas um resultado registrado antes (vitória, empate ou derrota
+     * conforme o placar).
+     */
+    void desfazerResultado(int golsMarcados, int golsSofridos) {
+        estatisticas.acumular(golsMarcados > golsSofridos ? -1 : 0, golsMarcados == golsSofridos ? -1 : 0,
+                golsMarcados < golsSofridos ? -1 : 0, -golsMarcados, -golsSofridos);
+    }
+
+    /**
+     * Adiciona um ouvinte notificado a cada resultado registrado em partidas deste time.
+     */
+    public void adicionarOuvinte(OuvinteResultados ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    List<OuvinteResultados> getOuvintes() {
+        return ouvintes;
+    }
+
     @Override
     public String toString() {
             return String.format("%s - P:%d V:%d E:%d D:%d GM:%d GS:%d SG:%d",
@@ -81,6 +191,10 @@ public class Time {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Time time = (Time) obj;
+        if (registro != null && registro == time.registro) {
+            // Nomes e ids são equivalentes dentro de um mesmo registro
+            return id == time.id;
+        }
         return nome.equals(time.nome);
     }
 
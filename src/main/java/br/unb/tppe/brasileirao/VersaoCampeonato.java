@@ -0,0 +1,349 @@
+package br.unb.tppe.brasileirao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Estado imutável do campeonato em um instante: rodadas sorteadas, resultados das
+ * partidas e estatísticas de cada time.
+ *
+ * Cada resultado registrado publica uma nova versão que compartilha quase toda a
+ * estrutura com a anterior: as estatísticas e os resultados ficam em
+ * {@link VetorPersistente}s (só os trechos alterados são copiados) e as rodadas são um
+ * prefixo do mesmo array, que só recebe acréscimos. Quem lê uma versão vê sempre o
+ * mesmo estado, sem cópias e sem travar quem registra resultados.
+ *
+ * O estado versionado são as estatísticas, a classificação e o placar de cada partida.
+ * As rodadas e as partidas de {@link #getRodadas()} são os objetos vivos do campeonato:
+ * o placar de uma partida nesta versão deve ser lido por {@link #isRealizada(Partida)},
+ * {@link #getGolsMandante(Partida)} e {@link #getGolsVisitante(Partida)}.
+ *
+ * Alterações feitas direto nos times, sem passar por uma partida, só aparecem
+ * depois que a classificação do campeonato é reordenada.
+ */
+public final class VersaoCampeonato {
+    private static final int CAMPOS = EstatisticasColunares.NUMERO_ESTATISTICAS;
+
+    private final long numero;
+    private final List<Time> times;
+    private final IndiceTimes indice;
+    private final Rodada[] rodadas;
+    private final int numeroRodadas;
+    private final int partidasPorRodada;
+    private final VetorPersistente estatisticas;
+    private final VetorPersistente resultados;
+    private final VetorPersistente confrontos;
+    private volatile List<Time> classificacao;
+
+    private VersaoCampeonato(long numero, List<Time> times, IndiceTimes indice, Rodada[] rodadas,
+                             int numeroRodadas, int partidasPorRodada,
+                             VetorPersistente estatisticas, VetorPersistente resultados,
+                             VetorPersistente confrontos) {
+        this.numero = numero;
+        this.times = times;
+        this.indice = indice;
+        this.rodadas = rodadas;
+        this.numeroRodadas = numeroRodadas;
+        this.partidasPorRodada = partidasPorRodada;
+        this.estatisticas = estatisticas;
+        this.resultados = resultados;
+        this.confrontos = confrontos;
+    }
+
+    /**
+     * Primeira versão, lida do estado atual dos times e das rodadas já sorteadas. As
+     * estatísticas e os confrontos são indexados pela posição de cada time na lista.
+     */
+    static VersaoCampeonato inicial(List<Time> times, IndiceTimes indice, EstatisticasColunares colunas,
+                                    Rodada[] rodadas, int numeroRodadas) {
+        int n = times.size();
+        int partidasPorRodada = n / 2;
+        // Resultados e confrontos passam de 2^31 posições a partir de ~32 mil times: as
+        // posições são long, e os vetores só alocam as folhas escritas
+        VersaoCampeonato versao = new VersaoCampeonato(0, times, indice, rodadas, numeroRodadas,
+                partidasPorRodada, new VetorPersistente((long) n * CAMPOS),
+                new VetorPersistente((long) rodadas.length * partidasPorRodada * 2),
+                new VetorPersistente((long) n * n));
+        return versao.reconstruida(colunas);
+    }
+
+    /**
+     * Nova versão relida do estado atual, depois de alterações feitas sem passar pelas partidas.
+     * Com as {@link EstatisticasColunares} do campeonato (indexadas pela posição de cada
+     * time), as estatísticas são lidas direto das colunas.
+     */
+    VersaoCampeonato reconstruida(EstatisticasColunares colunas) {
+        int[] contadores = new int[times.size() * CAMPOS];
+        if (colunas != null) {
+            colunas.lerTodos(contadores, times.size());
+        } else {
+            for (int i = 0; i < times.size(); i++) {
+                times.get(i).getEstatisticas().lerConsistente(contadores, i * CAMPOS);
+            }
+        }
+        VetorPersistente novasEstatisticas = new VetorPersistente(estatisticas.tamanho());
+        for (int i = 0; i < contadores.length; i++) {
+            novasEstatisticas = novasEstatisticas.com(i, contadores[i]);
+        }
+        VetorPersistente novosResultados = new VetorPersistente(resultados.tamanho());
+        VetorPersistente novosConfrontos = confrontos;
+        for (int r = 0; r < numeroRodadas; r++) {
+            novosResultados = gravarResultados(novosResultados, rodadas[r]);
+            novosConfrontos = gravarConfrontos(novosConfrontos, rodadas[r]);
+        }
+        return new VersaoCampeonato(numero + 1, times, indice, rodadas, numeroRodadas,
+                partidasPorRodada, novasEstatisticas, novosResultados, novosConfrontos);
+    }
+
+    /**
+     * Nova versão com mais uma rodada, já gravada em {@code rodadas[numeroRodadas]}.
+     */
+    VersaoCampeonato comRodada() {
+        Rodada rodada = rodadas[numeroRodadas];
+        return new VersaoCampeonato(numero + 1, times, indice, rodadas, numeroRodadas + 1,
+                partidasPorRodada, estatisticas, gravarResultados(resultados, rodada),
+                gravarConfrontos(confrontos, rodada));
+    }
+
+    /**
+     * Nova versão com o resultado da partida somado às estatísticas dos dois times.
+     */
+    VersaoCampeonato comResultado(Partida partida) {
+        return comResultados(Collections.singletonList(partida));
+    }
+
+    /**
+     * Nova versão com os resultados de várias partidas, publicada de uma vez (por exemplo,
+     * uma rodada inteira registrada em lote).
+     */
+    VersaoCampeonato comResultados(List<Partida> partidas) {
+        VetorPersistente novasEstatisticas = estatisticas;
+        VetorPersistente novosResultados = resultados;
+        VetorPersistente novosConfrontos = confrontos;
+        for (Partida partida : partidas) {
+            int golsMandante = partida.getGolsMandante();
+            int golsVisitante = partida.getGolsVisitante();
+            novasEstatisticas = somarResultado(novasEstatisticas, partida.getMandante(), golsMandante, golsVisitante, 1);
+            novasEstatisticas = somarResultado(novasEstatisticas, partida.getVisitante(), golsVisitante, golsMandante, 1);
+            if (pertence(partida)) {
+                novosResultados = gravarResultado(novosResultados, partida, golsMandante, golsVisitante);
+            }
+            novosConfrontos = gravarConfronto(novosConfrontos, partida, golsMandante, golsVisitante);
+        }
+        return new VersaoCampeonato(numero + 1, times, indice, rodadas, numeroRodadas,
+                partidasPorRodada, novasEstatisticas, novosResultados, novosConfrontos);
+    }
+
+    /**
+     * Nova versão sem o resultado desfeito da partida. {@code placarRestante} é o placar
+     * que o par (mandante, visitante) volta a ter na matriz de confrontos.
+     */
+    VersaoCampeonato semResultado(Partida partida, int golsMandante, int golsVisitante, int placarRestante) {
+        return semResultados(Collections.singletonList(partida), new int[] {golsMandante},
+                             new int[] {golsVisitante}, new int[] {placarRestante});
+    }
+
+    /**
+     * Nova versão sem os resultados desfeitos de várias partidas, publicada de uma vez
+     * (a substituição de uma rodada registrada em lote). Os arrays seguem a ordem das partidas.
+     */
+    VersaoCampeonato semResultados(List<Partida> partidas, int[] golsMandante, int[] golsVisitante,
+                                   int[] placaresRestantes) {
+        VetorPersistente novasEstatisticas = estatisticas;
+        VetorPersistente novosResultados = resultados;
+        VetorPersistente novosConfrontos = confrontos;
+        for (int i = 0; i < partidas.size(); i++) {
+            Partida partida = partidas.get(i);
+            novasEstatisticas = somarResultado(novasEstatisticas, partida.getMandante(),
+                                               golsMandante[i], golsVisitante[i], -1);
+            novasEstatisticas = somarResultado(novasEstatisticas, partida.getVisitante(),
+                                               golsVisitante[i], golsMandante[i], -1);
+            if (pertence(partida)) {
+                long posicao = posicaoResultado(partida);
+                novosResultados = novosResultados.com(posicao, 0).com(posicao + 1, 0);
+            }
+            long posicaoConfronto = posicaoConfronto(partida.getMandante(), partida.getVisitante());
+            if (posicaoConfronto >= 0) {
+                novosConfrontos = novosConfrontos.com(posicaoConfronto, placaresRestantes[i]);
+            }
+        }
+        return new VersaoCampeonato(numero + 1, times, indice, rodadas, numeroRodadas,
+                partidasPorRodada, novasEstatisticas, novosResultados, novosConfrontos);
+    }
+
+    /**
+     * Soma (sinal 1) ou retira (sinal -1) um resultado das estatísticas do time.
+     */
+    private VetorPersistente somarResultado(VetorPersistente vetor, Time time, int gm, int gs, int sinal) {
+        int i = indice.indiceDe(time);
+        if (i < 0) {
+            return vetor;
+        }
+        int base = i * CAMPOS;
+        int vitoria = gm > gs ? sinal : 0;
+        int empate = gm == gs ? sinal : 0;
+        vetor = vetor.somar(base + EstatisticasColunares.PONTOS, 3 * vitoria + empate);
+        vetor = vetor.somar(base + EstatisticasColunares.VITORIAS, vitoria);
+        vetor = vetor.somar(base + EstatisticasColunares.EMPATES, empate);
+        vetor = vetor.somar(base + EstatisticasColunares.DERROTAS, gm < gs ? sinal : 0);
+        vetor = vetor.somar(base + EstatisticasColunares.GOLS_MARCADOS, sinal * gm);
+        return vetor.somar(base + EstatisticasColunares.GOLS_SOFRIDOS, sinal * gs);
+    }
+
+    private VetorPersistente gravarResultados(VetorPersistente vetor, Rodada rodada) {
+        for (Partida partida : rodada.getPartidas()) {
+            if (partida.isRealizada()) {
+                vetor = gravarResultado(vetor, partida, partida.getGolsMandante(), partida.getGolsVisitante());
+            }
+        }
+        return vetor;
+    }
+
+    /**
+     * Cada partida ocupa duas posições com os gols + 1; zero indica partida não realizada.
+     */
+    private VetorPersistente gravarResultado(VetorPersistente vetor, Partida partida, int gm, int gs) {
+        long posicao = posicaoResultado(partida);
+        return vetor.com(posicao, gm + 1).com(posicao + 1, gs + 1);
+    }
+
+    private VetorPersistente gravarConfrontos(VetorPersistente vetor, Rodada rodada) {
+        for (Partida partida : rodada.getPartidas()) {
+            if (partida.isRealizada()) {
+                vetor = gravarConfronto(vetor, partida, partida.getGolsMandante(), partida.getGolsVisitante());
+            }
+        }
+        return vetor;
+    }
+
+    /**
+     * Placar do último jogo entre o par (mandante, visitante), codificado como em
+     * {@link ConfrontoDireto}. Só as folhas tocadas são alocadas, então a matriz é esparsa.
+     */
+    private VetorPersistente gravarConfronto(VetorPersistente vetor, Partida partida, int gm, int gs) {
+        long posicao = posicaoConfronto(partida.getMandante(), partida.getVisitante());
+        if (posicao < 0) {
+            return vetor;
+        }
+        return vetor.com(posicao, ConfrontoDireto.codificar(gm, gs));
+    }
+
+    private long posicaoResultado(Partida partida) {
+        return ((long) (partida.getNumeroRodada() - 1) * partidasPorRodada + partida.getNumeroJogo()) * 2;
+    }
+
+    /**
+     * Posição do par (mandante, visitante) na matriz de confrontos, ou -1 se algum dos
+     * dois não é do campeonato.
+     */
+    private long posicaoConfronto(Time mandante, Time visitante) {
+        int m = indice.indiceDe(mandante);
+        int v = indice.indiceDe(visitante);
+        return m < 0 || v < 0 ? -1 : (long) m * indice.tamanho() + v;
+    }
+
+    /**
+     * Verifica se a partida é de uma rodada desta versão (e não uma partida avulsa).
+     */
+    private boolean pertence(Partida partida) {
+        int rodada = partida.getNumeroRodada();
+        int jogo = partida.getNumeroJogo();
+        if (rodada < 1 || rodada > numeroRodadas || jogo < 0 || jogo >= partidasPorRodada) {
+            return false;
+        }
+        List<Partida> partidas = rodadas[rodada - 1].getPartidas();
+        return jogo < partidas.size() && partidas.get(jogo) == partida;
+    }
+
+    /**
+     * Número da versão; cada alteração publicada gera um número maior.
+     */
+    public long getNumero() {
+        return numero;
+    }
+
+    public List<Time> getTimes() {
+        return times;
+    }
+
+    /**
+     * Rodadas sorteadas até esta versão, sem cópia. As partidas são as do campeonato e
+     * mostram os placares atuais, que podem ser mais novos que esta versão; os desta
+     * versão são lidos por {@link #getGolsMandante(Partida)} e {@link #getGolsVisitante(Partida)}.
+     */
+    public List<Rodada> getRodadas() {
+        return Collections.unmodifiableList(Arrays.asList(rodadas).subList(0, numeroRodadas));
+    }
+
+    public int getNumeroRodadas() {
+        return numeroRodadas;
+    }
+
+    public int getPontos(Time time) { return campo(time, EstatisticasColunares.PONTOS); }
+    public int getVitorias(Time time) { return campo(time, EstatisticasColunares.VITORIAS); }
+    public int getEmpates(Time time) { return campo(time, EstatisticasColunares.EMPATES); }
+    public int getDerrotas(Time time) { return campo(time, EstatisticasColunares.DERROTAS); }
+    public int getGolsMarcados(Time time) { return campo(time, EstatisticasColunares.GOLS_MARCADOS); }
+    public int getGolsSofridos(Time time) { return campo(time, EstatisticasColunares.GOLS_SOFRIDOS); }
+    public int getSaldoGols(Time time) { return getGolsMarcados(time) - getGolsSofridos(time); }
+
+    private int campo(Time time, int campo) {
+        int i = indice.indiceDe(time);
+        if (i < 0) {
+            throw new IllegalArgumentException("Time fora do campeonato: " + time.getNome());
+        }
+        return estatisticas.obter(i * CAMPOS + campo);
+    }
+
+    /**
+     * Verifica se a partida já tinha resultado nesta versão.
+     */
+    public boolean isRealizada(Partida partida) {
+        return pertence(partida) && resultados.obter(posicaoResultado(partida)) != 0;
+    }
+
+    /**
+     * Gols do mandante nesta versão, ou null se a partida ainda não tinha sido realizada.
+     */
+    public Integer getGolsMandante(Partida partida) {
+        return isRealizada(partida) ? resultados.obter(posicaoResultado(partida)) - 1 : null;
+    }
+
+    public Integer getGolsVisitante(Partida partida) {
+        return isRealizada(partida) ? resultados.obter(posicaoResultado(partida) + 1) - 1 : null;
+    }
+
+    /**
+     * Classificação desta versão, pelos mesmos critérios de {@link Campeonato#getClassificacao()}.
+     * É calculada na primeira consulta e reaproveitada nas seguintes.
+     */
+    public List<Time> getClassificacao() {
+        List<Time> resultado = classificacao;
+        if (resultado == null) {
+            // Copia as estatísticas para um array, no layout usado pelo comparador
+            int[] linhas = new int[times.size() * CAMPOS];
+            for (int i = 0; i < linhas.length; i++) {
+                linhas[i] = estatisticas.obter(i);
+            }
+            Comparator<Time> criterios = (t1, t2) -> ComparadorClassificacao.comparar(
+                    linhas, indice.indiceDe(t1) * CAMPOS, linhas, indice.indiceDe(t2) * CAMPOS);
+            List<Time> ordenada = new ArrayList<>(times);
+            ordenada.sort(criterios.thenComparing(Time::getNome));
+            ConfrontoDireto.desempatarDuplas(ordenada, criterios, this::compararConfrontoDireto);
+            resultado = Collections.unmodifiableList(ordenada);
+            classificacao = resultado;
+        }
+        return resultado;
+    }
+
+    /**
+     * Confronto direto com os placares desta versão.
+     */
+    private int compararConfrontoDireto(Time t1, Time t2) {
+        return ConfrontoDireto.compararPlacares(confrontos.obter(posicaoConfronto(t1, t2)),
+                                                confrontos.obter(posicaoConfronto(t2, t1)));
+    }
+}
@@ -0,0 +1,82 @@
+package br.unb.tppe.brasileirao;
+
+/**
+ * Vetor de ints imutável, com compartilhamento estrutural.
+ *
+ * Os valores ficam em folhas de 32 posições, penduradas numa árvore de ramificação 32.
+ * Alterar uma posição copia apenas a folha e os nós do caminho até a raiz
+ * (O(log32 n)); todo o resto é compartilhado com a versão anterior. Folhas ainda não
+ * escritas ficam nulas e valem zero, então um vetor grande e pouco preenchido ocupa só
+ * as folhas escritas. As posições são long: o vetor pode passar de 2³¹ posições.
+ */
+final class VetorPersistente {
+    private static final int BITS = 5;
+    private static final int LARGURA = 1 << BITS;
+    private static final int MASCARA = LARGURA - 1;
+
+    private final Object raiz;
+    private final int deslocamento;
+    private final long tamanho;
+
+    VetorPersistente(long tamanho) {
+        int deslocamento = 0;
+        while ((long) LARGURA << deslocamento < tamanho) {
+            deslocamento += BITS;
+        }
+        this.raiz = null;
+        this.deslocamento = deslocamento;
+        this.tamanho = tamanho;
+    }
+
+    private VetorPersistente(Object raiz, int deslocamento, long tamanho) {
+        this.raiz = raiz;
+        this.deslocamento = deslocamento;
+        this.tamanho = tamanho;
+    }
+
+    long tamanho() {
+        return tamanho;
+    }
+
+    int obter(long indice) {
+        verificar(indice);
+        Object no = raiz;
+        for (int nivel = deslocamento; nivel > 0 && no != null; nivel -= BITS) {
+            no = ((Object[]) no)[(int) (indice >>> nivel) & MASCARA];
+        }
+        return no == null ? 0 : ((int[]) no)[(int) indice & MASCARA];
+    }
+
+    /**
+     * Nova versão com o valor da posição trocado.
+     */
+    VetorPersistente com(long indice, int valor) {
+        verificar(indice);
+        return new VetorPersistente(atribuir(raiz, deslocamento, indice, valor), deslocamento, tamanho);
+    }
+
+    /**
+     * Nova versão com o valor somado ao da posição.
+     */
+    VetorPersistente somar(long indice, int delta) {
+        return delta == 0 ? this : com(indice, obter(indice) + delta);
+    }
+
+    private static Object atribuir(Object no, int nivel, long indice, int valor) {
+        if (nivel == 0) {
+            int[] folha = no == null ? new int[LARGURA] : ((int[]) no).clone();
+            folha[(int) indice & MASCARA] = valor;
+            return folha;
+        }
+        Object[] ramo = no == null ? new Object[LARGURA] : ((Object[]) no).clone();
+        int posicao = (int) (indice >>> nivel) & MASCARA;
+        ramo[posicao] = atribuir(ramo[posicao], nivel - BITS, indice, valor);
+        return ramo;
+    }
+
+    private void verificar(long indice) {
+        if (indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Posição " + indice + " fora do vetor de " + tamanho);
+        }
+    }
+}
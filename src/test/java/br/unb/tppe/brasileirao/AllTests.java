@@ -13,6 +13,29 @@ import org.junit.runners.Suite.SuiteClasses;
  * 3. TestCalculoPontuacao - Verifica cálculo correto de pontuação (3-1-0)
  * 4. TestCalculoEstatisticas - Verifica cálculo de vitórias, gols e saldos
  * 5. TestDesempatePorVitorias - Verifica critério de desempate por vitórias
+ * 6. TestTabelaClassificacao - Verifica o índice incremental da classificação
+ * 7. TestTabelaRoundRobin - Verifica a tabela de turno e returno calculada sob demanda
+ * 8. TestRegistroTimes - Verifica os ids e as buscas do registro de times
+ * 9. TestEstatisticasColunares - Verifica o armazenamento colunar das estatísticas
+ * 10. TestRegistroConcorrente - Verifica o registro de resultados por várias threads
+ * 11. TestSimuladorTemporada - Verifica a simulação Monte Carlo do restante da temporada
+ * 12. TestLogEventos - Verifica o log de eventos e a restauração do campeonato
+ * 13. TestArquivoInstantaneo - Verifica o instantâneo binário mapeado em memória
+ * 14. TestImportadorResultados - Verifica a importação em lote de resultados históricos
+ * 15. TestRenderizador - Verifica a exportação em texto, CSV e JSON
+ * 16. TestVersaoCampeonato - Verifica as versões imutáveis do estado do campeonato
+ * 17. TestConfrontoDireto - Verifica a matriz de confrontos e o desempate por confronto direto
+ * 18. TestValidacaoRodada - Verifica os validadores da rodada com bitset de ocupação
+ * 19. TestOtimizadorTabela - Verifica o otimizador de tabelas com restrições
+ * 20. TestMetricas - Verifica as métricas de latência das operações
+ * 21. TestGerenciadorLigas - Verifica a execução de várias ligas em paralelo
+ * 22. TestFaixasClassificacao - Verifica as consultas de posição e faixa da classificação
+ * 23. TestHistoricoRodadas - Verifica a classificação ao fim de cada rodada
+ * 24. TestCorrecaoResultado - Verifica a correção e a anulação de resultados
+ * 25. TestAnaliseMatematica - Verifica título, vagas e rebaixamento matemáticos
+ * 26. TestRatingElo - Verifica os ratings Elo, o recálculo em lote e as previsões
+ * 27. TestResultadosRodada - Verifica o registro em lote dos resultados de uma rodada
+ * 28. TestArquivoResultados - Verifica o arquivo colunar de resultados e seu índice por time
  */
 @RunWith(Suite.class)
 @SuiteClasses({
@@ -20,7 +43,30 @@ import org.junit.runners.Suite.SuiteClasses;
     TestDuplicidadeConfrontos.class,
     TestCalculoPontuacao.class,
     TestCalculoEstatisticas.class,
-    TestDesempatePorVitorias.class
+    TestDesempatePorVitorias.class,
+    TestTabelaClassificacao.class,
+    TestTabelaRoundRobin.class,
+    TestRegistroTimes.class,
+    TestEstatisticasColunares.class,
+    TestRegistroConcorrente.class,
+    TestSimuladorTemporada.class,
+    TestLogEventos.class,
+    TestArquivoInstantaneo.class,
+    TestImportadorResultados.class,
+    TestRenderizador.class,
+    TestVersaoCampeonato.class,
+    TestConfrontoDireto.class,
+    TestValidacaoRodada.class,
+    TestOtimizadorTabela.class,
+    TestMetricas.class,
+    TestGerenciadorLigas.class,
+    TestFaixasClassificacao.class,
+    TestHistoricoRodadas.class,
+    TestCorrecaoResultado.class,
+    TestAnaliseMatematica.class,
+    TestRatingElo.class,
+    TestResultadosRodada.class,
+    TestArquivoResultados.class
 })
 public class AllTests {
     // Esta classe permanece vazia, é usada apenas como holder para as anotações
@@ -0,0 +1,209 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica título, vagas, rebaixamento e número mágico contra a enumeração de todos
+ * os resultados possíveis das partidas restantes.
+ */
+public class TestAnaliseMatematica {
+
+    private static Campeonato jogar(int numTimes, int rodadas, long semente) {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < numTimes; i++) {
+            times.add(new Time("Time " + i));
+        }
+        Campeonato campeonato = new Campeonato(times);
+        Random random = new Random(semente);
+        for (int r = 0; r < rodadas; r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(3), random.nextInt(3));
+            }
+        }
+        return campeonato;
+    }
+
+    /**
+     * Enumera as 3^g combinações de vitória, empate e derrota das partidas restantes e
+     * confere se nenhuma afirmação da análise é desmentida por alguma delas.
+     */
+    private static int verificarContraEnumeracao(Campeonato campeonato) {
+        List<Time> times = campeonato.getTimes();
+        int n = times.size();
+        List<int[]> restantes = SimuladorTemporada.partidasRestantes(campeonato);
+        AnaliseMatematica analise = new AnaliseMatematica(campeonato);
+
+        boolean[][] possivel = new boolean[n][n + 1];
+        boolean[][] garantido = new boolean[n][n + 1];
+        int[][] magico = new int[n][n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int k = 1; k <= n; k++) {
+                garantido[i][k] = true;
+                magico[i][k] = analise.getNumeroMagico(times.get(i), k);
+            }
+        }
+
+        int combinacoes = 1;
+        for (int g = 0; g < restantes.size(); g++) {
+            combinacoes *= 3;
+        }
+        int[] finais = new int[n];
+        int[] ganhos = new int[n];
+        for (int c = 0; c < combinacoes; c++) {
+            for (int i = 0; i < n; i++) {
+                finais[i] = times.get(i).getPontos();
+                ganhos[i] = 0;
+            }
+            int codigo = c;
+            for (int[] partida : restantes) {
+                int resultado = codigo % 3;
+                codigo /= 3;
+                if (resultado == 0) {
+                    ganhos[partida[0]] += 3;
+                } else if (resultado == 1) {
+                    ganhos[partida[0]]++;
+                    ganhos[partida[1]]++;
+                } else {
+                    ganhos[partida[1]] += 3;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                finais[i] += ganhos[i];
+            }
+            for (int i = 0; i < n; i++) {
+                int acima = 0;
+                int empatadosOuAcima = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != i && finais[j] > finais[i]) {
+                        acima++;
+                    }
+                    if (j != i && finais[j] >= finais[i]) {
+                        empatadosOuAcima++;
+                    }
+                }
+                for (int k = 1; k <= n; k++) {
+                    possivel[i][k] |= acima < k;
+                    garantido[i][k] &= empatadosOuAcima < k;
+                    if (magico[i][k] >= 0 && ganhos[i] >= magico[i][k]) {
+                        assertTrue("Número mágico insuficiente", empatadosOuAcima < k);
+                    }
+                }
+            }
+        }
+
+        int decididos = 0;
+        for (int i = 0; i < n; i++) {
+            for (int k = 1; k <= n; k++) {
+                Time time = times.get(i);
+                if (!analise.podeTerminarAte(time, k)) {
+                    assertFalse(time.getNome() + " ainda alcança a posição " + k, possivel[i][k]);
+                    decididos++;
+                }
+                if (analise.garantidoAte(time, k)) {
+                    assertTrue(time.getNome() + " pode perder a posição " + k, garantido[i][k]);
+                    decididos++;
+                }
+            }
+        }
+        return decididos;
+    }
+
+    @Test
+    public void testNuncaAfirmaAlgoFalso() {
+        int decididos = 0;
+        for (long semente = 1; semente <= 30; semente++) {
+            // 6 times, 10 rodadas: faltam 6 partidas
+            decididos += verificarContraEnumeracao(jogar(6, 8, semente));
+            // 4 times, 6 rodadas: faltam 6 partidas
+            decididos += verificarContraEnumeracao(jogar(4, 3, semente));
+        }
+        assertTrue("A análise deveria decidir parte das posições", decididos > 0);
+    }
+
+    @Test
+    public void testFimDoCampeonatoEhExato() {
+        Campeonato campeonato = jogar(8, 14, 4);
+        AnaliseMatematica analise = new AnaliseMatematica(campeonato);
+        List<Time> times = campeonato.getTimes();
+        for (Time time : times) {
+            int acima = 0;
+            int empatadosOuAcima = 0;
+            for (Time outro : times) {
+                if (outro != time && outro.getPontos() > time.getPontos()) {
+                    acima++;
+                }
+                if (outro != time && outro.getPontos() >= time.getPontos()) {
+                    empatadosOuAcima++;
+                }
+            }
+            for (int k = 1; k <= times.size(); k++) {
+                assertEquals(acima < k, analise.podeTerminarAte(time, k));
+                assertEquals(empatadosOuAcima < k, analise.garantidoAte(time, k));
+            }
+            assertEquals(analise.getPontuacaoMaxima(time), time.getPontos());
+        }
+    }
+
+    @Test
+    public void testCampeaoERebaixadosAntesDoFim() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        Campeonato campeonato = new Campeonato(times);
+        for (int r = 0; r < 36; r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                // O time de menor índice vence sempre: a tabela fica escalonada
+                int mandante = times.indexOf(partida.getMandante());
+                int visitante = times.indexOf(partida.getVisitante());
+                partida.registrarResultado(mandante < visitante ? 1 : 0, mandante < visitante ? 0 : 1);
+            }
+        }
+
+        AnaliseMatematica analise = new AnaliseMatematica(campeonato);
+        List<Time> classificacao = campeonato.getClassificacao();
+        Time lider = classificacao.get(0);
+        Time lanterna = classificacao.get(19);
+        // Líder com 108 e vice com 105: o vice ainda pode chegar a 111
+        assertEquals(108, lider.getPontos());
+        assertFalse(analise.isCampeao(lider));
+        assertEquals(4, analise.getNumeroMagico(lider, 1));
+        assertTrue(analise.isClassificado(lider, 4));
+        assertTrue(analise.isClassificado(classificacao.get(3), 4));
+        assertFalse(analise.podeSerCampeao(lanterna));
+        assertTrue(analise.isRebaixado(lanterna, 4));
+        assertTrue(analise.isRebaixado(classificacao.get(17), 4));
+        assertFalse(analise.isRebaixado(classificacao.get(16), 4));
+        assertTrue(analise.isLivreDoRebaixamento(classificacao.get(14), 4));
+
+        // Na última rodada o líder vence e o vice perde: título decidido
+        for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+            partida.registrarResultado(partida.getMandante() == lider || partida.getVisitante() == classificacao.get(1)
+                                       ? 1 : 0, 0);
+        }
+        assertTrue(new AnaliseMatematica(campeonato).isCampeao(lider));
+    }
+
+    @Test
+    public void testNumeroMagicoNoInicio() {
+        Campeonato campeonato = jogar(20, 0, 1);
+        AnaliseMatematica analise = new AnaliseMatematica(campeonato);
+        Time time = campeonato.getTimes().get(0);
+        // Todos podem fazer 114 pontos: sem tropeços dos adversários, não há como garantir o título
+        assertEquals(-1, analise.getNumeroMagico(time, 1));
+        assertTrue(analise.podeSerCampeao(time));
+        assertFalse(analise.isRebaixado(time, 4));
+        assertEquals(114, analise.getPontuacaoMaxima(time));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPosicaoInvalida() {
+        Campeonato campeonato = jogar(4, 0, 1);
+        new AnaliseMatematica(campeonato).podeTerminarAte(campeonato.getTimes().get(0), 5);
+    }
+}
@@ -0,0 +1,269 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica a gravação e a leitura mapeada do instantâneo do campeonato.
+ */
+public class TestArquivoInstantaneo {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private Path arquivo;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        arquivo = pasta.getRoot().toPath().resolve("campeonato.snap");
+        List<Time> times = new ArrayList<>();
+        times.add(new Time("Flamengo"));
+        times.add(new Time("Palmeiras"));
+        times.add(new Time("São Paulo"));
+        times.add(new Time("Grêmio"));
+        times.add(new Time("Atlético-MG"));
+        times.add(new Time("Vasco"));
+        campeonato = new Campeonato(times);
+    }
+
+    private void jogarRodadas(Campeonato c, int quantidade) {
+        Random random = new Random(5);
+        for (int i = 0; i < quantidade; i++) {
+            for (Partida partida : c.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+            }
+        }
+    }
+
+    @Test
+    public void testSalvarECarregar() throws IOException {
+        jogarRodadas(campeonato, 4);
+        Rodada rodadaIncompleta = campeonato.sortearRodada();
+        rodadaIncompleta.getPartidas().get(0).registrarResultado(2, 1);
+
+        ArquivoInstantaneo.salvar(campeonato, arquivo);
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+
+        assertEquals(5, carregado.getRodadaAtual());
+        assertNotNull("Os nomes com acentos deveriam ser preservados", carregado.buscarTime("Grêmio"));
+        List<Time> esperada = campeonato.getClassificacao();
+        List<Time> obtida = carregado.getClassificacao();
+        for (int i = 0; i < esperada.size(); i++) {
+            assertEquals(esperada.get(i).getNome(), obtida.get(i).getNome());
+            assertEquals(esperada.get(i).getPontos(), obtida.get(i).getPontos());
+            assertEquals(esperada.get(i).getGolsSofridos(), obtida.get(i).getGolsSofridos());
+        }
+
+        List<Partida> partidas = carregado.getRodadas().get(4).getPartidas();
+        assertTrue(partidas.get(0).isRealizada());
+        assertEquals(Integer.valueOf(2), partidas.get(0).getGolsMandante());
+        assertFalse(partidas.get(1).isRealizada());
+        assertTrue(carregado.semDuplicidadeConfrontos());
+    }
+
+    @Test
+    public void testContinuarCampeonatoCarregado() throws IOException {
+        jogarRodadas(campeonato, 3);
+        ArquivoInstantaneo.salvar(campeonato, arquivo);
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+
+        Rodada rodada = carregado.sortearRodada();
+        assertEquals(4, rodada.getNumero());
+        Partida partida = rodada.getPartidas().get(0);
+        int pontosAntes = partida.getMandante().getPontos();
+        partida.registrarResultado(1, 0);
+
+        assertEquals(pontosAntes + 3, partida.getMandante().getPontos());
+        assertTrue(carregado.semDuplicidadeConfrontos());
+    }
+
+    /**
+     * Turno de quatro times em que A e B terminam empatados em todos os critérios
+     * numéricos e B venceu o confronto direto: a ordem certa é C, B, A, D.
+     */
+    static void jogarTurnoComEmpateDuplo(Campeonato c) {
+        String[][] placares = {{"B", "A", "1", "0"}, {"A", "C", "1", "0"}, {"C", "B", "1", "0"},
+                               {"A", "D", "0", "0"}, {"B", "D", "0", "0"}, {"C", "D", "2", "0"}};
+        for (int r = 0; r < 3; r++) {
+            for (Partida partida : c.sortearRodada().getPartidas()) {
+                String mandante = partida.getMandante().getNome();
+                String visitante = partida.getVisitante().getNome();
+                for (String[] placar : placares) {
+                    if (placar[0].equals(mandante) && placar[1].equals(visitante)) {
+                        partida.registrarResultado(Integer.parseInt(placar[2]), Integer.parseInt(placar[3]));
+                    } else if (placar[0].equals(visitante) && placar[1].equals(mandante)) {
+                        partida.registrarResultado(Integer.parseInt(placar[3]), Integer.parseInt(placar[2]));
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> nomes(List<Time> times) {
+        List<String> nomes = new ArrayList<>();
+        for (Time time : times) {
+            nomes.add(time.getNome());
+        }
+        return nomes;
+    }
+
+    @Test
+    public void testConfrontoDiretoPreservadoAoCarregar() throws IOException {
+        List<Time> times = new ArrayList<>();
+        for (String nome : new String[] {"A", "B", "C", "D"}) {
+            times.add(new Time(nome));
+        }
+        Campeonato original = new Campeonato(times);
+        jogarTurnoComEmpateDuplo(original);
+        assertEquals(Arrays.asList("C", "B", "A", "D"), nomes(original.getClassificacao()));
+
+        ArquivoInstantaneo.salvar(original, arquivo);
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+        assertEquals(nomes(original.getClassificacao()), nomes(carregado.getClassificacao()));
+        assertEquals(nomes(original.getClassificacao()), nomes(carregado.getVersao().getClassificacao()));
+        assertEquals(nomes(original.getRetratoRodada(3).getClassificacao()),
+                     nomes(carregado.getRetratoRodada(3).getClassificacao()));
+        Time a = carregado.buscarTime("A");
+        Time b = carregado.buscarTime("B");
+        assertEquals(3, carregado.getConfrontoDireto().getPontos(b, a));
+    }
+
+    /**
+     * A tabela do círculo com as rodadas em ordem inversa: válida, mas diferente da padrão.
+     */
+    static TabelaJogos tabelaInvertida(List<Time> times) {
+        TabelaRoundRobin circulo = new TabelaRoundRobin(times);
+        int rodadas = circulo.getNumeroRodadas();
+        int jogos = circulo.getPartidasPorRodada();
+        int[] mandantes = new int[rodadas * jogos];
+        int[] visitantes = new int[rodadas * jogos];
+        for (int r = 0; r < rodadas; r++) {
+            for (int j = 0; j < jogos; j++) {
+                mandantes[r * jogos + j] = circulo.getMandante(rodadas - 1 - r, j);
+                visitantes[r * jogos + j] = circulo.getVisitante(rodadas - 1 - r, j);
+            }
+        }
+        return new TabelaOtimizada(times, rodadas, mandantes, visitantes);
+    }
+
+    @Test
+    public void testTabelaPreservadaAoCarregar() throws IOException {
+        List<Time> times = new ArrayList<>(campeonato.getTimes());
+        for (int i = 0; i < times.size(); i++) {
+            times.set(i, new Time(times.get(i).getNome()));
+        }
+        TabelaJogos tabela = tabelaInvertida(times);
+        Campeonato original = new Campeonato(times, null, tabela);
+        jogarRodadas(original, 4);
+        ArquivoInstantaneo.salvar(original, arquivo);
+
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+        while (carregado.getRodadaAtual() < carregado.getNumeroRodadas()) {
+            Rodada rodada = carregado.sortearRodada();
+            for (int j = 0; j < rodada.getPartidas().size(); j++) {
+                Partida partida = rodada.getPartidas().get(j);
+                assertEquals(times.get(tabela.getMandante(rodada.getNumero() - 1, j)).getNome(),
+                             partida.getMandante().getNome());
+                partida.registrarResultado(1, 1);
+            }
+        }
+        assertTrue(carregado.semDuplicidadeConfrontos());
+    }
+
+    @Test
+    public void testTimesMantemOsIdsDoRegistro() throws IOException {
+        RegistroTimes registro = new RegistroTimes();
+        registro.registrar("Clube de outra liga");
+        List<Time> times = new ArrayList<>();
+        for (Time time : campeonato.getTimes()) {
+            times.add(new Time(time.getNome(), registro));
+        }
+        Campeonato original = new Campeonato(times);
+        jogarRodadas(original, 2);
+        ArquivoInstantaneo.salvar(original, arquivo);
+
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+        for (Time time : times) {
+            assertEquals(time.getNome(), carregado.buscarTime(time.getId()).getNome());
+        }
+        assertEquals("Clube de outra liga", carregado.getRegistro().buscarNome(0));
+    }
+
+    @Test
+    public void testInstantaneoMaisOFinalDoLog() throws IOException {
+        Path log = pasta.getRoot().toPath().resolve("eventos.log");
+        try (LogEventos eventos = new LogEventos(log, 4)) {
+            campeonato.registrarEventosEm(eventos);
+            jogarRodadas(campeonato, 3);
+            ArquivoInstantaneo.salvar(campeonato, arquivo);
+
+            jogarRodadas(campeonato, 2);
+            Partida corrigida = campeonato.getRodadas().get(1).getPartidas().get(0);
+            corrigida.corrigirResultado(corrigida.getGolsMandante() + 2, corrigida.getGolsVisitante());
+            campeonato.sortearRodada().getPartidas().get(0).registrarResultado(3, 3);
+        }
+
+        assertEquals(3, ArquivoInstantaneo.carregar(arquivo).getRodadaAtual());
+        Campeonato restaurado = ArquivoInstantaneo.carregar(arquivo, log);
+        assertEquals(6, restaurado.getRodadaAtual());
+        assertTrue(restaurado.semDuplicidadeConfrontos());
+        assertEquals(nomes(campeonato.getClassificacao()), nomes(restaurado.getClassificacao()));
+        for (Time time : campeonato.getTimes()) {
+            Time outro = restaurado.buscarTime(time.getId());
+            assertEquals(time.getNome(), outro.getNome());
+            assertEquals(time.getPontos(), outro.getPontos());
+            assertEquals(time.getGolsMarcados(), outro.getGolsMarcados());
+            assertEquals(time.getGolsSofridos(), outro.getGolsSofridos());
+        }
+        Partida partida = restaurado.getRodadas().get(1).getPartidas().get(0);
+        assertEquals(campeonato.getRodadas().get(1).getPartidas().get(0).getGolsMandante(), partida.getGolsMandante());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInstantaneoSemLog() throws IOException {
+        jogarRodadas(campeonato, 1);
+        ArquivoInstantaneo.salvar(campeonato, arquivo);
+        Path log = pasta.getRoot().toPath().resolve("eventos.log");
+        new LogEventos(log).close();
+        ArquivoInstantaneo.carregar(arquivo, log);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRodadaForaDaTabela() throws IOException {
+        jogarRodadas(campeonato, 2);
+        ArquivoInstantaneo.salvar(campeonato, arquivo);
+        // Troca o mandante da primeira partida pelo visitante dela
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(32);
+            canal.read(cabecalho, 0);
+            int inicioPartidas = cabecalho.getInt(28);
+            ByteBuffer partida = ByteBuffer.allocate(12);
+            canal.read(partida, inicioPartidas);
+            ByteBuffer trocada = ByteBuffer.allocate(8);
+            trocada.putInt(partida.getInt(8)).putInt(partida.getInt(4)).flip();
+            canal.write(trocada, inicioPartidas + 4);
+        }
+        ArquivoInstantaneo.carregar(arquivo);
+    }
+
+    @Test(expected = IOException.class)
+    public void testArquivoInvalido() throws IOException {
+        Files.write(arquivo, new byte[64]);
+        ArquivoInstantaneo.carregar(arquivo);
+    }
+}
@@ -0,0 +1,203 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica o arquivo colunar de resultados contra uma busca direta em todas as partidas.
+ */
+public class TestArquivoResultados {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private static final int PRIMEIRA_TEMPORADA = 2003;
+    private static final int TEMPORADAS = 12;
+
+    private RegistroTimes registro;
+    private List<PartidaArquivada> todas;
+    private Path arquivo;
+
+    /**
+     * Doze temporadas com duas divisões: 20 times na primeira e 8 na segunda, trocando
+     * quatro times entre elas a cada ano.
+     */
+    @Before
+    public void setUp() throws IOException {
+        registro = new RegistroTimes();
+        List<String> nomes = new ArrayList<>();
+        for (int i = 0; i < 28; i++) {
+            nomes.add("Time " + i);
+            registro.registrar(nomes.get(i));
+        }
+        todas = new ArrayList<>();
+        Random random = new Random(8);
+        ArquivoResultados.Gravador gravador = new ArquivoResultados.Gravador(registro);
+        for (int ano = PRIMEIRA_TEMPORADA; ano < PRIMEIRA_TEMPORADA + TEMPORADAS; ano++) {
+            Collections.rotate(nomes, 4);
+            gravador.adicionar(ano, jogar(ano, nomes.subList(0, 20), random));
+            gravador.adicionar(ano, jogar(ano, nomes.subList(20, 28), random));
+        }
+        arquivo = pasta.getRoot().toPath().resolve("resultados.bin");
+        gravador.gravar(arquivo);
+    }
+
+    private Campeonato jogar(int ano, List<String> nomes, Random random) {
+        List<Time> times = new ArrayList<>();
+        for (String nome : nomes) {
+            times.add(new Time(nome, registro));
+        }
+        Campeonato campeonato = new Campeonato(times);
+        for (int r = 0; r < campeonato.getNumeroRodadas(); r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                // Uma goleada rara de vez em quando, que não cabe no placar de um byte
+                int golsMandante = random.nextInt(200) == 0 ? 17 : random.nextInt(5);
+                partida.registrarResultado(golsMandante, random.nextInt(4));
+                todas.add(new PartidaArquivada(ano, r + 1, partida.getMandante().getNome(),
+                        partida.getVisitante().getNome(), partida.getGolsMandante(), partida.getGolsVisitante()));
+            }
+        }
+        return campeonato;
+    }
+
+    private static void assertMesmasPartidas(List<PartidaArquivada> esperadas, List<PartidaArquivada> obtidas) {
+        assertEquals(esperadas.size(), obtidas.size());
+        for (int i = 0; i < esperadas.size(); i++) {
+            assertEquals(esperadas.get(i).toString(), obtidas.get(i).toString());
+        }
+    }
+
+    /**
+     * Busca direta, na ordem cronológica em que as partidas foram jogadas.
+     */
+    private List<PartidaArquivada> filtrar(String time, String adversario, ArquivoResultados.Mando mando,
+                                           int de, int ate) {
+        List<PartidaArquivada> partidas = new ArrayList<>();
+        for (PartidaArquivada partida : todas) {
+            boolean emCasa = partida.getMandante().equals(time);
+            boolean fora = partida.getVisitante().equals(time);
+            String outro = emCasa ? partida.getVisitante() : partida.getMandante();
+            if ((emCasa || fora) && (adversario == null || outro.equals(adversario))
+                    && (mando != ArquivoResultados.Mando.EM_CASA || emCasa)
+                    && (mando != ArquivoResultados.Mando.FORA || fora)
+                    && partida.getTemporada() >= de && partida.getTemporada() <= ate) {
+                partidas.add(partida);
+            }
+        }
+        return partidas;
+    }
+
+    @Test
+    public void testConsultasIguaisABuscaDireta() throws IOException {
+        ArquivoResultados resultados = ArquivoResultados.abrir(arquivo);
+        assertEquals(todas.size(), resultados.getNumeroPartidas());
+        for (int i = 0; i < 28; i += 3) {
+            String time = "Time " + i;
+            String adversario = "Time " + (i + 5) % 28;
+            assertMesmasPartidas(filtrar(time, null, ArquivoResultados.Mando.TODOS, 0, 9999),
+                                 resultados.getPartidas(time));
+            assertMesmasPartidas(filtrar(time, null, ArquivoResultados.Mando.FORA, 2005, 2009),
+                                 resultados.getPartidas(time, ArquivoResultados.Mando.FORA, 2005, 2009));
+            assertMesmasPartidas(filtrar(time, null, ArquivoResultados.Mando.EM_CASA, 2010, 2010),
+                                 resultados.getPartidas(time, ArquivoResultados.Mando.EM_CASA, 2010, 2010));
+            assertMesmasPartidas(filtrar(time, adversario, ArquivoResultados.Mando.TODOS, 0, 9999),
+                                 resultados.getConfrontos(time, adversario));
+            assertMesmasPartidas(filtrar(time, adversario, ArquivoResultados.Mando.TODOS, 2004, 2006),
+                                 resultados.getConfrontos(time, adversario, 2004, 2006));
+        }
+    }
+
+    @Test
+    public void testCampanhaForaDeCasa() throws IOException {
+        ArquivoResultados resultados = ArquivoResultados.abrir(arquivo);
+        int[] esperada = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        for (PartidaArquivada partida : filtrar("Time 7", null, ArquivoResultados.Mando.FORA, 2003, 2011)) {
+            int marcados = partida.getGolsVisitante();
+            int sofridos = partida.getGolsMandante();
+            esperada[EstatisticasColunares.PONTOS] += marcados > sofridos ? 3 : marcados == sofridos ? 1 : 0;
+            esperada[EstatisticasColunares.VITORIAS] += marcados > sofridos ? 1 : 0;
+            esperada[EstatisticasColunares.EMPATES] += marcados == sofridos ? 1 : 0;
+            esperada[EstatisticasColunares.DERROTAS] += marcados < sofridos ? 1 : 0;
+            esperada[EstatisticasColunares.GOLS_MARCADOS] += marcados;
+            esperada[EstatisticasColunares.GOLS_SOFRIDOS] += sofridos;
+        }
+        assertArrayEquals(esperada, resultados.getCampanha("Time 7", ArquivoResultados.Mando.FORA, 2003, 2011));
+    }
+
+    @Test
+    public void testConsultaDecodificaSoOsBlocosNecessarios() throws IOException {
+        ArquivoResultados resultados = ArquivoResultados.abrir(arquivo);
+        assertEquals(0, resultados.getBlocosDecodificados());
+
+        resultados.getConfrontos("Time 0", "Time 1");
+        long confrontos = resultados.getBlocosDecodificados();
+        assertTrue("Blocos lidos: " + confrontos, confrontos > 0 && confrontos <= resultados.getNumeroBlocos() / 4);
+
+        // Os jogos em casa de um time ficam juntos e o diretório descarta as outras temporadas;
+        // só os blocos das bordas do grupo, que misturam outros mandantes, podem sobrar
+        resultados.getPartidas("Time 3", ArquivoResultados.Mando.EM_CASA, 2008, 2008);
+        assertTrue(resultados.getBlocosDecodificados() - confrontos <= 4);
+    }
+
+    @Test
+    public void testArquivoComprimido() throws IOException {
+        // Sem compressão seriam 6 ints por partida
+        long bruto = 24L * todas.size();
+        assertTrue(Files.size(arquivo) < bruto / 3);
+    }
+
+    @Test
+    public void testGravacaoAPartirDoLog() throws IOException {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            times.add(new Time("Time " + i, registro));
+        }
+        Campeonato campeonato = new Campeonato(times);
+        Path log = pasta.getRoot().toPath().resolve("temporada.log");
+        try (LogEventos eventos = new LogEventos(log)) {
+            campeonato.registrarEventosEm(eventos);
+            for (int r = 0; r < campeonato.getNumeroRodadas(); r++) {
+                for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                    partida.registrarResultado(r % 3, 1);
+                }
+            }
+            campeonato.getRodadas().get(0).getPartidas().get(0).corrigirResultado(4, 4);
+        }
+
+        Path doCampeonato = pasta.getRoot().toPath().resolve("campeonato.bin");
+        Path doLog = pasta.getRoot().toPath().resolve("log.bin");
+        new ArquivoResultados.Gravador(registro).adicionar(2030, campeonato).gravar(doCampeonato);
+        new ArquivoResultados.Gravador(registro).adicionar(2030, log).gravar(doLog);
+        assertMesmasPartidas(ArquivoResultados.abrir(doCampeonato).getPartidas("Time 2"),
+                             ArquivoResultados.abrir(doLog).getPartidas("Time 2"));
+        // A correção fica só com o placar novo
+        Partida corrigida = campeonato.getRodadas().get(0).getPartidas().get(0);
+        PartidaArquivada primeira = ArquivoResultados.abrir(doLog).getConfrontos(
+                corrigida.getMandante().getNome(), corrigida.getVisitante().getNome()).get(0);
+        assertEquals("2030 - Rodada 1: " + corrigida.getMandante().getNome() + " 4 x 4 "
+                     + corrigida.getVisitante().getNome(), primeira.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeDesconhecido() throws IOException {
+        ArquivoResultados.abrir(arquivo).getPartidas("Sem nome");
+    }
+
+    @Test(expected = IOException.class)
+    public void testArquivoInvalido() throws IOException {
+        Path invalido = pasta.getRoot().toPath().resolve("invalido.bin");
+        Files.write(invalido, new byte[64]);
+        ArquivoResultados.abrir(invalido);
+    }
+}
@@ -0,0 +1,114 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica a matriz de confrontos diretos e o critério de desempate por confronto direto.
+ */
+public class TestConfrontoDireto {
+
+    private Time alfa;
+    private Time beta;
+    private Time gama;
+    private Time zeta;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        alfa = new Time("Alfa");
+        beta = new Time("Beta");
+        gama = new Time("Gama");
+        zeta = new Time("Zeta");
+
+        List<Time> times = new ArrayList<>();
+        times.add(alfa);
+        times.add(beta);
+        times.add(gama);
+        times.add(zeta);
+        campeonato = new Campeonato(times);
+    }
+
+    @Test
+    public void testConsultaDoConfronto() {
+        new Partida(alfa, beta).registrarResultado(2, 1);
+        new Partida(beta, alfa).registrarResultado(3, 3);
+        ConfrontoDireto confronto = campeonato.getConfrontoDireto();
+
+        assertTrue(confronto.foiRealizado(alfa, beta));
+        assertFalse(confronto.foiRealizado(alfa, gama));
+        assertEquals(Integer.valueOf(2), confronto.getGolsMandante(alfa, beta));
+        assertEquals(Integer.valueOf(1), confronto.getGolsVisitante(alfa, beta));
+        assertNull(confronto.getGolsMandante(gama, zeta));
+        assertEquals(4, confronto.getPontos(alfa, beta));
+        assertEquals(1, confronto.getPontos(beta, alfa));
+        assertEquals(1, confronto.getSaldoGols(alfa, beta));
+        assertEquals(-1, confronto.getSaldoGols(beta, alfa));
+    }
+
+    @Test
+    public void testConfrontoDiretoDesempataDoisTimes() {
+        // Zeta e Alfa: 3 pontos, 1 vitória, saldo 0, 1 gol marcado; Zeta venceu o confronto
+        new Partida(zeta, alfa).registrarResultado(1, 0);
+        new Partida(gama, zeta).registrarResultado(1, 0);
+        new Partida(alfa, beta).registrarResultado(1, 0);
+
+        List<Time> classificacao = campeonato.getClassificacao();
+        assertEquals(gama, classificacao.get(0));
+        assertEquals("O confronto direto deveria valer mais que a ordem alfabética", zeta, classificacao.get(1));
+        assertEquals(alfa, classificacao.get(2));
+        assertEquals(beta, classificacao.get(3));
+        assertEquals(classificacao, campeonato.getVersao().getClassificacao());
+    }
+
+    @Test
+    public void testEmpateEntreTresTimesMantemOrdemAlfabetica() {
+        // Ciclo: cada um dos três vence um e perde outro por 1 x 0
+        new Partida(zeta, alfa).registrarResultado(1, 0);
+        new Partida(alfa, gama).registrarResultado(1, 0);
+        new Partida(gama, zeta).registrarResultado(1, 0);
+
+        List<Time> classificacao = campeonato.getClassificacao();
+        assertEquals(alfa, classificacao.get(0));
+        assertEquals(gama, classificacao.get(1));
+        assertEquals(zeta, classificacao.get(2));
+        assertEquals(classificacao, campeonato.getVersao().getClassificacao());
+    }
+
+    @Test
+    public void testMapaEsparsoAcimaDoLimite() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < ConfrontoDireto.LIMITE_MATRIZ + 2; i++) {
+            times.add(new Time("Time " + i));
+        }
+        Campeonato grande = new Campeonato(times);
+        ConfrontoDireto confronto = new ConfrontoDireto(times);
+        Time mandante = times.get(ConfrontoDireto.LIMITE_MATRIZ + 1);
+        Time visitante = times.get(3);
+        mandante.adicionarOuvinte(confronto);
+
+        new Partida(mandante, visitante).registrarResultado(0, 4);
+
+        assertEquals(Integer.valueOf(4), confronto.getGolsVisitante(mandante, visitante));
+        assertEquals(3, confronto.getPontos(visitante, mandante));
+        assertEquals(Integer.valueOf(0), grande.getConfrontoDireto().getGolsMandante(mandante, visitante));
+    }
+
+    @Test
+    public void testTabelaCruzada() throws IOException {
+        new Partida(alfa, beta).registrarResultado(2, 1);
+
+        StringBuilder saida = new StringBuilder();
+        campeonato.getConfrontoDireto().escreverTabelaCruzada(saida);
+        String[] linhas = saida.toString().split("\n");
+
+        assertEquals(5, linhas.length);
+        assertEquals("     | ALF  | BET  | GAM  | ZET ", linhas[0]);
+        assertEquals("ALF  |  XX | 2-1 |     |    ", linhas[1]);
+    }
+}
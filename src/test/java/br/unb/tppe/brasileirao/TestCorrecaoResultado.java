@@ -0,0 +1,237 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica a correção e a anulação de resultados e o reparo dos índices derivados.
+ */
+public class TestCorrecaoResultado {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private List<Time> times;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        times = criarTimes();
+        campeonato = new Campeonato(times);
+    }
+
+    private static List<Time> criarTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            times.add(new Time("Time " + i));
+        }
+        return times;
+    }
+
+    private static String estatisticas(Time time) {
+        return time.getNome() + ":" + time.getPontos() + "/" + time.getVitorias() + "/" + time.getEmpates()
+               + "/" + time.getDerrotas() + "/" + time.getGolsMarcados() + "/" + time.getGolsSofridos();
+    }
+
+    private static List<String> tabela(List<Time> classificacao) {
+        List<String> tabela = new ArrayList<>();
+        for (Time time : classificacao) {
+            tabela.add(estatisticas(time));
+        }
+        return tabela;
+    }
+
+    private static List<String> tabelaDaVersao(VersaoCampeonato versao) {
+        List<String> tabela = new ArrayList<>();
+        for (Time time : versao.getClassificacao()) {
+            tabela.add(time.getNome() + ":" + versao.getPontos(time) + "/" + versao.getVitorias(time) + "/"
+                       + versao.getEmpates(time) + "/" + versao.getDerrotas(time) + "/"
+                       + versao.getGolsMarcados(time) + "/" + versao.getGolsSofridos(time));
+        }
+        return tabela;
+    }
+
+    private static List<String> tabelaDoRetrato(RetratoRodada retrato) {
+        List<String> tabela = new ArrayList<>();
+        for (Time time : retrato.getClassificacao()) {
+            tabela.add(time.getNome() + ":" + retrato.getPontos(time) + "/" + retrato.getVitorias(time) + "/"
+                       + retrato.getEmpates(time) + "/" + retrato.getDerrotas(time) + "/"
+                       + retrato.getGolsMarcados(time) + "/" + retrato.getGolsSofridos(time));
+        }
+        return tabela;
+    }
+
+    /**
+     * Campeonato novo com apenas os resultados finais do original, registrados uma vez.
+     */
+    private Campeonato reconstruir() {
+        List<Time> novosTimes = criarTimes();
+        Campeonato novo = new Campeonato(novosTimes);
+        for (Rodada rodada : campeonato.getRodadas()) {
+            Rodada outra = novo.sortearRodada();
+            for (int j = 0; j < rodada.getPartidas().size(); j++) {
+                Partida partida = rodada.getPartidas().get(j);
+                if (partida.isRealizada()) {
+                    outra.getPartidas().get(j).registrarResultado(partida.getGolsMandante(), partida.getGolsVisitante());
+                }
+            }
+        }
+        return novo;
+    }
+
+    private void verificarIgualAReconstruido() {
+        Campeonato esperado = reconstruir();
+        assertEquals(tabela(esperado.getClassificacao()), tabela(campeonato.getClassificacao()));
+        assertEquals(tabela(esperado.getClassificacao()), tabelaDaVersao(campeonato.getVersao()));
+        for (int k = 0; k <= campeonato.getRodadaAtual(); k++) {
+            assertEquals("Rodada " + k, tabelaDoRetrato(esperado.getRetratoRodada(k)),
+                        tabelaDoRetrato(campeonato.getRetratoRodada(k)));
+        }
+        for (int i = 0; i < times.size(); i++) {
+            for (int j = 0; j < times.size(); j++) {
+                if (i != j) {
+                    assertEquals(esperado.getConfrontoDireto().getGolsMandante(esperado.getTimes().get(i),
+                                                                               esperado.getTimes().get(j)),
+                                campeonato.getConfrontoDireto().getGolsMandante(times.get(i), times.get(j)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegistrarDuasVezesNaoSomaEmDobro() {
+        Partida partida = campeonato.sortearRodada().getPartidas().get(0);
+        partida.registrarResultado(3, 0);
+        partida.registrarResultado(1, 1);
+
+        assertEquals(1, partida.getMandante().getPontos());
+        assertEquals(1, partida.getVisitante().getPontos());
+        assertEquals(0, partida.getMandante().getVitorias());
+        assertEquals(1, partida.getMandante().getGolsMarcados());
+        verificarIgualAReconstruido();
+    }
+
+    @Test
+    public void testCorrigirResultado() {
+        Partida partida = campeonato.sortearRodada().getPartidas().get(0);
+        partida.registrarResultado(2, 0);
+        partida.corrigirResultado(0, 1);
+
+        assertEquals(0, partida.getMandante().getPontos());
+        assertEquals(1, partida.getMandante().getDerrotas());
+        assertEquals(3, partida.getVisitante().getPontos());
+        assertEquals(Integer.valueOf(1), campeonato.getVersao().getGolsVisitante(partida));
+        assertEquals(Integer.valueOf(0),
+                    campeonato.getConfrontoDireto().getGolsMandante(partida.getMandante(), partida.getVisitante()));
+        verificarIgualAReconstruido();
+    }
+
+    @Test
+    public void testDesfazerResultado() {
+        Partida partida = campeonato.sortearRodada().getPartidas().get(0);
+        partida.registrarResultado(4, 2);
+        partida.desfazerResultado();
+
+        assertFalse(partida.isRealizada());
+        assertNull(partida.getGolsMandante());
+        assertEquals(0, partida.getMandante().getJogos());
+        assertEquals(0, partida.getVisitante().getGolsSofridos());
+        assertFalse(campeonato.getVersao().isRealizada(partida));
+        assertFalse(campeonato.getConfrontoDireto().foiRealizado(partida.getMandante(), partida.getVisitante()));
+        verificarIgualAReconstruido();
+    }
+
+    @Test
+    public void testCorrecoesAleatoriasNaTemporada() {
+        Random random = new Random(21);
+        List<Partida> jogadas = new ArrayList<>();
+        for (int r = 0; r < campeonato.getNumeroRodadas(); r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                jogadas.add(partida);
+            }
+            for (int c = 0; c < 3; c++) {
+                Partida partida = jogadas.get(random.nextInt(jogadas.size()));
+                if (!partida.isRealizada()) {
+                    partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                } else if (random.nextBoolean()) {
+                    partida.corrigirResultado(random.nextInt(4), random.nextInt(4));
+                } else {
+                    partida.desfazerResultado();
+                }
+            }
+            verificarIgualAReconstruido();
+        }
+    }
+
+    @Test
+    public void testDesfazerVoltaAoJogoAnteriorDoMesmoPar() {
+        Time a = times.get(0);
+        Time b = times.get(1);
+        ConfrontoDireto confronto = campeonato.getConfrontoDireto();
+        Partida primeira = new Partida(a, b);
+        Partida segunda = new Partida(a, b);
+        primeira.registrarResultado(2, 0);
+        segunda.registrarResultado(1, 1);
+
+        segunda.desfazerResultado();
+        assertEquals(Integer.valueOf(2), confronto.getGolsMandante(a, b));
+        primeira.desfazerResultado();
+        assertFalse(confronto.foiRealizado(a, b));
+
+        primeira.registrarResultado(2, 0);
+        segunda.registrarResultado(1, 1);
+        primeira.desfazerResultado();
+        assertEquals(Integer.valueOf(1), confronto.getGolsMandante(a, b));
+        segunda.desfazerResultado();
+        assertFalse(confronto.foiRealizado(a, b));
+        assertEquals(0, a.getJogos());
+    }
+
+    @Test
+    public void testLogReproduzCorrecoesEAnulacoes() throws IOException {
+        Path arquivo = pasta.getRoot().toPath().resolve("eventos.log");
+        try (LogEventos log = new LogEventos(arquivo)) {
+            campeonato.registrarEventosEm(log);
+            Rodada rodada = campeonato.sortearRodada();
+            for (Partida partida : rodada.getPartidas()) {
+                partida.registrarResultado(2, 1);
+            }
+            rodada.getPartidas().get(0).corrigirResultado(0, 0);
+            rodada.getPartidas().get(1).desfazerResultado();
+            Partida avulsa = new Partida(times.get(0), times.get(5));
+            avulsa.registrarResultado(3, 0);
+            avulsa.desfazerResultado();
+        }
+
+        Campeonato restaurado = LogEventos.restaurar(criarTimes(), arquivo);
+        assertEquals(tabela(campeonato.getClassificacao()), tabela(restaurado.getClassificacao()));
+
+        EstatisticasColunares colunas = new EstatisticasColunares(times.size());
+        LogEventos.acumularEstatisticas(arquivo, colunas);
+        for (Time time : times) {
+            assertEquals(time.getPontos(), colunas.getPontos(time.getId()));
+            assertEquals(time.getGolsMarcados(), colunas.getGolsMarcados(time.getId()));
+            assertEquals(time.getDerrotas(), colunas.getDerrotas(time.getId()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorrigirPartidaNaoRealizada() {
+        campeonato.sortearRodada().getPartidas().get(0).corrigirResultado(1, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDesfazerPartidaNaoRealizada() {
+        new Partida(times.get(0), times.get(1)).desfazerResultado();
+    }
+}
@@ -111,4 +111,30 @@ public class TestDuplicidadeConfrontos {
         assertTrue("Não deveria haver confrontos duplicados",
                   campeonato.semDuplicidadeConfrontos());
     }
+    
+    @Test
+    public void testJaRecebeuConsultaConfrontosSorteados() {
+        Rodada rodada = campeonato.sortearRodada();
+        Partida partida = rodada.getPartidas().get(0);
+        
+        assertTrue("O mandante deveria ter recebido o visitante",
+                  campeonato.jaRecebeu(partida.getMandante(), partida.getVisitante()));
+        assertFalse("O visitante ainda não recebeu o mandante",
+                   campeonato.jaRecebeu(partida.getVisitante(), partida.getMandante()));
+    }
+    
+    @Test
+    public void testConjuntoDetectaConfrontoRepetido() {
+        ConjuntoConfrontos conjunto = new ConjuntoConfrontos();
+        Time flamengo = times.get(0);
+        Time palmeiras = times.get(1);
+        
+        assertTrue(conjunto.adicionar(new Partida(flamengo, palmeiras)));
+        assertTrue(conjunto.adicionar(new Partida(palmeiras, flamengo)));
+        assertFalse("Não deveria haver duplicidade com mando invertido", conjunto.temDuplicidade());
+        
+        assertFalse(conjunto.adicionar(new Partida(flamengo, palmeiras)));
+        assertTrue("O confronto repetido deveria ser detectado", conjunto.temDuplicidade());
+        assertEquals(2, conjunto.getQuantidade());
+    }
 }
@@ -0,0 +1,135 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica o armazenamento colunar das estatísticas: os times passam a ser
+ * visões sobre os arrays, e a classificação continua a mesma.
+ */
+public class TestEstatisticasColunares {
+
+    private Time flamengo;
+    private Time palmeiras;
+    private Time saopaulo;
+    private Time corinthians;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        flamengo = new Time("Flamengo");
+        palmeiras = new Time("Palmeiras");
+        saopaulo = new Time("São Paulo");
+        corinthians = new Time("Corinthians");
+
+        times = new ArrayList<>();
+        times.add(flamengo);
+        times.add(palmeiras);
+        times.add(saopaulo);
+        times.add(corinthians);
+    }
+
+    @Test
+    public void testResultadosGravadosNasColunas() {
+        EstatisticasColunares colunas = new EstatisticasColunares(4);
+        new Campeonato(times, colunas);
+
+        Partida partida = new Partida(flamengo, palmeiras);
+        partida.registrarResultado(3, 1);
+
+        assertEquals(3, colunas.getPontos(flamengo.getId()));
+        assertEquals(1, colunas.getVitorias(flamengo.getId()));
+        assertEquals(1, colunas.getDerrotas(palmeiras.getId()));
+        assertEquals(3, colunas.getGolsSofridos(palmeiras.getId()));
+        assertEquals("O time deveria ler as estatísticas das colunas", 2, flamengo.getSaldoGols());
+    }
+
+    @Test
+    public void testMigracaoPreservaEstatisticasAnteriores() {
+        Partida partida = new Partida(saopaulo, corinthians);
+        partida.registrarResultado(2, 2);
+
+        EstatisticasColunares colunas = new EstatisticasColunares(1);
+        new Campeonato(times, colunas);
+
+        assertTrue("O armazenamento deveria crescer para todos os times", colunas.getCapacidade() >= 4);
+        assertEquals(1, colunas.getEmpates(saopaulo.getId()));
+        assertEquals(2, colunas.getGolsMarcados(corinthians.getId()));
+        assertEquals(1, saopaulo.getPontos());
+    }
+
+    @Test
+    public void testClassificacaoComColunas() {
+        Campeonato campeonato = new Campeonato(times, new EstatisticasColunares(4));
+
+        new Partida(flamengo, corinthians).registrarResultado(2, 0);
+        new Partida(palmeiras, saopaulo).registrarResultado(1, 0);
+        new Partida(saopaulo, corinthians).registrarResultado(1, 1);
+
+        List<Time> classificacao = campeonato.getClassificacao();
+        assertEquals("1º lugar (melhor saldo)", flamengo, classificacao.get(0));
+        assertEquals("2º lugar", palmeiras, classificacao.get(1));
+        assertEquals("3º lugar", saopaulo, classificacao.get(2));
+        assertEquals("4º lugar", corinthians, classificacao.get(3));
+    }
+
+    @Test
+    public void testClassificacaoLidaDasColunasIgualAsDosTimes() {
+        List<Time> comColunas = new ArrayList<>();
+        List<Time> semColunas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            comColunas.add(new Time("Clube " + i));
+            semColunas.add(new Time("Clube " + i));
+        }
+        EstatisticasColunares colunas = new EstatisticasColunares(20);
+        Campeonato colunar = new Campeonato(comColunas, colunas);
+        Campeonato comum = new Campeonato(semColunas);
+
+        Random random = new Random(3);
+        for (int r = 0; r < 10; r++) {
+            int[] golsMandante = new int[10];
+            int[] golsVisitante = new int[10];
+            for (int p = 0; p < 10; p++) {
+                golsMandante[p] = random.nextInt(4);
+                golsVisitante[p] = random.nextInt(3);
+            }
+            // Rodadas pares em lote (reordenação pelas colunas), ímpares partida a partida
+            for (Campeonato campeonato : new Campeonato[] {colunar, comum}) {
+                Rodada rodada = campeonato.sortearRodada();
+                if (r % 2 == 0) {
+                    rodada.registrarResultados(golsMandante, golsVisitante);
+                } else {
+                    for (int p = 0; p < 10; p++) {
+                        rodada.getPartidas().get(p).registrarResultado(golsMandante[p], golsVisitante[p]);
+                    }
+                }
+            }
+        }
+
+        assertEquals(nomes(comum.getClassificacao()), nomes(colunar.getClassificacao()));
+        assertEquals(nomes(comum.getVersao().getClassificacao()), nomes(colunar.getVersao().getClassificacao()));
+
+        int[] linhas = new int[20 * EstatisticasColunares.NUMERO_ESTATISTICAS];
+        colunas.lerTodos(linhas, 20);
+        int[] linha = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+        for (int i = 0; i < 20; i++) {
+            semColunas.get(i).lerEstatisticas(linha);
+            for (int campo = 0; campo < linha.length; campo++) {
+                assertEquals(linha[campo], linhas[i * EstatisticasColunares.NUMERO_ESTATISTICAS + campo]);
+            }
+        }
+    }
+
+    private static List<String> nomes(List<Time> times) {
+        List<String> nomes = new ArrayList<>();
+        for (Time time : times) {
+            nomes.add(time.getNome());
+        }
+        return nomes;
+    }
+}
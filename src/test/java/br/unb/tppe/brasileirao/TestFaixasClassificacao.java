@@ -0,0 +1,102 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica as consultas de posição, faixa e topo da classificação.
+ */
+public class TestFaixasClassificacao {
+
+    private Campeonato campeonato;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + (char) ('A' + i)));
+        }
+        campeonato = new Campeonato(times);
+    }
+
+    private void verificarConsultas(String mensagem) {
+        List<Time> classificacao = campeonato.getClassificacao();
+        for (int i = 0; i < classificacao.size(); i++) {
+            assertEquals(mensagem, i + 1, campeonato.getPosicao(classificacao.get(i)));
+        }
+        assertEquals(mensagem, classificacao.subList(0, 4), campeonato.getTopo(4));
+        assertEquals(mensagem, classificacao.subList(4, 12), campeonato.getFaixa(5, 12));
+        assertEquals(mensagem, classificacao.subList(16, 20), campeonato.getFaixa(17, 20));
+    }
+
+    @Test
+    public void testConsultasIguaisATabelaCompleta() {
+        verificarConsultas("Sem jogos");
+        Random random = new Random(19);
+        for (int r = 0; r < 38; r++) {
+            Rodada rodada = campeonato.sortearRodada();
+            for (Partida partida : rodada.getPartidas()) {
+                // Poucos gols geram muitos empates nos critérios numéricos
+                partida.registrarResultado(random.nextInt(2), random.nextInt(2));
+                verificarConsultas("Rodada " + (r + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testConfrontoDiretoNaFaixa() {
+        Time a = times.get(0);
+        Time b = times.get(1);
+        // B vence A e A devolve o placar, com o mesmo total de gols dos dois lados
+        new Partida(b, a).registrarResultado(1, 0);
+        new Partida(a, b).registrarResultado(1, 0);
+        // B leva vantagem só se ganhar mais um confronto entre eles
+        new Partida(b, a).registrarResultado(2, 2);
+        new Partida(b, a).registrarResultado(1, 0);
+        new Partida(a, times.get(2)).registrarResultado(1, 0);
+        new Partida(times.get(3), b).registrarResultado(0, 0);
+        new Partida(times.get(4), b).registrarResultado(0, 0);
+        new Partida(times.get(5), a).registrarResultado(0, 0);
+
+        verificarConsultas("Após os confrontos");
+    }
+
+    @Test
+    public void testTopoMaiorQueATabela() {
+        assertEquals(20, campeonato.getTopo(30).size());
+        assertTrue(campeonato.getTopo(0).isEmpty());
+        assertTrue(campeonato.getFaixa(5, 4).isEmpty());
+    }
+
+    @Test
+    public void testDuplaDesempatadaPeloConfrontoDireto() {
+        Time a = times.get(0);
+        Time b = times.get(1);
+        new Partida(b, a).registrarResultado(1, 0);
+        new Partida(a, times.get(2)).registrarResultado(1, 0);
+        new Partida(times.get(3), b).registrarResultado(1, 0);
+
+        // D lidera pelo saldo; A e B: 3 pontos, 1 vitória, saldo 0, 1 gol; B venceu o confronto
+        assertEquals(times.get(3), campeonato.getTopo(1).get(0));
+        assertEquals(Arrays.asList(b, a), campeonato.getFaixa(2, 3));
+        assertEquals(2, campeonato.getPosicao(b));
+        assertEquals(3, campeonato.getPosicao(a));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFaixaInvalida() {
+        campeonato.getFaixa(0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeForaDoCampeonato() {
+        campeonato.getPosicao(new Time("Avulso"));
+    }
+}
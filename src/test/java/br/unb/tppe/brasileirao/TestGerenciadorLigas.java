@@ -0,0 +1,184 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Verifica a execução de várias ligas em paralelo com registro de times compartilhado.
+ */
+public class TestGerenciadorLigas {
+
+    private GerenciadorLigas gerenciador;
+
+    @Before
+    public void setUp() {
+        gerenciador = new GerenciadorLigas(4);
+    }
+
+    @After
+    public void tearDown() {
+        gerenciador.close();
+    }
+
+    private static List<String> nomes(String prefixo, int quantidade) {
+        List<String> nomes = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            nomes.add(prefixo + " " + i);
+        }
+        return nomes;
+    }
+
+    private static int jogarTemporada(Campeonato campeonato) {
+        int resultados = 0;
+        while (campeonato.getRodadaAtual() < campeonato.getNumeroRodadas()) {
+            Rodada rodada = campeonato.sortearRodada();
+            for (Partida partida : rodada.getPartidas()) {
+                partida.registrarResultado((rodada.getNumero() + resultados) % 3, resultados % 2);
+                resultados++;
+            }
+        }
+        return resultados;
+    }
+
+    @Test
+    public void testClubeEmDuasLigasTemMesmoId() {
+        Campeonato serieA = gerenciador.criarLiga("Série A", Arrays.asList("Flamengo", "Palmeiras", "Santos", "Grêmio"));
+        Campeonato carioca = gerenciador.criarLiga("Carioca", Arrays.asList("Vasco", "Flamengo", "Botafogo", "Fluminense"));
+
+        Time flamengoA = serieA.buscarTime("Flamengo");
+        Time flamengoCarioca = carioca.buscarTime("Flamengo");
+        assertNotSame(flamengoA, flamengoCarioca);
+        assertEquals(flamengoA.getId(), flamengoCarioca.getId());
+        assertEquals(7, gerenciador.getRegistro().getQuantidade());
+
+        gerenciador.executar("Carioca", c -> {
+            for (Partida partida : c.sortearRodada().getPartidas()) {
+                partida.registrarResultado(2, 0);
+            }
+            return null;
+        }).join();
+        assertEquals(0, flamengoA.getPontos() + flamengoA.getDerrotas() + flamengoA.getEmpates());
+        assertEquals(1, flamengoCarioca.getVitorias() + flamengoCarioca.getDerrotas());
+    }
+
+    @Test
+    public void testTemporadasEmParalelo() {
+        int numeroLigas = 40;
+        for (int i = 0; i < numeroLigas; i++) {
+            // Metade dos clubes de cada liga também está na liga seguinte
+            List<String> clubes = new ArrayList<>(nomes("Clube", 3 * i + 6).subList(3 * i, 3 * i + 6));
+            gerenciador.criarLiga("Liga " + i, clubes);
+        }
+
+        Map<String, CompletableFuture<Integer>> futuros = gerenciador.executarEmTodas(TestGerenciadorLigas::jogarTemporada);
+        int total = 0;
+        for (CompletableFuture<Integer> futuro : futuros.values()) {
+            total += futuro.join();
+        }
+
+        assertEquals(numeroLigas * 30, total);
+        for (String nome : gerenciador.getNomesLigas()) {
+            Campeonato liga = gerenciador.getLiga(nome);
+            assertEquals(10, liga.getRodadaAtual());
+            assertTrue(liga.semDuplicidadeConfrontos());
+        }
+
+        ResumoLigas resumo = gerenciador.getResumo();
+        assertEquals(numeroLigas, resumo.getNumeroLigas());
+        assertEquals(numeroLigas, resumo.getTarefasConcluidas());
+        assertEquals(total, resumo.getResultadosRegistrados());
+        assertEquals(numeroLigas * 10, resumo.getRodadasSorteadas());
+        assertTrue(resumo.getResultadosPorSegundo() > 0);
+    }
+
+    @Test
+    public void testCorrecaoNaoContaComoResultadoNovo() {
+        gerenciador.criarLiga("Série E", nomes("E", 4));
+        gerenciador.executar("Série E", c -> {
+            Rodada rodada = c.sortearRodada();
+            rodada.getPartidas().get(0).registrarResultado(1, 0);
+            rodada.getPartidas().get(1).registrarResultado(2, 2);
+            rodada.getPartidas().get(0).corrigirResultado(0, 1);
+            rodada.getPartidas().get(1).desfazerResultado();
+            rodada.registrarResultados(new int[] {3, 0}, new int[] {0, 0});
+            return null;
+        }).join();
+        assertEquals(2, gerenciador.getResumo().getResultadosRegistrados());
+    }
+
+    @Test
+    public void testTarefasDaLigaRodamEmOrdem() {
+        gerenciador.criarLiga("Série B", nomes("B", 4));
+        gerenciador.criarLiga("Série C", nomes("C", 4));
+        List<Integer> ordemB = new ArrayList<>();
+        List<Integer> ordemC = new ArrayList<>();
+
+        CompletableFuture<?> ultimaB = null;
+        CompletableFuture<?> ultimaC = null;
+        for (int i = 0; i < 500; i++) {
+            int tarefa = i;
+            ultimaB = gerenciador.executar("Série B", c -> ordemB.add(tarefa));
+            ultimaC = gerenciador.executar("Série C", c -> ordemC.add(tarefa));
+        }
+        ultimaB.join();
+        ultimaC.join();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, (int) ordemB.get(i));
+            assertEquals(i, (int) ordemC.get(i));
+        }
+    }
+
+    @Test
+    public void testFalhaNaoInterrompeALiga() {
+        gerenciador.criarLiga("Série D", nomes("D", 4));
+        CompletableFuture<Object> falha = gerenciador.executar("Série D", c -> {
+            throw new IllegalStateException("falhou");
+        });
+        CompletableFuture<Integer> seguinte = gerenciador.executar("Série D", c -> c.sortearRodada().getNumero());
+
+        assertEquals(1, (int) seguinte.join());
+        try {
+            falha.join();
+            fail("A falha deveria ser entregue no futuro");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, gerenciador.getResumo().getTarefasComFalha());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLigaDeOutroRegistro() {
+        gerenciador.adicionarLiga("Avulsa", new Campeonato(Arrays.asList(new Time("A"), new Time("B"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLigaRepetida() {
+        gerenciador.criarLiga("Série A", nomes("A", 4));
+        gerenciador.criarLiga("Série A", nomes("A", 4));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFechadoRecusaTarefas() {
+        gerenciador.criarLiga("Série A", nomes("A", 4));
+        gerenciador.close();
+        gerenciador.executar("Série A", Campeonato::sortearRodada);
+    }
+
+    @Test
+    public void testFecharInterrompidoMantemInterrupcao() {
+        gerenciador.criarLiga("Série A", nomes("A", 4));
+        Thread.currentThread().interrupt();
+        gerenciador.close();
+        assertTrue(Thread.interrupted());
+    }
+}
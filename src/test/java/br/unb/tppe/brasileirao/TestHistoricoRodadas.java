@@ -0,0 +1,156 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica a consulta da classificação e das estatísticas ao fim de cada rodada.
+ */
+public class TestHistoricoRodadas {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private List<Time> times;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        times = criarTimes(20);
+        campeonato = new Campeonato(times);
+    }
+
+    private static List<Time> criarTimes(int quantidade) {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            times.add(new Time("Time " + i));
+        }
+        return times;
+    }
+
+    /**
+     * Guarda a tabela e os pontos de cada time ao fim da rodada, na ordem da classificação.
+     */
+    private static String descrever(List<Time> classificacao, RetratoRodada retrato) {
+        StringBuilder descricao = new StringBuilder();
+        for (Time time : classificacao) {
+            descricao.append(time.getNome()).append(':');
+            if (retrato == null) {
+                descricao.append(time.getPontos()).append('/').append(time.getVitorias()).append('/')
+                         .append(time.getEmpates()).append('/').append(time.getDerrotas()).append('/')
+                         .append(time.getGolsMarcados()).append('/').append(time.getGolsSofridos());
+            } else {
+                descricao.append(retrato.getPontos(time)).append('/').append(retrato.getVitorias(time)).append('/')
+                         .append(retrato.getEmpates(time)).append('/').append(retrato.getDerrotas(time)).append('/')
+                         .append(retrato.getGolsMarcados(time)).append('/').append(retrato.getGolsSofridos(time));
+            }
+            descricao.append(' ');
+        }
+        return descricao.toString();
+    }
+
+    private static List<String> jogar(Campeonato c, int rodadas, long semente) {
+        Random random = new Random(semente);
+        List<String> tabelas = new ArrayList<>();
+        tabelas.add(descrever(c.getClassificacao(), null));
+        for (int r = 0; r < rodadas; r++) {
+            for (Partida partida : c.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(3), random.nextInt(3));
+            }
+            tabelas.add(descrever(c.getClassificacao(), null));
+        }
+        return tabelas;
+    }
+
+    @Test
+    public void testRetratoIgualATabelaAoFimDeCadaRodada() {
+        List<String> tabelas = jogar(campeonato, 38, 11);
+        // Consulta fora de ordem para usar e reaproveitar os pontos de controle
+        for (int k = 38; k >= 0; k -= 3) {
+            RetratoRodada retrato = campeonato.getRetratoRodada(k);
+            assertEquals("Rodada " + k, tabelas.get(k), descrever(retrato.getClassificacao(), retrato));
+        }
+        for (int k = 0; k <= 38; k++) {
+            RetratoRodada retrato = campeonato.getRetratoRodada(k);
+            assertEquals("Rodada " + k, tabelas.get(k), descrever(retrato.getClassificacao(), retrato));
+            Time lider = retrato.getClassificacao().get(0);
+            assertEquals(1, retrato.getPosicao(lider));
+        }
+    }
+
+    @Test
+    public void testResultadoDeRodadaAnteriorInvalidaPontosDeControle() {
+        Rodada primeira = campeonato.sortearRodada();
+        Rodada segunda = campeonato.sortearRodada();
+        for (Partida partida : segunda.getPartidas()) {
+            partida.registrarResultado(1, 0);
+        }
+        Time mandante = primeira.getPartidas().get(0).getMandante();
+        assertEquals(0, campeonato.getRetratoRodada(1).getPontos(mandante));
+        int pontosNaSegunda = campeonato.getRetratoRodada(2).getPontos(mandante);
+
+        primeira.getPartidas().get(0).registrarResultado(3, 0);
+
+        assertEquals(3, campeonato.getRetratoRodada(1).getPontos(mandante));
+        assertEquals(1, campeonato.getRetratoRodada(1).getVitorias(mandante));
+        assertEquals(pontosNaSegunda + 3, campeonato.getRetratoRodada(2).getPontos(mandante));
+    }
+
+    @Test
+    public void testPartidaAvulsaFicaForaDoHistorico() {
+        new Partida(times.get(0), times.get(1)).registrarResultado(2, 0);
+        campeonato.sortearRodada();
+
+        assertEquals(3, times.get(0).getPontos());
+        assertEquals(0, campeonato.getRetratoRodada(1).getPontos(times.get(0)));
+    }
+
+    @Test
+    public void testHistoricoRestauradoDoInstantaneo() throws IOException {
+        jogar(campeonato, 5, 3);
+        Path arquivo = pasta.getRoot().toPath().resolve("campeonato.snap");
+        ArquivoInstantaneo.salvar(campeonato, arquivo);
+        Campeonato carregado = ArquivoInstantaneo.carregar(arquivo);
+
+        for (int k = 0; k <= 5; k++) {
+            RetratoRodada original = campeonato.getRetratoRodada(k);
+            RetratoRodada restaurado = carregado.getRetratoRodada(k);
+            List<String> nomesOriginal = new ArrayList<>();
+            List<String> nomesRestaurado = new ArrayList<>();
+            for (int i = 0; i < times.size(); i++) {
+                Time timeOriginal = original.getClassificacao().get(i);
+                Time timeRestaurado = restaurado.getClassificacao().get(i);
+                nomesOriginal.add(timeOriginal.getNome() + original.getPontos(timeOriginal));
+                nomesRestaurado.add(timeRestaurado.getNome() + restaurado.getPontos(timeRestaurado));
+            }
+            assertEquals("Rodada " + k, nomesOriginal, nomesRestaurado);
+        }
+    }
+
+    @Test
+    public void testPontosDeControleEspacadosEmCampeonatoGrande() {
+        List<Time> muitos = criarTimes(600);
+        Campeonato grande = new Campeonato(muitos);
+        List<String> tabelas = jogar(grande, 4, 17);
+
+        assertTrue(new HistoricoRodadas(muitos, grande.getNumeroRodadas()).getIntervalo() > 1);
+        for (int k = 0; k <= 4; k++) {
+            RetratoRodada retrato = grande.getRetratoRodada(k);
+            assertEquals("Rodada " + k, tabelas.get(k), descrever(retrato.getClassificacao(), retrato));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRodadaInexistente() {
+        campeonato.getRetratoRodada(39);
+    }
+}
@@ -0,0 +1,175 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica a importação em lote de resultados históricos.
+ */
+public class TestImportadorResultados {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private Path arquivo;
+
+    @Before
+    public void setUp() throws IOException {
+        arquivo = pasta.getRoot().toPath().resolve("resultados.csv");
+    }
+
+    private List<Time> criarTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time Ç" + i));
+        }
+        return times;
+    }
+
+    /**
+     * Escreve partidas aleatórias no arquivo e as registra nos times de referência.
+     */
+    private void gerarArquivo(List<Time> referencia, int partidas, boolean cabecalho) throws IOException {
+        Random random = new Random(5);
+        StringBuilder texto = new StringBuilder();
+        if (cabecalho) {
+            texto.append("mandante;visitante;gols_mandante;gols_visitante\n");
+        }
+        for (int i = 0; i < partidas; i++) {
+            Time mandante = referencia.get(random.nextInt(referencia.size()));
+            Time visitante = referencia.get(random.nextInt(referencia.size()));
+            if (mandante == visitante) {
+                continue;
+            }
+            int gm = random.nextInt(5);
+            int gs = random.nextInt(5);
+            new Partida(mandante, visitante).registrarResultado(gm, gs);
+            texto.append(mandante.getNome()).append(';').append(visitante.getNome())
+                 .append(';').append(gm).append(';').append(gs)
+                 .append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Files.write(arquivo, texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertMesmasEstatisticas(Time esperado, Time obtido) {
+        assertEquals(esperado.getPontos(), obtido.getPontos());
+        assertEquals(esperado.getVitorias(), obtido.getVitorias());
+        assertEquals(esperado.getEmpates(), obtido.getEmpates());
+        assertEquals(esperado.getDerrotas(), obtido.getDerrotas());
+        assertEquals(esperado.getGolsMarcados(), obtido.getGolsMarcados());
+        assertEquals(esperado.getGolsSofridos(), obtido.getGolsSofridos());
+    }
+
+    @Test
+    public void testImportacaoEmBlocosPequenosNoCampeonato() throws IOException {
+        List<Time> referencia = criarTimes();
+        gerarArquivo(referencia, 5000, true);
+
+        Campeonato campeonato = new Campeonato(criarTimes());
+        ImportadorResultados importador =
+                new ImportadorResultados(campeonato.getRegistro(), null, campeonato, ';', 4, 256);
+        long importadas = importador.importar(arquivo, true);
+
+        long esperadas = 0;
+        for (Time time : referencia) {
+            esperadas += time.getVitorias() + time.getEmpates();
+            assertMesmasEstatisticas(time, campeonato.buscarTime(time.getNome()));
+        }
+        // Cada partida tem um vencedor ou dois empates
+        long empates = 0;
+        for (Time time : referencia) {
+            empates += time.getEmpates();
+        }
+        assertEquals(esperadas - empates / 2, importadas);
+
+        List<Time> classificacao = campeonato.getClassificacao();
+        for (int i = 1; i < classificacao.size(); i++) {
+            assertTrue(classificacao.get(i - 1).getPontos() >= classificacao.get(i).getPontos());
+        }
+    }
+
+    @Test
+    public void testImportacaoRegistraTimesNovosNoArmazenamentoColunar() throws IOException {
+        List<Time> referencia = criarTimes();
+        gerarArquivo(referencia, 2000, false);
+
+        RegistroTimes registro = new RegistroTimes();
+        EstatisticasColunares colunas = new EstatisticasColunares(1);
+        new ImportadorResultados(registro, colunas, ';').importar(arquivo, false);
+
+        assertEquals(referencia.size(), registro.getQuantidade());
+        for (Time time : referencia) {
+            int id = registro.buscarId(time.getNome());
+            assertEquals(time.getPontos(), colunas.getPontos(id));
+            assertEquals(time.getGolsMarcados(), colunas.getGolsMarcados(id));
+            assertEquals(time.getGolsSofridos(), colunas.getGolsSofridos(id));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeForaDoCampeonatoEhRejeitado() throws IOException {
+        Files.write(arquivo, "Time Ç1;Desconhecido;1;0\n".getBytes(StandardCharsets.UTF_8));
+        new ImportadorResultados(new Campeonato(criarTimes()), ';').importar(arquivo, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLinhaMalFormadaEhRejeitada() throws IOException {
+        Files.write(arquivo, "Time Ç1;Time Ç2;x;0\n".getBytes(StandardCharsets.UTF_8));
+        new ImportadorResultados(new Campeonato(criarTimes()), ';').importar(arquivo, false);
+    }
+
+    @Test
+    public void testMuitosTimesEmBlocosConcorrentes() throws IOException {
+        // Nomes novos em quase toda linha: o índice de nomes e as colunas crescem durante a importação
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            texto.append("Clube ").append(i).append(";Clube ").append(i + 1).append(";2;1\n");
+        }
+        Files.write(arquivo, texto.toString().getBytes(StandardCharsets.UTF_8));
+
+        RegistroTimes registro = new RegistroTimes();
+        EstatisticasColunares colunas = new EstatisticasColunares(1);
+        long importadas = new ImportadorResultados(registro, colunas, null, ';', 4, 512).importar(arquivo, false);
+
+        assertEquals(5000, importadas);
+        assertEquals(5001, registro.getQuantidade());
+        for (int i = 0; i <= 5000; i++) {
+            int id = registro.buscarId("Clube " + i);
+            assertEquals(i < 5000 ? 3 : 0, colunas.getPontos(id));
+            assertEquals((i < 5000 ? 2 : 0) + (i > 0 ? 1 : 0), colunas.getGolsMarcados(id));
+        }
+    }
+
+    @Test
+    public void testLinhaInvalidaNaoAplicaNada() throws IOException {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            texto.append("Time Ç").append(i % 20).append(";Time Ç").append((i + 1) % 20).append(";1;0\n");
+        }
+        texto.append("Time Ç1;Time Ç2;x;0\n");
+        Files.write(arquivo, texto.toString().getBytes(StandardCharsets.UTF_8));
+
+        Campeonato campeonato = new Campeonato(criarTimes());
+        try {
+            new ImportadorResultados(campeonato.getRegistro(), null, campeonato, ';', 4, 256).importar(arquivo, false);
+            fail("A linha inválida deveria ser rejeitada");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+        for (Time time : campeonato.getTimes()) {
+            assertEquals(0, time.getPontos());
+            assertEquals(0, time.getGolsMarcados());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica o log de eventos e a restauração do campeonato a partir dele.
+ */
+public class TestLogEventos {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private Path arquivo;
+
+    @Before
+    public void setUp() throws IOException {
+        arquivo = pasta.getRoot().toPath().resolve("eventos.log");
+    }
+
+    private List<Time> criarTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        return times;
+    }
+
+    private Campeonato jogarComLog(int rodadas, int tamanhoLote) throws IOException {
+        Campeonato campeonato = new Campeonato(criarTimes());
+        Random random = new Random(11);
+        try (LogEventos log = new LogEventos(arquivo, tamanhoLote)) {
+            campeonato.registrarEventosEm(log);
+            for (int i = 0; i < rodadas; i++) {
+                for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                    partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                }
+            }
+        }
+        return campeonato;
+    }
+
+    private void assertMesmaClassificacao(Campeonato esperado, Campeonato restaurado) {
+        List<Time> a = esperado.getClassificacao();
+        List<Time> b = restaurado.getClassificacao();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getNome(), b.get(i).getNome());
+            assertEquals(a.get(i).getPontos(), b.get(i).getPontos());
+            assertEquals(a.get(i).getSaldoGols(), b.get(i).getSaldoGols());
+        }
+    }
+
+    @Test
+    public void testRestaurarTemporadaCompleta() throws IOException {
+        Campeonato original = jogarComLog(38, 64);
+
+        Campeonato restaurado = LogEventos.restaurar(criarTimes(), arquivo);
+
+        assertEquals(38, restaurado.getRodadaAtual());
+        assertTrue(restaurado.getRodadas().get(37).getPartidas().get(0).isRealizada());
+        assertMesmaClassificacao(original, restaurado);
+    }
+
+    @Test
+    public void testContinuarGravandoAposRestaurar() throws IOException {
+        jogarComLog(10, 1000);
+
+        Campeonato restaurado = LogEventos.restaurar(criarTimes(), arquivo);
+        try (LogEventos log = new LogEventos(arquivo)) {
+            restaurado.registrarEventosEm(log);
+            restaurado.sortearRodada().getPartidas().get(0).registrarResultado(1, 0);
+        }
+
+        Campeonato novamente = LogEventos.restaurar(criarTimes(), arquivo);
+        assertEquals(11, novamente.getRodadaAtual());
+        assertMesmaClassificacao(restaurado, novamente);
+    }
+
+    @Test
+    public void testRegistroIncompletoNoFinalEhDescartado() throws IOException {
+        Campeonato original = jogarComLog(5, 16);
+        Files.write(arquivo, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        Campeonato restaurado = LogEventos.restaurar(criarTimes(), arquivo);
+        assertMesmaClassificacao(original, restaurado);
+    }
+
+    @Test
+    public void testAcumularEstatisticasSemCriarPartidas() throws IOException {
+        Campeonato original = jogarComLog(38, 256);
+
+        EstatisticasColunares colunas = new EstatisticasColunares(20);
+        LogEventos.acumularEstatisticas(arquivo, colunas);
+
+        for (Time time : original.getTimes()) {
+            assertEquals(time.getPontos(), colunas.getPontos(time.getId()));
+            assertEquals(time.getGolsSofridos(), colunas.getGolsSofridos(time.getId()));
+        }
+    }
+
+    @Test
+    public void testRestaurarComTabelaPropria() throws IOException {
+        List<Time> times = criarTimes();
+        Campeonato original = new Campeonato(times, null, TestArquivoInstantaneo.tabelaInvertida(times));
+        try (LogEventos log = new LogEventos(arquivo)) {
+            original.registrarEventosEm(log);
+            for (int i = 0; i < 5; i++) {
+                for (Partida partida : original.sortearRodada().getPartidas()) {
+                    partida.registrarResultado(2, 0);
+                }
+            }
+        }
+
+        List<Time> novos = criarTimes();
+        Campeonato restaurado = LogEventos.restaurar(novos, TestArquivoInstantaneo.tabelaInvertida(novos), arquivo);
+        assertEquals(original.getClassificacao().get(0).getNome(), restaurado.getClassificacao().get(0).getNome());
+        while (restaurado.getRodadaAtual() < restaurado.getNumeroRodadas()) {
+            restaurado.sortearRodada();
+        }
+        assertTrue(restaurado.semDuplicidadeConfrontos());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRestaurarComOutraTabelaFalha() throws IOException {
+        List<Time> times = criarTimes();
+        Campeonato original = new Campeonato(times, null, TestArquivoInstantaneo.tabelaInvertida(times));
+        try (LogEventos log = new LogEventos(arquivo)) {
+            original.registrarEventosEm(log);
+            original.sortearRodada().getPartidas().get(0).registrarResultado(1, 0);
+        }
+        LogEventos.restaurar(criarTimes(), arquivo);
+    }
+
+    @Test(expected = IOException.class)
+    public void testArquivoInvalido() throws IOException {
+        Files.write(arquivo, new byte[] {0, 0, 0, 0, 0, 0, 0, 0});
+        LogEventos.restaurar(criarTimes(), arquivo);
+    }
+
+    @Test
+    public void testNomesLongosSaoGravados() throws IOException {
+        String[] nomes = {"Associação Chapecoense de Futebol", "São Paulo", "", "Clube de Regatas do Flamengo"};
+        List<Time> times = new ArrayList<>();
+        List<Time> restaurados = new ArrayList<>();
+        for (String nome : nomes) {
+            times.add(new Time(nome));
+            restaurados.add(new Time(nome));
+        }
+        Campeonato campeonato = new Campeonato(times);
+        try (LogEventos log = new LogEventos(arquivo)) {
+            campeonato.registrarEventosEm(log);
+            campeonato.sortearRodada();
+        }
+
+        LogEventos.Leitura leitura = LogEventos.lerResultados(arquivo);
+        for (Time time : times) {
+            assertEquals(time.getNome(), leitura.nomes.get(time.getId()));
+        }
+        // Os eventos de nome não atrapalham a restauração
+        assertEquals(1, LogEventos.restaurar(restaurados, arquivo).getRodadas().size());
+    }
+}
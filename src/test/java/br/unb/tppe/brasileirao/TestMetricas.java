@@ -0,0 +1,109 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.MBeanServer;
+
+/**
+ * Verifica o histograma de latência e a contagem das operações instrumentadas.
+ * Os testes que dependem das métricas ligadas rodam numa execução própria do surefire
+ * (ver pom.xml); nas demais eles são ignorados.
+ */
+public class TestMetricas {
+
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            times.add(new Time("Time " + i));
+        }
+        campeonato = new Campeonato(times);
+        Metricas.zerar();
+    }
+
+    @Test
+    public void testIntervalosDoHistograma() {
+        for (long nanos = 0; nanos < 100000; nanos++) {
+            int intervalo = MetricasOperacao.intervalo(nanos);
+            assertTrue(nanos <= MetricasOperacao.limiteSuperior(intervalo));
+            if (intervalo > 0) {
+                assertTrue(nanos > MetricasOperacao.limiteSuperior(intervalo - 1));
+            }
+        }
+        int ultimo = MetricasOperacao.intervalo(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, MetricasOperacao.limiteSuperior(ultimo));
+    }
+
+    @Test
+    public void testPercentis() {
+        MetricasOperacao metricas = new MetricasOperacao(Metricas.Operacao.SORTEAR_RODADA);
+        for (int i = 1; i <= 100; i++) {
+            metricas.registrar(i * 1000L);
+        }
+        ResumoMetricas resumo = metricas.getResumo();
+        assertEquals(100, resumo.getContagem());
+        assertEquals(50500.0, resumo.getMediaNanos(), 0.001);
+        assertEquals(100000, resumo.getMaximoNanos());
+        // Erro relativo de até 25% para cima
+        assertTrue(resumo.getP50Nanos() >= 50000 && resumo.getP50Nanos() <= 62500);
+        assertTrue(resumo.getP90Nanos() >= 90000 && resumo.getP90Nanos() <= 112500);
+        assertTrue(resumo.getP99Nanos() >= 99000 && resumo.getP99Nanos() <= 100000);
+
+        metricas.zerar();
+        assertEquals(0, metricas.getResumo().getContagem());
+        assertEquals(0, metricas.getResumo().getP99Nanos());
+    }
+
+    @Test
+    public void testOperacoesContadas() {
+        Assume.assumeTrue(Metricas.ATIVO);
+
+        Rodada rodada = campeonato.sortearRodada();
+        campeonato.sortearRodada();
+        for (Partida partida : rodada.getPartidas()) {
+            partida.registrarResultado(1, 0);
+        }
+        campeonato.getClassificacao();
+        campeonato.semDuplicidadeConfrontos();
+
+        assertEquals(2, Metricas.getResumo(Metricas.Operacao.SORTEAR_RODADA).getContagem());
+        assertEquals(3, Metricas.getResumo(Metricas.Operacao.REGISTRAR_RESULTADO).getContagem());
+        assertEquals(1, Metricas.getResumo(Metricas.Operacao.OBTER_CLASSIFICACAO).getContagem());
+        assertEquals(1, Metricas.getResumos().get(Metricas.Operacao.VERIFICAR_CONFRONTOS).getContagem());
+        assertTrue(Metricas.getResumo(Metricas.Operacao.SORTEAR_RODADA).getMaximoNanos() > 0);
+    }
+
+    @Test
+    public void testDesligadasNaoContam() {
+        Assume.assumeFalse(Metricas.ATIVO);
+
+        Rodada rodada = campeonato.sortearRodada();
+        for (Partida partida : rodada.getPartidas()) {
+            partida.registrarResultado(1, 0);
+        }
+        campeonato.getClassificacao();
+        for (Metricas.Operacao operacao : Metricas.Operacao.values()) {
+            assertEquals(0, Metricas.getResumo(operacao).getContagem());
+        }
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        Assume.assumeTrue(Metricas.ATIVO);
+        Metricas.registrarJmx();
+        Metricas.registrarJmx();
+
+        campeonato.getClassificacao();
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        Object contagem = servidor.getAttribute(Metricas.nomeJmx(Metricas.Operacao.OBTER_CLASSIFICACAO), "Contagem");
+        assertEquals(1L, contagem);
+    }
+}
@@ -0,0 +1,125 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Verifica o otimizador de tabelas com restrições.
+ */
+public class TestOtimizadorTabela {
+
+    private List<Time> times;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        pool = new ForkJoinPool(2);
+    }
+
+    private Campeonato jogarTemporada(TabelaJogos tabela) {
+        Campeonato campeonato = new Campeonato(times, null, tabela);
+        for (int i = 0; i < campeonato.getNumeroRodadas(); i++) {
+            Rodada rodada = campeonato.sortearRodada();
+            assertFalse(rodada.temRepeticaoTimes());
+            assertTrue(rodada.todosTimes(times));
+        }
+        return campeonato;
+    }
+
+    @Test
+    public void testTabelaOtimizadaEhTurnoEReturnoValido() {
+        OtimizadorTabela otimizador = new OtimizadorTabela(times, pool);
+        TabelaOtimizada tabela = otimizador.otimizar(2000, 20000, 7);
+
+        Campeonato campeonato = jogarTemporada(tabela);
+        assertEquals(38, campeonato.getNumeroRodadas());
+        assertTrue(campeonato.semDuplicidadeConfrontos());
+        for (Time mandante : times) {
+            for (Time visitante : times) {
+                if (mandante != visitante) {
+                    assertTrue(campeonato.jaRecebeu(mandante, visitante));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNaoPioraATabelaDoCirculo() {
+        OtimizadorTabela otimizador = new OtimizadorTabela(times, pool);
+        int penalidadeCirculo = otimizador.calcularPenalidade(new TabelaRoundRobin(times));
+
+        TabelaOtimizada tabela = otimizador.otimizar(2000, 20000, 7);
+        assertTrue(tabela.getPenalidade() <= penalidadeCirculo);
+        assertEquals(tabela.getPenalidade(), otimizador.calcularPenalidade(tabela));
+    }
+
+    @Test
+    public void testRestricoesAtendidas() {
+        OtimizadorTabela otimizador = new OtimizadorTabela(times, pool);
+        Time gremio = times.get(4);
+        Time inter = times.get(5);
+        otimizador.compartilharEstadio(gremio, inter);
+        otimizador.fixarData(times.get(0), times.get(1), 3);
+        otimizador.proibirMando(times.get(2), 1);
+        assertTrue(otimizador.calcularPenalidade(new TabelaRoundRobin(times)) >= OtimizadorTabela.PESO_RESTRICAO);
+
+        TabelaOtimizada tabela = otimizador.otimizar(5000, 50000, 11);
+        assertEquals("Todas as restrições deveriam ser atendidas", 0, tabela.getViolacoes());
+
+        Campeonato campeonato = jogarTemporada(tabela);
+        Partida fixa = campeonato.getRodadas().get(2).buscarPartidaDoMandante(times.get(0));
+        assertNotNull(fixa);
+        assertEquals(times.get(1), fixa.getVisitante());
+        assertNull(campeonato.getRodadas().get(0).buscarPartidaDoMandante(times.get(2)));
+        for (Rodada rodada : campeonato.getRodadas()) {
+            assertFalse(rodada.buscarPartidaDoMandante(gremio) != null
+                        && rodada.buscarPartidaDoMandante(inter) != null);
+        }
+    }
+
+    @Test
+    public void testDatasFixasDeConfrontosDaMesmaRodadaDoCirculo() {
+        TabelaRoundRobin circulo = new TabelaRoundRobin(times);
+        Time mandante1 = times.get(circulo.getMandante(0, 0));
+        Time visitante1 = times.get(circulo.getVisitante(0, 0));
+        Time mandante2 = times.get(circulo.getMandante(0, 1));
+        Time visitante2 = times.get(circulo.getVisitante(0, 1));
+        OtimizadorTabela otimizador = new OtimizadorTabela(times, pool);
+        otimizador.fixarData(mandante1, visitante1, 2);
+        otimizador.fixarData(mandante2, visitante2, 5);
+
+        TabelaOtimizada tabela = otimizador.otimizar(5000, 50000, 3);
+        assertEquals("Os dois confrontos deveriam ir para rodadas diferentes", 0, tabela.getViolacoes());
+
+        Campeonato campeonato = jogarTemporada(tabela);
+        assertTrue(campeonato.semDuplicidadeConfrontos());
+        assertEquals(visitante1, campeonato.getRodadas().get(1).buscarPartidaDoMandante(mandante1).getVisitante());
+        assertEquals(visitante2, campeonato.getRodadas().get(4).buscarPartidaDoMandante(mandante2).getVisitante());
+    }
+
+    @Test
+    public void testRestricoesContraditoriasSaoInformadas() {
+        OtimizadorTabela otimizador = new OtimizadorTabela(times, pool);
+        otimizador.fixarData(times.get(0), times.get(1), 2);
+        otimizador.fixarData(times.get(0), times.get(1), 3);
+
+        TabelaOtimizada tabela = otimizador.otimizar(500, 5000, 5);
+        assertEquals(1, tabela.getViolacoes());
+        assertTrue(tabela.getPenalidade() >= OtimizadorTabela.PESO_RESTRICAO);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTabelaDeOutroTamanhoEhRejeitada() {
+        TabelaOtimizada tabela = new OtimizadorTabela(times.subList(0, 10), pool).otimizar(100, 100, 1);
+        new Campeonato(times, null, tabela);
+    }
+}
@@ -0,0 +1,234 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica a atualização incremental dos ratings, o recálculo em lote e as previsões.
+ */
+public class TestRatingElo {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private static final double DELTA = 1e-9;
+
+    private List<Time> criarTimes(RegistroTimes registro, int quantidade) {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            times.add(new Time("Time " + i, registro));
+        }
+        return times;
+    }
+
+    @Test
+    public void testVitoriaTransfereRating() {
+        List<Time> times = criarTimes(new RegistroTimes(), 4);
+        Campeonato campeonato = new Campeonato(times);
+        RatingElo elo = new RatingElo();
+        campeonato.atualizarRatingsEm(elo);
+
+        Time a = times.get(0);
+        Time b = times.get(1);
+        new Partida(a, b).registrarResultado(1, 0);
+        assertTrue(elo.getRating(a) > RatingElo.RATING_INICIAL);
+        assertEquals(2 * RatingElo.RATING_INICIAL, elo.getRating(a) + elo.getRating(b), DELTA);
+        // Com o mando, o mandante era favorito: ganha menos que K/2
+        assertTrue(elo.getRating(a) - RatingElo.RATING_INICIAL < RatingElo.FATOR_K_PADRAO / 2);
+
+        // Empate entre iguais: o mandante, favorito, perde rating
+        Time c = times.get(2);
+        Time d = times.get(3);
+        new Partida(c, d).registrarResultado(2, 2);
+        assertTrue(elo.getRating(c) < RatingElo.RATING_INICIAL);
+        assertEquals(RatingElo.RATING_INICIAL, elo.getRating(new Time("Sem jogos")), DELTA);
+    }
+
+    @Test
+    public void testGoleadaValeMais() {
+        List<Time> times = criarTimes(new RegistroTimes(), 4);
+        Campeonato campeonato = new Campeonato(times);
+        RatingElo elo = new RatingElo();
+        campeonato.atualizarRatingsEm(elo);
+
+        new Partida(times.get(0), times.get(1)).registrarResultado(1, 0);
+        new Partida(times.get(2), times.get(3)).registrarResultado(4, 0);
+        double porUmGol = elo.getRating(times.get(0)) - RatingElo.RATING_INICIAL;
+        double porQuatro = elo.getRating(times.get(2)) - RatingElo.RATING_INICIAL;
+        assertEquals(15.0 / 8.0, porQuatro / porUmGol, DELTA);
+    }
+
+    @Test
+    public void testDesfazerECorrigirRetiramOAjuste() {
+        List<Time> times = criarTimes(new RegistroTimes(), 4);
+        Campeonato campeonato = new Campeonato(times);
+        RatingElo elo = new RatingElo();
+        campeonato.atualizarRatingsEm(elo);
+
+        Partida primeira = new Partida(times.get(0), times.get(1));
+        primeira.registrarResultado(3, 0);
+        new Partida(times.get(1), times.get(2)).registrarResultado(1, 1);
+        double[] antes = elo.getRatings();
+
+        Partida partida = new Partida(times.get(2), times.get(3));
+        partida.registrarResultado(0, 2);
+        partida.desfazerResultado();
+        assertArrayEquals(antes, elo.getRatings(), DELTA);
+
+        partida.registrarResultado(0, 2);
+        double[] comResultado = elo.getRatings();
+        partida.corrigirResultado(1, 0);
+        partida.corrigirResultado(0, 2);
+        assertArrayEquals(comResultado, elo.getRatings(), DELTA);
+    }
+
+    @Test
+    public void testPrevisao() {
+        List<Time> times = criarTimes(new RegistroTimes(), 2);
+        Time a = times.get(0);
+        Time b = times.get(1);
+
+        PrevisaoPartida semMando = new RatingElo(20, 0).prever(a, b);
+        assertEquals(semMando.getVitoriaMandante(), semMando.getVitoriaVisitante(), DELTA);
+        assertEquals(RatingElo.FATOR_EMPATE / (2 + RatingElo.FATOR_EMPATE), semMando.getEmpate(), DELTA);
+
+        RatingElo elo = new RatingElo();
+        PrevisaoPartida previsao = elo.prever(a, b);
+        assertTrue(previsao.getVitoriaMandante() > previsao.getVitoriaVisitante());
+        assertEquals(1.0, previsao.getVitoriaMandante() + previsao.getEmpate()
+                          + previsao.getVitoriaVisitante(), DELTA);
+
+        // Depois de várias vitórias de B, o favorito passa a ser o visitante
+        for (int i = 0; i < 10; i++) {
+            elo.resultadoRegistrado(partidaComResultado(b, a, 2, 0));
+        }
+        PrevisaoPartida depois = elo.prever(a, b);
+        assertTrue(depois.getVitoriaVisitante() > depois.getVitoriaMandante());
+        assertTrue(depois.getPontosEsperadosMandante() < previsao.getPontosEsperadosMandante());
+    }
+
+    private static Partida partidaComResultado(Time mandante, Time visitante, int golsMandante, int golsVisitante) {
+        Partida partida = new Partida(mandante, visitante);
+        partida.restaurarResultado(golsMandante, golsVisitante);
+        return partida;
+    }
+
+    @Test
+    public void testRecalculoEmLoteIgualAoIncremental() throws IOException {
+        RegistroTimes registro = new RegistroTimes();
+        RatingElo incremental = new RatingElo();
+        List<Path> temporadas = new ArrayList<>();
+        Random random = new Random(5);
+        for (int ano = 0; ano < 4; ano++) {
+            // Cada temporada tem times novos (mesmo registro), e o rebaixado dá lugar a outro
+            List<Time> times = criarTimes(registro, 9);
+            times.remove(ano);
+            Campeonato campeonato = new Campeonato(times);
+            campeonato.atualizarRatingsEm(incremental);
+            Path arquivo = pasta.getRoot().toPath().resolve("temporada" + ano + ".log");
+            temporadas.add(arquivo);
+            try (LogEventos log = new LogEventos(arquivo)) {
+                campeonato.registrarEventosEm(log);
+                for (int r = 0; r < campeonato.getNumeroRodadas(); r++) {
+                    for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                        partida.registrarResultado(random.nextInt(4), random.nextInt(3));
+                    }
+                }
+            }
+        }
+
+        RatingElo lote = RatingElo.recalcular(temporadas, RatingElo.FATOR_K_PADRAO,
+                                              RatingElo.VANTAGEM_MANDO_PADRAO, 3);
+        assertArrayEquals(incremental.getRatings(), lote.getRatings(), DELTA);
+    }
+
+    /**
+     * Joga uma temporada inteira com placares sorteados pela semente, gravando o log.
+     */
+    private Path jogarTemporada(List<Time> times, long semente, String nome, RatingElo ratings) throws IOException {
+        Campeonato campeonato = new Campeonato(times);
+        if (ratings != null) {
+            campeonato.atualizarRatingsEm(ratings);
+        }
+        Random random = new Random(semente);
+        Path arquivo = pasta.getRoot().toPath().resolve(nome);
+        try (LogEventos log = new LogEventos(arquivo)) {
+            campeonato.registrarEventosEm(log);
+            for (int r = 0; r < campeonato.getNumeroRodadas(); r++) {
+                for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                    partida.registrarResultado(random.nextInt(4), random.nextInt(3));
+                }
+            }
+        }
+        return arquivo;
+    }
+
+    /**
+     * Logs das mesmas temporadas gravados com registros em que os times têm outros ids.
+     */
+    private List<Path> temporadasComRegistrosProprios() throws IOException {
+        List<Path> temporadas = new ArrayList<>();
+        for (int ano = 0; ano < 3; ano++) {
+            RegistroTimes proprio = new RegistroTimes();
+            for (int k = 0; k < 2 * ano + 1; k++) {
+                proprio.registrar("Outro " + k);
+            }
+            temporadas.add(jogarTemporada(criarTimes(proprio, 6), ano, "proprio" + ano + ".log", null));
+        }
+        return temporadas;
+    }
+
+    @Test
+    public void testRecalculoCasaRegistrosDiferentesPeloNome() throws IOException {
+        RegistroTimes comum = new RegistroTimes();
+        RatingElo incremental = new RatingElo();
+        for (int ano = 0; ano < 3; ano++) {
+            jogarTemporada(criarTimes(comum, 6), ano, "comum" + ano + ".log", incremental);
+        }
+
+        RegistroTimes destino = new RegistroTimes();
+        destino.registrar("Outro 9");
+        RatingElo lote = RatingElo.recalcular(temporadasComRegistrosProprios(), destino);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(incremental.getRating(comum.buscarId("Time " + i)),
+                         lote.getRating(destino.buscarId("Time " + i)), DELTA);
+        }
+        assertEquals(RatingElo.RATING_INICIAL, lote.getRating(destino.buscarId("Outro 9")), DELTA);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRecalculoPorIdRejeitaRegistrosDiferentes() throws IOException {
+        RatingElo.recalcular(temporadasComRegistrosProprios());
+    }
+
+    @Test
+    public void testRecalculoIgnoraResultadosAnulados() throws IOException {
+        List<Time> times = criarTimes(new RegistroTimes(), 4);
+        Campeonato campeonato = new Campeonato(times);
+        Path arquivo = pasta.getRoot().toPath().resolve("anulado.log");
+        try (LogEventos log = new LogEventos(arquivo)) {
+            campeonato.registrarEventosEm(log);
+            Rodada rodada = campeonato.sortearRodada();
+            rodada.getPartidas().get(0).registrarResultado(5, 0);
+            rodada.getPartidas().get(0).corrigirResultado(0, 0);
+            rodada.getPartidas().get(1).registrarResultado(1, 0);
+            rodada.getPartidas().get(1).desfazerResultado();
+        }
+
+        RatingElo lote = RatingElo.recalcular(Collections.singletonList(arquivo));
+        RatingElo esperado = new RatingElo();
+        esperado.resultadoRegistrado(partidaComResultado(
+                campeonato.getRodadas().get(0).getPartidas().get(0).getMandante(),
+                campeonato.getRodadas().get(0).getPartidas().get(0).getVisitante(), 0, 0));
+        assertArrayEquals(esperado.getRatings(), lote.getRatings(), DELTA);
+    }
+}
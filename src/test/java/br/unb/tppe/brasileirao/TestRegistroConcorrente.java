@@ -0,0 +1,124 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifica o registro de resultados com várias threads escrevendo ao mesmo tempo.
+ */
+public class TestRegistroConcorrente {
+
+    private static final int THREADS = 4;
+    private static final int PARTIDAS_POR_THREAD = 5000;
+
+    private List<Time> criarTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        return times;
+    }
+
+    private void registrarEmParalelo(final List<Time> times) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final Random random = new Random(t);
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < PARTIDAS_POR_THREAD; i++) {
+                        int mandante = random.nextInt(times.size());
+                        int visitante = (mandante + 1 + random.nextInt(times.size() - 1)) % times.size();
+                        Partida partida = new Partida(times.get(mandante), times.get(visitante));
+                        partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void verificarTotais(List<Time> times) {
+        int jogos = 0;
+        int golsMarcados = 0;
+        int golsSofridos = 0;
+        for (Time time : times) {
+            jogos += time.getJogos();
+            golsMarcados += time.getGolsMarcados();
+            golsSofridos += time.getGolsSofridos();
+            assertEquals("Pontos e resultados de " + time.getNome() + " deveriam bater",
+                        3 * time.getVitorias() + time.getEmpates(), time.getPontos());
+        }
+        assertEquals("Nenhum resultado deveria se perder", 2 * THREADS * PARTIDAS_POR_THREAD, jogos);
+        assertEquals(golsMarcados, golsSofridos);
+    }
+
+    @Test
+    public void testRegistroConcorrenteSemPerdas() throws InterruptedException {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times);
+
+        registrarEmParalelo(times);
+
+        verificarTotais(times);
+        List<Time> esperada = new ArrayList<>(times);
+        Collections.sort(esperada, new ComparadorClassificacao());
+        assertEquals("A classificação deveria refletir todos os resultados",
+                    esperada, campeonato.getClassificacao());
+    }
+
+    @Test
+    public void testRegistroConcorrenteComColunas() throws InterruptedException {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times, new EstatisticasColunares(times.size()));
+
+        registrarEmParalelo(times);
+
+        verificarTotais(times);
+        List<Time> esperada = new ArrayList<>(times);
+        Collections.sort(esperada, new ComparadorClassificacao());
+        assertEquals(esperada, campeonato.getClassificacao());
+    }
+
+    @Test
+    public void testLeituraConsistenteDuranteEscritas() throws InterruptedException {
+        final List<Time> times = criarTimes();
+        new Campeonato(times, new EstatisticasColunares(times.size()));
+        final AtomicBoolean escrevendo = new AtomicBoolean(true);
+        final AtomicBoolean inconsistente = new AtomicBoolean(false);
+
+        Thread leitor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int[] leitura = new int[EstatisticasColunares.NUMERO_ESTATISTICAS];
+                while (escrevendo.get()) {
+                    for (Time time : times) {
+                        time.lerEstatisticas(leitura);
+                        int esperado = 3 * leitura[EstatisticasColunares.VITORIAS]
+                                     + leitura[EstatisticasColunares.EMPATES];
+                        if (leitura[EstatisticasColunares.PONTOS] != esperado) {
+                            inconsistente.set(true);
+                        }
+                    }
+                }
+            }
+        });
+        leitor.start();
+        registrarEmParalelo(times);
+        escrevendo.set(false);
+        leitor.join();
+
+        assertFalse("O leitor nunca deveria ver pontos e vitórias divergentes", inconsistente.get());
+    }
+}
@@ -0,0 +1,159 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica os ids emitidos pelo registro de times e as buscas por nome e por id.
+ */
+public class TestRegistroTimes {
+
+    private List<Time> times;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        times.add(new Time("Flamengo"));
+        times.add(new Time("Palmeiras"));
+        times.add(new Time("São Paulo"));
+        times.add(new Time("Corinthians"));
+        campeonato = new Campeonato(times);
+    }
+
+    @Test
+    public void testIdsDensos() {
+        for (int i = 0; i < times.size(); i++) {
+            assertEquals("Os ids deveriam seguir a ordem de registro", i, times.get(i).getId());
+        }
+        assertEquals(4, campeonato.getRegistro().getQuantidade());
+    }
+
+    @Test
+    public void testBuscarTimePorNomeEPorId() {
+        Time palmeiras = times.get(1);
+        assertSame(palmeiras, campeonato.buscarTime("Palmeiras"));
+        assertSame(palmeiras, campeonato.buscarTime(palmeiras.getId()));
+        assertNull(campeonato.buscarTime("Vasco"));
+        assertNull(campeonato.buscarTime(99));
+    }
+
+    @Test
+    public void testRegistrarMesmoNomeRetornaMesmoId() {
+        RegistroTimes registro = new RegistroTimes();
+        int id = registro.registrar("Flamengo");
+        assertEquals(id, registro.registrar("Flamengo"));
+        assertEquals("Flamengo", registro.buscarNome(id));
+        assertEquals(Time.SEM_ID, registro.buscarId("Vasco"));
+    }
+
+    @Test
+    public void testRegistroConcorrente() throws InterruptedException {
+        RegistroTimes registro = new RegistroTimes();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    registro.registrar("Time " + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, registro.getQuantidade());
+        for (int id = 0; id < 1000; id++) {
+            assertEquals(id, registro.buscarId(registro.buscarNome(id)));
+        }
+    }
+
+    @Test
+    public void testIgualdadePorIdNoMesmoRegistro() {
+        RegistroTimes registro = campeonato.getRegistro();
+        Time outroFlamengo = new Time("Flamengo", registro);
+
+        assertEquals(times.get(0).getId(), outroFlamengo.getId());
+        assertEquals(times.get(0), outroFlamengo);
+        assertNotEquals(times.get(1), outroFlamengo);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeDuplicadoNoCampeonato() {
+        times.add(new Time("Flamengo"));
+        times.add(new Time("Vasco"));
+        new Campeonato(times);
+    }
+
+    @Test
+    public void testIndicesDaLigaNaoDependemDoRegistro() {
+        RegistroTimes registro = new RegistroTimes();
+        for (int i = 0; i < 100000; i++) {
+            registro.registrar("Outro " + i);
+        }
+        List<Time> liga = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            liga.add(new Time("Liga " + i, registro));
+        }
+        Campeonato pequeno = new Campeonato(liga);
+        for (int i = 0; i < liga.size(); i++) {
+            assertEquals(i, liga.get(i).getIndice());
+            assertSame(liga.get(i), pequeno.buscarTime(liga.get(i).getId()));
+        }
+        assertNull(pequeno.buscarTime(0));
+
+        Rodada rodada = pequeno.sortearRodada();
+        rodada.getPartidas().get(0).registrarResultado(2, 0);
+        Time vencedor = rodada.getPartidas().get(0).getMandante();
+        assertTrue(rodada.contemTime(vencedor));
+        assertEquals(3, pequeno.getVersao().getPontos(vencedor));
+        assertEquals(3, pequeno.getRetratoRodada(1).getPontos(vencedor));
+        assertEquals(1, pequeno.getPosicao(vencedor));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeEmDoisCampeonatos() {
+        new Campeonato(times);
+    }
+
+    @Test
+    public void testCampeonatoRecusadoNaoRegistraOsTimes() {
+        RegistroTimes registro = new RegistroTimes();
+        List<Time> impares = new ArrayList<>();
+        impares.add(new Time("Vasco", registro));
+        impares.add(new Time("Botafogo"));
+        impares.add(new Time("Fluminense"));
+        try {
+            new Campeonato(impares);
+            fail("Um número ímpar de times deveria ser recusado");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+        assertEquals(1, registro.getQuantidade());
+        assertEquals(Time.SEM_ID, impares.get(1).getId());
+        assertNull(impares.get(0).getCampeonato());
+    }
+
+    @Test
+    public void testBuscaPorIdEmLigaDeRegistroCompartilhado() {
+        RegistroTimes registro = new RegistroTimes();
+        for (int i = 0; i < 1000; i++) {
+            registro.registrar("Clube " + i);
+        }
+        List<Time> liga = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            liga.add(new Time("Clube " + (i * 25), registro));
+        }
+        Campeonato campeonato = new Campeonato(liga);
+        for (Time time : liga) {
+            assertSame(time, campeonato.buscarTime(time.getId()));
+        }
+        assertNull(campeonato.buscarTime(1));
+        assertNull(campeonato.buscarTime(Time.SEM_ID));
+    }
+}
@@ -0,0 +1,111 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica a escrita da classificação e das rodadas em texto, CSV e JSON.
+ */
+public class TestRenderizador {
+
+    private Time flamengo;
+    private Time palmeiras;
+    private Time saopaulo;
+    private Time corinthians;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        flamengo = new Time("Flamengo");
+        palmeiras = new Time("Palmeiras");
+        saopaulo = new Time("São Paulo");
+        corinthians = new Time("Corinthians, \"Timão\"");
+
+        List<Time> times = new ArrayList<>();
+        times.add(flamengo);
+        times.add(palmeiras);
+        times.add(saopaulo);
+        times.add(corinthians);
+        campeonato = new Campeonato(times);
+    }
+
+    @Test
+    public void testTextoIgualAoFormatoAnterior() throws IOException {
+        new Partida(flamengo, palmeiras).registrarResultado(12, 0);
+        new Partida(saopaulo, corinthians).registrarResultado(0, 3);
+
+        StringBuilder saida = new StringBuilder();
+        new Renderizador(Renderizador.Formato.TEXTO).escreverClassificacao(campeonato.getClassificacao(), saida);
+
+        StringBuilder esperado = new StringBuilder();
+        esperado.append("Pos | Time                | P  | V  | E  | D  | GM | GS | SG\n");
+        esperado.append("--------------------------------------------------------------------\n");
+        List<Time> classificacao = campeonato.getClassificacao();
+        for (int i = 0; i < classificacao.size(); i++) {
+            Time time = classificacao.get(i);
+            esperado.append(String.format("%2d  | %-19s | %2d | %2d | %2d | %2d | %2d | %2d | %+3d\n",
+                    i + 1, time.getNome(), time.getPontos(), time.getVitorias(),
+                    time.getEmpates(), time.getDerrotas(), time.getGolsMarcados(),
+                    time.getGolsSofridos(), time.getSaldoGols()));
+        }
+        assertEquals(esperado.toString(), saida.toString());
+    }
+
+    @Test
+    public void testToStringDePartidaERodada() {
+        Rodada rodada = campeonato.sortearRodada();
+        Partida partida = rodada.getPartidas().get(0);
+        String mandante = partida.getMandante().getNome();
+        String visitante = partida.getVisitante().getNome();
+
+        assertEquals(mandante + " x " + visitante, partida.toString());
+        partida.registrarResultado(2, 1);
+        assertEquals(mandante + " 2 x 1 " + visitante, partida.toString());
+        assertTrue(rodada.toString().startsWith("Rodada 1:\n  " + mandante + " 2 x 1 " + visitante + "\n"));
+    }
+
+    @Test
+    public void testCsvDaClassificacaoEscapaNomes() throws IOException {
+        new Partida(corinthians, flamengo).registrarResultado(1, 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new Renderizador(Renderizador.Formato.CSV).escreverClassificacao(campeonato.getClassificacao(), bytes);
+        String[] linhas = new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n");
+
+        assertEquals("posicao,time,pontos,vitorias,empates,derrotas,gols_marcados,gols_sofridos,saldo_gols", linhas[0]);
+        assertEquals("1,\"Corinthians, \"\"Timão\"\"\",3,1,0,0,1,0,1", linhas[1]);
+        assertEquals(5, linhas.length);
+    }
+
+    @Test
+    public void testJsonDasRodadas() throws IOException {
+        Rodada rodada = campeonato.sortearRodada();
+        Partida primeira = rodada.getPartidas().get(0);
+        primeira.registrarResultado(3, 2);
+
+        StringBuilder saida = new StringBuilder();
+        new Renderizador(Renderizador.Formato.JSON).escreverRodadas(campeonato.getRodadas(), saida);
+        String json = saida.toString();
+
+        assertTrue(json.startsWith("[{\"rodada\":1,\"partidas\":[{\"mandante\":"));
+        assertTrue(json.contains("\"golsMandante\":3,\"golsVisitante\":2}"));
+        assertTrue(json.contains("\"golsMandante\":null,\"golsVisitante\":null}"));
+        assertTrue(json.endsWith("]}]\n"));
+    }
+
+    @Test
+    public void testJsonDaClassificacaoEscapaAspas() throws IOException {
+        StringBuilder saida = new StringBuilder();
+        new Renderizador(Renderizador.Formato.JSON).escreverClassificacao(campeonato.getClassificacao(), saida);
+
+        assertTrue(saida.toString().contains("\"time\":\"Corinthians, \\\"Timão\\\"\""));
+        assertTrue(saida.toString().contains("\"saldoGols\":0}"));
+    }
+}
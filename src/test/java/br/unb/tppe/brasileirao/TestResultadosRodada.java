@@ -0,0 +1,255 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica o registro em lote dos resultados de uma rodada inteira.
+ */
+public class TestResultadosRodada {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    private List<Time> criarTimes() {
+        List<Time> times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        return times;
+    }
+
+    /**
+     * Conta as notificações recebidas, uma a uma e em lote.
+     */
+    private static class OuvinteContador implements OuvinteResultados {
+        int individuais;
+        int lotes;
+        int partidasEmLote;
+        int desfeitosIndividuais;
+        int lotesDesfeitos;
+
+        @Override
+        public void resultadoRegistrado(Partida partida) {
+            individuais++;
+        }
+
+        @Override
+        public void resultadosRegistrados(List<Partida> partidas) {
+            lotes++;
+            partidasEmLote += partidas.size();
+        }
+
+        @Override
+        public void resultadoDesfeito(Partida partida, int golsMandante, int golsVisitante) {
+            desfeitosIndividuais++;
+        }
+
+        @Override
+        public void resultadosDesfeitos(List<Partida> partidas, int[] golsMandante, int[] golsVisitante) {
+            lotesDesfeitos++;
+        }
+    }
+
+    private void assertMesmoEstado(Campeonato esperado, Campeonato obtido) {
+        List<Time> a = esperado.getClassificacao();
+        List<Time> b = obtido.getClassificacao();
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getNome(), b.get(i).getNome());
+            assertEquals(a.get(i).getPontos(), b.get(i).getPontos());
+            assertEquals(a.get(i).getSaldoGols(), b.get(i).getSaldoGols());
+            assertEquals(a.get(i).getPontos(), obtido.getVersao().getPontos(b.get(i)));
+        }
+        List<Time> versaoA = esperado.getVersao().getClassificacao();
+        List<Time> versaoB = obtido.getVersao().getClassificacao();
+        for (int i = 0; i < versaoA.size(); i++) {
+            assertEquals(versaoA.get(i).getNome(), versaoB.get(i).getNome());
+        }
+        for (int r = 1; r <= obtido.getRodadaAtual(); r++) {
+            List<Time> retratoA = esperado.getRetratoRodada(r).getClassificacao();
+            List<Time> retratoB = obtido.getRetratoRodada(r).getClassificacao();
+            for (int i = 0; i < retratoA.size(); i++) {
+                assertEquals(retratoA.get(i).getNome(), retratoB.get(i).getNome());
+            }
+        }
+    }
+
+    @Test
+    public void testLoteIgualAoRegistroPartidaAPartida() {
+        Campeonato individual = new Campeonato(criarTimes());
+        Campeonato lote = new Campeonato(criarTimes());
+        Random random = new Random(21);
+        for (int r = 0; r < 38; r++) {
+            Rodada rodadaIndividual = individual.sortearRodada();
+            Rodada rodadaLote = lote.sortearRodada();
+            int[] golsMandante = new int[10];
+            int[] golsVisitante = new int[10];
+            for (int i = 0; i < 10; i++) {
+                golsMandante[i] = random.nextInt(4);
+                golsVisitante[i] = random.nextInt(3);
+                rodadaIndividual.getPartidas().get(i).registrarResultado(golsMandante[i], golsVisitante[i]);
+            }
+            rodadaLote.registrarResultados(golsMandante, golsVisitante);
+        }
+        assertMesmoEstado(individual, lote);
+        assertTrue(lote.semDuplicidadeConfrontos());
+    }
+
+    @Test
+    public void testUmaNotificacaoEUmaVersaoPorRodada() {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times);
+        OuvinteContador todos = new OuvinteContador();
+        for (Time time : times) {
+            time.adicionarOuvinte(todos);
+        }
+        OuvinteContador umTime = new OuvinteContador();
+        times.get(0).adicionarOuvinte(umTime);
+
+        Rodada rodada = campeonato.sortearRodada();
+        long versaoAntes = campeonato.getVersao().getNumero();
+        rodada.registrarResultados(new int[10], new int[10]);
+
+        assertEquals(0, todos.individuais);
+        assertEquals(1, todos.lotes);
+        assertEquals(10, todos.partidasEmLote);
+        assertEquals(1, umTime.lotes);
+        assertEquals(1, umTime.partidasEmLote);
+        assertEquals(versaoAntes + 1, campeonato.getVersao().getNumero());
+        for (Time time : times) {
+            assertEquals(1, time.getEmpates());
+        }
+    }
+
+    @Test
+    public void testOuvintePadraoRecebeCadaPartida() {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times);
+        List<Partida> recebidas = new ArrayList<>();
+        for (Time time : times) {
+            time.adicionarOuvinte(recebidas::add);
+        }
+        Rodada rodada = campeonato.sortearRodada();
+        rodada.registrarResultados(new int[10], new int[10]);
+        // Cada time tem o próprio ouvinte: o mandante e o visitante avisam um cada
+        assertEquals(20, recebidas.size());
+    }
+
+    @Test
+    public void testLoteSubstituiResultadosAnteriores() {
+        Campeonato campeonato = new Campeonato(criarTimes());
+        Rodada rodada = campeonato.sortearRodada();
+        int[] vitoriasDoMandante = new int[10];
+        Arrays.fill(vitoriasDoMandante, 2);
+        rodada.registrarResultados(vitoriasDoMandante, new int[10]);
+        rodada.registrarResultados(new int[10], vitoriasDoMandante);
+
+        for (Partida partida : rodada.getPartidas()) {
+            assertEquals(0, partida.getMandante().getPontos());
+            assertEquals(3, partida.getVisitante().getPontos());
+            assertEquals(Integer.valueOf(2), partida.getGolsVisitante());
+        }
+        assertEquals(3, campeonato.getVersao().getPontos(rodada.getPartidas().get(0).getVisitante()));
+        assertEquals(3, campeonato.getRetratoRodada(1).getPontos(rodada.getPartidas().get(0).getVisitante()));
+    }
+
+    @Test
+    public void testSubstituicaoEmLoteNotificaUmaVez() {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times);
+        OuvinteContador todos = new OuvinteContador();
+        for (Time time : times) {
+            time.adicionarOuvinte(todos);
+        }
+        Rodada rodada = campeonato.sortearRodada();
+        rodada.registrarResultados(new int[10], new int[10]);
+        long versaoAntes = campeonato.getVersao().getNumero();
+        int[] vitoriasDoMandante = new int[10];
+        Arrays.fill(vitoriasDoMandante, 1);
+        rodada.registrarResultados(vitoriasDoMandante, new int[10]);
+
+        assertEquals(0, todos.desfeitosIndividuais);
+        assertEquals(1, todos.lotesDesfeitos);
+        assertEquals(2, todos.lotes);
+        // Uma versão sem os placares antigos e outra com os novos
+        assertEquals(versaoAntes + 2, campeonato.getVersao().getNumero());
+        Time mandante = rodada.getPartidas().get(0).getMandante();
+        assertEquals(3, campeonato.getVersao().getPontos(mandante));
+        assertEquals(3, mandante.getPontos());
+    }
+
+    /**
+     * Ouvintes diferentes que se consideram iguais precisam ser avisados cada um.
+     */
+    private static class OuvinteIgualATodos extends OuvinteContador {
+        @Override
+        public boolean equals(Object outro) {
+            return outro instanceof OuvinteIgualATodos;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    @Test
+    public void testOuvintesDistinguidosPorIdentidade() {
+        List<Time> times = criarTimes();
+        Campeonato campeonato = new Campeonato(times);
+        OuvinteIgualATodos primeiro = new OuvinteIgualATodos();
+        OuvinteIgualATodos segundo = new OuvinteIgualATodos();
+        for (Time time : times) {
+            time.adicionarOuvinte(primeiro);
+        }
+        times.get(0).adicionarOuvinte(segundo);
+
+        campeonato.sortearRodada().registrarResultados(new int[10], new int[10]);
+        assertEquals(10, primeiro.partidasEmLote);
+        assertEquals(1, segundo.partidasEmLote);
+    }
+
+    @Test
+    public void testLoteGravadoNoLog() throws IOException {
+        Path arquivo = pasta.getRoot().toPath().resolve("lote.log");
+        Campeonato campeonato = new Campeonato(criarTimes());
+        Random random = new Random(3);
+        try (LogEventos log = new LogEventos(arquivo)) {
+            campeonato.registrarEventosEm(log);
+            for (int r = 0; r < 10; r++) {
+                int[] golsMandante = new int[10];
+                int[] golsVisitante = new int[10];
+                for (int i = 0; i < 10; i++) {
+                    golsMandante[i] = random.nextInt(4);
+                    golsVisitante[i] = random.nextInt(4);
+                }
+                campeonato.sortearRodada().registrarResultados(golsMandante, golsVisitante);
+            }
+        }
+        assertMesmoEstado(campeonato, LogEventos.restaurar(criarTimes(), arquivo));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantidadeDePlacaresErrada() {
+        Campeonato campeonato = new Campeonato(criarTimes());
+        campeonato.sortearRodada().registrarResultados(new int[9], new int[10]);
+    }
+
+    @Test
+    public void testPartidaNaoRealizadaSemGols() {
+        Partida partida = new Partida(new Time("A"), new Time("B"));
+        assertNull(partida.getGolsMandante());
+        partida.registrarResultado(1, 0);
+        partida.desfazerResultado();
+        assertNull(partida.getGolsVisitante());
+    }
+}
@@ -0,0 +1,112 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica o simulador Monte Carlo das probabilidades de título, G4 e rebaixamento.
+ */
+public class TestSimuladorTemporada {
+
+    private static final double DELTA = 1e-9;
+
+    private Campeonato campeonato;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        campeonato = new Campeonato(times);
+    }
+
+    private void jogarRodadas(int quantidade) {
+        Random random = new Random(3);
+        for (int i = 0; i < quantidade; i++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(3));
+            }
+        }
+    }
+
+    @Test
+    public void testPartidasRestantes() {
+        jogarRodadas(10);
+        Rodada rodada = campeonato.sortearRodada();
+        rodada.getPartidas().get(0).registrarResultado(1, 0);
+
+        SimuladorTemporada simulador = new SimuladorTemporada(campeonato);
+        assertEquals("Deveriam faltar 9 jogos da rodada 11 e 27 rodadas inteiras",
+                    9 + 27 * 10, simulador.getPartidasRestantes());
+    }
+
+    @Test
+    public void testMesmaSementeMesmoResultado() {
+        jogarRodadas(30);
+        SimuladorTemporada simulador = new SimuladorTemporada(campeonato);
+
+        ResultadoSimulacao r1 = simulador.simular(5000, 42L);
+        ResultadoSimulacao r2 = simulador.simular(5000, 42L);
+        for (Time time : times) {
+            for (int posicao = 1; posicao <= 20; posicao++) {
+                assertEquals(r1.getProbabilidadePosicao(time, posicao),
+                            r2.getProbabilidadePosicao(time, posicao), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testProbabilidadesSomamUm() {
+        jogarRodadas(20);
+        ResultadoSimulacao resultado = new SimuladorTemporada(campeonato).simular(3000, 7L);
+
+        double somaTitulo = 0;
+        double somaRebaixamento = 0;
+        for (Time time : times) {
+            somaTitulo += resultado.getProbabilidadeTitulo(time);
+            somaRebaixamento += resultado.getProbabilidadeRebaixamento(time);
+            assertEquals(1.0, resultado.getProbabilidadeFaixa(time, 1, 20), DELTA);
+        }
+        assertEquals("Exatamente um campeão por simulação", 1.0, somaTitulo, DELTA);
+        assertEquals("Exatamente quatro rebaixados por simulação", 4.0, somaRebaixamento, DELTA);
+    }
+
+    @Test
+    public void testCampeonatoEncerradoTemResultadoCerto() {
+        jogarRodadas(38);
+        ResultadoSimulacao resultado = new SimuladorTemporada(campeonato).simular(100, 1L);
+
+        List<Time> classificacao = campeonato.getClassificacao();
+        assertEquals(1.0, resultado.getProbabilidadeTitulo(classificacao.get(0)), DELTA);
+        assertEquals(1.0, resultado.getProbabilidadeG4(classificacao.get(3)), DELTA);
+        assertEquals(0.0, resultado.getProbabilidadeG4(classificacao.get(4)), DELTA);
+        assertEquals(1.0, resultado.getProbabilidadeRebaixamento(classificacao.get(16)), DELTA);
+    }
+
+    @Test
+    public void testSimulacaoUsaConfrontoDireto() {
+        List<Time> quatro = new ArrayList<>();
+        for (String nome : new String[] {"A", "B", "C", "D"}) {
+            quatro.add(new Time(nome));
+        }
+        Campeonato turno = new Campeonato(quatro);
+        TestArquivoInstantaneo.jogarTurnoComEmpateDuplo(turno);
+        // Returno só com empates: A e B continuam iguais em tudo menos o confronto direto
+        for (int r = 0; r < 3; r++) {
+            for (Partida partida : turno.sortearRodada().getPartidas()) {
+                partida.registrarResultado(0, 0);
+            }
+        }
+        ResultadoSimulacao resultado = new SimuladorTemporada(turno).simular(10, 1L);
+        assertEquals("B", turno.getClassificacao().get(1).getNome());
+        assertEquals(1.0, resultado.getProbabilidadePosicao(quatro.get(1), 2), DELTA);
+        assertEquals(1.0, resultado.getProbabilidadePosicao(quatro.get(0), 3), DELTA);
+    }
+}
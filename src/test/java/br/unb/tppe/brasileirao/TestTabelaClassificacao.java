@@ -0,0 +1,94 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Verifica se o índice de classificação mantido incrementalmente
+ * fica igual a uma ordenação completa após cada resultado.
+ */
+public class TestTabelaClassificacao {
+
+    private Campeonato campeonato;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        campeonato = new Campeonato(times);
+    }
+
+    private List<Time> ordenacaoCompleta() {
+        List<Time> esperada = new ArrayList<>(times);
+        Collections.sort(esperada, new ComparadorClassificacao());
+        return esperada;
+    }
+
+    @Test
+    public void testClassificacaoInicialOrdenada() {
+        assertEquals("Sem jogos, a tabela deveria seguir o comparador",
+                    ordenacaoCompleta(), campeonato.getClassificacao());
+    }
+
+    @Test
+    public void testIndiceIgualOrdenacaoCompletaAposCadaResultado() {
+        Random random = new Random(7);
+        for (int r = 0; r < 19; r++) {
+            Rodada rodada = campeonato.sortearRodada();
+            for (Partida partida : rodada.getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                assertEquals("Índice divergiu na rodada " + (r + 1),
+                            ordenacaoCompleta(), campeonato.getClassificacao());
+            }
+        }
+    }
+
+    @Test
+    public void testLotesPequenosIguaisOrdenacaoCompleta() {
+        // Tabela à parte, atualizada só pelos lotes; um jogo por lote fica abaixo do limite
+        TabelaClassificacao tabela = new TabelaClassificacao(times);
+        Random random = new Random(11);
+        for (int r = 0; r < 5; r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                tabela.resultadosRegistrados(Collections.singletonList(partida));
+                assertEquals(ordenacaoCompleta(), tabela.getClassificacao());
+            }
+        }
+        Partida primeira = campeonato.getRodadas().get(0).getPartidas().get(0);
+        int golsMandante = primeira.getGolsMandante();
+        int golsVisitante = primeira.getGolsVisitante();
+        primeira.desfazerResultado();
+        tabela.resultadosDesfeitos(Collections.singletonList(primeira), new int[] {golsMandante},
+                                   new int[] {golsVisitante});
+        assertEquals(ordenacaoCompleta(), tabela.getClassificacao());
+    }
+
+    @Test
+    public void testPartidaAvulsaAtualizaIndice() {
+        Time ultimo = campeonato.getClassificacao().get(19);
+        Partida partida = new Partida(ultimo, times.get(0));
+        partida.registrarResultado(5, 0);
+
+        assertEquals("O vencedor deveria assumir a liderança",
+                    ultimo, campeonato.getClassificacao().get(0));
+    }
+
+    @Test
+    public void testConsultaNaoExpoeEstadoInterno() {
+        List<Time> classificacao = campeonato.getClassificacao();
+        classificacao.clear();
+
+        assertEquals("Alterar a lista retornada não deveria afetar a tabela",
+                    20, campeonato.getClassificacao().size());
+    }
+}
@@ -0,0 +1,100 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica a tabela round-robin calculada sob demanda,
+ * com turno e returno completos.
+ */
+public class TestTabelaRoundRobin {
+
+    private Campeonato campeonato;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        campeonato = new Campeonato(times);
+    }
+
+    @Test
+    public void testCampeonatoTem38Rodadas() {
+        assertEquals("Com 20 times deveria haver 38 rodadas", 38, campeonato.getNumeroRodadas());
+    }
+
+    @Test
+    public void testTemporadaCompletaSemDuplicidade() {
+        for (int i = 0; i < 38; i++) {
+            Rodada rodada = campeonato.sortearRodada();
+            assertFalse("Rodada " + (i + 1) + " não deveria ter repetição de times",
+                       rodada.temRepeticaoTimes());
+            assertTrue("Rodada " + (i + 1) + " deveria ter todos os times",
+                      rodada.todosTimes(times));
+        }
+
+        assertTrue("Não deveria haver confrontos duplicados na temporada",
+                  campeonato.semDuplicidadeConfrontos());
+    }
+
+    @Test
+    public void testCadaTimeRecebeTodosOsOutros() {
+        for (int i = 0; i < 38; i++) {
+            campeonato.sortearRodada();
+        }
+
+        for (Time mandante : times) {
+            for (Time visitante : times) {
+                if (mandante != visitante) {
+                    assertTrue(mandante.getNome() + " deveria receber " + visitante.getNome(),
+                              campeonato.jaRecebeu(mandante, visitante));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReturnoInverteMandoDoTurno() {
+        TabelaRoundRobin tabela = new TabelaRoundRobin(times);
+        for (int rodada = 0; rodada < 19; rodada++) {
+            for (int jogo = 0; jogo < 10; jogo++) {
+                assertEquals(tabela.getMandante(rodada, jogo), tabela.getVisitante(rodada + 19, jogo));
+                assertEquals(tabela.getVisitante(rodada, jogo), tabela.getMandante(rodada + 19, jogo));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNaoSorteiaAlemDoReturno() {
+        for (int i = 0; i < 39; i++) {
+            campeonato.sortearRodada();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNumeroImparDeTimes() {
+        times.remove(0);
+        new Campeonato(times);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTabelaDeOutrosTimes() {
+        List<Time> outros = new ArrayList<>();
+        for (Time time : times) {
+            outros.add(new Time(time.getNome()));
+        }
+        new Campeonato(times, null, new TabelaRoundRobin(outros));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testListaVaziaDeTimes() {
+        new TabelaRoundRobin(new ArrayList<>());
+    }
+}
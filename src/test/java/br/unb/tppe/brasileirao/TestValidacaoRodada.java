@@ -0,0 +1,99 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifica os validadores da rodada baseados no bitset de ocupação.
+ */
+public class TestValidacaoRodada {
+
+    private RegistroTimes registro;
+    private List<Time> times;
+
+    @Before
+    public void setUp() {
+        registro = new RegistroTimes();
+        times = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            times.add(new Time("Time " + i, registro));
+        }
+    }
+
+    private Rodada rodadaCompleta() {
+        Rodada rodada = new Rodada(1);
+        for (int i = 0; i < times.size(); i += 2) {
+            rodada.adicionarPartida(new Partida(times.get(i), times.get(i + 1)));
+        }
+        return rodada;
+    }
+
+    @Test
+    public void testRodadaCompletaComIdsAltos() {
+        Rodada rodada = rodadaCompleta();
+
+        assertTrue(rodada.todosTimes(times));
+        assertFalse(rodada.temRepeticaoTimes());
+        assertTrue(rodada.contemTime(times.get(199)));
+        assertEquals(1, rodada.contarAparicoes(times.get(130)));
+        assertEquals(times.get(3), rodada.buscarPartidaDoMandante(times.get(2)).getVisitante());
+        assertNull(rodada.buscarPartidaDoMandante(times.get(3)));
+    }
+
+    @Test
+    public void testTimeAusente() {
+        Rodada rodada = new Rodada(1);
+        rodada.adicionarPartida(new Partida(times.get(0), times.get(1)));
+
+        assertFalse(rodada.contemTime(times.get(150)));
+        assertEquals(0, rodada.contarAparicoes(times.get(150)));
+        assertFalse(rodada.todosTimes(times));
+    }
+
+    @Test
+    public void testRepeticaoDetectadaAoAdicionar() {
+        Rodada rodada = new Rodada(1);
+        rodada.adicionarPartida(new Partida(times.get(0), times.get(1)));
+        rodada.adicionarPartida(new Partida(times.get(100), times.get(0)));
+        rodada.adicionarPartida(new Partida(times.get(0), times.get(2)));
+
+        assertTrue(rodada.temRepeticaoTimes());
+        assertEquals(3, rodada.contarAparicoes(times.get(0)));
+        assertEquals(1, rodada.contarAparicoes(times.get(100)));
+    }
+
+    @Test
+    public void testTimesSemRegistroUsamBuscaLinear() {
+        Time avulso = new Time("Avulso");
+        Time outroAvulso = new Time("Outro avulso");
+        Rodada rodada = new Rodada(1);
+        rodada.adicionarPartida(new Partida(times.get(0), times.get(1)));
+        rodada.adicionarPartida(new Partida(avulso, outroAvulso));
+
+        assertTrue(rodada.contemTime(avulso));
+        assertTrue(rodada.contemTime(times.get(1)));
+        assertFalse(rodada.temRepeticaoTimes());
+
+        rodada.adicionarPartida(new Partida(times.get(2), avulso));
+        assertTrue(rodada.temRepeticaoTimes());
+        assertEquals(2, rodada.contarAparicoes(avulso));
+    }
+
+    @Test
+    public void testRegistrosDiferentesUsamBuscaLinear() {
+        RegistroTimes outro = new RegistroTimes();
+        Time deOutroRegistro = new Time("Time 1", outro);
+        Rodada rodada = new Rodada(1);
+        rodada.adicionarPartida(new Partida(times.get(0), times.get(1)));
+
+        // Mesmo nome em outro registro: equals compara pelo nome
+        assertTrue(rodada.contemTime(deOutroRegistro));
+
+        rodada.adicionarPartida(new Partida(new Time("Time 0", outro), new Time("Time 9", outro)));
+        assertTrue(rodada.temRepeticaoTimes());
+    }
+}
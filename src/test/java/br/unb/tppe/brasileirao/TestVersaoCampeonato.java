@@ -0,0 +1,165 @@
+package br.unb.tppe.brasileirao;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifica as versões imutáveis do estado do campeonato.
+ */
+public class TestVersaoCampeonato {
+
+    private List<Time> times;
+    private Campeonato campeonato;
+
+    @Before
+    public void setUp() {
+        times = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            times.add(new Time("Time " + i));
+        }
+        campeonato = new Campeonato(times);
+    }
+
+    @Test
+    public void testVersaoAntigaNaoMuda() {
+        Rodada rodada = campeonato.sortearRodada();
+        Partida partida = rodada.getPartidas().get(0);
+        VersaoCampeonato antes = campeonato.getVersao();
+
+        partida.registrarResultado(2, 0);
+        VersaoCampeonato depois = campeonato.getVersao();
+
+        assertTrue(depois.getNumero() > antes.getNumero());
+        assertEquals(0, antes.getPontos(partida.getMandante()));
+        assertFalse(antes.isRealizada(partida));
+        assertNull(antes.getGolsMandante(partida));
+
+        assertEquals(3, depois.getPontos(partida.getMandante()));
+        assertEquals(1, depois.getDerrotas(partida.getVisitante()));
+        assertEquals(Integer.valueOf(2), depois.getGolsMandante(partida));
+        assertEquals(Integer.valueOf(0), depois.getGolsVisitante(partida));
+        assertEquals(partida.getMandante(), depois.getClassificacao().get(0));
+    }
+
+    @Test
+    public void testRodadasSaoPrefixoCompartilhado() {
+        campeonato.sortearRodada();
+        VersaoCampeonato umaRodada = campeonato.getVersao();
+        campeonato.sortearRodada();
+
+        assertEquals(1, umaRodada.getRodadas().size());
+        assertEquals(2, campeonato.getRodadas().size());
+        assertSame(umaRodada.getRodadas().get(0), campeonato.getRodadas().get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRodadasNaoPodemSerAlteradas() {
+        campeonato.sortearRodada();
+        campeonato.getRodadas().clear();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPartidasNaoPodemSerAlteradas() {
+        campeonato.sortearRodada().getPartidas().remove(0);
+    }
+
+    @Test
+    public void testUltimaVersaoAcompanhaOsTimes() {
+        Random random = new Random(3);
+        for (int r = 0; r < 10; r++) {
+            for (Partida partida : campeonato.sortearRodada().getPartidas()) {
+                partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+            }
+        }
+        VersaoCampeonato versao = campeonato.getVersao();
+        for (Time time : times) {
+            assertEquals(time.getPontos(), versao.getPontos(time));
+            assertEquals(time.getVitorias(), versao.getVitorias(time));
+            assertEquals(time.getSaldoGols(), versao.getSaldoGols(time));
+        }
+        assertEquals(campeonato.getClassificacao(), versao.getClassificacao());
+    }
+
+    @Test
+    public void testLeitoresVeemVersoesConsistentes() throws InterruptedException {
+        for (int r = 0; r < 19; r++) {
+            campeonato.sortearRodada();
+        }
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        AtomicBoolean inconsistente = new AtomicBoolean(false);
+        Thread leitor = new Thread(() -> {
+            while (escrevendo.get()) {
+                VersaoCampeonato versao = campeonato.getVersao();
+                int jogos = 0;
+                int golsMarcados = 0;
+                int golsSofridos = 0;
+                for (Time time : versao.getTimes()) {
+                    jogos += versao.getVitorias(time) + versao.getEmpates(time) + versao.getDerrotas(time);
+                    golsMarcados += versao.getGolsMarcados(time);
+                    golsSofridos += versao.getGolsSofridos(time);
+                }
+                if (jogos % 2 != 0 || golsMarcados != golsSofridos) {
+                    inconsistente.set(true);
+                }
+            }
+        });
+        leitor.start();
+
+        List<Thread> escritores = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            final int inicio = t;
+            Thread escritor = new Thread(() -> {
+                Random random = new Random(inicio);
+                for (int r = inicio; r < 19; r += 2) {
+                    for (Partida partida : campeonato.getRodadas().get(r).getPartidas()) {
+                        partida.registrarResultado(random.nextInt(4), random.nextInt(4));
+                    }
+                }
+            });
+            escritores.add(escritor);
+            escritor.start();
+        }
+        for (Thread escritor : escritores) {
+            escritor.join();
+        }
+        escrevendo.set(false);
+        leitor.join();
+
+        assertFalse("Nenhuma versão deveria ter um resultado pela metade", inconsistente.get());
+        VersaoCampeonato versao = campeonato.getVersao();
+        for (Time time : times) {
+            assertEquals(time.getPontos(), versao.getPontos(time));
+        }
+    }
+
+    @Test
+    public void testVetorPersistenteCompartilhaEstrutura() {
+        VetorPersistente vazio = new VetorPersistente(5000);
+        VetorPersistente um = vazio.com(4321, 7);
+        VetorPersistente dois = um.somar(4321, 3).com(0, 1);
+
+        assertEquals(0, vazio.obter(4321));
+        assertEquals(7, um.obter(4321));
+        assertEquals(0, um.obter(0));
+        assertEquals(10, dois.obter(4321));
+        assertEquals(1, dois.obter(0));
+        assertEquals(0, dois.obter(4999));
+    }
+
+    @Test
+    public void testVetorPersistenteAceitaPosicoesAlemDeInt() {
+        long tamanho = 3_000_000_000L;
+        VetorPersistente vetor = new VetorPersistente(tamanho).com(tamanho - 1, 9).com(Integer.MAX_VALUE + 1L, 4);
+
+        assertEquals(9, vetor.obter(tamanho - 1));
+        assertEquals(4, vetor.obter(Integer.MAX_VALUE + 1L));
+        assertEquals(0, vetor.obter(Integer.MAX_VALUE));
+        assertEquals(0, vetor.obter(0));
+    }
+}